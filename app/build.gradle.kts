@@ -27,6 +27,8 @@ plugins {
     // Code quality plugins
     checkstyle
     id("com.github.spotbugs") version "5.2.5"
+    // JMH microbenchmarks in src/jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 java {
@@ -143,6 +145,14 @@ java {
     }
 }
 
+// Microbenchmarks: ./gradlew jmh (results in build/results/jmh)
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+}
+
 // Configure bootJar to produce the correct filename for production
 tasks.bootJar {
     archiveBaseName = "fin-spring"
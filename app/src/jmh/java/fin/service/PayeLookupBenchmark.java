@@ -0,0 +1,126 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former linear PAYE bracket scan with the indexed PayeTable lookup.
+ *
+ * Run with ./gradlew jmh. Brackets are consecutive R51 bands from the tax-free threshold, like the
+ * SARS monthly tables; salaries are whole rands from below the threshold to beyond the top bracket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PayeLookupBenchmark {
+
+    private static final double TAX_FREE_THRESHOLD = 5586.0;
+    private static final int SALARIES = 10_000;
+
+    @Param({"50", "400", "2000"})
+    public int bracketCount;
+
+    private List<SARSTaxCalculator.TaxBracket> brackets;
+    private PayeTable table;
+    private double[] salaries;
+    private long[] salaryCents;
+
+    @Setup
+    public void setUp() {
+        brackets = new ArrayList<>();
+        double lower = TAX_FREE_THRESHOLD;
+        for (int i = 1; i <= bracketCount; i++) {
+            brackets.add(new SARSTaxCalculator.TaxBracket(lower, lower + 50, i));
+            lower += 51;
+        }
+        table = PayeTable.of(2026, TAX_FREE_THRESHOLD, brackets);
+
+        double top = brackets.get(brackets.size() - 1).getUpper();
+        Random random = new Random(42);
+        salaries = new double[SALARIES];
+        salaryCents = new long[SALARIES];
+        for (int i = 0; i < SALARIES; i++) {
+            salaries[i] = random.nextInt((int) top + 10_000);
+            salaryCents[i] = Math.round(salaries[i] * 100);
+            if (Math.round(scanBrackets(brackets, salaries[i]) * 100) != table.findPayeCents(salaryCents[i])) {
+                throw new IllegalStateException("Lookup mismatch for gross salary R" + salaries[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SALARIES)
+    public double linearScan() {
+        double sum = 0;
+        for (double salary : salaries) {
+            sum += scanBrackets(brackets, salary);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SALARIES)
+    public long binarySearch() {
+        long sum = 0;
+        for (long cents : salaryCents) {
+            sum += table.findPayeCents(cents);
+        }
+        return sum;
+    }
+
+    /**
+     * The scan findPAYE used before the index, for whole-rand salaries.
+     */
+    private static double scanBrackets(List<SARSTaxCalculator.TaxBracket> brackets, double grossSalary) {
+        if (grossSalary < TAX_FREE_THRESHOLD) {
+            return 0.0;
+        }
+        for (SARSTaxCalculator.TaxBracket bracket : brackets) {
+            if (grossSalary >= bracket.getLower() && grossSalary <= bracket.getUpper()) {
+                return bracket.getTax();
+            }
+        }
+        if (grossSalary > brackets.get(brackets.size() - 1).getUpper()) {
+            return brackets.get(brackets.size() - 1).getTax();
+        }
+        return 0.0;
+    }
+}
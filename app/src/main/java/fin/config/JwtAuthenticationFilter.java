@@ -27,7 +27,7 @@
 package fin.config;
 
 import fin.entity.User;
-import fin.repository.UserRepository;
+import fin.service.AuthPrincipalCache;
 import fin.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -42,6 +42,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * JWT Authentication Filter
@@ -50,12 +52,21 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // permitAll endpoints that skip JWT processing
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+        "/api/v1/health",
+        "/api/v1/auth/login",
+        "/api/v1/auth/register");
+    private static final String PUBLIC_PATH_PREFIX = "/api/v1/payroll/";
+    private static final Pattern PUBLIC_PATH_PATTERN =
+        Pattern.compile("/api/v1/companies/\\d+/fiscal-periods/\\d+/imports/bank-statement");
+
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final AuthPrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService, AuthPrincipalCache principalCache) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -64,12 +75,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
 
         // Skip JWT processing for permitAll endpoints
-        String requestURI = request.getRequestURI();
-        if (requestURI.equals("/api/v1/health") ||
-            requestURI.equals("/api/v1/auth/login") ||
-            requestURI.equals("/api/v1/auth/register") ||
-            requestURI.startsWith("/api/v1/payroll/") ||
-            requestURI.matches("/api/v1/companies/\\d+/fiscal-periods/\\d+/imports/bank-statement")) {
+        if (isPublicPath(request.getRequestURI())) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -83,10 +89,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 Long userId = tokenUser.getId();
 
                 if (userId != null) {
-                    // Load full user from database
-                    User user = userRepository.findById(userId).orElse(null);
+                    // Load full user, cached per user and token for a short TTL
+                    User user = principalCache.getActiveUser(userId, jwtService.getTokenId(jwt));
 
-                    if (user != null && user.getActive()) {
+                    if (user != null) {
                         // Create UserDetails for Spring Security
                         UserDetails userDetails = createUserDetails(user);
 
@@ -111,6 +117,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static boolean isPublicPath(String requestURI) {
+        return PUBLIC_PATHS.contains(requestURI) ||
+            requestURI.startsWith(PUBLIC_PATH_PREFIX) ||
+            PUBLIC_PATH_PATTERN.matcher(requestURI).matches();
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
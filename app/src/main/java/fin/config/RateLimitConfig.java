@@ -40,6 +40,8 @@ import java.time.Duration;
  *
  * Provides basic API protection with fixed rate limits per endpoint type.
  * No Redis, no plans, no complexity - just simple resource safety.
+ * These application-wide buckets back RateLimitService's manual checks; RateLimitInterceptor
+ * limits each caller separately through KeyedRateLimiter using the same limits.
  */
 @Configuration
 public class RateLimitConfig {
@@ -26,33 +26,49 @@
 
 package fin.config;
 
-import fin.service.RateLimitService;
+import fin.entity.User;
+import fin.service.CompanyMembershipCache;
+import fin.service.JwtService;
+import fin.service.KeyedRateLimiter;
+import fin.service.KeyedRateLimiter.Decision;
+import fin.service.KeyedRateLimiter.EndpointClass;
+import fin.service.KeyedRateLimiter.Scope;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Simple Rate Limiting HTTP Interceptor
  *
- * Applies rate limits to API endpoints and returns proper HTTP 429 responses with headers.
+ * Applies per-caller rate limits to API endpoints and returns proper HTTP 429 responses with headers.
+ * The caller key is the user ID from the JWT (as already resolved by JwtAuthenticationFilter, or
+ * validated here), falling back to the client IP for anonymous calls and always for login.
+ * Requests under /api/v1/companies/{id}/ from an authenticated member of that company also count
+ * against the company's shared limit; other callers cannot spend a company's budget by naming it.
+ * Membership comes from CompanyMembershipCache, so this check does not query the database per request.
  */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+    private static final Pattern COMPANY_PATH = Pattern.compile("^/api/v1/companies/(\\d+)(/.*)?$");
 
-    private final RateLimitService rateLimitService;
+    private final KeyedRateLimiter rateLimiter;
+    private final JwtService jwtService;
+    private final CompanyMembershipCache membershipCache;
 
     @Autowired
-    public RateLimitInterceptor(RateLimitService rateLimitService) {
-        this.rateLimitService = rateLimitService;
+    public RateLimitInterceptor(KeyedRateLimiter rateLimiter, JwtService jwtService, CompanyMembershipCache membershipCache) {
+        this.rateLimiter = rateLimiter;
+        this.jwtService = jwtService;
+        this.membershipCache = membershipCache;
     }
 
     @Override
@@ -60,45 +76,77 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         String requestURI = request.getRequestURI();
         String method = request.getMethod();
 
-        // Determine which bucket to use based on endpoint
-        boolean allowed = false;
-        long remainingTokens = 0;
-        int limit = 0;
-
+        // Determine which limit applies based on endpoint
+        EndpointClass endpointClass;
         if (isLoginEndpoint(requestURI, method)) {
-            allowed = rateLimitService.checkLoginLimit();
-            remainingTokens = rateLimitService.getLoginRemainingTokens();
-            limit = 5; // 5 requests per minute
+            endpointClass = EndpointClass.LOGIN;
         } else if (isPaymentEndpoint(requestURI, method)) {
-            allowed = rateLimitService.checkPaymentLimit();
-            remainingTokens = rateLimitService.getPaymentRemainingTokens();
-            limit = 10; // 10 requests per minute
+            endpointClass = EndpointClass.PAYMENT;
         } else if (isApiEndpoint(requestURI)) {
-            allowed = rateLimitService.checkApiLimit();
-            remainingTokens = rateLimitService.getApiRemainingTokens();
-            limit = 100; // 100 requests per minute
+            endpointClass = EndpointClass.API;
         } else {
             // No rate limiting for non-API endpoints
             return true;
         }
 
+        Long userId = endpointClass == EndpointClass.LOGIN ? null : resolveUserId(request);
+        String key = userId != null ? Scope.USER.key(userId) : Scope.IP.key(request.getRemoteAddr());
+        Decision decision = rateLimiter.tryConsume(endpointClass, key);
+
+        // The company limit is shared by all of a tenant's users; only members' requests within their own limit count against it
+        if (decision.isAllowed() && userId != null) {
+            Matcher company = COMPANY_PATH.matcher(requestURI);
+            if (company.matches()) {
+                Long companyId = Long.valueOf(company.group(1));
+                if (membershipCache.isMember(userId, companyId)) {
+                    Decision companyDecision = rateLimiter.tryConsume(EndpointClass.COMPANY, Scope.COMPANY.key(companyId));
+                    if (!companyDecision.isAllowed()) {
+                        decision = companyDecision;
+                    }
+                }
+            }
+        }
+
         // Add rate limit headers
-        response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
-        response.setHeader("X-RateLimit-Remaining", String.valueOf(Math.max(0, remainingTokens)));
-        response.setHeader("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(60).getEpochSecond()));
+        long resetSeconds = decision.isAllowed() ? 60 : decision.getRetryAfterSeconds();
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(Math.max(0, decision.getRemaining())));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(resetSeconds).getEpochSecond()));
 
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for {} {}", method, requestURI);
+        if (!decision.isAllowed()) {
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setHeader("Retry-After", "60");
+            response.setHeader("Retry-After", String.valueOf(decision.getRetryAfterSeconds()));
             response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Try again in 60 seconds.\"}");
+            response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Try again in "
+                + decision.getRetryAfterSeconds() + " seconds.\"}");
             return false;
         }
 
         return true;
     }
 
+    /**
+     * Resolve the authenticated caller from a valid JWT, or null for anonymous calls, which are keyed
+     * on the client IP. The client IP is the servlet remote address; behind a proxy, enable
+     * forwarded-header handling (server.forward-headers-strategy) rather than trusting X-Forwarded-For here.
+     */
+    private Long resolveUserId(HttpServletRequest request) {
+        Object attribute = request.getAttribute("user");
+        if (attribute instanceof User user && user.getId() != null) {
+            return user.getId();
+        }
+
+        String header = request.getHeader("Authorization");
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            try {
+                return jwtService.validateToken(header.substring(7)).getId();
+            } catch (IllegalArgumentException e) {
+                // Invalid or expired token: limit as anonymous
+            }
+        }
+        return null;
+    }
+
     /**
      * Check if this is a login endpoint
      */
@@ -27,6 +27,7 @@
 package fin.controller;
 
 import fin.entity.*;
+import fin.repository.AccountPeriodBalanceRepository;
 import fin.service.reporting.CsvExportService;
 import fin.service.journal.DataManagementService;
 import fin.service.classification.InteractiveClassificationService;
@@ -147,6 +148,36 @@ public class DataManagementController {
         }
     }
 
+    /**
+     * Rebuild account period balances from journal entry lines
+     */
+    @PostMapping("/{companyId}/data-management/account-balances/rebuild")
+    public ResponseEntity<String> rebuildAccountPeriodBalances(@PathVariable Long companyId) {
+        try {
+            int rows = dataManagementService.rebuildAccountPeriodBalances(companyId);
+            return ResponseEntity.ok("Rebuilt " + rows + " account period balances");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Verify account period balances against journal entry lines
+     */
+    @GetMapping("/{companyId}/data-management/account-balances/verify")
+    public ResponseEntity<fin.dto.ApiResponse<List<AccountPeriodBalanceRepository.BalanceMismatch>>> verifyAccountPeriodBalances(@PathVariable Long companyId) {
+        try {
+            List<AccountPeriodBalanceRepository.BalanceMismatch> mismatches =
+                dataManagementService.verifyAccountPeriodBalances(companyId);
+            String message = mismatches.isEmpty()
+                ? "Account period balances match journal entry lines"
+                : mismatches.size() + " account period balances differ from journal entry lines";
+            return ResponseEntity.ok(fin.dto.ApiResponse.success(message, mismatches, mismatches.size()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Create a journal entry
      */
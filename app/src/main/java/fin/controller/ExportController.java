@@ -28,6 +28,7 @@ package fin.controller;
 
 import fin.entity.Company;
 import fin.entity.FiscalPeriod;
+import fin.repository.BankTransactionRepository;
 import fin.repository.FiscalPeriodRepository;
 import fin.service.CompanyService;
 import fin.service.reporting.CsvExportService;
@@ -39,6 +40,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -55,24 +57,28 @@ public class ExportController {
     private final CompanyService companyService;
     private final FiscalPeriodRepository fiscalPeriodRepository;
     private final BankStatementProcessingService bankStatementService;
+    private final BankTransactionRepository bankTransactionRepository;
 
     public ExportController(CsvExportService csvExportService,
                                 PdfExportService pdfExportService,
                                 CompanyService companyService,
                                 FiscalPeriodRepository fiscalPeriodRepository,
-                                BankStatementProcessingService bankStatementService) {
+                                BankStatementProcessingService bankStatementService,
+                                BankTransactionRepository bankTransactionRepository) {
         this.csvExportService = csvExportService;
         this.pdfExportService = pdfExportService;
         this.companyService = companyService;
         this.fiscalPeriodRepository = fiscalPeriodRepository;
         this.bankStatementService = bankStatementService;
+        this.bankTransactionRepository = bankTransactionRepository;
     }
 
     /**
-     * Export transactions to CSV for a company and fiscal period
+     * Export transactions to CSV for a company and fiscal period.
+     * Rows are streamed to the response as they are read, so large periods are never held in memory.
      */
     @GetMapping("/companies/{companyId}/fiscal-periods/{fiscalPeriodId}/transactions/csv")
-    public ResponseEntity<ByteArrayResource> exportTransactionsToCsv(
+    public ResponseEntity<StreamingResponseBody> exportTransactionsToCsv(
             @PathVariable Long companyId,
             @PathVariable Long fiscalPeriodId) {
         try {
@@ -87,10 +93,13 @@ public class ExportController {
                 return ResponseEntity.badRequest().build();
             }
 
-            // Use the centralized CSV export service
-            byte[] csvBytes = csvExportService.exportTransactionsToCsvBytes(companyId, fiscalPeriodId);
+            // Validate before streaming starts - the status cannot change once rows are written
+            if (bankTransactionRepository.countByCompanyIdAndFiscalPeriodId(companyId, fiscalPeriodId) == 0) {
+                return ResponseEntity.badRequest().build();
+            }
 
-            ByteArrayResource resource = new ByteArrayResource(csvBytes);
+            // Use the centralized CSV export service
+            StreamingResponseBody body = out -> csvExportService.writeTransactionsCsv(companyId, fiscalPeriodId, out);
 
             String filename = String.format("transactions_%s_%s.csv",
                 company.getName().replaceAll("[^a-zA-Z0-9]", "_"),
@@ -99,8 +108,7 @@ public class ExportController {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                     .contentType(MediaType.TEXT_PLAIN)
-                    .contentLength(csvBytes.length)
-                    .body(resource);
+                    .body(body);
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
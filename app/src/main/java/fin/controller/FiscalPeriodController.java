@@ -34,6 +34,7 @@ import fin.dto.FiscalPeriodPayrollStatusResponse;
 import fin.dto.FiscalPeriodSetupDTO;
 import fin.entity.FiscalPeriod;
 import fin.repository.FiscalPeriodRepository;
+import fin.service.FiscalPeriodIndexService;
 import fin.service.FiscalPeriodSetupService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -51,12 +52,15 @@ public class FiscalPeriodController {
 
     private final FiscalPeriodRepository fiscalPeriodRepository;
     private final FiscalPeriodSetupService fiscalPeriodSetupService;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
 
     public FiscalPeriodController(
             FiscalPeriodRepository fiscalPeriodRepository,
-            FiscalPeriodSetupService fiscalPeriodSetupService) {
+            FiscalPeriodSetupService fiscalPeriodSetupService,
+            FiscalPeriodIndexService fiscalPeriodIndexService) {
         this.fiscalPeriodRepository = fiscalPeriodRepository;
         this.fiscalPeriodSetupService = fiscalPeriodSetupService;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
     }
 
     /**
@@ -175,6 +179,7 @@ public class FiscalPeriodController {
             }
 
             FiscalPeriod savedPeriod = fiscalPeriodRepository.save(fiscalPeriod);
+            fiscalPeriodIndexService.invalidate(companyId);
             return ResponseEntity.ok(ApiResponse.success(
                 "Fiscal period created successfully",
                 savedPeriod
@@ -245,6 +250,7 @@ public class FiscalPeriodController {
             fiscalPeriod.setUpdatedAt(java.time.LocalDateTime.now());
 
             FiscalPeriod savedPeriod = fiscalPeriodRepository.save(fiscalPeriod);
+            fiscalPeriodIndexService.invalidate(savedPeriod.getCompanyId());
             FiscalPeriodPayrollConfigResponse response = new FiscalPeriodPayrollConfigResponse(savedPeriod);
 
             return ResponseEntity.ok(ApiResponse.success(
@@ -337,6 +343,7 @@ public class FiscalPeriodController {
             fiscalPeriod.setUpdatedAt(java.time.LocalDateTime.now());
 
             fiscalPeriodRepository.save(fiscalPeriod);
+            fiscalPeriodIndexService.invalidate(fiscalPeriod.getCompanyId());
 
             return ResponseEntity.ok(ApiResponse.success(
                 "Payroll configuration reset successfully",
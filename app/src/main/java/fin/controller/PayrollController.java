@@ -5,8 +5,15 @@ import fin.entity.Employee;
 import fin.entity.FiscalPeriod;
 import fin.entity.Payslip;
 import fin.entity.User;
+import fin.service.PayslipBulkExportService;
+import fin.service.PayslipBulkExportService.PayslipBatch;
+import fin.service.PayslipBulkExportService.PreparedPayslipZip;
 import fin.service.PayslipPdfService;
 import fin.service.PayrollService;
+import fin.service.email.EmailDispatchService;
+import fin.service.email.EmailDispatchService.DispatchProgress;
+import fin.service.email.PayslipEmailService;
+import fin.service.email.PayslipEmailService.QueuedPayslipEmails;
 import fin.service.reporting.PayrollReportService;
 import fin.dto.BulkPdfRequest;
 import fin.dto.DocumentUploadRequest;
@@ -27,14 +34,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
-import java.io.ByteArrayOutputStream;
 
 /**
  * Spring REST Controller for payroll operations.
@@ -46,12 +51,20 @@ public class PayrollController {
     private final PayrollService payrollService;
     private final PayslipPdfService payslipPdfService;
     private final PayrollReportService payrollReportService;
+    private final PayslipBulkExportService payslipBulkExportService;
+    private final PayslipEmailService payslipEmailService;
+    private final EmailDispatchService emailDispatchService;
     private static final Logger LOGGER = Logger.getLogger(PayrollController.class.getName());
 
-    public PayrollController(PayrollService payrollService, PayslipPdfService payslipPdfService, PayrollReportService payrollReportService) {
+    public PayrollController(PayrollService payrollService, PayslipPdfService payslipPdfService,
+                             PayrollReportService payrollReportService, PayslipBulkExportService payslipBulkExportService,
+                             PayslipEmailService payslipEmailService, EmailDispatchService emailDispatchService) {
         this.payrollService = payrollService;
         this.payslipPdfService = payslipPdfService;
         this.payrollReportService = payrollReportService;
+        this.payslipBulkExportService = payslipBulkExportService;
+        this.payslipEmailService = payslipEmailService;
+        this.emailDispatchService = emailDispatchService;
     }
 
     // ===== EMPLOYEE MANAGEMENT ENDPOINTS =====
@@ -503,106 +516,40 @@ public class PayrollController {
     }
 
     /**
-     * Export all payslips for a fiscal period as ZIP
+     * Export all payslips for a fiscal period as ZIP.
+     * PDFs are rendered in parallel and streamed into the archive as they complete. The first PDF
+     * is rendered before responding, so a run in which no payslip renders returns 500 rather than
+     * an empty archive; payslips that fail later are listed in the archive's failure manifest.
      */
     @GetMapping("/payslips/bulk-export")
-    public ResponseEntity<byte[]> exportBulkPayslipsByFiscalPeriod(@RequestParam Long fiscalPeriodId) {
+    public ResponseEntity<StreamingResponseBody> exportBulkPayslipsByFiscalPeriod(@RequestParam Long fiscalPeriodId) {
         try {
             LOGGER.info("Starting bulk export for fiscal period: " + fiscalPeriodId);
 
-            // Get all payslips for the fiscal period
-            List<Payslip> payslips = payrollService.getPayslipsByPeriod(fiscalPeriodId);
-            LOGGER.info("Found " + payslips.size() + " payslips for fiscal period: " + fiscalPeriodId);
+            PayslipBatch batch = payslipBulkExportService.prepare(fiscalPeriodId, null);
+            LOGGER.info("Found " + batch.size() + " payslips for fiscal period: " + fiscalPeriodId);
 
-            if (payslips.isEmpty()) {
+            if (batch.isEmpty()) {
                 LOGGER.warning("No payslips found for fiscal period: " + fiscalPeriodId);
                 return ResponseEntity.notFound().build();
             }
 
-            // Get fiscal period details for filename
-            Optional<FiscalPeriod> fiscalPeriodOpt = payrollService.getFiscalPeriodById(fiscalPeriodId);
-            if (fiscalPeriodOpt.isEmpty()) {
-                LOGGER.warning("Fiscal period not found: " + fiscalPeriodId);
-                return ResponseEntity.notFound().build();
-            }
-            FiscalPeriod fiscalPeriod = fiscalPeriodOpt.get();
-            String periodName = fiscalPeriod.getPeriodName();
-            LOGGER.info("Fiscal period name: " + periodName);
-
-            // Create ZIP file containing all payslip PDFs
-            ByteArrayOutputStream zipOutputStream = new ByteArrayOutputStream();
-            int successfulPdfs = 0;
-
-            try (ZipOutputStream zipOut = new ZipOutputStream(zipOutputStream)) {
-                for (Payslip payslip : payslips) {
-                    try {
-                        LOGGER.fine("Processing payslip ID: " + payslip.getId());
-
-                        // Get employee details for filename
-                        Optional<Employee> employeeOpt = payrollService.getEmployeeById(payslip.getEmployeeId());
-                        if (employeeOpt.isEmpty()) {
-                            LOGGER.warning("Employee not found for payslip ID: " + payslip.getId() + ", employee ID: " + payslip.getEmployeeId());
-                            continue; // Skip if employee not found
-                        }
-                        Employee employee = employeeOpt.get();
-
-                        // Get company details
-                        Optional<Company> companyOpt = payrollService.getCompanyById(payslip.getCompanyId());
-                        if (companyOpt.isEmpty()) {
-                            LOGGER.warning("Company not found for payslip ID: " + payslip.getId() + ", company ID: " + payslip.getCompanyId());
-                            continue; // Skip if company not found
-                        }
-                        Company company = companyOpt.get();
-
-                        // Generate PDF for this payslip
-                        byte[] pdfBytes = payslipPdfService.generatePayslipPdf(payslip, employee, company, fiscalPeriod);
-                        LOGGER.fine("Generated PDF for payslip ID: " + payslip.getId() + ", size: " + pdfBytes.length + " bytes");
-
-                        // Create filename: EmployeeName_EmployeeCode_PeriodName.pdf
-                        String fileName = String.format("%s_%s_%s.pdf",
-                            employee.getFirstName() + "_" + employee.getLastName(),
-                            employee.getEmployeeCode(),
-                            periodName.replace("/", "-"));
-
-                        // Add PDF to ZIP
-                        ZipEntry zipEntry = new ZipEntry(fileName);
-                        zipOut.putNextEntry(zipEntry);
-                        zipOut.write(pdfBytes);
-                        zipOut.closeEntry();
-                        successfulPdfs++;
-
-                        LOGGER.fine("Added PDF to ZIP: " + fileName);
-
-                    } catch (Exception e) {
-                        LOGGER.log(Level.WARNING, "Failed to generate PDF for payslip ID: " + payslip.getId(), e);
-                        // Continue with other payslips
-                    }
+            String contentDisposition = String.format("attachment; filename=\"Payslips_%s.zip\"",
+                batch.getFiscalPeriod().getPeriodName().replace("/", "-"));
+            PreparedPayslipZip zip = payslipBulkExportService.prepareZip(batch);
+            StreamingResponseBody body = out -> {
+                try (zip) {
+                    zip.writeTo(out);
                 }
-            }
-
-            byte[] zipBytes = zipOutputStream.toByteArray();
-            LOGGER.info("ZIP file created with " + successfulPdfs + " PDFs, total size: " + zipBytes.length + " bytes");
-
-            if (zipBytes.length == 0) {
-                LOGGER.warning("ZIP file is empty, no PDFs were successfully generated");
-                return ResponseEntity.internalServerError().build();
-            }
-
-            if (zipBytes.length == 22) { // Empty ZIP file (only contains ZIP header)
-                LOGGER.warning("ZIP file contains only header, no actual content");
-                return ResponseEntity.internalServerError().build();
-            }
-
-            LOGGER.info("Returning ZIP file with " + successfulPdfs + " payslip PDFs");
+            };
             return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                    String.format("attachment; filename=\"Payslips_%s.zip\"", periodName.replace("/", "-")))
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(zipBytes);
+                .body(body);
 
         } catch (IllegalArgumentException e) {
             LOGGER.log(Level.WARNING, "Invalid argument for bulk export: " + fiscalPeriodId, e);
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to generate bulk payslip ZIP for fiscal period: " + fiscalPeriodId, e);
             return ResponseEntity.internalServerError().build();
@@ -610,18 +557,36 @@ public class PayrollController {
     }
 
     /**
-     * Send payslips by email
+     * Queue payslips for delivery by email.
+     * The PDFs are rendered and queued in the email outbox; sending continues in the background.
+     * Returns 202 with the batch progress, to be polled at /payslips/send-email/{batchId}.
      */
     @PostMapping("/payslips/send-email")
-    public ResponseEntity<Void> sendPayslipsByEmail(@RequestBody EmailPayslipsRequest request) {
+    public ResponseEntity<QueuedPayslipEmails> sendPayslipsByEmail(@RequestBody EmailPayslipsRequest request) {
         try {
-            // TODO: Implement email sending logic
-            // EmailService emailService = new EmailService();
-            // emailService.sendPayslipEmails(request.getPayslipIds());
-            return ResponseEntity.ok().build();
+            QueuedPayslipEmails queued = payslipEmailService.queuePayslipEmails(request.getPayslipIds());
+            return ResponseEntity.accepted().body(queued);
 
         } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid payslip email request: " + e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to queue payslip emails", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Delivery progress of a batch of payslip emails. A batch queued for another company is
+     * reported as not found.
+     */
+    @GetMapping("/payslips/send-email/{batchId}")
+    public ResponseEntity<DispatchProgress> getPayslipEmailProgress(@PathVariable String batchId,
+                                                                    @RequestParam Long companyId) {
+        try {
+            return ResponseEntity.ok(emailDispatchService.getProgress(batchId, companyId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
         }
     }
 
@@ -26,6 +26,8 @@
 
 package fin.controller;
 
+import fin.service.KeyedRateLimiter;
+import fin.service.KeyedRateLimiter.EndpointClass;
 import fin.service.RateLimitService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -46,10 +48,12 @@ import java.util.Map;
 public class RateLimitExampleController {
 
     private final RateLimitService rateLimitService;
+    private final KeyedRateLimiter keyedRateLimiter;
 
     @Autowired
-    public RateLimitExampleController(RateLimitService rateLimitService) {
+    public RateLimitExampleController(RateLimitService rateLimitService, KeyedRateLimiter keyedRateLimiter) {
         this.rateLimitService = rateLimitService;
+        this.keyedRateLimiter = keyedRateLimiter;
     }
 
     /**
@@ -118,16 +122,17 @@ public class RateLimitExampleController {
 
     /**
      * Rate limit status endpoint (for monitoring/debugging)
+     * Reports configuration and totals only; per-key rejection counts would expose other
+     * callers' user IDs and client IPs.
      */
     @GetMapping("/status")
     public ResponseEntity<?> rateLimitStatus() {
         return ResponseEntity.ok(Map.of(
-            "rateLimitingEnabled", "Check application.properties",
-            "redisHost", "Configured via environment variables",
-            "apiLimits", "100/min, 1000/hour",
-            "paymentLimits", "10/min, 100/hour",
-            "adminLimits", "500/min",
-            "reportLimits", "50/min",
+            "loginLimitPerMinute", keyedRateLimiter.getRequestsPerMinute(EndpointClass.LOGIN),
+            "paymentLimitPerMinute", keyedRateLimiter.getRequestsPerMinute(EndpointClass.PAYMENT),
+            "apiLimitPerMinute", keyedRateLimiter.getRequestsPerMinute(EndpointClass.API),
+            "companyLimitPerMinute", keyedRateLimiter.getRequestsPerMinute(EndpointClass.COMPANY),
+            "cachedKeys", keyedRateLimiter.getCachedKeyCount(),
             "timestamp", System.currentTimeMillis()
         ));
     }
@@ -34,14 +34,19 @@ import fin.dto.GeneralLedgerDTO;
 import fin.dto.AuditTrailDTO;
 import fin.dto.AuditTrailResponse;
 import fin.dto.JournalEntryDetailDTO;
+import fin.service.export.PreparedExport;
 import fin.service.reporting.AuditTrailService;
 import fin.service.reporting.FinancialReportingService;
+import fin.service.reporting.ReportPackageService;
+import fin.service.reporting.ReportPackageService.ReportPackage;
+import fin.service.reporting.ReportPackageService.SectionTiming;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -58,11 +63,14 @@ public class ReportController {
 
     private final FinancialReportingService reportingService;
     private final AuditTrailService auditTrailService;
+    private final ReportPackageService reportPackageService;
 
     public ReportController(FinancialReportingService reportingService,
-                                 AuditTrailService auditTrailService) {
+                                 AuditTrailService auditTrailService,
+                                 ReportPackageService reportPackageService) {
         this.reportingService = reportingService;
         this.auditTrailService = auditTrailService;
+        this.reportPackageService = reportPackageService;
     }
 
     /**
@@ -168,21 +176,23 @@ public class ReportController {
 
             switch (upperFormat) {
                 case "PDF":
-                    byte[] pdfBytes = reportingService.exportGeneralLedgerToPDF(companyId, fiscalPeriodId);
+                    // Large report: laid out here, only the finished document is streamed
+                    StreamingResponseBody pdfBody = streamed(
+                            reportingService.prepareGeneralLedgerPDF(companyId, fiscalPeriodId));
                     String pdfFilename = String.format("GeneralLedger_Company%d_Period%d_%s.pdf",
                             companyId, fiscalPeriodId, timestamp);
                     headers.setContentType(MediaType.APPLICATION_PDF);
                     headers.setContentDispositionFormData("attachment", pdfFilename);
-                    headers.setContentLength(pdfBytes.length);
-                    return ResponseEntity.ok().headers(headers).body(pdfBytes);
+                    return ResponseEntity.ok().headers(headers).body(pdfBody);
                 case "EXCEL":
-                    byte[] excelBytes = reportingService.exportGeneralLedgerToExcel(companyId, fiscalPeriodId);
+                    // Large report: rows are read and checked here, only the finished workbook is streamed
+                    StreamingResponseBody excelBody = streamed(
+                            reportingService.prepareGeneralLedgerExcel(companyId, fiscalPeriodId));
                     String excelFilename = String.format("GeneralLedger_Company%d_Period%d_%s.xlsx",
                             companyId, fiscalPeriodId, timestamp);
                     headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
                     headers.setContentDispositionFormData("attachment", excelFilename);
-                    headers.setContentLength(excelBytes.length);
-                    return ResponseEntity.ok().headers(headers).body(excelBytes);
+                    return ResponseEntity.ok().headers(headers).body(excelBody);
                 case "CSV":
                     String csvContent = reportingService.exportGeneralLedgerToCSV(companyId, fiscalPeriodId);
                     String csvFilename = String.format("GeneralLedger_Company%d_Period%d_%s.csv",
@@ -360,21 +370,23 @@ public class ReportController {
 
             switch (upperFormat) {
                 case "PDF":
-                    byte[] pdfBytes = reportingService.exportCashbookToPDF(companyId, fiscalPeriodId);
+                    // Large report: laid out here, only the finished document is streamed
+                    StreamingResponseBody pdfBody = streamed(
+                            reportingService.prepareCashbookPDF(companyId, fiscalPeriodId));
                     String pdfFilename = String.format("Cashbook_Company%d_Period%d_%s.pdf",
                             companyId, fiscalPeriodId, timestamp);
                     headers.setContentType(MediaType.APPLICATION_PDF);
                     headers.setContentDispositionFormData("attachment", pdfFilename);
-                    headers.setContentLength(pdfBytes.length);
-                    return ResponseEntity.ok().headers(headers).body(pdfBytes);
+                    return ResponseEntity.ok().headers(headers).body(pdfBody);
                 case "EXCEL":
-                    byte[] excelBytes = reportingService.exportCashbookToExcel(companyId, fiscalPeriodId);
+                    // Large report: rows are read and checked here, only the finished workbook is streamed
+                    StreamingResponseBody excelBody = streamed(
+                            reportingService.prepareCashbookExcel(companyId, fiscalPeriodId));
                     String excelFilename = String.format("Cashbook_Company%d_Period%d_%s.xlsx",
                             companyId, fiscalPeriodId, timestamp);
                     headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
                     headers.setContentDispositionFormData("attachment", excelFilename);
-                    headers.setContentLength(excelBytes.length);
-                    return ResponseEntity.ok().headers(headers).body(excelBytes);
+                    return ResponseEntity.ok().headers(headers).body(excelBody);
                 case "CSV":
                     String csvContent = reportingService.exportCashbookToCSV(companyId, fiscalPeriodId);
                     String csvFilename = String.format("Cashbook_Company%d_Period%d_%s.csv",
@@ -417,13 +429,13 @@ public class ReportController {
             
             switch (upperFormat) {
                 case "PDF":
-                    byte[] pdfBytes = reportingService.exportAuditTrailToPDF(companyId, fiscalPeriodId);
+                    StreamingResponseBody pdfBody = streamed(
+                            reportingService.prepareAuditTrailPDF(companyId, fiscalPeriodId));
                     String pdfFilename = String.format("AuditTrail_Company%d_Period%d_%s.pdf", 
                                                      companyId, fiscalPeriodId, timestamp);
                     headers.setContentType(MediaType.APPLICATION_PDF);
                     headers.setContentDispositionFormData("attachment", pdfFilename);
-                    headers.setContentLength(pdfBytes.length);
-                    return ResponseEntity.ok().headers(headers).body(pdfBytes);
+                    return ResponseEntity.ok().headers(headers).body(pdfBody);
                     
                 case "EXCEL":
                     byte[] excelBytes = reportingService.exportAuditTrailToExcel(companyId, fiscalPeriodId);
@@ -511,6 +523,44 @@ public class ReportController {
         }
     }
 
+    /**
+     * Get structured audit trail one cursor (keyset) page at a time.
+     * Pages are addressed by the opaque {@code nextCursor} returned with the previous page instead of
+     * a page number, so deep pages cost the same as the first. Totals are not computed in this mode.
+     *
+     * @param companyId Company identifier
+     * @param fiscalPeriodId Fiscal period identifier
+     * @param cursor Cursor from the previous page (omit for the first page)
+     * @param pageSize Number of entries per page (default: 50)
+     * @param startDate Optional start date filter (ISO format: yyyy-MM-dd)
+     * @param endDate Optional end date filter (ISO format: yyyy-MM-dd)
+     * @param searchTerm Optional search term for description/reference
+     * @return Structured audit trail page with the cursor of the next page
+     */
+    @GetMapping("/audit-trail/company/{companyId}/fiscal-period/{fiscalPeriodId}/structured/cursor")
+    public ResponseEntity<AuditTrailResponse> getStructuredAuditTrailPage(
+            @PathVariable Long companyId,
+            @PathVariable Long fiscalPeriodId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int pageSize,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String searchTerm) {
+
+        try {
+            AuditTrailResponse response = auditTrailService.getAuditTrailPage(
+                companyId, fiscalPeriodId, cursor, pageSize, startDate, endDate, searchTerm
+            );
+            return ResponseEntity.ok(response);
+        } catch (SQLException | IllegalArgumentException e) {
+            // Return 400 Bad Request for invalid company/fiscal period or a malformed cursor
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            // Return 500 Internal Server Error for unexpected errors
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get detailed journal entry with all line items.
      * Returns JSON response with full journal entry details including debits and credits.
@@ -535,36 +585,38 @@ public class ReportController {
     }
 
     /**
-     * Generate comprehensive financial report package
+     * Generate comprehensive financial report package. Sections are built concurrently; the
+     * Server-Timing header reports the milliseconds spent on shared reads, each section and in total.
      */
     @GetMapping("/financial/company/{companyId}/fiscal-period/{fiscalPeriodId}")
     public ResponseEntity<String> generateFinancialReportPackage(@PathVariable Long companyId,
                                                                @PathVariable Long fiscalPeriodId) {
         try {
-            StringBuilder packageReport = new StringBuilder();
-            packageReport.append("FINANCIAL REPORT PACKAGE\n");
-            packageReport.append("========================\n\n");
+            ReportPackage reportPackage = reportPackageService.build(companyId, fiscalPeriodId);
 
-            // Generate all reports
-            packageReport.append(reportingService.exportTrialBalanceToCSV(companyId, fiscalPeriodId));
-            packageReport.append("\n\n");
-
-            packageReport.append(reportingService.generateIncomeStatement(companyId, fiscalPeriodId));
-            packageReport.append("\n\n");
-
-            packageReport.append(reportingService.generateBalanceSheet(companyId, fiscalPeriodId));
-            packageReport.append("\n\n");
-
-            packageReport.append(reportingService.generateCashbook(companyId, fiscalPeriodId));
-            packageReport.append("\n\n");
-
-            packageReport.append(reportingService.generateAuditTrail(companyId, fiscalPeriodId));
-
-            String reportContent = packageReport.toString();
+            StringBuilder serverTiming = new StringBuilder();
+            for (SectionTiming timing : reportPackage.getTimings()) {
+                serverTiming.append(timing.getName()).append(";dur=").append(timing.getMillis()).append(", ");
+            }
+            serverTiming.append("total;dur=").append(reportPackage.getTotalMillis());
 
-            return ResponseEntity.ok(reportContent);
+            return ResponseEntity.ok()
+                    .header("Server-Timing", serverTiming.toString())
+                    .body(reportPackage.getContent());
         } catch (IllegalArgumentException | SQLException e) {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Response body that writes a prepared export and then releases it. The export is prepared
+     * before the response is built, so missing data is still answered with an error status.
+     */
+    private static StreamingResponseBody streamed(PreparedExport export) {
+        return out -> {
+            try (export) {
+                export.writeTo(out);
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.controller;
+
+import fin.dto.ApiResponse;
+import fin.exception.ErrorCode;
+import fin.service.reporting.ReportJobService;
+import fin.service.reporting.ReportJobService.ReportFormat;
+import fin.service.reporting.ReportJobService.ReportJob;
+import fin.service.reporting.ReportJobService.ReportType;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Spring REST Controller for background report exports.
+ *
+ * Submit a report, poll its job until it is COMPLETED, then download the generated file.
+ * Identical reports requested while one is in progress share the same job.
+ */
+@RestController
+@RequestMapping("/api/v1/reports/jobs/company/{companyId}")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    /**
+     * Queue a report export. Returns immediately with the job status.
+     *
+     * @param reportType TRIAL_BALANCE, INCOME_STATEMENT, BALANCE_SHEET, GENERAL_LEDGER, CASHBOOK or AUDIT_TRAIL
+     * @param format Export format (PDF, EXCEL, CSV) - defaults to PDF
+     */
+    @PostMapping("/fiscal-period/{fiscalPeriodId}")
+    public ResponseEntity<ApiResponse<ReportJob>> submitReportJob(@PathVariable Long companyId,
+                                                                  @PathVariable Long fiscalPeriodId,
+                                                                  @RequestParam String reportType,
+                                                                  @RequestParam(defaultValue = "PDF") String format) {
+        try {
+            ReportJob job = reportJobService.submit(companyId, fiscalPeriodId,
+                ReportType.valueOf(toConstant(reportType)), ReportFormat.valueOf(toConstant(format)));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Report job " + job.getStatus().name().toLowerCase(), job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                "Invalid request: " + e.getMessage(),
+                ErrorCode.VALIDATION_ERROR.getCode()
+            ));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(ApiResponse.error(
+                e.getMessage(),
+                ErrorCode.INVALID_OPERATION.getCode()
+            ));
+        }
+    }
+
+    /**
+     * Poll a report job: status, timings, file size and error
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ReportJob>> getReportJob(@PathVariable Long companyId,
+                                                               @PathVariable String jobId) {
+        return reportJobService.getJob(companyId, jobId)
+            .map(job -> ResponseEntity.ok(ApiResponse.success("Report job " + job.getStatus().name().toLowerCase(), job)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(
+                "Report job not found: " + jobId,
+                ErrorCode.NOT_FOUND.getCode()
+            )));
+    }
+
+    /**
+     * Download the file generated by a completed report job
+     */
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> downloadReportJob(@PathVariable Long companyId,
+                                               @PathVariable String jobId) {
+        ReportJob job = reportJobService.getJob(companyId, jobId).orElse(null);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(
+                "Report job not found: " + jobId,
+                ErrorCode.NOT_FOUND.getCode()
+            ));
+        }
+
+        try {
+            Path file = reportJobService.getResultFile(job);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType(job.getFormat().getContentType()));
+            headers.setContentDispositionFormData("attachment", job.getFileName());
+            headers.setContentLength(job.getSizeBytes());
+            return ResponseEntity.ok().headers(headers).body(new FileSystemResource(file));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(
+                "Report job is " + job.getStatus().name().toLowerCase() + ": " + e.getMessage(),
+                ErrorCode.INVALID_OPERATION.getCode()
+            ));
+        }
+    }
+
+    private static String toConstant(String value) {
+        return value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+}
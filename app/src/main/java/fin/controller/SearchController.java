@@ -0,0 +1,86 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.controller;
+
+import fin.dto.ApiResponse;
+import fin.dto.SearchHit;
+import fin.exception.ErrorCode;
+import fin.service.search.TextSearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Spring REST Controller for searching a company's bank transactions and journal entries.
+ */
+@RestController
+@RequestMapping("/api/v1/companies/{companyId}/search")
+public class SearchController {
+
+    private final TextSearchService textSearchService;
+
+    public SearchController(TextSearchService textSearchService) {
+        this.textSearchService = textSearchService;
+    }
+
+    /**
+     * Ranked search by description or reference, with prefix and (on PostgreSQL) typo-tolerant matching.
+     *
+     * @param q Search text (at least 2 characters)
+     * @param fiscalPeriodId Optional fiscal period filter
+     * @param types Comma-separated sources: BANK_TRANSACTION, JOURNAL_ENTRY - defaults to both
+     * @param limit Maximum number of hits (default 25, max 200)
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SearchHit>>> search(@PathVariable Long companyId,
+                                                               @RequestParam String q,
+                                                               @RequestParam(required = false) Long fiscalPeriodId,
+                                                               @RequestParam(required = false) List<String> types,
+                                                               @RequestParam(defaultValue = "25") int limit) {
+        try {
+            Set<SearchHit.Type> sources = EnumSet.noneOf(SearchHit.Type.class);
+            if (types != null) {
+                for (String type : types) {
+                    if (!type.isBlank()) {
+                        sources.add(SearchHit.Type.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                    }
+                }
+            }
+            List<SearchHit> hits = textSearchService.search(companyId, fiscalPeriodId, q, sources, limit);
+            return ResponseEntity.ok(ApiResponse.success("Found " + hits.size() + " matches", hits));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                "Invalid search: " + e.getMessage(),
+                ErrorCode.VALIDATION_ERROR.getCode()
+            ));
+        }
+    }
+}
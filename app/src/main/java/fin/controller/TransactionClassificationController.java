@@ -27,10 +27,13 @@
 package fin.controller;
 
 import fin.service.classification.TransactionClassificationService;
+import fin.service.classification.engine.ClassificationJobService;
+import fin.service.classification.engine.ClassificationJobService.ClassificationJob;
 import fin.service.classification.reporting.TransactionClassificationReportingService.UnclassifiedTransaction;
 import fin.service.classification.engine.TransactionClassificationEngine.BatchClassificationResult;
 import fin.exception.ErrorCode;
 import fin.dto.ApiResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -47,9 +50,12 @@ import java.util.List;
 public class TransactionClassificationController {
 
     private final TransactionClassificationService classificationService;
+    private final ClassificationJobService classificationJobService;
 
-    public TransactionClassificationController(TransactionClassificationService classificationService) {
+    public TransactionClassificationController(TransactionClassificationService classificationService,
+                                               ClassificationJobService classificationJobService) {
         this.classificationService = classificationService;
+        this.classificationJobService = classificationJobService;
     }
 
     /**
@@ -131,6 +137,38 @@ public class TransactionClassificationController {
         }
     }
 
+    /**
+     * Start auto-classification as a background job. Returns immediately with the job status;
+     * poll the job endpoint for progress.
+     */
+    @PostMapping("/auto-classify/jobs")
+    public ResponseEntity<ApiResponse<ClassificationJob>> startAutoClassifyJob(@PathVariable Long companyId) {
+        try {
+            ClassificationJob job = classificationJobService.submit(companyId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Auto-classification job " + job.getStatus().name().toLowerCase(), job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                "Invalid request: " + e.getMessage(),
+                ErrorCode.VALIDATION_ERROR.getCode()
+            ));
+        }
+    }
+
+    /**
+     * Poll an auto-classification job: status, rows processed, throughput (rows/sec) and ETA
+     */
+    @GetMapping("/auto-classify/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<ClassificationJob>> getAutoClassifyJob(@PathVariable Long companyId,
+                                                                             @PathVariable String jobId) {
+        return classificationJobService.getJob(companyId, jobId)
+            .map(job -> ResponseEntity.ok(ApiResponse.success("Auto-classification job " + job.getStatus().name().toLowerCase(), job)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(
+                "Classification job not found: " + jobId,
+                ErrorCode.NOT_FOUND.getCode()
+            )));
+    }
+
     /**
      * Sync journal entries for new transactions
      */
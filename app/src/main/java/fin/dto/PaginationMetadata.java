@@ -38,6 +38,7 @@ public class PaginationMetadata {
     private int pageSize;
     private long totalEntries;
     private int totalPages;
+    private String nextCursor;
 
     /**
      * Default constructor for JSON deserialization
@@ -65,6 +66,16 @@ public class PaginationMetadata {
         this.totalPages = pageSize > 0 ? (int) Math.ceil((double) totalEntries / pageSize) : 0;
     }
 
+    /**
+     * Cursor (keyset) page metadata. Totals are not counted in cursor mode, so they are left at 0;
+     * a null {@code nextCursor} means this is the last page.
+     */
+    public static PaginationMetadata forCursor(int pageSize, String nextCursor) {
+        PaginationMetadata metadata = new PaginationMetadata(0, pageSize, 0, 0);
+        metadata.nextCursor = nextCursor;
+        return metadata;
+    }
+
     // Getters and Setters
 
     public int getCurrentPage() {
@@ -99,11 +110,19 @@ public class PaginationMetadata {
         this.totalPages = totalPages;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * Check if there is a next page
      */
     public boolean hasNext() {
-        return currentPage < totalPages - 1;
+        return nextCursor != null || currentPage < totalPages - 1;
     }
 
     /**
@@ -120,6 +139,7 @@ public class PaginationMetadata {
                 ", pageSize=" + pageSize +
                 ", totalEntries=" + totalEntries +
                 ", totalPages=" + totalPages +
+                ", nextCursor=" + nextCursor +
                 ", hasNext=" + hasNext() +
                 ", hasPrevious=" + hasPrevious() +
                 '}';
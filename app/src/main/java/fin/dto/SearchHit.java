@@ -0,0 +1,73 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for one ranked text search match: a bank transaction or a journal entry.
+ * Higher scores are better matches; scores are only comparable within one search.
+ */
+public class SearchHit {
+
+    public enum Type {
+        BANK_TRANSACTION,
+        JOURNAL_ENTRY
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Long fiscalPeriodId;
+    private final LocalDate date;
+    private final String description;
+    private final String reference;
+    private final BigDecimal amount;
+    private final double score;
+
+    public SearchHit(Type type, Long id, Long fiscalPeriodId, LocalDate date, String description,
+                     String reference, BigDecimal amount, double score) {
+        this.type = type;
+        this.id = id;
+        this.fiscalPeriodId = fiscalPeriodId;
+        this.date = date;
+        this.description = description;
+        this.reference = reference;
+        this.amount = amount;
+        this.score = score;
+    }
+
+    public Type getType() { return type; }
+    public Long getId() { return id; }
+    public Long getFiscalPeriodId() { return fiscalPeriodId; }
+    public LocalDate getDate() { return date; }
+    public String getDescription() { return description; }
+    public String getReference() { return reference; }
+    /** Transaction amount (debit or credit); null for journal entries */
+    public BigDecimal getAmount() { return amount; }
+    public double getScore() { return score; }
+}
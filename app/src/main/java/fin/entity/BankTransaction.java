@@ -26,12 +26,17 @@
 
 package fin.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import fin.util.TransactionFingerprint;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 
@@ -43,7 +48,8 @@ import java.time.LocalDateTime;
 @Table(name = "bank_transactions")
 public class BankTransaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bank_transactions_id")
+    @SequenceGenerator(name = "bank_transactions_id", sequenceName = "bank_transactions_pooled_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "company_id")
@@ -96,6 +102,8 @@ public class BankTransaction {
     private Long debitAccountId;
     @Column(name = "credit_account_id")
     private Long creditAccountId;
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
     @Transient
     private String debitAccountCode;
     @Transient
@@ -780,4 +788,32 @@ public class BankTransaction {
     public void setCreditAccountName(String creditAccountName) {
         this.creditAccountName = creditAccountName;
     }
+
+    /**
+     * Gets the duplicate-detection fingerprint (see TransactionFingerprint).
+     *
+     * @return the fingerprint, or null before the transaction is first saved
+     */
+    @JsonIgnore
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Sets the duplicate-detection fingerprint.
+     *
+     * @param fingerprint the fingerprint to set
+     */
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Keeps the stored fingerprint in step with the fields it is derived from.
+     */
+    @PrePersist
+    @PreUpdate
+    void refreshFingerprint() {
+        this.fingerprint = TransactionFingerprint.of(this);
+    }
 }
@@ -37,7 +37,8 @@ import java.time.LocalDateTime;
 public class DataCorrection {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "data_corrections_id")
+    @SequenceGenerator(name = "data_corrections_id", sequenceName = "data_corrections_pooled_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "company_id", nullable = false)
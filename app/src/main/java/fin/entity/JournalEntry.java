@@ -45,7 +45,8 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class JournalEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entries_id")
+    @SequenceGenerator(name = "journal_entries_id", sequenceName = "journal_entries_pooled_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     
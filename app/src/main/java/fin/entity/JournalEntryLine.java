@@ -35,6 +35,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -45,7 +46,8 @@ import jakarta.persistence.Table;
 @Table(name = "journal_entry_lines")
 public class JournalEntryLine {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entry_lines_id")
+    @SequenceGenerator(name = "journal_entry_lines_id", sequenceName = "journal_entry_lines_pooled_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     
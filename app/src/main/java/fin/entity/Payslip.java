@@ -40,6 +40,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -50,7 +51,8 @@ import jakarta.persistence.Table;
 @Access(AccessType.FIELD)
 public class Payslip {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payslips_id")
+    @SequenceGenerator(name = "payslips_id", sequenceName = "payslips_pooled_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "company_id")
@@ -0,0 +1,324 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC access to account_period_balances, the per-account debit/credit totals of each fiscal period.
+ *
+ * Every path that writes journal entry lines adds its lines here in the same transaction, so
+ * trial balance, income statement and balance sheet queries read one row per account instead of
+ * re-aggregating the ledger. Lines whose journal entry has no fiscal period are kept under
+ * {@link #UNASSIGNED_PERIOD}. {@link #rebuildForCompany(Long)} and {@link #findMismatches(Long)}
+ * reconcile the table against journal_entry_lines.
+ */
+@Repository
+public class AccountPeriodBalanceRepository {
+
+    /** fiscal_period_id used for lines whose journal entry has no fiscal period */
+    public static final long UNASSIGNED_PERIOD = 0L;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO account_period_balances (company_id, fiscal_period_id, account_id,
+                                             debit_total, credit_total, line_count, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (company_id, fiscal_period_id, account_id) DO UPDATE SET
+            debit_total = account_period_balances.debit_total + EXCLUDED.debit_total,
+            credit_total = account_period_balances.credit_total + EXCLUDED.credit_total,
+            line_count = account_period_balances.line_count + EXCLUDED.line_count,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String PERIOD_TOTALS_SQL =
+        "SELECT account_id, debit_total, credit_total, line_count FROM account_period_balances "
+        + "WHERE company_id = ? AND fiscal_period_id = ?";
+
+    // Everything posted to the fiscal periods that ended before the given period started
+    private static final String OPENING_TOTALS_SQL = """
+        SELECT apb.account_id,
+               SUM(apb.debit_total) AS debit_total,
+               SUM(apb.credit_total) AS credit_total,
+               SUM(apb.line_count) AS line_count
+        FROM account_period_balances apb
+        JOIN fiscal_periods fp ON fp.id = apb.fiscal_period_id
+        JOIN fiscal_periods cur ON cur.id = ? AND cur.company_id = fp.company_id
+        WHERE apb.company_id = ? AND fp.end_date < cur.start_date
+        GROUP BY apb.account_id
+        """;
+
+    private static final String DELETE_COMPANY_SQL = "DELETE FROM account_period_balances WHERE company_id = ?";
+
+    private static final String ACTUAL_TOTALS_SQL = """
+        SELECT je.company_id,
+               COALESCE(je.fiscal_period_id, 0) AS fiscal_period_id,
+               jel.account_id,
+               COALESCE(SUM(jel.debit_amount), 0) AS debit_total,
+               COALESCE(SUM(jel.credit_amount), 0) AS credit_total,
+               COUNT(*) AS line_count
+        FROM journal_entry_lines jel
+        JOIN journal_entries je ON je.id = jel.journal_entry_id
+        WHERE je.company_id = ? AND jel.account_id IS NOT NULL
+        GROUP BY je.company_id, COALESCE(je.fiscal_period_id, 0), jel.account_id
+        """;
+
+    private static final String REBUILD_SQL =
+        "INSERT INTO account_period_balances (company_id, fiscal_period_id, account_id, "
+        + "debit_total, credit_total, line_count, updated_at) "
+        + "SELECT company_id, fiscal_period_id, account_id, debit_total, credit_total, line_count, CURRENT_TIMESTAMP "
+        + "FROM (" + ACTUAL_TOTALS_SQL + ") actual";
+
+    private static final String MISMATCH_SQL =
+        "SELECT COALESCE(s.fiscal_period_id, a.fiscal_period_id) AS fiscal_period_id, "
+        + "COALESCE(s.account_id, a.account_id) AS account_id, "
+        + "s.debit_total AS stored_debit, s.credit_total AS stored_credit, s.line_count AS stored_lines, "
+        + "a.debit_total AS actual_debit, a.credit_total AS actual_credit, a.line_count AS actual_lines "
+        + "FROM (SELECT * FROM account_period_balances WHERE company_id = ?) s "
+        + "FULL OUTER JOIN (" + ACTUAL_TOTALS_SQL + ") a "
+        + "ON a.fiscal_period_id = s.fiscal_period_id AND a.account_id = s.account_id "
+        + "WHERE s.account_id IS NULL OR a.account_id IS NULL "
+        + "OR s.debit_total <> a.debit_total OR s.credit_total <> a.credit_total OR s.line_count <> a.line_count "
+        + "ORDER BY 1, 2";
+
+    private final JdbcTemplate jdbc;
+
+    public AccountPeriodBalanceRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Add accumulated line totals to the summary. Rows are upserted in key order in one JDBC batch,
+     * so concurrent postings lock balance rows in the same order.
+     */
+    public void apply(BalanceDeltas deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<BalanceDelta> ordered = deltas.sorted();
+        jdbc.execute((Connection conn) -> {
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+                for (BalanceDelta delta : ordered) {
+                    stmt.setLong(1, delta.getCompanyId());
+                    stmt.setLong(2, delta.getFiscalPeriodId());
+                    stmt.setLong(3, delta.getAccountId());
+                    stmt.setBigDecimal(4, delta.getDebitTotal());
+                    stmt.setBigDecimal(5, delta.getCreditTotal());
+                    stmt.setLong(6, delta.getLineCount());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Debit and credit totals of every account with lines in a fiscal period.
+     *
+     * @return totals keyed by account ID; accounts without lines in the period are absent
+     */
+    public Map<Long, BalanceDelta> findPeriodTotals(Long companyId, Long fiscalPeriodId) {
+        Map<Long, BalanceDelta> totals = new HashMap<>();
+        jdbc.query(PERIOD_TOTALS_SQL, totalsCollector(totals, companyId, fiscalPeriodId), companyId, fiscalPeriodId);
+        return totals;
+    }
+
+    /**
+     * Debit and credit totals brought forward into a fiscal period: everything posted to the
+     * company's fiscal periods that ended before this one started, summed per account. Lines
+     * without a fiscal period are not included.
+     *
+     * @return totals keyed by account ID, tagged with the given fiscal period; accounts with
+     *         nothing brought forward are absent
+     */
+    public Map<Long, BalanceDelta> findOpeningTotals(Long companyId, Long fiscalPeriodId) {
+        Map<Long, BalanceDelta> totals = new HashMap<>();
+        jdbc.query(OPENING_TOTALS_SQL, totalsCollector(totals, companyId, fiscalPeriodId), fiscalPeriodId, companyId);
+        return totals;
+    }
+
+    private static RowCallbackHandler totalsCollector(Map<Long, BalanceDelta> totals, Long companyId, Long fiscalPeriodId) {
+        return rs -> {
+            BalanceDelta delta = new BalanceDelta(companyId, fiscalPeriodId, rs.getLong("account_id"));
+            delta.debitTotal = rs.getBigDecimal("debit_total");
+            delta.creditTotal = rs.getBigDecimal("credit_total");
+            delta.lineCount = rs.getLong("line_count");
+            totals.put(delta.getAccountId(), delta);
+        };
+    }
+
+    /**
+     * Remove every summary row of a company. Call whenever all of its journal entries are deleted.
+     */
+    public int deleteByCompanyId(Long companyId) {
+        return jdbc.update(DELETE_COMPANY_SQL, companyId);
+    }
+
+    /**
+     * Recompute a company's summary rows from journal_entry_lines.
+     *
+     * @return number of summary rows written
+     */
+    public int rebuildForCompany(Long companyId) {
+        jdbc.update(DELETE_COMPANY_SQL, companyId);
+        return jdbc.update(REBUILD_SQL, companyId);
+    }
+
+    /**
+     * Compare a company's summary rows with totals computed from journal_entry_lines.
+     *
+     * @return one entry per (fiscal period, account) whose stored totals differ; empty when in sync
+     */
+    public List<BalanceMismatch> findMismatches(Long companyId) {
+        return jdbc.query(MISMATCH_SQL, (rs, rowNum) -> new BalanceMismatch(
+            rs.getLong("fiscal_period_id"),
+            rs.getLong("account_id"),
+            rs.getBigDecimal("stored_debit"),
+            rs.getBigDecimal("stored_credit"),
+            rs.getBigDecimal("actual_debit"),
+            rs.getBigDecimal("actual_credit"),
+            rs.getLong("stored_lines"),
+            rs.getLong("actual_lines")), companyId, companyId);
+    }
+
+    /**
+     * Accumulates journal line amounts per (company, fiscal period, account) before they are applied.
+     */
+    public static class BalanceDeltas {
+        private final Map<String, BalanceDelta> deltas = new HashMap<>();
+
+        /**
+         * Add one journal line. Lines without a company or account are not summarised.
+         */
+        public void add(Long companyId, Long fiscalPeriodId, Long accountId,
+                        BigDecimal debitAmount, BigDecimal creditAmount) {
+            if (companyId == null || accountId == null) {
+                return;
+            }
+            long periodId = fiscalPeriodId != null ? fiscalPeriodId : UNASSIGNED_PERIOD;
+            String key = companyId + ":" + periodId + ":" + accountId;
+            deltas.computeIfAbsent(key, k -> new BalanceDelta(companyId, periodId, accountId))
+                .add(debitAmount, creditAmount);
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        public int size() {
+            return deltas.size();
+        }
+
+        List<BalanceDelta> sorted() {
+            List<BalanceDelta> ordered = new ArrayList<>(deltas.values());
+            ordered.sort(Comparator.comparingLong(BalanceDelta::getCompanyId)
+                .thenComparingLong(BalanceDelta::getFiscalPeriodId)
+                .thenComparingLong(BalanceDelta::getAccountId));
+            return ordered;
+        }
+    }
+
+    /**
+     * Accumulated totals for one summary row.
+     */
+    public static class BalanceDelta {
+        private final long companyId;
+        private final long fiscalPeriodId;
+        private final long accountId;
+        private BigDecimal debitTotal = BigDecimal.ZERO;
+        private BigDecimal creditTotal = BigDecimal.ZERO;
+        private long lineCount;
+
+        BalanceDelta(long companyId, long fiscalPeriodId, long accountId) {
+            this.companyId = companyId;
+            this.fiscalPeriodId = fiscalPeriodId;
+            this.accountId = accountId;
+        }
+
+        void add(BigDecimal debitAmount, BigDecimal creditAmount) {
+            debitTotal = debitTotal.add(Objects.requireNonNullElse(debitAmount, BigDecimal.ZERO));
+            creditTotal = creditTotal.add(Objects.requireNonNullElse(creditAmount, BigDecimal.ZERO));
+            lineCount++;
+        }
+
+        public long getCompanyId() { return companyId; }
+        public long getFiscalPeriodId() { return fiscalPeriodId; }
+        public long getAccountId() { return accountId; }
+        public BigDecimal getDebitTotal() { return debitTotal; }
+        public BigDecimal getCreditTotal() { return creditTotal; }
+        public long getLineCount() { return lineCount; }
+    }
+
+    /**
+     * A summary row that disagrees with the journal lines. Stored or actual amounts are null
+     * when the row exists on only one side.
+     */
+    public static class BalanceMismatch {
+        private final long fiscalPeriodId;
+        private final long accountId;
+        private final BigDecimal storedDebit;
+        private final BigDecimal storedCredit;
+        private final BigDecimal actualDebit;
+        private final BigDecimal actualCredit;
+        private final long storedLineCount;
+        private final long actualLineCount;
+
+        public BalanceMismatch(long fiscalPeriodId, long accountId, BigDecimal storedDebit, BigDecimal storedCredit,
+                               BigDecimal actualDebit, BigDecimal actualCredit,
+                               long storedLineCount, long actualLineCount) {
+            this.fiscalPeriodId = fiscalPeriodId;
+            this.accountId = accountId;
+            this.storedDebit = storedDebit;
+            this.storedCredit = storedCredit;
+            this.actualDebit = actualDebit;
+            this.actualCredit = actualCredit;
+            this.storedLineCount = storedLineCount;
+            this.actualLineCount = actualLineCount;
+        }
+
+        public long getFiscalPeriodId() { return fiscalPeriodId; }
+        public long getAccountId() { return accountId; }
+        public BigDecimal getStoredDebit() { return storedDebit; }
+        public BigDecimal getStoredCredit() { return storedCredit; }
+        public BigDecimal getActualDebit() { return actualDebit; }
+        public BigDecimal getActualCredit() { return actualCredit; }
+        public long getStoredLineCount() { return storedLineCount; }
+        public long getActualLineCount() { return actualLineCount; }
+    }
+}
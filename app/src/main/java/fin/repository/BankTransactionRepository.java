@@ -28,6 +28,7 @@ package fin.repository;
 
 import fin.entity.BankTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -116,9 +117,15 @@ public interface BankTransactionRepository extends JpaRepository<BankTransaction
     List<BankTransaction> findHighValueCreditTransactions(@Param("amount") java.math.BigDecimal amount);
 
     /**
-     * Find transactions by company and description containing text
+     * Find transactions by company and description containing text.
+     * Matches on LOWER(description) so the trigram index from V18 serves the LIKE.
+     * The text goes into the LIKE as-is; escape user text with
+     * {@link TextSearchRepository#escapeLike(String)}.
      */
-    List<BankTransaction> findByCompanyIdAndDescriptionContainingIgnoreCase(Long companyId, String description);
+    @Query("SELECT t FROM BankTransaction t WHERE t.companyId = :companyId " +
+           "AND LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%')) ESCAPE '\\'")
+    List<BankTransaction> findByCompanyIdAndDescriptionContainingIgnoreCase(@Param("companyId") Long companyId,
+                                                                            @Param("description") String description);
 
     /**
      * Get total debit amount for a company and fiscal period
@@ -142,6 +149,60 @@ public interface BankTransactionRepository extends JpaRepository<BankTransaction
      */
     List<BankTransaction> findByCompanyIdAndFiscalPeriodIdAndAccountCodeIsNull(Long companyId, Long fiscalPeriodId);
 
+    /**
+     * Find unclassified transactions of a fiscal period whose description contains text, newest first.
+     * Matches on LOWER(description) so the trigram index from V18 serves the LIKE; cap with a Pageable.
+     * The pattern goes into the LIKE as-is; escape user text with
+     * {@link TextSearchRepository#escapeLike(String)}.
+     */
+    @Query("SELECT t FROM BankTransaction t WHERE t.companyId = :companyId " +
+           "AND t.fiscalPeriodId = :fiscalPeriodId AND t.accountCode IS NULL " +
+           "AND LOWER(t.description) LIKE LOWER(CONCAT('%', :pattern, '%')) ESCAPE '\\' " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<BankTransaction> findUnclassifiedByDescriptionContaining(@Param("companyId") Long companyId,
+                                                                  @Param("fiscalPeriodId") Long fiscalPeriodId,
+                                                                  @Param("pattern") String pattern,
+                                                                  org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Count unclassified transactions across all fiscal periods of a company
+     */
+    long countByCompanyIdAndAccountCodeIsNullAndFiscalPeriodIdIsNotNull(Long companyId);
+
+    /**
+     * IDs of a company's unclassified transactions after {@code afterId}, in ID order (keyset
+     * pagination). With a one-row page at offset n-1 it returns the n-th ID, i.e. the end of the
+     * next chunk of n rows.
+     */
+    @Query("SELECT t.id FROM BankTransaction t " +
+           "WHERE t.companyId = :companyId AND t.accountCode IS NULL AND t.fiscalPeriodId IS NOT NULL " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<Long> findUnclassifiedIdsAfter(@Param("companyId") Long companyId,
+                                        @Param("afterId") Long afterId,
+                                        org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Find unclassified transactions for a company within an ID range [fromId, toId)
+     */
+    @Query("SELECT t FROM BankTransaction t WHERE t.companyId = :companyId AND t.accountCode IS NULL " +
+           "AND t.fiscalPeriodId IS NOT NULL AND t.id >= :fromId AND t.id < :toId")
+    List<BankTransaction> findUnclassifiedInIdRange(@Param("companyId") Long companyId,
+                                                    @Param("fromId") Long fromId,
+                                                    @Param("toId") Long toId);
+
+    /**
+     * Assign an account code to a set of still-unclassified transactions in one statement.
+     * Rows classified concurrently by someone else are left untouched.
+     *
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BankTransaction t SET t.accountCode = :accountCode, t.updatedAt = :updatedAt " +
+           "WHERE t.id IN :ids AND t.accountCode IS NULL")
+    int assignAccountCodeToUnclassified(@Param("accountCode") String accountCode,
+                                        @Param("ids") java.util.Collection<Long> ids,
+                                        @Param("updatedAt") java.time.LocalDateTime updatedAt);
+
     /**
      * Find classified transactions that don't have journal entries yet
      */
@@ -205,5 +266,27 @@ public interface BankTransactionRepository extends JpaRepository<BankTransaction
         @Param("balance") java.math.BigDecimal balance
     );
 
+    /**
+     * Find existing transactions matching any of the given duplicate-detection fingerprints.
+     * Served by the (company_id, fingerprint) index.
+     *
+     * @param companyId Company ID
+     * @param fromDate First transaction date of the upload
+     * @param toDate Last transaction date of the upload
+     * @param fingerprints Fingerprints to look up (keep each call to a bounded IN list)
+     * @return rows of [fingerprint, id, createdAt], lowest ID first
+     */
+    @Query("SELECT t.fingerprint, t.id, t.createdAt FROM BankTransaction t " +
+           "WHERE t.companyId = :companyId " +
+           "AND t.transactionDate BETWEEN :fromDate AND :toDate " +
+           "AND t.fingerprint IN :fingerprints " +
+           "ORDER BY t.id")
+    List<Object[]> findFingerprintMatches(
+        @Param("companyId") Long companyId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("fingerprints") java.util.Collection<String> fingerprints
+    );
+
     void deleteByCompanyId(Long companyId);
 }
\ No newline at end of file
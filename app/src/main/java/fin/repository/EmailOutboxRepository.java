@@ -0,0 +1,264 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable queue of outgoing emails (table email_outbox, migration V19).
+ *
+ * Messages are written in one batch when a send is requested and claimed in small groups by
+ * {@link #claimDue(int)}, so a restart never loses a queued send: anything not yet SENT or FAILED
+ * is still in the table and is picked up again. Claims use {@code FOR UPDATE SKIP LOCKED}, so
+ * several application instances can drain the same outbox without sending a message twice.
+ */
+@Repository
+public class EmailOutboxRepository {
+
+    /** Lifecycle of an outbox row */
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final String COLUMNS =
+        "id, batch_id, company_id, to_email, recipient_name, subject, body, attachment_path, attachment_name, attempts";
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+        rs.getLong("id"),
+        rs.getString("batch_id"),
+        rs.getObject("company_id", Long.class),
+        rs.getString("to_email"),
+        rs.getString("recipient_name"),
+        rs.getString("subject"),
+        rs.getString("body"),
+        rs.getString("attachment_path"),
+        rs.getString("attachment_name"),
+        rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbc;
+
+    public EmailOutboxRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Queue messages for sending under one batch id, in a single JDBC batch.
+     */
+    public void enqueue(String batchId, Long companyId, List<NewMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(
+            "INSERT INTO email_outbox (batch_id, company_id, to_email, recipient_name, subject, body, "
+                + "attachment_path, attachment_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            messages,
+            messages.size(),
+            (ps, message) -> {
+                ps.setString(1, batchId);
+                ps.setObject(2, companyId);
+                ps.setString(3, message.getToEmail());
+                ps.setString(4, message.getRecipientName());
+                ps.setString(5, message.getSubject());
+                ps.setString(6, message.getBody());
+                ps.setString(7, message.getAttachmentPath());
+                ps.setString(8, message.getAttachmentName());
+            });
+    }
+
+    /**
+     * Atomically mark up to {@code limit} due PENDING messages as SENDING and return them, oldest first.
+     */
+    public List<OutboxMessage> claimDue(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<OutboxMessage> claimed = jdbc.query(
+            "UPDATE email_outbox SET status = 'SENDING', updated_at = CURRENT_TIMESTAMP "
+                + "WHERE id IN (SELECT id FROM email_outbox "
+                + "WHERE status = 'PENDING' AND next_attempt_at <= CURRENT_TIMESTAMP "
+                + "ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED) "
+                + "RETURNING " + COLUMNS,
+            ROW_MAPPER,
+            limit);
+        List<OutboxMessage> ordered = new ArrayList<>(claimed);
+        ordered.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        return ordered;
+    }
+
+    public void markSent(long id, int attempts) {
+        jdbc.update(
+            "UPDATE email_outbox SET status = 'SENT', attempts = ?, last_error = NULL, "
+                + "sent_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+            attempts, id);
+    }
+
+    /**
+     * Return a message to PENDING, to be claimed again once {@code delay} has passed. The due time
+     * is computed on the database clock, the same clock claimDue compares against.
+     */
+    public void markForRetry(long id, int attempts, Duration delay, String error) {
+        jdbc.update(
+            "UPDATE email_outbox SET status = 'PENDING', attempts = ?, "
+                + "next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => ?), last_error = ?, "
+                + "updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+            attempts, seconds(delay), truncate(error), id);
+    }
+
+    public void markFailed(long id, int attempts, String error) {
+        jdbc.update(
+            "UPDATE email_outbox SET status = 'FAILED', attempts = ?, last_error = ?, "
+                + "updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+            attempts, truncate(error), id);
+    }
+
+    /**
+     * Return SENDING messages not updated for longer than {@code staleAfter} to PENDING. Such rows
+     * belong to an instance that stopped mid-send; the message may be sent a second time, never lost.
+     * The age is measured on the database clock, which also wrote updated_at.
+     *
+     * @return number of messages requeued
+     */
+    public int requeueStale(Duration staleAfter) {
+        return jdbc.update(
+            "UPDATE email_outbox SET status = 'PENDING', updated_at = CURRENT_TIMESTAMP "
+                + "WHERE status = 'SENDING' AND updated_at < CURRENT_TIMESTAMP - make_interval(secs => ?)",
+            seconds(staleAfter));
+    }
+
+    /**
+     * Message count per status for one batch of a company. Statuses without messages are
+     * reported as zero, as is every status of a batch queued for another company.
+     */
+    public Map<Status, Integer> countByStatus(String batchId, Long companyId) {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0);
+        }
+        jdbc.query(
+            "SELECT status, COUNT(*) AS message_count FROM email_outbox WHERE batch_id = ? AND company_id = ? "
+                + "GROUP BY status",
+            rs -> {
+                counts.put(Status.valueOf(rs.getString("status")), rs.getInt("message_count"));
+            },
+            batchId, companyId);
+        return counts;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * A message to be queued.
+     */
+    public static class NewMessage {
+        private final String toEmail;
+        private final String recipientName;
+        private final String subject;
+        private final String body;
+        private final String attachmentPath;
+        private final String attachmentName;
+
+        public NewMessage(String toEmail, String recipientName, String subject, String body,
+                          String attachmentPath, String attachmentName) {
+            this.toEmail = toEmail;
+            this.recipientName = recipientName;
+            this.subject = subject;
+            this.body = body;
+            this.attachmentPath = attachmentPath;
+            this.attachmentName = attachmentName;
+        }
+
+        public String getToEmail() { return toEmail; }
+        public String getRecipientName() { return recipientName; }
+        public String getSubject() { return subject; }
+        public String getBody() { return body; }
+        public String getAttachmentPath() { return attachmentPath; }
+        public String getAttachmentName() { return attachmentName; }
+    }
+
+    /**
+     * A queued message claimed for sending.
+     */
+    public static class OutboxMessage {
+        private final long id;
+        private final String batchId;
+        private final Long companyId;
+        private final String toEmail;
+        private final String recipientName;
+        private final String subject;
+        private final String body;
+        private final String attachmentPath;
+        private final String attachmentName;
+        private final int attempts;
+
+        public OutboxMessage(long id, String batchId, Long companyId, String toEmail, String recipientName,
+                             String subject, String body, String attachmentPath, String attachmentName,
+                             int attempts) {
+            this.id = id;
+            this.batchId = batchId;
+            this.companyId = companyId;
+            this.toEmail = toEmail;
+            this.recipientName = recipientName;
+            this.subject = subject;
+            this.body = body;
+            this.attachmentPath = attachmentPath;
+            this.attachmentName = attachmentName;
+            this.attempts = attempts;
+        }
+
+        public long getId() { return id; }
+        public String getBatchId() { return batchId; }
+        public Long getCompanyId() { return companyId; }
+        public String getToEmail() { return toEmail; }
+        public String getRecipientName() { return recipientName; }
+        public String getSubject() { return subject; }
+        public String getBody() { return body; }
+        public String getAttachmentPath() { return attachmentPath; }
+        public String getAttachmentName() { return attachmentName; }
+        /** Send attempts made before this claim */
+        public int getAttempts() { return attempts; }
+    }
+}
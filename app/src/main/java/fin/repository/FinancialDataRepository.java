@@ -109,6 +109,60 @@ public interface FinancialDataRepository {
      */
     List<GeneralLedgerDTO> getGeneralLedgerDTOs(Long companyId, Long fiscalPeriodId, String accountCode) throws SQLException;
 
+    /**
+     * Stream the complete general ledger for a fiscal period with a single query.
+     * Rows arrive grouped by account code in chronological order. Opening balance entries
+     * (reference 'OB-%' or an "opening balance" description) are folded into one
+     * "Opening Balance" row per account, and running balances start from it.
+     */
+    void streamGeneralLedger(Long companyId, Long fiscalPeriodId, GeneralLedgerRowHandler handler) throws SQLException;
+
+    /**
+     * Receives general ledger rows from {@link #streamGeneralLedger}.
+     */
+    @FunctionalInterface
+    interface GeneralLedgerRowHandler {
+        void accept(String accountCode, String accountName, GeneralLedgerDTO row) throws SQLException;
+    }
+
+    /**
+     * Open the same general ledger as {@link #streamGeneralLedger} for pull-based reading.
+     * The cursor holds a database connection until it is closed.
+     */
+    GeneralLedgerCursor openGeneralLedger(Long companyId, Long fiscalPeriodId) throws SQLException;
+
+    /**
+     * General ledger rows read one at a time from an open query.
+     */
+    interface GeneralLedgerCursor extends AutoCloseable {
+        /**
+         * @return the next row, or {@code null} once the ledger is exhausted
+         */
+        GeneralLedgerRow next() throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * One general ledger row together with the account it belongs to.
+     */
+    final class GeneralLedgerRow {
+        private final String accountCode;
+        private final String accountName;
+        private final GeneralLedgerDTO entry;
+
+        public GeneralLedgerRow(String accountCode, String accountName, GeneralLedgerDTO entry) {
+            this.accountCode = accountCode;
+            this.accountName = accountName;
+            this.entry = entry;
+        }
+
+        public String getAccountCode() { return accountCode; }
+        public String getAccountName() { return accountName; }
+        public GeneralLedgerDTO getEntry() { return entry; }
+    }
+
     /**
      * Get income statement data as structured DTOs
      */
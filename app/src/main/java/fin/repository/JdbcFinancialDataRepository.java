@@ -31,23 +31,31 @@ import fin.entity.*;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.*;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 /**
  * JDBC implementation of FinancialDataRepository.
  * Provides centralized database access for all financial reports.
+ * Connections are borrowed from the application's connection pool via ReportConnectionProvider.
+ * Trial balance, income statement, balance sheet and opening balance totals are read from
+ * account_period_balances (see AccountPeriodBalanceRepository) rather than journal_entry_lines.
  */
 @Repository
 public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
-    @Value("${spring.datasource.url}")
-    private String dbUrl;
-
     // Prepared statement parameter indices
     private static final int PREPARED_STATEMENT_PARAM_3 = 3;
     private static final int PREPARED_STATEMENT_PARAM_4 = 4;
 
+    // Rows fetched per round trip when streaming the general ledger
+    private static final int LEDGER_FETCH_SIZE = 1000;
+
+    private final ReportConnectionProvider connections;
+
+    public JdbcFinancialDataRepository(ReportConnectionProvider connections) {
+        this.connections = connections;
+    }
+
     @Override
     public List<BankTransaction> getBankTransactions(int companyId, int fiscalPeriodId) throws SQLException {
          String sql = """
@@ -61,7 +69,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
         List<BankTransaction> transactions = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("bank_transactions");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -110,7 +118,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
         Map<String, BigDecimal> balances = new HashMap<>();
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("account_balances_by_type");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -169,7 +177,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
         List<JournalEntry> entries = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("journal_entries");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -190,7 +198,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
     public Company getCompany(int companyId) throws SQLException {
         String sql = "SELECT id, name, registration_number FROM companies WHERE id = ?";
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("company");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -213,7 +221,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
     public FiscalPeriod getFiscalPeriod(int fiscalPeriodId) throws SQLException {
         String sql = "SELECT id, company_id, period_name, start_date, end_date FROM fiscal_periods WHERE id = ?";
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("fiscal_period");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, fiscalPeriodId);
@@ -246,7 +254,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             ORDER BY end_date DESC LIMIT 1
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("opening_balance");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -257,13 +265,12 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
                     int previousPeriodId = rs.getInt("id");
 
                     // Calculate the closing balance of the previous period
-                    // FIXED: Read from journal_entry_lines for proper double-entry accounting
+                    // from its account period balances (one row per account)
                     String balanceSql = """
                         SELECT
-                            COALESCE(SUM(jel.debit_amount), 0) - COALESCE(SUM(jel.credit_amount), 0) as closing_balance
-                        FROM journal_entry_lines jel
-                        JOIN journal_entries je ON jel.journal_entry_id = je.id
-                        WHERE je.company_id = ? AND je.fiscal_period_id = ?
+                            COALESCE(SUM(apb.debit_total), 0) - COALESCE(SUM(apb.credit_total), 0) as closing_balance
+                        FROM account_period_balances apb
+                        WHERE apb.company_id = ? AND apb.fiscal_period_id = ?
                         """;
 
                     try (PreparedStatement balanceStmt = conn.prepareStatement(balanceSql)) {
@@ -297,7 +304,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             LIMIT 1
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("opening_balance");
              PreparedStatement stmt = conn.prepareStatement(openingSql)) {
 
             stmt.setInt(1, companyId);
@@ -336,7 +343,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
         List<TrialBalanceEntry> entries = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("trial_balance_entries");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -393,7 +400,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             ORDER BY end_date DESC LIMIT 1
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("account_opening_balance");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -446,7 +453,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
                 AND a.code = ?
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("account_opening_balance");
              PreparedStatement stmt = conn.prepareStatement(openingSql)) {
 
             stmt.setInt(1, companyId);
@@ -484,7 +491,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
               AND NOT (LOWER(je.description) LIKE '%opening%balance%' OR je.reference LIKE 'OB-%')
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("account_period_movements");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -525,7 +532,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
         List<AccountInfo> accounts = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("active_accounts_from_journals");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -573,7 +580,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             GROUP BY a.code, ac.account_type
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("account_opening_balance_for_ledger");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -615,7 +622,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
 
         List<JournalEntryLineDetail> lines = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("journal_entry_lines_for_account");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, companyId);
@@ -670,20 +677,19 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             SELECT
                 a.code as account_code,
                 a.name as account_name,
-                COALESCE(SUM(jel.debit_amount), 0) as total_debit,
-                COALESCE(SUM(jel.credit_amount), 0) as total_credit
-            FROM accounts a
-            LEFT JOIN journal_entry_lines jel ON jel.account_id = a.id
-            LEFT JOIN journal_entries je ON je.id = jel.journal_entry_id
+                SUM(apb.debit_total) as total_debit,
+                SUM(apb.credit_total) as total_credit
+            FROM account_period_balances apb
+            JOIN accounts a ON a.id = apb.account_id
             WHERE a.company_id = ?
-                AND (je.fiscal_period_id = ? OR je.fiscal_period_id IS NULL)
-                AND (COALESCE(jel.debit_amount, 0) != 0 OR COALESCE(jel.credit_amount, 0) != 0)
+                AND apb.company_id = a.company_id
+                AND apb.fiscal_period_id IN (?, 0)
             GROUP BY a.id, a.code, a.name
-            HAVING (SUM(jel.debit_amount) - SUM(jel.credit_amount)) != 0
+            HAVING (SUM(apb.debit_total) - SUM(apb.credit_total)) != 0
             ORDER BY a.code
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("trial_balance_dtos");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, companyId);
@@ -732,7 +738,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             ORDER BY je.entry_date, je.id
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("general_ledger_dtos");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, companyId);
@@ -763,6 +769,175 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
         return results;
     }
 
+    // Opening balance lines sort first within each account so they can be folded in one pass
+    private static final String GENERAL_LEDGER_SQL = """
+        SELECT
+            a.code as account_code,
+            a.name as account_name,
+            je.entry_date,
+            je.reference,
+            jel.description,
+            COALESCE(jel.debit_amount, 0) as debit,
+            COALESCE(jel.credit_amount, 0) as credit,
+            CASE
+                WHEN je.reference LIKE 'OB-%' OR LOWER(je.description) LIKE '%opening%balance%' THEN 1
+                ELSE 0
+            END as is_opening
+        FROM journal_entry_lines jel
+        JOIN accounts a ON jel.account_id = a.id
+        JOIN account_categories ac ON a.type_id = ac.id
+        JOIN journal_entries je ON jel.journal_entry_id = je.id
+        WHERE je.company_id = ?
+          AND je.fiscal_period_id = ?
+        ORDER BY a.code, is_opening DESC, je.entry_date, je.id, jel.id
+        """;
+
+    @Override
+    public void streamGeneralLedger(Long companyId, Long fiscalPeriodId, GeneralLedgerRowHandler handler) throws SQLException {
+        try (GeneralLedgerCursor cursor = openGeneralLedger(companyId, fiscalPeriodId)) {
+            for (GeneralLedgerRow row = cursor.next(); row != null; row = cursor.next()) {
+                handler.accept(row.getAccountCode(), row.getAccountName(), row.getEntry());
+            }
+        }
+    }
+
+    @Override
+    public GeneralLedgerCursor openGeneralLedger(Long companyId, Long fiscalPeriodId) throws SQLException {
+        Connection conn = connections.getConnection("general_ledger_stream");
+        boolean autoCommit = true;
+        PreparedStatement stmt = null;
+        try {
+            // PostgreSQL only honours the fetch size (server-side cursor) outside auto-commit
+            autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(GENERAL_LEDGER_SQL);
+            stmt.setFetchSize(LEDGER_FETCH_SIZE);
+            stmt.setLong(1, companyId);
+            stmt.setLong(2, fiscalPeriodId);
+            return new JdbcGeneralLedgerCursor(conn, autoCommit, stmt, stmt.executeQuery());
+        } catch (SQLException | RuntimeException e) {
+            try {
+                if (stmt != null) {
+                    stmt.close();
+                }
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException closeError) {
+                e.addSuppressed(closeError);
+            } finally {
+                conn.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * General ledger rows read from an open result set. Opening balance lines of an account are
+     * folded into one "Opening Balance" row and running balances start from it, so at most two
+     * rows (the opening balance and the line after it) are buffered at a time.
+     */
+    private static final class JdbcGeneralLedgerCursor implements GeneralLedgerCursor {
+        private final Connection conn;
+        private final boolean autoCommit;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final Deque<GeneralLedgerRow> ready = new ArrayDeque<>();
+        private boolean exhausted;
+
+        private String accountCode;
+        private String accountName;
+        private BigDecimal runningBalance = BigDecimal.ZERO;
+        private java.time.LocalDate openingDate;
+        private String openingReference;
+        private boolean openingPending;
+
+        JdbcGeneralLedgerCursor(Connection conn, boolean autoCommit, PreparedStatement stmt, ResultSet rs) {
+            this.conn = conn;
+            this.autoCommit = autoCommit;
+            this.stmt = stmt;
+            this.rs = rs;
+        }
+
+        @Override
+        public GeneralLedgerRow next() throws SQLException {
+            while (ready.isEmpty() && !exhausted) {
+                if (rs.next()) {
+                    foldRow();
+                } else {
+                    if (openingPending) {
+                        emitOpeningBalance();
+                    }
+                    exhausted = true;
+                }
+            }
+            return ready.poll();
+        }
+
+        private void foldRow() throws SQLException {
+            String rowAccountCode = rs.getString("account_code");
+            if (!rowAccountCode.equals(accountCode)) {
+                if (openingPending) {
+                    emitOpeningBalance();
+                }
+                accountCode = rowAccountCode;
+                accountName = rs.getString("account_name");
+                runningBalance = BigDecimal.ZERO;
+                openingPending = false;
+            }
+
+            BigDecimal debit = rs.getBigDecimal("debit");
+            BigDecimal credit = rs.getBigDecimal("credit");
+
+            if (rs.getInt("is_opening") == 1) {
+                if (!openingPending) {
+                    openingDate = rs.getDate("entry_date").toLocalDate();
+                    openingReference = rs.getString("reference");
+                    openingPending = true;
+                }
+                runningBalance = runningBalance.add(debit).subtract(credit);
+                return;
+            }
+
+            if (openingPending) {
+                emitOpeningBalance();
+                openingPending = false;
+            }
+            runningBalance = runningBalance.add(debit).subtract(credit);
+
+            ready.add(new GeneralLedgerRow(accountCode, accountName, new GeneralLedgerDTO(
+                rs.getDate("entry_date").toLocalDate(),
+                rs.getString("reference"),
+                rs.getString("description"),
+                debit,
+                credit,
+                runningBalance
+            )));
+        }
+
+        private void emitOpeningBalance() {
+            if (runningBalance.signum() == 0) {
+                return;
+            }
+            ready.add(new GeneralLedgerRow(accountCode, accountName, new GeneralLedgerDTO(
+                openingDate, openingReference, "Opening Balance", BigDecimal.ZERO, BigDecimal.ZERO, runningBalance)));
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (Connection c = conn) {
+                try (PreparedStatement s = stmt; ResultSet r = rs) {
+                    if (exhausted) {
+                        c.commit();
+                    } else {
+                        // Abandoned part-way: ends the read-only transaction and its server-side cursor
+                        c.rollback();
+                    }
+                } finally {
+                    c.setAutoCommit(autoCommit);
+                }
+            }
+        }
+    }
+
     @Override
     public List<FinancialReportDTO> getIncomeStatementDTOs(Long companyId, Long fiscalPeriodId) throws SQLException {
         List<FinancialReportDTO> results = new ArrayList<>();
@@ -772,16 +947,16 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             SELECT
                 a.code as account_code,
                 a.name as account_name,
-                COALESCE(SUM(jel.credit_amount - jel.debit_amount), 0) as amount
-            FROM accounts a
+                SUM(apb.credit_total - apb.debit_total) as amount
+            FROM account_period_balances apb
+            JOIN accounts a ON a.id = apb.account_id
             JOIN account_categories ac ON a.type_id = ac.id
-            LEFT JOIN journal_entry_lines jel ON jel.account_id = a.id
-            LEFT JOIN journal_entries je ON je.id = jel.journal_entry_id
             WHERE a.company_id = ?
-                AND (je.fiscal_period_id = ? OR je.fiscal_period_id IS NULL)
+                AND apb.company_id = a.company_id
+                AND apb.fiscal_period_id IN (?, 0)
                 AND ac.account_type = 'REVENUE'
             GROUP BY a.id, a.code, a.name
-            HAVING SUM(jel.credit_amount - jel.debit_amount) != 0
+            HAVING SUM(apb.credit_total - apb.debit_total) != 0
             ORDER BY a.code
             """;
 
@@ -790,20 +965,20 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             SELECT
                 a.code as account_code,
                 a.name as account_name,
-                COALESCE(SUM(jel.debit_amount - jel.credit_amount), 0) as amount
-            FROM accounts a
+                SUM(apb.debit_total - apb.credit_total) as amount
+            FROM account_period_balances apb
+            JOIN accounts a ON a.id = apb.account_id
             JOIN account_categories ac ON a.type_id = ac.id
-            LEFT JOIN journal_entry_lines jel ON jel.account_id = a.id
-            LEFT JOIN journal_entries je ON je.id = jel.journal_entry_id
             WHERE a.company_id = ?
-                AND (je.fiscal_period_id = ? OR je.fiscal_period_id IS NULL)
+                AND apb.company_id = a.company_id
+                AND apb.fiscal_period_id IN (?, 0)
                 AND ac.account_type = 'EXPENSE'
             GROUP BY a.id, a.code, a.name
-            HAVING SUM(jel.debit_amount - jel.credit_amount) != 0
+            HAVING SUM(apb.debit_total - apb.credit_total) != 0
             ORDER BY a.code
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl)) {
+        try (Connection conn = connections.getConnection("income_statement_dtos")) {
 
             // Add revenue entries
             try (PreparedStatement stmt = conn.prepareStatement(revenueSql)) {
@@ -848,16 +1023,16 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             SELECT
             a.code as account_code,
             a.name as account_name,
-                COALESCE(SUM(jel.debit_amount - jel.credit_amount), 0) as amount
-            FROM accounts a
+                SUM(apb.debit_total - apb.credit_total) as amount
+            FROM account_period_balances apb
+            JOIN accounts a ON a.id = apb.account_id
             JOIN account_categories ac ON a.type_id = ac.id
-            LEFT JOIN journal_entry_lines jel ON jel.account_id = a.id
-            LEFT JOIN journal_entries je ON je.id = jel.journal_entry_id
             WHERE a.company_id = ?
-                AND (je.fiscal_period_id = ? OR je.fiscal_period_id IS NULL)
+                AND apb.company_id = a.company_id
+                AND apb.fiscal_period_id IN (?, 0)
                 AND ac.account_type = 'ASSET'
             GROUP BY a.id, a.code, a.name
-            HAVING SUM(jel.debit_amount - jel.credit_amount) != 0
+            HAVING SUM(apb.debit_total - apb.credit_total) != 0
             ORDER BY a.code
             """;
 
@@ -866,16 +1041,16 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             SELECT
             a.code as account_code,
             a.name as account_name,
-                COALESCE(SUM(jel.credit_amount - jel.debit_amount), 0) as amount
-            FROM accounts a
+                SUM(apb.credit_total - apb.debit_total) as amount
+            FROM account_period_balances apb
+            JOIN accounts a ON a.id = apb.account_id
             JOIN account_categories ac ON a.type_id = ac.id
-            LEFT JOIN journal_entry_lines jel ON jel.account_id = a.id
-            LEFT JOIN journal_entries je ON je.id = jel.journal_entry_id
             WHERE a.company_id = ?
-                AND (je.fiscal_period_id = ? OR je.fiscal_period_id IS NULL)
+                AND apb.company_id = a.company_id
+                AND apb.fiscal_period_id IN (?, 0)
                 AND ac.account_type = 'LIABILITY'
             GROUP BY a.id, a.code, a.name
-            HAVING SUM(jel.credit_amount - jel.debit_amount) != 0
+            HAVING SUM(apb.credit_total - apb.debit_total) != 0
             ORDER BY a.code
             """;
 
@@ -884,20 +1059,20 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             SELECT
             a.code as account_code,
             a.name as account_name,
-                COALESCE(SUM(jel.credit_amount - jel.debit_amount), 0) as amount
-            FROM accounts a
+                SUM(apb.credit_total - apb.debit_total) as amount
+            FROM account_period_balances apb
+            JOIN accounts a ON a.id = apb.account_id
             JOIN account_categories ac ON a.type_id = ac.id
-            LEFT JOIN journal_entry_lines jel ON jel.account_id = a.id
-            LEFT JOIN journal_entries je ON je.id = jel.journal_entry_id
             WHERE a.company_id = ?
-                AND (je.fiscal_period_id = ? OR je.fiscal_period_id IS NULL)
+                AND apb.company_id = a.company_id
+                AND apb.fiscal_period_id IN (?, 0)
                 AND ac.account_type = 'EQUITY'
             GROUP BY a.id, a.code, a.name
-            HAVING SUM(jel.credit_amount - jel.debit_amount) != 0
+            HAVING SUM(apb.credit_total - apb.debit_total) != 0
             ORDER BY a.code
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl)) {
+        try (Connection conn = connections.getConnection("balance_sheet_dtos")) {
 
             // Add asset entries
             try (PreparedStatement stmt = conn.prepareStatement(assetsSql)) {
@@ -969,7 +1144,7 @@ public class JdbcFinancialDataRepository implements FinancialDataRepository {
             ORDER BY je.entry_date, je.id
             """;
 
-        try (Connection conn = DriverManager.getConnection(dbUrl);
+        try (Connection conn = connections.getConnection("cashbook_dtos");
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, companyId);
@@ -0,0 +1,163 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import fin.entity.JournalEntry;
+import fin.entity.JournalEntryLine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch writer for journal entry headers and lines.
+ *
+ * Used by bulk posting paths that need the generated IDs back without loading entities into
+ * the persistence context. IDs come from the column default, an increment-1 sequence (V21) whose
+ * range sits below the pooled sequences Hibernate reserves blocks from, so these rows stay dense
+ * and never collide with those blocks.
+ * Runs on the Spring-managed connection, so it participates in the caller's transaction.
+ */
+@Repository
+public class JournalEntryBatchRepository {
+
+    private static final String INSERT_ENTRY_SQL = """
+        INSERT INTO journal_entries (reference, entry_date, description, transaction_type_id,
+                                     fiscal_period_id, company_id, created_by, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_LINE_SQL = """
+        INSERT INTO journal_entry_lines (journal_entry_id, manual_invoice_id, source_transaction_id,
+                                         line_number, account_id, description, debit_amount, credit_amount)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public JournalEntryBatchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Insert journal entry headers in JDBC batches and assign the generated IDs back onto the entries.
+     *
+     * @param entries headers to insert (IDs must be null)
+     * @param batchSize rows per executeBatch call
+     */
+    public void insertEntries(List<JournalEntry> entries, int batchSize) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbc.execute((Connection conn) -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_ENTRY_SQL, new String[]{"id"})) {
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    List<JournalEntry> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+                    for (JournalEntry entry : chunk) {
+                        stmt.setString(1, entry.getReference());
+                        stmt.setDate(2, entry.getEntryDate() != null ? Date.valueOf(entry.getEntryDate()) : null);
+                        stmt.setString(3, entry.getDescription());
+                        setNullableLong(stmt, 4, entry.getTransactionTypeId());
+                        setNullableLong(stmt, 5, entry.getFiscalPeriodId());
+                        setNullableLong(stmt, 6, entry.getCompanyId());
+                        stmt.setString(7, entry.getCreatedBy());
+                        stmt.setTimestamp(8, entry.getCreatedAt() != null ? Timestamp.valueOf(entry.getCreatedAt()) : null);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        int i = 0;
+                        while (keys.next() && i < chunk.size()) {
+                            chunk.get(i++).setId(keys.getLong(1));
+                        }
+                        if (i != chunk.size()) {
+                            throw new SQLException("Expected " + chunk.size() + " generated journal entry IDs but received " + i);
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Insert journal entry lines in JDBC batches. Line IDs are not read back.
+     *
+     * @param lines lines to insert (journalEntryId must already be set)
+     * @param batchSize rows per executeBatch call
+     */
+    public void insertLines(List<JournalEntryLine> lines, int batchSize) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbc.execute((Connection conn) -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_LINE_SQL)) {
+                int pending = 0;
+                for (JournalEntryLine line : lines) {
+                    setNullableLong(stmt, 1, line.getJournalEntryId());
+                    setNullableLong(stmt, 2, line.getManualInvoiceId());
+                    setNullableLong(stmt, 3, line.getSourceTransactionId());
+                    if (line.getLineNumber() != null) {
+                        stmt.setInt(4, line.getLineNumber());
+                    } else {
+                        stmt.setNull(4, Types.INTEGER);
+                    }
+                    setNullableLong(stmt, 5, line.getAccountId());
+                    stmt.setString(6, line.getDescription());
+                    stmt.setBigDecimal(7, line.getDebitAmount());
+                    stmt.setBigDecimal(8, line.getCreditAmount());
+                    stmt.addBatch();
+
+                    if (++pending == batchSize) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setNullableLong(PreparedStatement stmt, int index, Long value) throws SQLException {
+        if (value != null) {
+            stmt.setLong(index, value);
+        } else {
+            stmt.setNull(index, Types.BIGINT);
+        }
+    }
+}
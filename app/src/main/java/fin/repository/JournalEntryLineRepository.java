@@ -28,11 +28,13 @@ package fin.repository;
 
 import fin.entity.JournalEntryLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -71,11 +73,25 @@ public interface JournalEntryLineRepository extends JpaRepository<JournalEntryLi
      */
     List<JournalEntryLine> findByJournalEntryId(Long journalEntryId);
 
+    /**
+     * Find the lines of several journal entries in one query, grouped by entry and in line order
+     * (ID breaks ties between lines sharing a line number)
+     */
+    List<JournalEntryLine> findByJournalEntryIdInOrderByJournalEntryIdAscLineNumberAscIdAsc(Collection<Long> journalEntryIds);
+
     /**
      * Delete journal entry lines by journal entry ID
      */
     void deleteByJournalEntryId(Long journalEntryId);
 
+    /**
+     * Delete every journal entry line belonging to a company's journal entries in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM JournalEntryLine jel WHERE jel.journalEntryId IN " +
+           "(SELECT je.id FROM JournalEntry je WHERE je.companyId = :companyId)")
+    int bulkDeleteByCompanyId(@Param("companyId") Long companyId);
+
     /**
      * Find journal entry lines by source transaction ID
      */
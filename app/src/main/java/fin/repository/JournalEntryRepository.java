@@ -30,6 +30,7 @@ import fin.entity.JournalEntry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -74,6 +75,13 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long
      */
     void deleteByCompanyId(Long companyId);
 
+    /**
+     * Delete all journal entry headers for a company in one statement (lines must be deleted first)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM JournalEntry je WHERE je.companyId = :companyId")
+    int bulkDeleteByCompanyId(@Param("companyId") Long companyId);
+
     // ============================================================================
     // TASK_007: Pagination support for Audit Trail
     // ============================================================================
@@ -165,4 +173,56 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long
         @Param("endDate") LocalDate endDate,
         @Param("searchTerm") String searchTerm,
         Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of journal entries for the audit trail, newest first.
+     * Returns the entries that sort strictly after the cursor (afterDate, afterId) in
+     * (entry date DESC, id DESC) order and fall within the date bounds. The query seeks
+     * straight to the cursor through idx_journal_entries_company_period_date_id, so its cost
+     * does not grow with page depth. Pass a Pageable of page 0 to cap the page size; no
+     * count query is run.
+     *
+     * @param companyId Company identifier
+     * @param fiscalPeriodId Fiscal period identifier
+     * @param startDate Earliest entry date (inclusive)
+     * @param endDate Latest entry date (inclusive)
+     * @param afterDate Entry date of the last entry on the previous page
+     * @param afterId ID of the last entry on the previous page
+     * @param pageable Page size limit (page number must be 0)
+     * @return Entries following the cursor
+     */
+    @Query("SELECT je FROM JournalEntry je WHERE je.companyId = :companyId " +
+           "AND je.fiscalPeriodId = :fiscalPeriodId " +
+           "AND je.entryDate BETWEEN :startDate AND :endDate " +
+           "AND (je.entryDate < :afterDate OR (je.entryDate = :afterDate AND je.id < :afterId)) " +
+           "ORDER BY je.entryDate DESC, je.id DESC")
+    List<JournalEntry> findKeysetPage(
+        @Param("companyId") Long companyId,
+        @Param("fiscalPeriodId") Long fiscalPeriodId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") Long afterId,
+        Pageable pageable);
+
+    /**
+     * Keyset page of journal entries matching a search term in description or reference
+     * (case-insensitive). Same ordering and cursor semantics as {@link #findKeysetPage}.
+     */
+    @Query("SELECT je FROM JournalEntry je WHERE je.companyId = :companyId " +
+           "AND je.fiscalPeriodId = :fiscalPeriodId " +
+           "AND je.entryDate BETWEEN :startDate AND :endDate " +
+           "AND (je.entryDate < :afterDate OR (je.entryDate = :afterDate AND je.id < :afterId)) " +
+           "AND (LOWER(je.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "     OR LOWER(je.reference) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "ORDER BY je.entryDate DESC, je.id DESC")
+    List<JournalEntry> findKeysetPageBySearchTerm(
+        @Param("companyId") Long companyId,
+        @Param("fiscalPeriodId") Long fiscalPeriodId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") Long afterId,
+        @Param("searchTerm") String searchTerm,
+        Pageable pageable);
+}
@@ -16,6 +16,7 @@ package fin.repository;
 
 import fin.entity.Payslip;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,6 +40,15 @@ public interface PayslipRepository extends JpaRepository<Payslip, Long> {
      */
     List<Payslip> findByFiscalPeriodId(Long fiscalPeriodId);
 
+    /**
+     * Delete every payslip of a fiscal period in one statement.
+     *
+     * @return number of payslips deleted
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Payslip p WHERE p.fiscalPeriodId = :fiscalPeriodId")
+    int deleteAllByFiscalPeriodId(@Param("fiscalPeriodId") Long fiscalPeriodId);
+
     /**
      * Find payslips for a specific employee
      */
@@ -0,0 +1,130 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands out pooled connections to the JDBC report queries and records per-query pool metrics.
+ *
+ * For every connection borrowed it records:
+ * <ul>
+ *   <li>{@code fin.report.connection.acquire} - time spent waiting for a pooled connection</li>
+ *   <li>{@code fin.report.query} - time the connection was held (query plus result mapping)</li>
+ * </ul>
+ * both tagged with the query name. Pool-wide gauges (hikaricp.connections.active/idle/pending)
+ * are published by Spring Boot's Hikari metrics binder.
+ *
+ * Connections come from the shared Hikari pool, so PostgreSQL server-side prepared statements
+ * (see prepareThreshold in application.properties.example) survive between report requests.
+ */
+@Component
+public class ReportConnectionProvider {
+
+    private static final Logger LOGGER = Logger.getLogger(ReportConnectionProvider.class.getName());
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    public ReportConnectionProvider(DataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * Borrow a pooled connection for a named report query. Closing the returned connection
+     * returns it to the pool and records how long it was held.
+     */
+    public Connection getConnection(String queryName) throws SQLException {
+        long requested = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        long acquired = System.nanoTime();
+
+        long waitNanos = acquired - requested;
+        timer("fin.report.connection.acquire", queryName).record(waitNanos, TimeUnit.NANOSECONDS);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Report query " + queryName + " acquired connection in "
+                        + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms" + describePool());
+        }
+
+        return timedConnection(connection, queryName, acquired);
+    }
+
+    private Connection timedConnection(Connection connection, String queryName, long acquired) {
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0 && !closed[0]) {
+                    closed[0] = true;
+                    timer("fin.report.query", queryName).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    private Timer timer(String name, String queryName) {
+        return Timer.builder(name)
+            .tag("query", queryName)
+            .register(meterRegistry);
+    }
+
+    private String describePool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                if (pool != null) {
+                    return " (pool active=" + pool.getActiveConnections() + ", idle=" + pool.getIdleConnections()
+                           + ", waiting=" + pool.getThreadsAwaitingConnection() + ")";
+                }
+            }
+        } catch (SQLException e) {
+            // Pool details are diagnostic only
+        }
+        return "";
+    }
+}
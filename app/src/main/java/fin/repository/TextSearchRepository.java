@@ -0,0 +1,313 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import fin.dto.SearchHit;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ranked description/reference search over bank transactions and journal entries.
+ *
+ * On PostgreSQL with pg_trgm (see migration V18) a query matches rows whose words start with every
+ * search word (full-text prefix match), whose text contains the search text, or whose text is a
+ * close trigram match (typos), and is ranked in SQL. Each of those predicates is served by a GIN
+ * index, so search cost follows the number of matches rather than the size of the company.
+ *
+ * On any other database (H2 in tests), or when pg_trgm is missing, it falls back to
+ * {@link Mode#LIKE}: rows containing every search word, ranked in SQL by a simple prefix/word-start
+ * score and then newest first. The fallback has no fuzzy matching.
+ */
+@Repository
+public class TextSearchRepository {
+
+    /** How searches are evaluated on the connected database */
+    public enum Mode {
+        /** Full-text prefix, substring and trigram matching, ranked by the database */
+        RANKED,
+        /** Word substring matching with a simple relevance score */
+        LIKE
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(TextSearchRepository.class.getName());
+
+    // Expressions must match the indexes created by V18
+    private static final String BANK_TSV = "to_tsvector('simple', coalesce(description, ''))";
+    private static final String JOURNAL_TSV =
+        "to_tsvector('simple', coalesce(description, '') || ' ' || coalesce(reference, ''))";
+
+    private static final String BANK_COLUMNS =
+        "SELECT id, fiscal_period_id, transaction_date, description, reference, debit_amount, credit_amount";
+    private static final String JOURNAL_COLUMNS =
+        "SELECT id, fiscal_period_id, entry_date, description, reference";
+
+    // Searched text of a journal entry in LIKE mode
+    private static final String JOURNAL_TEXT =
+        "LOWER(TRIM(COALESCE(description, '') || ' ' || COALESCE(reference, '')))";
+
+    // Characters other than spaces that separate words when the LIKE fallback scores word starts
+    private static final String WORD_SEPARATORS = "-/.,:;()*#&+";
+
+    private final JdbcTemplate jdbc;
+    private volatile Mode mode;
+
+    public TextSearchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Search mode of the connected database, detected on first use.
+     */
+    public Mode getMode() {
+        Mode current = mode;
+        if (current == null) {
+            try {
+                current = jdbc.execute((ConnectionCallback<Mode>) con -> {
+                    if (!"PostgreSQL".equals(con.getMetaData().getDatabaseProductName())) {
+                        return Mode.LIKE;
+                    }
+                    try (Statement stmt = con.createStatement();
+                         ResultSet rs = stmt.executeQuery("SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm'")) {
+                        return rs.next() ? Mode.RANKED : Mode.LIKE;
+                    }
+                });
+                mode = current;
+                LOGGER.info("Text search mode: " + current);
+            } catch (DataAccessException e) {
+                // Not cached, so detection is retried on the next search
+                LOGGER.log(Level.WARNING, "Could not detect text search support, using LIKE search", e);
+                current = Mode.LIKE;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best matching bank transactions of a company by description.
+     *
+     * @param fiscalPeriodId restrict to one fiscal period, or null for all
+     * @param term search text; words shorter than the text (e.g. "wool") match as prefixes
+     * @param limit maximum number of hits
+     */
+    public List<SearchHit> searchBankTransactions(Long companyId, Long fiscalPeriodId, String term, int limit) {
+        String text = normalize(term);
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(BANK_COLUMNS);
+        if (getMode() == Mode.RANKED) {
+            String tsQuery = prefixQuery(words);
+            sql.append(", ts_rank(").append(BANK_TSV).append(", to_tsquery('simple', ?))")
+               .append(" + word_similarity(?, lower(coalesce(description, ''))) AS score");
+            args.add(tsQuery);
+            args.add(text);
+            appendCompanyAndPeriod(sql, args, "bank_transactions", companyId, fiscalPeriodId);
+            sql.append(" AND (").append(BANK_TSV).append(" @@ to_tsquery('simple', ?)")
+               .append(" OR lower(description) LIKE ? ESCAPE '\\' OR ? <% lower(description))")
+               .append(" ORDER BY score DESC, transaction_date DESC, id DESC LIMIT ?");
+            args.add(tsQuery);
+            args.add(containsPattern(text));
+            args.add(text);
+            args.add(limit);
+            return jdbc.query(sql.toString(), (rs, rowNum) -> bankHit(rs, rs.getDouble("score")), args.toArray());
+        }
+
+        appendLikeScore(sql, args, "LOWER(description)", text, words);
+        appendCompanyAndPeriod(sql, args, "bank_transactions", companyId, fiscalPeriodId);
+        for (String word : words) {
+            sql.append(" AND LOWER(description) LIKE ? ESCAPE '\\'");
+            args.add(containsPattern(word));
+        }
+        sql.append(" ORDER BY score DESC, transaction_date DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), (rs, rowNum) -> bankHit(rs, rs.getDouble("score")), args.toArray());
+    }
+
+    /**
+     * Best matching journal entries of a company by description or reference.
+     *
+     * @param fiscalPeriodId restrict to one fiscal period, or null for all
+     * @param term search text; words shorter than the text (e.g. "wool") match as prefixes
+     * @param limit maximum number of hits
+     */
+    public List<SearchHit> searchJournalEntries(Long companyId, Long fiscalPeriodId, String term, int limit) {
+        String text = normalize(term);
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(JOURNAL_COLUMNS);
+        if (getMode() == Mode.RANKED) {
+            String tsQuery = prefixQuery(words);
+            String pattern = containsPattern(text);
+            sql.append(", ts_rank(").append(JOURNAL_TSV).append(", to_tsquery('simple', ?))")
+               .append(" + greatest(word_similarity(?, lower(coalesce(description, ''))),")
+               .append(" word_similarity(?, lower(coalesce(reference, '')))) AS score");
+            args.add(tsQuery);
+            args.add(text);
+            args.add(text);
+            appendCompanyAndPeriod(sql, args, "journal_entries", companyId, fiscalPeriodId);
+            sql.append(" AND (").append(JOURNAL_TSV).append(" @@ to_tsquery('simple', ?)")
+               .append(" OR lower(description) LIKE ? ESCAPE '\\' OR lower(reference) LIKE ? ESCAPE '\\'")
+               .append(" OR ? <% lower(description) OR ? <% lower(reference))")
+               .append(" ORDER BY score DESC, entry_date DESC, id DESC LIMIT ?");
+            args.addAll(Arrays.asList(tsQuery, pattern, pattern, text, text, limit));
+            return jdbc.query(sql.toString(), (rs, rowNum) -> journalHit(rs, rs.getDouble("score")), args.toArray());
+        }
+
+        appendLikeScore(sql, args, JOURNAL_TEXT, text, words);
+        appendCompanyAndPeriod(sql, args, "journal_entries", companyId, fiscalPeriodId);
+        for (String word : words) {
+            sql.append(" AND (LOWER(description) LIKE ? ESCAPE '\\' OR LOWER(reference) LIKE ? ESCAPE '\\')");
+            args.add(containsPattern(word));
+            args.add(containsPattern(word));
+        }
+        sql.append(" ORDER BY score DESC, entry_date DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), (rs, rowNum) -> journalHit(rs, rs.getDouble("score")), args.toArray());
+    }
+
+    private static void appendCompanyAndPeriod(StringBuilder sql, List<Object> args, String table,
+                                               Long companyId, Long fiscalPeriodId) {
+        sql.append(" FROM ").append(table).append(" WHERE company_id = ?");
+        args.add(companyId);
+        if (fiscalPeriodId != null) {
+            sql.append(" AND fiscal_period_id = ?");
+            args.add(fiscalPeriodId);
+        }
+    }
+
+    private static SearchHit bankHit(ResultSet rs, double score) throws SQLException {
+        BigDecimal debit = rs.getBigDecimal("debit_amount");
+        BigDecimal amount = debit != null && debit.signum() != 0 ? debit : rs.getBigDecimal("credit_amount");
+        return new SearchHit(SearchHit.Type.BANK_TRANSACTION,
+            rs.getLong("id"),
+            rs.getObject("fiscal_period_id", Long.class),
+            rs.getObject("transaction_date", LocalDate.class),
+            rs.getString("description"),
+            rs.getString("reference"),
+            amount,
+            score);
+    }
+
+    private static SearchHit journalHit(ResultSet rs, double score) throws SQLException {
+        return new SearchHit(SearchHit.Type.JOURNAL_ENTRY,
+            rs.getLong("id"),
+            rs.getObject("fiscal_period_id", Long.class),
+            rs.getObject("entry_date", LocalDate.class),
+            rs.getString("description"),
+            rs.getString("reference"),
+            null,
+            score);
+    }
+
+    /**
+     * LIKE fallback relevance as a "score" column, so rows are ranked before LIMIT: 1.0 when the text
+     * starts with the search text, 0.75 when every search word starts a word of the text (after a space
+     * or one of {@link #WORD_SEPARATORS}), otherwise 0.5 (the words only occur inside other words).
+     */
+    private static void appendLikeScore(StringBuilder sql, List<Object> args, String value,
+                                        String text, List<String> words) {
+        String spaced = "' ' || TRANSLATE(" + value + ", '" + WORD_SEPARATORS + "', '"
+            + " ".repeat(WORD_SEPARATORS.length()) + "')";
+        sql.append(", CASE WHEN ").append(value).append(" LIKE ? ESCAPE '\\' THEN 1.0 WHEN ");
+        args.add(escapeLike(text) + "%");
+        for (int i = 0; i < words.size(); i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            sql.append(spaced).append(" LIKE ? ESCAPE '\\'");
+            args.add("% " + escapeLike(words.get(i)) + "%");
+        }
+        sql.append(" THEN 0.75 ELSE 0.5 END AS score");
+    }
+
+    static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Letter/digit words of the normalized search text; everything else separates words.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * tsquery requiring every word as a prefix, e.g. "wool:* & sand:*". Words contain only letters
+     * and digits, so the query cannot be malformed.
+     */
+    static String prefixQuery(List<String> words) {
+        StringBuilder query = new StringBuilder();
+        for (String word : words) {
+            if (query.length() > 0) {
+                query.append(" & ");
+            }
+            query.append(word).append(":*");
+        }
+        return query.toString();
+    }
+
+    /**
+     * LIKE pattern matching {@code text} anywhere, with LIKE wildcards in the text escaped.
+     */
+    static String containsPattern(String text) {
+        return "%" + escapeLike(text) + "%";
+    }
+
+    /**
+     * Escape LIKE wildcards and the escape character itself, for use with {@code ESCAPE '\'}.
+     */
+    public static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming reader for transaction exports.
+ *
+ * Each bank transaction is joined to the journal line that classifies it (the credit line for
+ * money in, the debit line for money out) and its account in one query. Rows are handed to the
+ * caller one at a time as they are fetched, so memory use does not grow with the period size.
+ * Call inside a transaction: PostgreSQL only uses a cursor for the fetch size when auto-commit is off.
+ */
+@Repository
+public class TransactionExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String EXPORT_SQL = """
+        SELECT bt.id, bt.transaction_date, bt.description, bt.debit_amount, bt.credit_amount,
+               bt.balance, bt.category, bt.created_at, a.code AS account_code, a.name AS account_name
+        FROM bank_transactions bt
+        LEFT JOIN journal_entry_lines jel ON jel.source_transaction_id = bt.id
+            AND ((bt.credit_amount > 0 AND jel.credit_amount > 0)
+                 OR (COALESCE(bt.credit_amount, 0) <= 0 AND bt.debit_amount > 0 AND jel.debit_amount > 0))
+        LEFT JOIN accounts a ON a.id = jel.account_id
+        WHERE bt.company_id = ? AND bt.fiscal_period_id = ?
+        ORDER BY bt.id, jel.id
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public TransactionExportRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Stream the transactions of a fiscal period in ID order with their classifying account.
+     * A transaction with several matching journal lines is reported once, with the first line.
+     *
+     * @return number of rows passed to the handler
+     */
+    public int streamTransactions(Long companyId, Long fiscalPeriodId, ExportRowHandler handler) {
+        long[] lastId = {Long.MIN_VALUE};
+        int[] count = {0};
+
+        jdbc.query(conn -> {
+            PreparedStatement stmt = conn.prepareStatement(EXPORT_SQL);
+            stmt.setFetchSize(FETCH_SIZE);
+            stmt.setLong(1, companyId);
+            stmt.setLong(2, fiscalPeriodId);
+            return stmt;
+        }, (RowCallbackHandler) rs -> {
+            long id = rs.getLong("id");
+            if (id == lastId[0]) {
+                return;
+            }
+            lastId[0] = id;
+            count[0]++;
+            handler.accept(mapRow(rs, id));
+        });
+
+        return count[0];
+    }
+
+    private static ExportRow mapRow(ResultSet rs, long id) throws SQLException {
+        java.sql.Date date = rs.getDate("transaction_date");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new ExportRow(
+            id,
+            date != null ? date.toLocalDate() : null,
+            rs.getString("description"),
+            rs.getBigDecimal("debit_amount"),
+            rs.getBigDecimal("credit_amount"),
+            rs.getBigDecimal("balance"),
+            rs.getString("category"),
+            createdAt != null ? createdAt.toLocalDateTime() : null,
+            rs.getString("account_code"),
+            rs.getString("account_name"));
+    }
+
+    /**
+     * Receives export rows as they are read.
+     */
+    @FunctionalInterface
+    public interface ExportRowHandler {
+        void accept(ExportRow row) throws SQLException;
+    }
+
+    /**
+     * One exported transaction with the code and name of its classifying account (null when unclassified).
+     */
+    public static class ExportRow {
+        private final long id;
+        private final LocalDate transactionDate;
+        private final String details;
+        private final BigDecimal debitAmount;
+        private final BigDecimal creditAmount;
+        private final BigDecimal balance;
+        private final String category;
+        private final LocalDateTime createdAt;
+        private final String accountCode;
+        private final String accountName;
+
+        public ExportRow(long id, LocalDate transactionDate, String details, BigDecimal debitAmount,
+                         BigDecimal creditAmount, BigDecimal balance, String category, LocalDateTime createdAt,
+                         String accountCode, String accountName) {
+            this.id = id;
+            this.transactionDate = transactionDate;
+            this.details = details;
+            this.debitAmount = debitAmount;
+            this.creditAmount = creditAmount;
+            this.balance = balance;
+            this.category = category;
+            this.createdAt = createdAt;
+            this.accountCode = accountCode;
+            this.accountName = accountName;
+        }
+
+        public long getId() { return id; }
+        public LocalDate getTransactionDate() { return transactionDate; }
+        public String getDetails() { return details; }
+        public BigDecimal getDebitAmount() { return debitAmount; }
+        public BigDecimal getCreditAmount() { return creditAmount; }
+        public BigDecimal getBalance() { return balance; }
+        public String getCategory() { return category; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public String getAccountCode() { return accountCode; }
+        public String getAccountName() { return accountName; }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.entity.User;
+import fin.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of the users behind authenticated JWT requests.
+ *
+ * JwtAuthenticationFilter still validates every token, but the user row is loaded once per
+ * user ID and token ID and then reused until the TTL runs out, instead of one query per request.
+ * Missing and deactivated users are cached too, so a revoked account polling the API does not
+ * reach the database either. UserService evicts a user's entries whenever it saves or deletes
+ * that user; the TTL bounds staleness for any other change.
+ *
+ * Lookups are counted in {@code fin.auth.principal.cache}, tagged {@code result=hit|miss}.
+ */
+@Service
+public class AuthPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public AuthPrincipalCache(UserRepository userRepository,
+                              @Value("${fin.auth.principal-cache.ttl-seconds:30}") int ttlSeconds,
+                              @Value("${fin.auth.principal-cache.max-entries:10000}") int maxEntries,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this(userRepository, Duration.ofSeconds(ttlSeconds), maxEntries, System::nanoTime,
+             meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    AuthPrincipalCache(UserRepository userRepository, Duration ttl, int maxEntries,
+                       LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("fin.auth.principal.cache").tag("result", "hit")
+            .description("Authenticated principal lookups served from the cache").register(meterRegistry);
+        this.misses = Counter.builder("fin.auth.principal.cache").tag("result", "miss")
+            .description("Authenticated principal lookups that loaded the user").register(meterRegistry);
+        Gauge.builder("fin.auth.principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Get the active user for a validated token, loading it on a miss.
+     *
+     * @return the user, or null if the user does not exist or is deactivated
+     */
+    public User getActiveUser(Long userId, String tokenId) {
+        long now = nanoClock.getAsLong();
+        Key key = new Key(userId, tokenId);
+        Entry cached = entries.get(key);
+        if (cached != null && now - cached.expiresAtNanos < 0) {
+            hits.increment();
+            return cached.user;
+        }
+
+        misses.increment();
+        User user = userRepository.findById(userId).filter(User::getActive).orElse(null);
+        if (ttlNanos > 0) {
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+                if (entries.size() >= maxEntries) {
+                    entries.clear();
+                }
+            }
+            entries.put(key, new Entry(user, now + ttlNanos));
+        }
+        return user;
+    }
+
+    /**
+     * Drop every cached token of a user. When called inside a transaction the entries are
+     * evicted again after commit so a concurrent request cannot cache the pre-commit user.
+     */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        entries.keySet().removeIf(key -> userId.equals(key.userId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.keySet().removeIf(key -> userId.equals(key.userId));
+                }
+            });
+        }
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final String tokenId;
+
+        private Key(Long userId, String tokenId) {
+            this.userId = userId;
+            this.tokenId = tokenId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId.equals(other.userId) && Objects.equals(tokenId, other.tokenId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * userId.hashCode() + Objects.hashCode(tokenId);
+        }
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAtNanos;
+
+        private Entry(User user, long expiresAtNanos) {
+            this.user = user;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.repository.UserCompanyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Short-lived cache of user to company memberships for per-request checks.
+ *
+ * RateLimitInterceptor asks on every company-scoped request whether the caller belongs to the
+ * company before charging the company's shared limit; the answer is loaded once per user and
+ * company and reused until the TTL runs out. Non-memberships are cached too. CompanyService
+ * evicts the affected entries whenever it adds a membership or deletes a company; the TTL
+ * bounds staleness for any other change. Access control still goes through
+ * {@link CompanyService#hasUserAccessToCompany}, which always reads the database.
+ *
+ * Lookups are counted in {@code fin.company.membership.cache}, tagged {@code result=hit|miss}.
+ */
+@Service
+public class CompanyMembershipCache {
+
+    private final UserCompanyRepository userCompanyRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public CompanyMembershipCache(UserCompanyRepository userCompanyRepository,
+                                  @Value("${fin.company.membership-cache.ttl-seconds:30}") int ttlSeconds,
+                                  @Value("${fin.company.membership-cache.max-entries:10000}") int maxEntries,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this(userCompanyRepository, Duration.ofSeconds(ttlSeconds), maxEntries, System::nanoTime,
+             meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    CompanyMembershipCache(UserCompanyRepository userCompanyRepository, Duration ttl, int maxEntries,
+                           LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.userCompanyRepository = userCompanyRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("fin.company.membership.cache").tag("result", "hit")
+            .description("Company membership checks served from the cache").register(meterRegistry);
+        this.misses = Counter.builder("fin.company.membership.cache").tag("result", "miss")
+            .description("Company membership checks that queried the database").register(meterRegistry);
+        Gauge.builder("fin.company.membership.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Check whether the user is an active member of the company, querying on a miss.
+     */
+    public boolean isMember(Long userId, Long companyId) {
+        long now = nanoClock.getAsLong();
+        Key key = new Key(userId, companyId);
+        Entry cached = entries.get(key);
+        if (cached != null && now - cached.expiresAtNanos < 0) {
+            hits.increment();
+            return cached.member;
+        }
+
+        misses.increment();
+        boolean member = userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(userId, companyId, true);
+        if (ttlNanos > 0) {
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+                if (entries.size() >= maxEntries) {
+                    entries.clear();
+                }
+            }
+            entries.put(key, new Entry(member, now + ttlNanos));
+        }
+        return member;
+    }
+
+    /**
+     * Drop every cached membership of a user.
+     */
+    public void evictUser(Long userId) {
+        if (userId != null) {
+            evict(key -> userId.equals(key.userId));
+        }
+    }
+
+    /**
+     * Drop every cached membership of a company.
+     */
+    public void evictCompany(Long companyId) {
+        if (companyId != null) {
+            evict(key -> companyId.equals(key.companyId));
+        }
+    }
+
+    /**
+     * When called inside a transaction the entries are evicted again after commit so a
+     * concurrent request cannot cache the pre-commit membership.
+     */
+    private void evict(Predicate<Key> matches) {
+        entries.keySet().removeIf(matches);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.keySet().removeIf(matches);
+                }
+            });
+        }
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final Long companyId;
+
+        private Key(Long userId, Long companyId) {
+            this.userId = userId;
+            this.companyId = companyId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId.equals(other.userId) && companyId.equals(other.companyId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * userId.hashCode() + companyId.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final boolean member;
+        private final long expiresAtNanos;
+
+        private Entry(boolean member, long expiresAtNanos) {
+            this.member = member;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -57,14 +57,20 @@ public class CompanyService {
     private final CompanyRepository companyRepository;
     private final UserCompanyRepository userCompanyRepository;
     private final FiscalPeriodRepository fiscalPeriodRepository;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
+    private final CompanyMembershipCache membershipCache;
 
     public CompanyService(CompanyRepository companyRepository,
                                UserCompanyRepository userCompanyRepository,
-                               FiscalPeriodRepository fiscalPeriodRepository) {
+                               FiscalPeriodRepository fiscalPeriodRepository,
+                               FiscalPeriodIndexService fiscalPeriodIndexService,
+                               CompanyMembershipCache membershipCache) {
         LOGGER.info("🔧 DEBUG: CompanyService constructor called - service is being instantiated");
         this.companyRepository = companyRepository;
         this.userCompanyRepository = userCompanyRepository;
         this.fiscalPeriodRepository = fiscalPeriodRepository;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
+        this.membershipCache = membershipCache;
         LOGGER.info("🔧 DEBUG: CompanyService constructor completed successfully");
     }
 
@@ -141,6 +147,7 @@ public class CompanyService {
         userCompany.setCreatedBy(user.getEmail());
         userCompany.setUpdatedBy(user.getEmail());
         userCompanyRepository.save(userCompany);
+        membershipCache.evictCompany(savedCompany.getId());
         
         return savedCompany;
     }
@@ -238,6 +245,7 @@ public class CompanyService {
         }
 
         companyRepository.deleteById(id);
+        membershipCache.evictCompany(id);
         return true;
     }
 
@@ -323,7 +331,9 @@ public class CompanyService {
      */
     @Transactional
     public FiscalPeriod createFiscalPeriod(FiscalPeriod fiscalPeriod) {
-        return fiscalPeriodRepository.save(fiscalPeriod);
+        FiscalPeriod saved = fiscalPeriodRepository.save(fiscalPeriod);
+        fiscalPeriodIndexService.invalidate(saved.getCompanyId());
+        return saved;
     }
 
     /**
@@ -352,7 +362,9 @@ public class CompanyService {
         // Preserve company_id and other system fields
         existingPeriod.setUpdatedAt(java.time.LocalDateTime.now());
 
-        return fiscalPeriodRepository.save(existingPeriod);
+        FiscalPeriod saved = fiscalPeriodRepository.save(existingPeriod);
+        fiscalPeriodIndexService.invalidate(saved.getCompanyId());
+        return saved;
     }
 
     /**
@@ -360,10 +372,12 @@ public class CompanyService {
      */
     @Transactional
     public boolean deleteFiscalPeriod(Long id) {
-        if (!fiscalPeriodRepository.existsById(id)) {
+        FiscalPeriod existing = fiscalPeriodRepository.findById(id).orElse(null);
+        if (existing == null) {
             return false;
         }
         fiscalPeriodRepository.deleteById(id);
+        fiscalPeriodIndexService.invalidate(existing.getCompanyId());
         return true;
     }
 
@@ -375,7 +389,9 @@ public class CompanyService {
         FiscalPeriod period = getFiscalPeriodById(id);
         if (period != null) {
             period.setClosed(true);
-            return fiscalPeriodRepository.save(period);
+            FiscalPeriod saved = fiscalPeriodRepository.save(period);
+            fiscalPeriodIndexService.invalidate(saved.getCompanyId());
+            return saved;
         }
         return null;
     }
@@ -109,36 +109,8 @@ public class EmailService {
         }
 
         try {
-            // Create session
             Session session = createSession();
-
-            // Create message
-            MimeMessage message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(fromEmail, fromName));
-            message.setRecipient(Message.RecipientType.TO, new InternetAddress(toEmail));
-            message.setSubject("Your Payslip - " + payrollPeriodName);
-
-            // Create multipart message
-            Multipart multipart = new MimeMultipart();
-
-            // Add text part
-            BodyPart textPart = new MimeBodyPart();
-            String emailBody = createEmailBody(employeeName, payrollPeriodName);
-            textPart.setText(emailBody);
-            multipart.addBodyPart(textPart);
-
-            // Add attachment
-            if (payslipPdfPath != null && !payslipPdfPath.trim().isEmpty()) {
-                MimeBodyPart attachmentPart = new MimeBodyPart();
-                attachmentPart.attachFile(new File(payslipPdfPath));
-                attachmentPart.setFileName("Payslip_" + payrollPeriodName.replaceAll("\\s+", "_") + ".pdf");
-                multipart.addBodyPart(attachmentPart);
-            }
-
-            // Set content
-            message.setContent(multipart);
-
-            // Send message
+            MimeMessage message = createPayslipMessage(session, toEmail, employeeName, payslipPdfPath, payrollPeriodName);
             Transport.send(message);
 
             LOGGER.info("Payslip email sent successfully to " + toEmail + " for employee " + employeeName);
@@ -161,25 +133,81 @@ public class EmailService {
         int failureCount = 0;
         java.util.List<String> failedEmails = new java.util.ArrayList<>();
 
-        for (EmailRequest request : emailRequests) {
-            boolean success = sendPayslipEmail(
-                request.toEmail,
-                request.employeeName,
-                request.payslipPdfPath,
-                request.payrollPeriodName
-            );
-
-            if (success) {
-                successCount++;
-            } else {
-                failureCount++;
-                failedEmails.add(request.toEmail + " (" + request.employeeName + ")");
+        // One connection for the whole batch instead of a connect/handshake/login per message
+        Session session = createSession();
+        Transport transport = null;
+        try {
+            for (EmailRequest request : emailRequests) {
+                if (request.toEmail == null || request.toEmail.trim().isEmpty()) {
+                    LOGGER.warning("Cannot send email: no email address provided for employee " + request.employeeName);
+                    failureCount++;
+                    failedEmails.add(request.toEmail + " (" + request.employeeName + ")");
+                    continue;
+                }
+                try {
+                    if (transport == null || !transport.isConnected()) {
+                        closeQuietly(transport);
+                        transport = session.getTransport("smtp");
+                        transport.connect();
+                    }
+                    MimeMessage message = createPayslipMessage(session, request.toEmail, request.employeeName,
+                        request.payslipPdfPath, request.payrollPeriodName);
+                    transport.sendMessage(message, message.getAllRecipients());
+                    LOGGER.info("Payslip email sent successfully to " + request.toEmail + " for employee " + request.employeeName);
+                    successCount++;
+                } catch (Exception e) {
+                    LOGGER.log(Level.SEVERE, "Failed to send payslip email to " + request.toEmail
+                        + " for employee " + request.employeeName, e);
+                    failureCount++;
+                    failedEmails.add(request.toEmail + " (" + request.employeeName + ")");
+                }
             }
+        } finally {
+            closeQuietly(transport);
         }
 
         return new EmailSendResult(successCount, failureCount, failedEmails);
     }
 
+    private MimeMessage createPayslipMessage(Session session, String toEmail, String employeeName,
+                                             String payslipPdfPath, String payrollPeriodName)
+            throws MessagingException, java.io.IOException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(fromEmail, fromName));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(toEmail));
+        message.setSubject(createSubject(payrollPeriodName));
+
+        // Create multipart message
+        Multipart multipart = new MimeMultipart();
+
+        // Add text part
+        BodyPart textPart = new MimeBodyPart();
+        textPart.setText(createEmailBody(employeeName, payrollPeriodName));
+        multipart.addBodyPart(textPart);
+
+        // Add attachment
+        if (payslipPdfPath != null && !payslipPdfPath.trim().isEmpty()) {
+            MimeBodyPart attachmentPart = new MimeBodyPart();
+            attachmentPart.attachFile(new File(payslipPdfPath));
+            attachmentPart.setFileName(createAttachmentName(payrollPeriodName));
+            multipart.addBodyPart(attachmentPart);
+        }
+
+        message.setContent(multipart);
+        return message;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.log(Level.FINE, "Error closing SMTP connection", e);
+        }
+    }
+
     private Session createSession() {
         Properties props = new Properties();
         props.put("mail.smtp.host", smtpHost);
@@ -207,7 +235,24 @@ public class EmailService {
         }
     }
 
-    private String createEmailBody(String employeeName, String payrollPeriodName) {
+    /**
+     * Subject line of a payslip email
+     */
+    public static String createSubject(String payrollPeriodName) {
+        return "Your Payslip - " + payrollPeriodName;
+    }
+
+    /**
+     * File name of the attached payslip PDF
+     */
+    public static String createAttachmentName(String payrollPeriodName) {
+        return "Payslip_" + payrollPeriodName.replaceAll("\\s+", "_") + ".pdf";
+    }
+
+    /**
+     * Plain-text body of a payslip email
+     */
+    public static String createEmailBody(String employeeName, String payrollPeriodName) {
         String contactEmail = System.getProperty("fin.email.contact",
             System.getenv("EMAIL_CONTACT") != null ? System.getenv("EMAIL_CONTACT") : "payroll@company.com");
         String contactPhone = System.getProperty("fin.email.phone",
@@ -63,14 +63,18 @@ public class FiscalPeriodBoundaryValidator {
     private static final Logger logger = LoggerFactory.getLogger(FiscalPeriodBoundaryValidator.class);
     
     private final FiscalPeriodRepository fiscalPeriodRepository;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
     
     /**
      * Constructor with dependency injection.
      *
      * @param fiscalPeriodRepository Repository for fiscal period database operations
+     * @param fiscalPeriodIndexService Cached per-company fiscal period index
      */
-    public FiscalPeriodBoundaryValidator(FiscalPeriodRepository fiscalPeriodRepository) {
+    public FiscalPeriodBoundaryValidator(FiscalPeriodRepository fiscalPeriodRepository,
+                                         FiscalPeriodIndexService fiscalPeriodIndexService) {
         this.fiscalPeriodRepository = fiscalPeriodRepository;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
     }
     
     /**
@@ -100,7 +104,7 @@ public class FiscalPeriodBoundaryValidator {
         }
         
         // Fetch fiscal period
-        Optional<FiscalPeriod> fiscalPeriodOpt = fiscalPeriodRepository.findById(transaction.getFiscalPeriodId());
+        Optional<FiscalPeriod> fiscalPeriodOpt = findFiscalPeriod(transaction);
         
         if (fiscalPeriodOpt.isEmpty()) {
             logger.error("Fiscal period not found: id={}", transaction.getFiscalPeriodId());
@@ -152,7 +156,7 @@ public class FiscalPeriodBoundaryValidator {
         }
         
         // Fetch fiscal period
-        Optional<FiscalPeriod> fiscalPeriodOpt = fiscalPeriodRepository.findById(transaction.getFiscalPeriodId());
+        Optional<FiscalPeriod> fiscalPeriodOpt = findFiscalPeriod(transaction);
         
         if (fiscalPeriodOpt.isEmpty()) {
             return String.format(
@@ -208,6 +212,19 @@ public class FiscalPeriodBoundaryValidator {
         return new ValidationResult(isValid, errorMessage);
     }
     
+    /**
+     * Resolve the transaction's fiscal period from the company's cached index, falling back
+     * to the repository for periods not (yet) in the index.
+     */
+    private Optional<FiscalPeriod> findFiscalPeriod(BankTransaction transaction) {
+        FiscalPeriod indexed = fiscalPeriodIndexService.getIndex(transaction.getCompanyId())
+            .findById(transaction.getFiscalPeriodId());
+        if (indexed != null) {
+            return Optional.of(indexed);
+        }
+        return fiscalPeriodRepository.findById(transaction.getFiscalPeriodId());
+    }
+    
     /**
      * Simple validation result container.
      */
@@ -0,0 +1,109 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * Licensed under Apache License 2.0 - Commercial use requires separate licensing
+ */
+
+package fin.service;
+
+import fin.entity.FiscalPeriod;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable date index over one company's fiscal periods.
+ *
+ * <p>Periods are held in a start-date sorted array and resolved by binary search, so
+ * date-to-period lookups are O(log n) without a database round trip. Entries are
+ * detached copies; callers must not rely on payroll fields being current.
+ */
+public final class FiscalPeriodIndex {
+
+    private static final FiscalPeriodIndex EMPTY = new FiscalPeriodIndex(List.of());
+
+    private final FiscalPeriod[] periods;
+    private final LocalDate[] startDates;
+    private final Map<Long, FiscalPeriod> periodsById;
+
+    private FiscalPeriodIndex(List<FiscalPeriod> sortedPeriods) {
+        this.periods = sortedPeriods.toArray(new FiscalPeriod[0]);
+        this.startDates = new LocalDate[periods.length];
+        this.periodsById = new HashMap<>(periods.length * 2);
+        for (int i = 0; i < periods.length; i++) {
+            startDates[i] = periods[i].getStartDate();
+            periodsById.put(periods[i].getId(), periods[i]);
+        }
+    }
+
+    /**
+     * Build an index from fiscal periods in any order. Periods without both dates are skipped.
+     */
+    public static FiscalPeriodIndex of(Collection<FiscalPeriod> fiscalPeriods) {
+        if (fiscalPeriods == null || fiscalPeriods.isEmpty()) {
+            return EMPTY;
+        }
+        List<FiscalPeriod> sorted = new ArrayList<>(fiscalPeriods.size());
+        for (FiscalPeriod period : fiscalPeriods) {
+            if (period != null && period.getStartDate() != null && period.getEndDate() != null) {
+                sorted.add(new FiscalPeriod(period));
+            }
+        }
+        sorted.sort(Comparator.comparing(FiscalPeriod::getStartDate)
+            .thenComparing(FiscalPeriod::getEndDate));
+        return new FiscalPeriodIndex(sorted);
+    }
+
+    public static FiscalPeriodIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Find the period containing a date. When periods overlap, the one with the latest
+     * start date wins, matching the previous newest-first linear scan.
+     *
+     * @return containing period, or null if none covers the date
+     */
+    public FiscalPeriod findContaining(LocalDate date) {
+        if (date == null || periods.length == 0) {
+            return null;
+        }
+        int pos = Arrays.binarySearch(startDates, date);
+        // Last period whose start date is on or before the date (rightmost among equal starts)
+        int candidate = pos >= 0 ? lastIndexOfStart(pos) : -pos - 2;
+        for (int i = candidate; i >= 0; i--) {
+            if (!date.isAfter(periods[i].getEndDate())) {
+                return periods[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Look up a period of this company by ID.
+     */
+    public FiscalPeriod findById(Long fiscalPeriodId) {
+        return fiscalPeriodId != null ? periodsById.get(fiscalPeriodId) : null;
+    }
+
+    public int size() {
+        return periods.length;
+    }
+
+    private int lastIndexOfStart(int pos) {
+        while (pos + 1 < startDates.length && startDates[pos + 1].equals(startDates[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * Licensed under Apache License 2.0 - Commercial use requires separate licensing
+ */
+
+package fin.service;
+
+import fin.entity.FiscalPeriod;
+import fin.repository.FiscalPeriodRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-company cache of {@link FiscalPeriodIndex}.
+ *
+ * <p>An index is loaded with a single query the first time a company is resolved and reused
+ * by statement ingestion and boundary validation. Every code path that creates, edits or
+ * deletes fiscal periods must call {@link #invalidate(Long)}.
+ */
+@Service
+public class FiscalPeriodIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FiscalPeriodIndexService.class);
+
+    private final FiscalPeriodRepository fiscalPeriodRepository;
+
+    // Fiscal period index per company; evicted whenever a company's periods change
+    private final Map<Long, FiscalPeriodIndex> indexes = new ConcurrentHashMap<>();
+
+    public FiscalPeriodIndexService(FiscalPeriodRepository fiscalPeriodRepository) {
+        this.fiscalPeriodRepository = fiscalPeriodRepository;
+    }
+
+    /**
+     * Get the fiscal period index for a company, loading it on first use.
+     */
+    public FiscalPeriodIndex getIndex(Long companyId) {
+        if (companyId == null) {
+            return FiscalPeriodIndex.empty();
+        }
+        FiscalPeriodIndex cached = indexes.get(companyId);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<FiscalPeriod> periods = fiscalPeriodRepository.findByCompanyIdOrderByStartDateDesc(companyId);
+        FiscalPeriodIndex index = FiscalPeriodIndex.of(periods);
+        indexes.put(companyId, index);
+        logger.debug("Indexed {} fiscal periods for company {}", index.size(), companyId);
+        return index;
+    }
+
+    /**
+     * Drop the cached index for a company. When called inside a transaction the entry is
+     * evicted again after commit so a concurrent reload cannot cache pre-commit periods.
+     */
+    public void invalidate(Long companyId) {
+        if (companyId == null) {
+            return;
+        }
+        indexes.remove(companyId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexes.remove(companyId);
+                }
+            });
+        }
+    }
+}
@@ -35,12 +35,15 @@ public class FiscalPeriodSetupService {
 
     private final FiscalPeriodCalculationService calculationService;
     private final FiscalPeriodRepository fiscalPeriodRepository;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
 
     public FiscalPeriodSetupService(
             FiscalPeriodCalculationService calculationService,
-            FiscalPeriodRepository fiscalPeriodRepository) {
+            FiscalPeriodRepository fiscalPeriodRepository,
+            FiscalPeriodIndexService fiscalPeriodIndexService) {
         this.calculationService = calculationService;
         this.fiscalPeriodRepository = fiscalPeriodRepository;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
     }
 
     /**
@@ -69,6 +72,7 @@ public class FiscalPeriodSetupService {
 
         // Save the fiscal period
         FiscalPeriod savedPeriod = fiscalPeriodRepository.save(fiscalPeriod);
+        fiscalPeriodIndexService.invalidate(companyId);
         logger.info("Successfully created fiscal period: {} for company {}", savedPeriod.getPeriodName(), companyId);
 
         return savedPeriod;
@@ -35,6 +35,7 @@ import org.springframework.beans.factory.annotation.Value;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
+import java.util.UUID;
 
 /**
  * Simple JWT token service for session management
@@ -71,6 +72,7 @@ public class JwtService {
         payload.addProperty("plan_id", user.getPlanId());
         payload.addProperty("exp", expiry.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         payload.addProperty("iat", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        payload.addProperty("jti", UUID.randomUUID().toString());
 
         String headerEncoded = base64Encode(header.toString());
         String payloadEncoded = base64Encode(payload.toString());
@@ -148,6 +150,26 @@ public class JwtService {
         }
     }
 
+    /**
+     * Extract the token ID (jti) without validation; tokens issued without one are identified by their signature
+     */
+    public String getTokenId(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length != 3) {
+                return null;
+            }
+
+            JsonObject payloadObj = gson.fromJson(base64Decode(parts[1]), JsonObject.class);
+            if (payloadObj.has("jti") && !payloadObj.get("jti").isJsonNull()) {
+                return payloadObj.get("jti").getAsString();
+            }
+            return parts[2];
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Generate HMAC-SHA256 signature (proper JWT implementation)
      */
@@ -0,0 +1,265 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed Rate Limiting Service
+ *
+ * Holds one token bucket per caller key (user, company or client IP) and endpoint class, so one
+ * noisy tenant no longer drains a bucket shared by everyone. Buckets live in a bounded cache:
+ * entries idle for longer than the expiry are dropped, and once the cache is full the least
+ * recently used entries are evicted. A dropped bucket is recreated full on the key's next request.
+ *
+ * Rejections are counted in {@code fin.ratelimit.rejections}, tagged with the endpoint class and
+ * key scope (tagging by key itself would be unbounded); per-key counts are kept on the cache
+ * entries and exposed through {@link #getTopRejectedKeys(int)}.
+ */
+@Service
+public class KeyedRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyedRateLimiter.class);
+
+    /**
+     * Endpoint classes with their own limits
+     */
+    public enum EndpointClass {
+        LOGIN, PAYMENT, API,
+        /** All API calls for one company, across its users */
+        COMPANY
+    }
+
+    /**
+     * Who a bucket belongs to; prefixes the key
+     */
+    public enum Scope {
+        USER, COMPANY, IP;
+
+        public String key(Object id) {
+            return name().toLowerCase() + ":" + id;
+        }
+    }
+
+    private final Map<EndpointClass, Integer> requestsPerMinute = new EnumMap<>(EndpointClass.class);
+    private final int maxKeys;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Entry> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+
+    @Autowired
+    public KeyedRateLimiter(@Value("${rate.limit.login.requests-per-minute:5}") int loginRequestsPerMinute,
+                            @Value("${rate.limit.payments.requests-per-minute:10}") int paymentRequestsPerMinute,
+                            @Value("${rate.limit.api.requests-per-minute:100}") int apiRequestsPerMinute,
+                            @Value("${rate.limit.company.requests-per-minute:1000}") int companyRequestsPerMinute,
+                            @Value("${rate.limit.cache.max-keys:10000}") int maxKeys,
+                            @Value("${rate.limit.cache.expire-after-access-minutes:10}") int expireAfterAccessMinutes,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(loginRequestsPerMinute, paymentRequestsPerMinute, apiRequestsPerMinute, companyRequestsPerMinute,
+             maxKeys, Duration.ofMinutes(expireAfterAccessMinutes), System::nanoTime,
+             meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    KeyedRateLimiter(int loginRequestsPerMinute, int paymentRequestsPerMinute, int apiRequestsPerMinute,
+                     int companyRequestsPerMinute, int maxKeys, Duration expireAfterAccess,
+                     LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        requestsPerMinute.put(EndpointClass.LOGIN, loginRequestsPerMinute);
+        requestsPerMinute.put(EndpointClass.PAYMENT, paymentRequestsPerMinute);
+        requestsPerMinute.put(EndpointClass.API, apiRequestsPerMinute);
+        requestsPerMinute.put(EndpointClass.COMPANY, companyRequestsPerMinute);
+        this.maxKeys = Math.max(1, maxKeys);
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        this.nextSweepNanos = new AtomicLong(nanoClock.getAsLong() + expireAfterAccessNanos);
+
+        Gauge.builder("fin.ratelimit.keys", buckets, Map::size)
+            .description("Rate limit buckets currently cached")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take one token from the bucket of {@code key} for an endpoint class.
+     *
+     * @param key caller key built with {@link Scope#key(Object)}
+     */
+    public Decision tryConsume(EndpointClass endpointClass, String key) {
+        long now = nanoClock.getAsLong();
+        String cacheKey = endpointClass.name() + "|" + key;
+        Entry entry = buckets.computeIfAbsent(cacheKey, k -> new Entry(key, newBucket(endpointClass), now));
+        entry.lastAccessNanos = now;
+        evictIfNeeded(now);
+
+        int limit = requestsPerMinute.get(endpointClass);
+        ConsumptionProbe probe = entry.bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            return new Decision(true, limit, probe.getRemainingTokens(), 0);
+        }
+
+        entry.rejections.incrementAndGet();
+        rejectionCounter(endpointClass, key).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+        logger.warn("{} rate limit exceeded for {}. Retry after {}s", endpointClass, key, retryAfterSeconds);
+        return new Decision(false, limit, 0, retryAfterSeconds);
+    }
+
+    public int getRequestsPerMinute(EndpointClass endpointClass) {
+        return requestsPerMinute.get(endpointClass);
+    }
+
+    /**
+     * Number of buckets currently cached
+     */
+    public int getCachedKeyCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Keys with the most rejections among cached buckets, highest first (counts summed across endpoint classes)
+     */
+    public Map<String, Long> getTopRejectedKeys(int limit) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Entry entry : buckets.values()) {
+            long rejected = entry.rejections.get();
+            if (rejected > 0) {
+                totals.merge(entry.key, rejected, Long::sum);
+            }
+        }
+        Map<String, Long> top = new LinkedHashMap<>();
+        totals.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(limit)
+            .forEach(e -> top.put(e.getKey(), e.getValue()));
+        return top;
+    }
+
+    private Bucket newBucket(EndpointClass endpointClass) {
+        int perMinute = requestsPerMinute.get(endpointClass);
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(perMinute, Refill.intervally(perMinute, Duration.ofMinutes(1))))
+                .build();
+    }
+
+    private Counter rejectionCounter(EndpointClass endpointClass, String key) {
+        int separator = key.indexOf(':');
+        return Counter.builder("fin.ratelimit.rejections")
+            .description("Requests rejected by the keyed rate limiter")
+            .tag("class", endpointClass.name().toLowerCase())
+            .tag("scope", separator > 0 ? key.substring(0, separator) : "unknown")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drop idle buckets once per expiry interval, or immediately when the cache is over capacity;
+     * if it is still over capacity, evict the least recently used buckets down to 90% of capacity
+     * so a stream of new keys does not sort the cache on every request.
+     */
+    private void evictIfNeeded(long now) {
+        long sweepAt = nextSweepNanos.get();
+        boolean overCapacity = buckets.size() > maxKeys;
+        if (!overCapacity && (now - sweepAt < 0 || !nextSweepNanos.compareAndSet(sweepAt, now + expireAfterAccessNanos))) {
+            return;
+        }
+
+        buckets.values().removeIf(entry -> now - entry.lastAccessNanos > expireAfterAccessNanos);
+
+        if (buckets.size() > maxKeys) {
+            int excess = buckets.size() - maxKeys + maxKeys / 10;
+            // Snapshot access times so concurrent requests cannot reorder entries mid-sort
+            List<Map.Entry<String, Long>> idle = new ArrayList<>(buckets.size());
+            buckets.forEach((cacheKey, entry) -> idle.add(Map.entry(cacheKey, now - entry.lastAccessNanos)));
+            idle.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            for (int i = 0; i < excess && i < idle.size(); i++) {
+                buckets.remove(idle.get(i).getKey());
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Bucket bucket;
+        private final AtomicLong rejections = new AtomicLong();
+        private volatile long lastAccessNanos;
+
+        private Entry(String key, Bucket bucket, long createdNanos) {
+            this.key = key;
+            this.bucket = bucket;
+            this.lastAccessNanos = createdNanos;
+        }
+    }
+
+    /**
+     * Outcome of one consumption attempt
+     */
+    public static class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final long remaining;
+        private final long retryAfterSeconds;
+
+        public Decision(boolean allowed, int limit, long remaining, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public int getLimit() { return limit; }
+        public long getRemaining() { return remaining; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+}
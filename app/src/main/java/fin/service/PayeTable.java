@@ -0,0 +1,129 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable monthly PAYE table for one tax year, indexed for lookup.
+ *
+ * Bracket lower bounds and tax amounts are held in sorted {@code long} arrays of cents, so a lookup
+ * is a binary search over primitives with no floating point involved. Built once per tax year by
+ * {@link SARSTaxCalculator} and shared by all payroll threads.
+ *
+ * Resolution for a gross salary in cents:
+ * below the tax-free threshold or the lowest bracket - no tax;
+ * inside a bracket - that bracket's tax;
+ * between two brackets (SARS bands are whole rands, so cents can fall between them) - the band below;
+ * above the highest bracket - the highest bracket's tax.
+ */
+public final class PayeTable {
+
+    private final int taxYear;
+    private final long taxFreeThresholdCents;
+    private final long[] lowerCents;
+    private final long[] taxCents;
+
+    private PayeTable(int taxYear, long taxFreeThresholdCents, long[] lowerCents, long[] taxCents) {
+        this.taxYear = taxYear;
+        this.taxFreeThresholdCents = taxFreeThresholdCents;
+        this.lowerCents = lowerCents;
+        this.taxCents = taxCents;
+    }
+
+    /**
+     * Build a table from parsed brackets (amounts in rand). Brackets are sorted by lower bound;
+     * a repeated lower bound keeps the first bracket.
+     */
+    public static PayeTable of(int taxYear, double taxFreeThreshold, List<SARSTaxCalculator.TaxBracket> brackets) {
+        List<SARSTaxCalculator.TaxBracket> sorted = new ArrayList<>(brackets);
+        sorted.sort(Comparator.comparingDouble(SARSTaxCalculator.TaxBracket::getLower));
+
+        long[] lower = new long[sorted.size()];
+        long[] tax = new long[sorted.size()];
+        int size = 0;
+        for (SARSTaxCalculator.TaxBracket bracket : sorted) {
+            long lowerBound = toCents(bracket.getLower());
+            if (size > 0 && lower[size - 1] == lowerBound) {
+                continue;
+            }
+            lower[size] = lowerBound;
+            tax[size] = toCents(bracket.getTax());
+            size++;
+        }
+        return new PayeTable(taxYear, toCents(taxFreeThreshold), Arrays.copyOf(lower, size), Arrays.copyOf(tax, size));
+    }
+
+    public int getTaxYear() {
+        return taxYear;
+    }
+
+    /**
+     * Number of brackets in the table.
+     */
+    public int size() {
+        return lowerCents.length;
+    }
+
+    /**
+     * Monthly PAYE in cents for a monthly gross salary in cents.
+     *
+     * @throws IllegalArgumentException if the table is empty and the salary is above the tax-free threshold
+     */
+    public long findPayeCents(long grossCents) {
+        if (grossCents < taxFreeThresholdCents) {
+            return 0L;
+        }
+        if (lowerCents.length == 0) {
+            throw new IllegalArgumentException("No tax bracket found for gross salary: R" + BigDecimal.valueOf(grossCents, 2));
+        }
+
+        int index = Arrays.binarySearch(lowerCents, grossCents);
+        if (index < 0) {
+            // Last bracket starting below the salary: its own band, a gap above it, or beyond the top
+            index = -index - 2;
+        }
+        return index < 0 ? 0L : taxCents[index];
+    }
+
+    /**
+     * Monthly PAYE for a monthly gross salary, both in rand with cents.
+     */
+    public BigDecimal findPaye(BigDecimal grossSalary) {
+        long grossCents = grossSalary.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return BigDecimal.valueOf(findPayeCents(grossCents), 2);
+    }
+
+    private static long toCents(double rand) {
+        return Math.round(rand * 100.0);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.entity.Employee;
+import fin.entity.FiscalPeriod;
+import fin.entity.Payslip;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calculates the payslips of a payroll run.
+ *
+ * A payslip depends only on its employee, the period and the company's total payroll (for SDL),
+ * and the SARS tax tables are read-only once loaded, so employees are split into chunks that are
+ * calculated in parallel. Each chunk sums its own totals; the caller's thread adds the chunk
+ * totals together, so no running total is shared between threads. Payslips are returned in
+ * employee order. Nothing is persisted here.
+ */
+@Service
+public class PayrollCalculationEngine {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final SARSTaxCalculator sarsTaxCalculator;
+    private final ExecutorService workers;
+
+    public PayrollCalculationEngine(SARSTaxCalculator sarsTaxCalculator,
+                                    @Value("${fin.payroll.calculation.workers:0}") int workerCount) {
+        this.sarsTaxCalculator = sarsTaxCalculator;
+
+        // 0 = one worker per available processor
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "payroll-calc-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Calculate a payslip for every employee in the period.
+     *
+     * @throws IllegalStateException if any payslip cannot be calculated; the whole run fails
+     */
+    public PayrollRun calculate(List<Employee> employees, FiscalPeriod period) {
+        // SDL depends on the company's whole payroll, so it is summed before any payslip
+        BigDecimal totalCompanyPayroll = BigDecimal.ZERO;
+        for (Employee employee : employees) {
+            totalCompanyPayroll = totalCompanyPayroll.add(employee.getBasicSalary());
+        }
+        BigDecimal companyPayroll = totalCompanyPayroll;
+
+        List<Future<PayrollRun>> chunks = new ArrayList<>();
+        for (int from = 0; from < employees.size(); from += CHUNK_SIZE) {
+            List<Employee> chunk = employees.subList(from, Math.min(from + CHUNK_SIZE, employees.size()));
+            chunks.add(workers.submit(() -> calculateChunk(chunk, period, companyPayroll)));
+        }
+
+        PayrollRun run = new PayrollRun(new ArrayList<>(employees.size()));
+        try {
+            for (Future<PayrollRun> chunk : chunks) {
+                run.add(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating payroll for period " + period.getId(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payroll calculation failed for period " + period.getId()
+                                            + ": " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            chunks.forEach(chunk -> chunk.cancel(true));
+        }
+        return run;
+    }
+
+    private PayrollRun calculateChunk(List<Employee> employees, FiscalPeriod period, BigDecimal totalCompanyPayroll) {
+        PayrollRun run = new PayrollRun(new ArrayList<>(employees.size()));
+        for (Employee employee : employees) {
+            run.add(calculatePayslip(employee, period, totalCompanyPayroll));
+        }
+        return run;
+    }
+
+    /**
+     * Calculate payslip for an employee
+     * @param employee the employee to calculate payslip for
+     * @param period the fiscal period
+     * @param totalCompanyPayroll the total payroll for the company (for SDL calculation)
+     * @return the calculated payslip
+     */
+    Payslip calculatePayslip(Employee employee, FiscalPeriod period, BigDecimal totalCompanyPayroll) {
+        // Calculate gross salary (assuming monthly salary)
+        BigDecimal grossSalary = employee.getBasicSalary();
+        double grossDouble = grossSalary.doubleValue();
+        double totalPayrollDouble = totalCompanyPayroll.doubleValue();
+
+        // Calculate PAYE in exact cents from the tax year of the pay date
+        BigDecimal paye = sarsTaxCalculator.findPAYE(grossSalary, period.getPayDate());
+
+        // Calculate UIF using SARS tax calculator
+        double uifDouble = sarsTaxCalculator.calculateUIF(grossDouble);
+        BigDecimal uif = BigDecimal.valueOf(uifDouble).setScale(2, RoundingMode.HALF_UP);
+
+        // Calculate SDL (employer's contribution) using SARS tax calculator
+        double sdlDouble = sarsTaxCalculator.calculateSDL(grossDouble, totalPayrollDouble);
+        BigDecimal sdl = BigDecimal.valueOf(sdlDouble).setScale(2, RoundingMode.HALF_UP);
+
+        // Calculate total deductions
+        BigDecimal totalDeductions = paye.add(uif);
+
+        // Calculate net salary
+        BigDecimal netSalary = grossSalary.subtract(totalDeductions);
+
+        // Create payslip
+        Payslip payslip = new Payslip();
+        payslip.setCompanyId(employee.getCompanyId());
+        payslip.setEmployeeId(employee.getId());
+        payslip.setFiscalPeriodId(period.getId()); // FiscalPeriod ID is now the payroll period ID
+        payslip.setPayslipNumber("PSL-" + period.getId() + "-" + employee.getId());
+        payslip.setBasicSalary(employee.getBasicSalary());
+        payslip.setGrossSalary(grossSalary);
+        payslip.setTotalEarnings(grossSalary); // For now, total earnings = gross salary
+        payslip.setPaye(paye);
+        payslip.setUif(uif);
+        payslip.setSdl(sdl);
+        payslip.setTotalDeductions(totalDeductions);
+        payslip.setNetSalary(netSalary);
+        payslip.setPaymentDate(period.getPayDate());
+
+        return payslip;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Calculated payslips of a run (or of one chunk) and their totals.
+     * Not thread-safe: each chunk has its own instance until it is merged by the caller.
+     */
+    public static class PayrollRun {
+        private final List<Payslip> payslips;
+        private BigDecimal totalGross = BigDecimal.ZERO;
+        private BigDecimal totalDeductions = BigDecimal.ZERO;
+        private BigDecimal totalNet = BigDecimal.ZERO;
+
+        PayrollRun(List<Payslip> payslips) {
+            this.payslips = payslips;
+        }
+
+        void add(Payslip payslip) {
+            payslips.add(payslip);
+            totalGross = totalGross.add(payslip.getGrossSalary());
+            totalDeductions = totalDeductions.add(payslip.getTotalDeductions());
+            totalNet = totalNet.add(payslip.getNetSalary());
+        }
+
+        void add(PayrollRun chunk) {
+            payslips.addAll(chunk.payslips);
+            totalGross = totalGross.add(chunk.totalGross);
+            totalDeductions = totalDeductions.add(chunk.totalDeductions);
+            totalNet = totalNet.add(chunk.totalNet);
+        }
+
+        public List<Payslip> getPayslips() { return payslips; }
+        public BigDecimal getTotalGross() { return totalGross; }
+        public BigDecimal getTotalDeductions() { return totalDeductions; }
+        public BigDecimal getTotalNet() { return totalNet; }
+        public int getEmployeeCount() { return payslips.size(); }
+    }
+}
@@ -40,17 +40,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import fin.config.DatabaseConfig;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Spring Service for payroll operations using unified FiscalPeriod model.
@@ -67,8 +70,9 @@ public class PayrollService {
     private final CompanyRepository companyRepository;
     private final PayslipPdfService payslipPdfService;
     private final CompanyService companyService;
-    private final SARSTaxCalculator sarsTaxCalculator;
     private final EmployeeValidator employeeValidator;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
+    private final PayrollCalculationEngine payrollCalculationEngine;
 
     public PayrollService(EmployeeRepository employeeRepository,
                               FiscalPeriodRepository fiscalPeriodRepository,
@@ -76,16 +80,18 @@ public class PayrollService {
                               CompanyRepository companyRepository,
                               PayslipPdfService payslipPdfService,
                               CompanyService companyService,
-                              SARSTaxCalculator sarsTaxCalculator,
-                              EmployeeValidator employeeValidator) {
+                              EmployeeValidator employeeValidator,
+                              FiscalPeriodIndexService fiscalPeriodIndexService,
+                              PayrollCalculationEngine payrollCalculationEngine) {
         this.employeeRepository = employeeRepository;
         this.fiscalPeriodRepository = fiscalPeriodRepository;
         this.payslipRepository = payslipRepository;
         this.companyRepository = companyRepository;
         this.payslipPdfService = payslipPdfService;
         this.companyService = companyService;
-        this.sarsTaxCalculator = sarsTaxCalculator;
         this.employeeValidator = employeeValidator;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
+        this.payrollCalculationEngine = payrollCalculationEngine;
     }
 
     /**
@@ -485,7 +491,9 @@ public class PayrollService {
         period.setPayrollStatus(FiscalPeriod.PayrollStatus.OPEN);
         period.setClosed(false);
 
-        return fiscalPeriodRepository.save(period);
+        FiscalPeriod saved = fiscalPeriodRepository.save(period);
+        fiscalPeriodIndexService.invalidate(companyId);
+        return saved;
     }
 
     /**
@@ -595,12 +603,9 @@ public class PayrollService {
      * Clean up existing payslips for reprocessing
      */
     private void cleanupExistingPayslips(Long fiscalPeriodId) {
-        List<Payslip> existingPayslips = payslipRepository.findByFiscalPeriodId(fiscalPeriodId);
-        if (!existingPayslips.isEmpty()) {
-            LOGGER.info("Deleting " + existingPayslips.size() + " existing payslips for reprocessing");
-            for (Payslip payslip : existingPayslips) {
-                payslipRepository.delete(payslip);
-            }
+        int deleted = payslipRepository.deleteAllByFiscalPeriodId(fiscalPeriodId);
+        if (deleted > 0) {
+            LOGGER.info("Deleted " + deleted + " existing payslips for reprocessing");
         }
     }
 
@@ -618,35 +623,26 @@ public class PayrollService {
     }
 
     /**
-     * Process all employees and calculate payroll totals
+     * Process all employees and calculate payroll totals.
+     * Payslips are calculated in parallel and inserted together, in JDBC batches.
      */
     private PayrollProcessingResult processEmployeesAndCalculateTotals(List<Employee> employees, FiscalPeriod period) {
-        // First pass: calculate total company payroll for SDL calculation
-        BigDecimal totalCompanyPayroll = BigDecimal.ZERO;
-        for (Employee employee : employees) {
-            totalCompanyPayroll = totalCompanyPayroll.add(employee.getBasicSalary());
-        }
-
-        BigDecimal totalGross = BigDecimal.ZERO;
-        BigDecimal totalDeductions = BigDecimal.ZERO;
-        BigDecimal totalNet = BigDecimal.ZERO;
-        int processedCount = 0;
-
-        // Second pass: process each employee with total payroll for accurate SDL calculation
-        for (Employee employee : employees) {
-            LOGGER.info("Processing employee: " + employee.getEmployeeCode() + " - " + employee.getFirstName() + " " + employee.getLastName());
-            Payslip payslip = calculatePayslip(employee, period, totalCompanyPayroll);
-            payslipRepository.save(payslip);
-
-            totalGross = totalGross.add(payslip.getGrossSalary());
-            totalDeductions = totalDeductions.add(payslip.getTotalDeductions());
-            totalNet = totalNet.add(payslip.getNetSalary());
-            processedCount++;
-        }
-
-        LOGGER.info("Processed " + processedCount + " employees. Total gross: " + totalGross + ", total deductions: " + totalDeductions + ", total net: " + totalNet);
-
-        return new PayrollProcessingResult(totalGross, totalDeductions, totalNet, processedCount);
+        long start = System.nanoTime();
+        PayrollCalculationEngine.PayrollRun run = payrollCalculationEngine.calculate(employees, period);
+        long calculatedAt = System.nanoTime();
+
+        payslipRepository.saveAll(run.getPayslips());
+        payslipRepository.flush();
+
+        long end = System.nanoTime();
+        LOGGER.info(String.format("Processed %d employees for period %d (calculate %d ms, save %d ms). "
+                                  + "Total gross: %s, total deductions: %s, total net: %s",
+            run.getEmployeeCount(), period.getId(),
+            TimeUnit.NANOSECONDS.toMillis(calculatedAt - start), TimeUnit.NANOSECONDS.toMillis(end - calculatedAt),
+            run.getTotalGross(), run.getTotalDeductions(), run.getTotalNet()));
+
+        return new PayrollProcessingResult(run.getTotalGross(), run.getTotalDeductions(), run.getTotalNet(),
+                                           run.getEmployeeCount());
     }
 
     /**
@@ -662,56 +658,6 @@ public class PayrollService {
         fiscalPeriodRepository.save(period);
     }
 
-    /**
-     * Calculate payslip for an employee
-     * @param employee the employee to calculate payslip for
-     * @param period the fiscal period
-     * @param totalCompanyPayroll the total payroll for the company (for SDL calculation)
-     * @return the calculated payslip
-     */
-    private Payslip calculatePayslip(Employee employee, FiscalPeriod period, BigDecimal totalCompanyPayroll) {
-        // Calculate gross salary (assuming monthly salary)
-        BigDecimal grossSalary = employee.getBasicSalary();
-        double grossDouble = grossSalary.doubleValue();
-        double totalPayrollDouble = totalCompanyPayroll.doubleValue();
-
-        // Calculate PAYE using SARS tax calculator
-        double payeDouble = sarsTaxCalculator.findPAYE(grossDouble);
-        BigDecimal paye = BigDecimal.valueOf(payeDouble).setScale(2, RoundingMode.HALF_UP);
-
-        // Calculate UIF using SARS tax calculator
-        double uifDouble = sarsTaxCalculator.calculateUIF(grossDouble);
-        BigDecimal uif = BigDecimal.valueOf(uifDouble).setScale(2, RoundingMode.HALF_UP);
-
-        // Calculate SDL (employer's contribution) using SARS tax calculator
-        double sdlDouble = sarsTaxCalculator.calculateSDL(grossDouble, totalPayrollDouble);
-        BigDecimal sdl = BigDecimal.valueOf(sdlDouble).setScale(2, RoundingMode.HALF_UP);
-
-        // Calculate total deductions
-        BigDecimal totalDeductions = paye.add(uif);
-
-        // Calculate net salary
-        BigDecimal netSalary = grossSalary.subtract(totalDeductions);
-
-        // Create payslip
-        Payslip payslip = new Payslip();
-        payslip.setCompanyId(employee.getCompanyId());
-        payslip.setEmployeeId(employee.getId());
-        payslip.setFiscalPeriodId(period.getId()); // FiscalPeriod ID is now the payroll period ID
-        payslip.setPayslipNumber("PSL-" + period.getId() + "-" + employee.getId());
-        payslip.setBasicSalary(employee.getBasicSalary());
-        payslip.setGrossSalary(grossSalary);
-        payslip.setTotalEarnings(grossSalary); // For now, total earnings = gross salary
-        payslip.setPaye(paye);
-        payslip.setUif(uif);
-        payslip.setSdl(sdl);
-        payslip.setTotalDeductions(totalDeductions);
-        payslip.setNetSalary(netSalary);
-        payslip.setPaymentDate(period.getPayDate());
-
-        return payslip;
-    }
-
     /**
      * Get payslips for a fiscal period
      */
@@ -818,6 +764,7 @@ public class PayrollService {
         }
 
         fiscalPeriodRepository.deleteById(periodId);
+        fiscalPeriodIndexService.invalidate(companyId);
     }
 
     /**
@@ -840,13 +787,11 @@ public class PayrollService {
         }
 
         // Delete associated payslips first
-        List<Payslip> payslips = payslipRepository.findByFiscalPeriodId(periodId);
-        for (Payslip payslip : payslips) {
-            payslipRepository.delete(payslip);
-        }
+        payslipRepository.deleteAllByFiscalPeriodId(periodId);
 
         // Delete the period
         fiscalPeriodRepository.deleteById(periodId);
+        fiscalPeriodIndexService.invalidate(companyId);
         LOGGER.warning("Force deleted fiscal period: " + period.getPeriodName());
     }
 
@@ -889,18 +834,27 @@ public class PayrollService {
 
         LOGGER.info("Service: Found " + payslips.size() + " payslips for fiscal period " + fiscalPeriodId);
 
+        // Period is shared by the whole run; employees and companies are prefetched in one query each
+        FiscalPeriod fiscalPeriod = fiscalPeriodRepository.findById(fiscalPeriodId)
+            .orElseThrow(() -> new IllegalArgumentException("Fiscal period not found: " + fiscalPeriodId));
+        Map<Long, Employee> employees = new HashMap<>();
+        employeeRepository.findAllById(payslips.stream().map(Payslip::getEmployeeId).collect(Collectors.toSet()))
+            .forEach(employee -> employees.put(employee.getId(), employee));
+        Map<Long, Company> companies = new HashMap<>();
+        companyRepository.findAllById(employees.values().stream().map(Employee::getCompanyId).collect(Collectors.toSet()))
+            .forEach(company -> companies.put(company.getId(), company));
+
         List<byte[]> pdfs = new ArrayList<>();
         for (Payslip payslip : payslips) {
             try {
-                // Get related data from database
-                Employee employee = employeeRepository.findById(payslip.getEmployeeId())
-                    .orElseThrow(() -> new IllegalArgumentException("Employee not found: " + payslip.getEmployeeId()));
-
-                Company company = companyRepository.findById(employee.getCompanyId())
-                    .orElseThrow(() -> new IllegalArgumentException("Company not found: " + employee.getCompanyId()));
-
-                FiscalPeriod fiscalPeriod = fiscalPeriodRepository.findById(fiscalPeriodId)
-                    .orElseThrow(() -> new IllegalArgumentException("Fiscal period not found: " + fiscalPeriodId));
+                Employee employee = employees.get(payslip.getEmployeeId());
+                if (employee == null) {
+                    throw new IllegalArgumentException("Employee not found: " + payslip.getEmployeeId());
+                }
+                Company company = companies.get(employee.getCompanyId());
+                if (company == null) {
+                    throw new IllegalArgumentException("Company not found: " + employee.getCompanyId());
+                }
 
                 // Generate PDF using PayslipPdfService
                 byte[] pdfBytes = payslipPdfService.generatePayslipPdf(payslip, employee, company, fiscalPeriod);
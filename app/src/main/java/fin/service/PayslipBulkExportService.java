@@ -0,0 +1,496 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.entity.Company;
+import fin.entity.Employee;
+import fin.entity.FiscalPeriod;
+import fin.entity.Payslip;
+import fin.repository.CompanyRepository;
+import fin.repository.EmployeeRepository;
+import fin.repository.FiscalPeriodRepository;
+import fin.repository.PayslipRepository;
+import fin.service.export.PreparedExport;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk payslip PDF export as a ZIP archive.
+ *
+ * {@link #prepare} reads everything a run needs up front: the fiscal period once, the payslips,
+ * and their employees and companies with one query each. {@link #prepareZip} then renders the PDFs
+ * on a pool sized to the CPU count and the returned export writes them to the archive in payslip
+ * order. At most {@code 2 x workers} rendered PDFs are held at a time, so memory stays flat however
+ * many employees are in the run. {@link #writePdfFiles} renders the same way into one file per payslip,
+ * for callers such as the payslip email queue that need the PDFs on disk.
+ */
+@Service
+public class PayslipBulkExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(PayslipBulkExportService.class.getName());
+
+    /** Archive entry listing the payslips that could not be rendered, present only when some were skipped */
+    public static final String FAILURE_MANIFEST = "FAILED_PAYSLIPS.txt";
+
+    private final PayslipRepository payslipRepository;
+    private final EmployeeRepository employeeRepository;
+    private final CompanyRepository companyRepository;
+    private final FiscalPeriodRepository fiscalPeriodRepository;
+    private final PayslipPdfService payslipPdfService;
+    private final ExecutorService workers;
+    private final int maxInFlight;
+
+    public PayslipBulkExportService(PayslipRepository payslipRepository,
+                                    EmployeeRepository employeeRepository,
+                                    CompanyRepository companyRepository,
+                                    FiscalPeriodRepository fiscalPeriodRepository,
+                                    PayslipPdfService payslipPdfService,
+                                    @Value("${fin.payroll.payslip-pdf.workers:0}") int workerCount) {
+        this.payslipRepository = payslipRepository;
+        this.employeeRepository = employeeRepository;
+        this.companyRepository = companyRepository;
+        this.fiscalPeriodRepository = fiscalPeriodRepository;
+        this.payslipPdfService = payslipPdfService;
+
+        // 0 = one worker per available processor
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = threads * 2;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "payslip-pdf-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Load the payslips of a fiscal period, optionally limited to some employees, with all
+     * the data needed to render them.
+     *
+     * @throws IllegalArgumentException if the fiscal period does not exist
+     */
+    @Transactional(readOnly = true)
+    public PayslipBatch prepare(Long fiscalPeriodId, List<Long> employeeIds) {
+        if (fiscalPeriodId == null) {
+            throw new IllegalArgumentException("Fiscal period ID is required");
+        }
+        FiscalPeriod fiscalPeriod = fiscalPeriodRepository.findById(fiscalPeriodId)
+            .orElseThrow(() -> new IllegalArgumentException("Fiscal period not found: " + fiscalPeriodId));
+
+        List<Payslip> payslips = employeeIds != null && !employeeIds.isEmpty()
+            ? payslipRepository.findByFiscalPeriodIdAndEmployeeIdIn(fiscalPeriodId, employeeIds)
+            : payslipRepository.findByFiscalPeriodId(fiscalPeriodId);
+        return loadBatch(fiscalPeriod, payslips);
+    }
+
+    /**
+     * Load the given payslips with all the data needed to render them. The payslips must all
+     * belong to one fiscal period; unknown IDs are ignored.
+     *
+     * @throws IllegalArgumentException if no IDs are given, none exist, or they span several fiscal periods
+     */
+    @Transactional(readOnly = true)
+    public PayslipBatch prepareByPayslipIds(List<Long> payslipIds) {
+        if (payslipIds == null || payslipIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one payslip ID is required");
+        }
+        List<Payslip> payslips = new ArrayList<>();
+        payslipRepository.findAllById(payslipIds).forEach(payslips::add);
+        if (payslips.isEmpty()) {
+            throw new IllegalArgumentException("No payslips found for IDs: " + payslipIds);
+        }
+        payslips.sort(Comparator.comparing(Payslip::getId));
+
+        Set<Long> fiscalPeriodIds = new HashSet<>();
+        for (Payslip payslip : payslips) {
+            fiscalPeriodIds.add(payslip.getFiscalPeriodId());
+        }
+        if (fiscalPeriodIds.size() != 1) {
+            throw new IllegalArgumentException("Payslips must belong to a single fiscal period, found: " + fiscalPeriodIds);
+        }
+        Long fiscalPeriodId = fiscalPeriodIds.iterator().next();
+        FiscalPeriod fiscalPeriod = fiscalPeriodRepository.findById(fiscalPeriodId)
+            .orElseThrow(() -> new IllegalArgumentException("Fiscal period not found: " + fiscalPeriodId));
+        return loadBatch(fiscalPeriod, payslips);
+    }
+
+    private PayslipBatch loadBatch(FiscalPeriod fiscalPeriod, List<Payslip> payslips) {
+        Set<Long> employeeIdsToLoad = new HashSet<>();
+        for (Payslip payslip : payslips) {
+            employeeIdsToLoad.add(payslip.getEmployeeId());
+        }
+        Map<Long, Employee> employees = new HashMap<>();
+        for (Employee employee : employeeRepository.findAllById(employeeIdsToLoad)) {
+            employees.put(employee.getId(), employee);
+        }
+
+        Set<Long> companyIds = new HashSet<>();
+        for (Employee employee : employees.values()) {
+            companyIds.add(employee.getCompanyId());
+        }
+        Map<Long, Company> companies = new HashMap<>();
+        for (Company company : companyRepository.findAllById(companyIds)) {
+            companies.put(company.getId(), company);
+        }
+
+        return new PayslipBatch(fiscalPeriod, payslips, employees, companies);
+    }
+
+    /**
+     * Start rendering the batch for a ZIP download and wait for its first PDF, so a run in which
+     * no payslip can be rendered fails here, before the caller commits to a success response.
+     * The other PDFs render while the returned export writes the archive. Payslips that cannot be
+     * rendered are logged and listed in a {@value #FAILURE_MANIFEST} entry.
+     *
+     * @throws IOException if none of the payslips could be rendered
+     */
+    public PreparedPayslipZip prepareZip(PayslipBatch batch) throws IOException {
+        long start = System.nanoTime();
+        RenderRun run = new RenderRun(batch);
+        RenderedPdf first;
+        try {
+            first = run.next();
+        } catch (IOException | RuntimeException e) {
+            run.cancel();
+            throw e;
+        }
+        if (first == null) {
+            throw new IOException("None of the " + batch.size() + " payslips of fiscal period "
+                                  + batch.fiscalPeriod.getId() + " could be rendered"
+                                  + (run.failures.isEmpty() ? "" : "; first failure: " + run.failures.get(0)));
+        }
+        return new PreparedPayslipZip(run, first, start);
+    }
+
+    /**
+     * Render every payslip of the batch and write the PDFs to {@code out} as a ZIP archive.
+     * The stream is not closed.
+     *
+     * @return number of PDFs written and skipped
+     * @throws IOException if none of the payslips could be rendered; nothing is written then
+     */
+    public BulkExportResult writeZip(PayslipBatch batch, OutputStream out) throws IOException {
+        try (PreparedPayslipZip zip = prepareZip(batch)) {
+            zip.writeTo(out);
+            return zip.getResult();
+        }
+    }
+
+    /**
+     * Render every payslip of the batch to its own PDF file in {@code directory}, in parallel.
+     * Payslips that cannot be rendered are logged and left out.
+     *
+     * @return the files written, in payslip order
+     */
+    public List<RenderedPayslip> writePdfFiles(PayslipBatch batch, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<RenderedPayslip> rendered = new ArrayList<>();
+        RenderRun run = new RenderRun(batch);
+        try {
+            for (RenderedPdf pdf = run.next(); pdf != null; pdf = run.next()) {
+                Path file = Files.createTempFile(directory, "payslip-" + pdf.pending.payslip.getId() + "-", ".pdf");
+                Files.write(file, pdf.bytes);
+                rendered.add(new RenderedPayslip(pdf.pending.payslip, pdf.pending.employee, file));
+            }
+        } finally {
+            run.cancel();
+        }
+        return rendered;
+    }
+
+    /**
+     * Archive entry name: EmployeeName_EmployeeCode_PeriodName.pdf
+     */
+    static String fileName(Employee employee, FiscalPeriod fiscalPeriod) {
+        String periodName = fiscalPeriod.getPeriodName() != null ? fiscalPeriod.getPeriodName() : "period";
+        String name = String.format("%s_%s_%s",
+            employee.getFirstName() + "_" + employee.getLastName(),
+            employee.getEmployeeCode(),
+            periodName);
+        return name.replaceAll("[\\\\/:*?\"<>|]", "-") + ".pdf";
+    }
+
+    private static String uniqueName(String fileName, Set<String> entryNames) {
+        String name = fileName;
+        int suffix = 2;
+        while (!entryNames.add(name)) {
+            name = fileName.substring(0, fileName.length() - ".pdf".length()) + "_" + suffix++ + ".pdf";
+        }
+        return name;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Everything needed to render one run of payslips, loaded in a read-only transaction.
+     */
+    public static class PayslipBatch {
+        private final FiscalPeriod fiscalPeriod;
+        private final List<Payslip> payslips;
+        private final Map<Long, Employee> employees;
+        private final Map<Long, Company> companies;
+
+        PayslipBatch(FiscalPeriod fiscalPeriod, List<Payslip> payslips,
+                     Map<Long, Employee> employees, Map<Long, Company> companies) {
+            this.fiscalPeriod = fiscalPeriod;
+            this.payslips = new ArrayList<>(payslips);
+            this.employees = employees;
+            this.companies = companies;
+        }
+
+        public FiscalPeriod getFiscalPeriod() { return fiscalPeriod; }
+        public int size() { return payslips.size(); }
+        public boolean isEmpty() { return payslips.isEmpty(); }
+
+        /**
+         * The payslips of this batch whose employee is loaded and matches {@code filter}.
+         */
+        public PayslipBatch filterByEmployee(Predicate<Employee> filter) {
+            List<Payslip> kept = new ArrayList<>();
+            for (Payslip payslip : payslips) {
+                Employee employee = employees.get(payslip.getEmployeeId());
+                if (employee != null && filter.test(employee)) {
+                    kept.add(payslip);
+                }
+            }
+            return new PayslipBatch(fiscalPeriod, kept, employees, companies);
+        }
+    }
+
+    /**
+     * Outcome of a bulk export.
+     */
+    public static class BulkExportResult {
+        private final int written;
+        private final int skipped;
+
+        public BulkExportResult(int written, int skipped) {
+            this.written = written;
+            this.skipped = skipped;
+        }
+
+        public int getWritten() { return written; }
+        public int getSkipped() { return skipped; }
+    }
+
+    /**
+     * A payslip rendered to a PDF file by {@link #writePdfFiles}.
+     */
+    public static class RenderedPayslip {
+        private final Payslip payslip;
+        private final Employee employee;
+        private final Path file;
+
+        public RenderedPayslip(Payslip payslip, Employee employee, Path file) {
+            this.payslip = payslip;
+            this.employee = employee;
+            this.file = file;
+        }
+
+        public Payslip getPayslip() { return payslip; }
+        public Employee getEmployee() { return employee; }
+        public Path getFile() { return file; }
+    }
+
+    /**
+     * A bulk ZIP export whose first PDF has rendered. Writing streams the remaining PDFs as they
+     * complete; closing cancels any that are still rendering.
+     */
+    public static final class PreparedPayslipZip implements PreparedExport {
+        private final RenderRun run;
+        private final long startNanos;
+        private RenderedPdf first;
+
+        private PreparedPayslipZip(RenderRun run, RenderedPdf first, long startNanos) {
+            this.run = run;
+            this.first = first;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            Set<String> entryNames = new HashSet<>();
+            ZipOutputStream zip = new ZipOutputStream(out);
+            for (RenderedPdf pdf = first; pdf != null; pdf = run.next()) {
+                first = null;
+                zip.putNextEntry(new ZipEntry(uniqueName(pdf.pending.fileName, entryNames)));
+                zip.write(pdf.bytes);
+                zip.closeEntry();
+            }
+            if (!run.failures.isEmpty()) {
+                zip.putNextEntry(new ZipEntry(FAILURE_MANIFEST));
+                zip.write((String.join(System.lineSeparator(), run.failures) + System.lineSeparator())
+                    .getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+            out.flush();
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            LOGGER.info("Wrote " + run.written + " payslip PDFs (" + run.failures.size() + " skipped) for fiscal period "
+                        + run.batch.fiscalPeriod.getId() + " in " + millis + " ms");
+        }
+
+        /**
+         * PDFs written and payslips skipped so far.
+         */
+        public BulkExportResult getResult() {
+            return new BulkExportResult(run.written, run.failures.size());
+        }
+
+        @Override
+        public void close() {
+            run.cancel();
+        }
+    }
+
+    /**
+     * Renders a batch on the worker pool and hands out the PDFs in payslip order, keeping at most
+     * {@code maxInFlight} rendered or rendering PDFs at a time.
+     */
+    private final class RenderRun {
+        private final PayslipBatch batch;
+        private final Iterator<Payslip> remaining;
+        private final Deque<PendingPdf> inFlight = new ArrayDeque<>();
+        private final List<String> failures = new ArrayList<>();
+        private int written;
+
+        RenderRun(PayslipBatch batch) {
+            this.batch = batch;
+            this.remaining = batch.payslips.iterator();
+        }
+
+        /**
+         * The next PDF in payslip order, or null when every payslip has been handled.
+         * Payslips that cannot be rendered are recorded in {@link #failures} and passed over.
+         */
+        RenderedPdf next() throws IOException {
+            while (true) {
+                submitUpToLimit();
+                if (inFlight.isEmpty()) {
+                    return null;
+                }
+                PendingPdf pending = inFlight.removeFirst();
+                try {
+                    byte[] pdfBytes = pending.pdf.get();
+                    written++;
+                    return new RenderedPdf(pending, pdfBytes);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while rendering payslips", e);
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Failed to generate PDF for payslip ID: " + pending.payslip.getId(), e.getCause());
+                    failures.add(describe(pending.payslip) + ": " + e.getCause());
+                }
+            }
+        }
+
+        private void submitUpToLimit() {
+            while (inFlight.size() < maxInFlight && remaining.hasNext()) {
+                Payslip payslip = remaining.next();
+                Employee employee = batch.employees.get(payslip.getEmployeeId());
+                Company company = employee != null ? batch.companies.get(employee.getCompanyId()) : null;
+                if (employee == null || company == null) {
+                    String missing = employee == null ? "employee " + payslip.getEmployeeId() : "company";
+                    LOGGER.warning("Skipping payslip " + payslip.getId() + ": " + missing + " not found");
+                    failures.add(describe(payslip) + ": " + missing + " not found");
+                    continue;
+                }
+                Future<byte[]> pdf = workers.submit(
+                    () -> payslipPdfService.generatePayslipPdf(payslip, employee, company, batch.fiscalPeriod));
+                inFlight.addLast(new PendingPdf(payslip, employee, fileName(employee, batch.fiscalPeriod), pdf));
+            }
+        }
+
+        void cancel() {
+            inFlight.forEach(pending -> pending.pdf.cancel(true));
+            inFlight.clear();
+        }
+
+        private String describe(Payslip payslip) {
+            return "Payslip " + payslip.getId() + " (" + payslip.getPayslipNumber() + ")";
+        }
+    }
+
+    private static final class RenderedPdf {
+        private final PendingPdf pending;
+        private final byte[] bytes;
+
+        RenderedPdf(PendingPdf pending, byte[] bytes) {
+            this.pending = pending;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class PendingPdf {
+        private final Payslip payslip;
+        private final Employee employee;
+        private final String fileName;
+        private final Future<byte[]> pdf;
+
+        PendingPdf(Payslip payslip, Employee employee, String fileName, Future<byte[]> pdf) {
+            this.payslip = payslip;
+            this.employee = employee;
+            this.fileName = fileName;
+            this.pdf = pdf;
+        }
+    }
+}
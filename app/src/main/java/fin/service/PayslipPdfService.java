@@ -48,7 +48,7 @@ public class PayslipPdfService {
         // Validate all required data exists (no fallbacks)
         validateRequiredData(payslip, employee, company, fiscalPeriod);
 
-        LOGGER.info("Generating PDF payslip for employee: " + employee.getEmployeeNumber() +
+        LOGGER.fine("Generating PDF payslip for employee: " + employee.getEmployeeNumber() +
                    ", payslip: " + payslip.getPayslipNumber());
 
         try (PDDocument document = new PDDocument()) {
@@ -63,7 +63,7 @@ public class PayslipPdfService {
                 try {
                     unicodeFont = loadSystemTTFFont(document);
                     if (unicodeFont != null) {
-                        LOGGER.info("Loaded unicode TTF font for PDF generation");
+                        LOGGER.fine("Loaded unicode TTF font for PDF generation");
                     }
                 } catch (Exception ignore) {
                     // ignore; will fall back to Type1 fonts
@@ -141,7 +141,7 @@ public class PayslipPdfService {
             document.save(outputStream);
             byte[] pdfBytes = outputStream.toByteArray();
 
-            LOGGER.info("PDF generation completed for payslip: " + payslip.getPayslipNumber() + ", size: " + pdfBytes.length + " bytes");
+            LOGGER.fine("PDF generation completed for payslip: " + payslip.getPayslipNumber() + ", size: " + pdfBytes.length + " bytes");
             return pdfBytes;
 
         } catch (Exception e) {
@@ -150,36 +150,55 @@ public class PayslipPdfService {
         }
     }
 
-    private PDType0Font loadSystemTTFFont(PDDocument document) {
-        // First try to load an embedded font from the application resources (guaranteed fallback)
-        try (java.io.InputStream is = PayslipPdfService.class.getResourceAsStream("/fonts/DejaVuSans.ttf")) {
-            if (is != null) {
-                return PDType0Font.load(document, is);
-            }
-        } catch (Exception ignored) {
-            // continue to try system fonts
+    private PDType0Font loadSystemTTFFont(PDDocument document) throws java.io.IOException {
+        byte[] fontBytes = FontBytesHolder.BYTES;
+        if (fontBytes == null) {
+            return null;
         }
-        String[] candidatePaths = new String[] {
-            "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf",
-            "/usr/share/fonts/truetype/liberation/LiberationSans-Regular.ttf",
-            "/usr/share/fonts/truetype/freefont/FreeSans.ttf",
-            "/usr/share/fonts/dejavu/DejaVuSans.ttf",
-            "/usr/share/fonts/truetype/ubuntu/Ubuntu-R.ttf"
-        };
-
-        for (String path : candidatePaths) {
-                try {
-                java.io.File f = new java.io.File(path);
-                if (f.exists()) {
-                    return PDType0Font.load(document, f);
+        // Each document embeds its own subset, so the font is parsed per document from the shared bytes
+        return PDType0Font.load(document, new java.io.ByteArrayInputStream(fontBytes));
+    }
+
+    /**
+     * Unicode TTF font file contents, located and read once per JVM on first use.
+     * Null when no font is available; payslips then use the standard Helvetica fonts.
+     */
+    private static final class FontBytesHolder {
+        static final byte[] BYTES = readFontBytes();
+
+        private static byte[] readFontBytes() {
+            // First try to load an embedded font from the application resources (guaranteed fallback)
+            try (java.io.InputStream is = PayslipPdfService.class.getResourceAsStream("/fonts/DejaVuSans.ttf")) {
+                if (is != null) {
+                    return is.readAllBytes();
                 }
             } catch (Exception ignored) {
-                // continue to next path
+                // continue to try system fonts
             }
-        }
+            String[] candidatePaths = new String[] {
+                "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf",
+                "/usr/share/fonts/truetype/liberation/LiberationSans-Regular.ttf",
+                "/usr/share/fonts/truetype/freefont/FreeSans.ttf",
+                "/usr/share/fonts/dejavu/DejaVuSans.ttf",
+                "/usr/share/fonts/truetype/ubuntu/Ubuntu-R.ttf"
+            };
 
-        // No system TTF found - return null to indicate fallback
-        return null;
+            for (String path : candidatePaths) {
+                try {
+                    java.nio.file.Path fontPath = java.nio.file.Path.of(path);
+                    if (java.nio.file.Files.isRegularFile(fontPath)) {
+                        LOGGER.info("Using payslip font " + path);
+                        return java.nio.file.Files.readAllBytes(fontPath);
+                    }
+                } catch (Exception ignored) {
+                    // continue to next path
+                }
+            }
+
+            // No system TTF found - null indicates fallback
+            LOGGER.info("No unicode TTF font found; payslips use Helvetica");
+            return null;
+        }
     }
 
     private String sanitizeForFont(String text, PDType0Font unicodeFont, org.apache.pdfbox.pdmodel.font.PDFont fallbackFont) {
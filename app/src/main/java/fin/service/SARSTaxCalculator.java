@@ -27,8 +27,13 @@
 package fin.service;
 
 import java.io.*;
+import java.math.BigDecimal;
 import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.*;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
@@ -65,20 +70,21 @@ public class SARSTaxCalculator {
     private static final int SECTION_WIDTH = 40;
     private static final int BRACKET_LIST_WIDTH = 50;
 
-    private List<TaxBracket> taxBrackets = new ArrayList<>();
+    // Tax year of the tables loaded at startup, used when no table exists for a requested year
+    static final int DEFAULT_TAX_YEAR = 2026;
+    private static final String TAX_TABLE_FILE = "PAYE-GEN-01-G01-A03-%d-Monthly-Tax-Deduction-Tables-External-Annexure.txt";
+
+    private volatile List<TaxBracket> taxBrackets = new ArrayList<>();
+    private volatile PayeTable defaultPayeTable = PayeTable.of(DEFAULT_TAX_YEAR, TAX_FREE_THRESHOLD, Collections.emptyList());
+    // Indexed tables by tax year, loaded on first use so multi-year reprocessing reads each file once
+    private final ConcurrentMap<Integer, PayeTable> payeTablesByYear = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void initializeTaxTables() {
         try {
             // Load tax tables from the PDF text file for accurate SARS 2026 calculations
-            // In container environment, file is mounted at /app/input/
-            String pdfTextPath = "/app/input/PAYE-GEN-01-G01-A03-2026-Monthly-Tax-Deduction-Tables-External-Annexure.txt";
-            
-            // Fallback to local path for development
-            if (!Files.exists(Paths.get(pdfTextPath))) {
-                pdfTextPath = "input/PAYE-GEN-01-G01-A03-2026-Monthly-Tax-Deduction-Tables-External-Annexure.txt";
-            }
-            
+            String pdfTextPath = taxTablePath(DEFAULT_TAX_YEAR);
+
             loadTaxTablesFromPDFText(pdfTextPath);
             LOGGER.info("SARS Tax Calculator initialized with " + taxBrackets.size() + " tax brackets from official 2026 tables");
         } catch (IOException e) {
@@ -117,12 +123,32 @@ public class SARSTaxCalculator {
     }
 
     public void loadTaxTablesFromPDFText(String pdfTextPath) throws IOException {
-        String content = new String(Files.readAllBytes(Paths.get(pdfTextPath)), java.nio.charset.StandardCharsets.UTF_8);
-        parseTaxBrackets(content);
+        List<TaxBracket> brackets = readTaxBrackets(pdfTextPath);
+        taxBrackets = brackets;
+        defaultPayeTable = PayeTable.of(DEFAULT_TAX_YEAR, TAX_FREE_THRESHOLD, brackets);
+        payeTablesByYear.put(DEFAULT_TAX_YEAR, defaultPayeTable);
         System.out.println("Loaded " + taxBrackets.size() + " tax brackets");
     }
 
-    private void parseTaxBrackets(String pdfText) {
+    /**
+     * In container environment, files are mounted at /app/input/; fall back to a local path for development.
+     */
+    private static String taxTablePath(int taxYear) {
+        String fileName = String.format(TAX_TABLE_FILE, taxYear);
+        String pdfTextPath = "/app/input/" + fileName;
+        if (!Files.exists(Paths.get(pdfTextPath))) {
+            pdfTextPath = "input/" + fileName;
+        }
+        return pdfTextPath;
+    }
+
+    private static List<TaxBracket> readTaxBrackets(String pdfTextPath) throws IOException {
+        String content = new String(Files.readAllBytes(Paths.get(pdfTextPath)), java.nio.charset.StandardCharsets.UTF_8);
+        return parseTaxBrackets(content);
+    }
+
+    private static List<TaxBracket> parseTaxBrackets(String pdfText) {
+        List<TaxBracket> taxBrackets = new ArrayList<>();
         // Updated regex to capture both brackets per line, similar to RegexTest.java
         // Pattern matches: R lower1 - R upper1 R ... R tax1 R ... R ... R lower2 - R upper2 R ... R tax2
         Pattern pattern = Pattern.compile(
@@ -165,9 +191,10 @@ public class SARSTaxCalculator {
         taxBrackets.removeIf(bracket -> !seen.add(bracket.lower + "-" + bracket.upper));
         
         System.out.println("Final tax brackets loaded: " + taxBrackets.size());
+        return taxBrackets;
     }
 
-    private double parseNumber(String numberStr) {
+    private static double parseNumber(String numberStr) {
         // Remove commas and spaces, convert to double
         return Double.parseDouble(numberStr.replaceAll("[,\\s]", ""));
     }
@@ -196,35 +223,49 @@ public class SARSTaxCalculator {
     }
 
     public double findPAYE(double grossSalary) {
-        // Handle salaries below the tax threshold (below R5,586 based on loaded brackets)
-        if (grossSalary < TAX_FREE_THRESHOLD) {
-            return 0.0;
-        }
-        
-        // Search for the exact bracket in our loaded tax table
-        for (TaxBracket bracket : taxBrackets) {
-            if (grossSalary >= bracket.lower && grossSalary <= bracket.upper) {
-                return bracket.tax;
-            }
-        }
-
-        // If no exact bracket found, use the closest bracket
-        if (!taxBrackets.isEmpty()) {
-            // If salary is above the highest bracket, use the highest bracket's tax
-            if (grossSalary > taxBrackets.get(taxBrackets.size()-1).upper) {
-                return taxBrackets.get(taxBrackets.size()-1).tax;
-            }
-            
-            // If salary is below the lowest bracket, use zero
-            if (grossSalary < taxBrackets.get(0).lower) {
-                return 0.0;
-            }
-        }
+        return defaultPayeTable.findPayeCents(Math.round(grossSalary * ROUNDING_FACTOR)) / ROUNDING_FACTOR;
+    }
 
-        throw new IllegalArgumentException("No tax bracket found for gross salary: R" + grossSalary);
+    /**
+     * Monthly PAYE in exact cents, from the tables of the tax year containing {@code payDate}.
+     *
+     * @param payDate pay date of the period; null uses the default tax year
+     */
+    public BigDecimal findPAYE(BigDecimal grossSalary, LocalDate payDate) {
+        int taxYear = payDate != null ? taxYearOf(payDate) : DEFAULT_TAX_YEAR;
+        return getPayeTable(taxYear).findPaye(grossSalary);
     }
 
+    /**
+     * Indexed PAYE table for a tax year, loaded once and cached. When no tables are available
+     * for the year, the default year's tables are used (and cached for that year).
+     */
+    public PayeTable getPayeTable(int taxYear) {
+        PayeTable table = payeTablesByYear.get(taxYear);
+        if (table != null) {
+            return table;
+        }
+        return payeTablesByYear.computeIfAbsent(taxYear, year -> {
+            try {
+                List<TaxBracket> brackets = readTaxBrackets(taxTablePath(year));
+                if (!brackets.isEmpty()) {
+                    LOGGER.info("Loaded " + brackets.size() + " tax brackets for tax year " + year);
+                    return PayeTable.of(year, TAX_FREE_THRESHOLD, brackets);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "No tax tables for tax year " + year, e);
+            }
+            LOGGER.warning("No tax tables for tax year " + year + ", using " + DEFAULT_TAX_YEAR + " tables");
+            return defaultPayeTable;
+        });
+    }
 
+    /**
+     * SARS tax year of a date: the year in which the March-February tax year ends.
+     */
+    public static int taxYearOf(LocalDate date) {
+        return date.getMonthValue() >= Month.MARCH.getValue() ? date.getYear() + 1 : date.getYear();
+    }
 
     public Map<String, Double> calculateNetPay(double grossSalary) {
         System.out.println("\n" + "=".repeat(HEADER_WIDTH));
@@ -44,10 +44,12 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final AuthPrincipalCache principalCache;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AuthPrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -149,6 +151,8 @@ public class UserService {
             throw new IllegalArgumentException("Username already exists: " + user.getUsername());
         }
 
+        // Cached principals must not outlive a role change or deactivation
+        principalCache.evictUser(user.getId());
         return userRepository.save(user);
     }
 
@@ -161,6 +165,7 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        principalCache.evictUser(id);
         return true;
     }
 
@@ -29,8 +29,10 @@ package fin.service.classification;
 import fin.entity.*;
 import fin.repository.AccountRepository;
 import fin.repository.BankTransactionRepository;
+import fin.repository.TextSearchRepository;
 import fin.service.classification.engine.TransactionClassificationEngine;
 import fin.util.Debugger;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -248,15 +250,10 @@ public class InteractiveClassificationService {
             return new ArrayList<>();
         }
 
-        List<BankTransaction> uncategorized = bankTransactionRepository
-            .findByCompanyIdAndFiscalPeriodIdAndAccountCodeIsNull(companyId, fiscalPeriodId);
-
-        String lowerPattern = pattern.toLowerCase().trim();
-        List<BankTransaction> similar = uncategorized.stream()
-            .filter(tx -> tx.getDetails() != null &&
-                         tx.getDetails().toLowerCase().contains(lowerPattern))
-            .limit(MAX_SIMILAR_TRANSACTIONS)
-            .collect(Collectors.toList());
+        // Filtered and capped in the database instead of loading every unclassified transaction
+        List<BankTransaction> similar = bankTransactionRepository.findUnclassifiedByDescriptionContaining(
+            companyId, fiscalPeriodId, TextSearchRepository.escapeLike(pattern.trim()),
+            PageRequest.of(0, MAX_SIMILAR_TRANSACTIONS));
 
         debugger.logMethodExit("InteractiveClassificationService", "findSimilarTransactions",
             String.format("Found %d similar transactions", similar.size()));
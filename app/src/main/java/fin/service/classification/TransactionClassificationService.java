@@ -38,6 +38,7 @@ import fin.service.classification.reporting.TransactionClassificationReportingSe
 import fin.service.classification.reporting.TransactionClassificationReportingService.UnclassifiedTransaction;
 import fin.service.classification.reporting.TransactionClassificationReportingService.SuggestedClassification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -160,7 +161,7 @@ public class TransactionClassificationService {
      * Auto-classify all unclassified transactions using mapping rules
      * DELEGATES TO TransactionClassificationEngine
      */
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public int autoClassifyTransactions(Long companyId, Long fiscalPeriodId) {
         try {
             return engine.autoClassifyTransactions(companyId, fiscalPeriodId);
@@ -246,7 +247,7 @@ public class TransactionClassificationService {
      * Auto-classify transactions (API version that returns result)
      * DELEGATES TO TransactionClassificationEngine
      */
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BatchClassificationResult autoClassifyTransactions(Long companyId) {
         try {
             return engine.autoClassifyTransactions(companyId);
@@ -0,0 +1,170 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.engine;
+
+import fin.repository.BankTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Set-based writer for auto-classification results.
+ *
+ * Classified transaction IDs are grouped by target account code and written with one
+ * bulk UPDATE per chunk instead of one UPDATE per row. Each chunk runs in its own short
+ * transaction when the caller is not transactional, so large periods commit
+ * incrementally; inside an existing transaction the chunks simply join it.
+ */
+@Service
+public class ClassificationBatchWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(ClassificationBatchWriter.class.getName());
+
+    @Value("${fin.classification.batch-size:1000}")
+    private int batchSize;
+
+    private final BankTransactionRepository bankTransactionRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public ClassificationBatchWriter(BankTransactionRepository bankTransactionRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this(bankTransactionRepository, transactionManager, System::nanoTime);
+    }
+
+    ClassificationBatchWriter(BankTransactionRepository bankTransactionRepository,
+                              PlatformTransactionManager transactionManager,
+                              LongSupplier nanoClock) {
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Write account codes for the given transaction IDs.
+     *
+     * @param idsByAccountCode transaction IDs grouped by the account code they were classified to
+     * @return totals plus per-chunk timings
+     */
+    public WriteResult writeAccountCodes(Map<String, List<Long>> idsByAccountCode) {
+        int chunkSize = Math.max(1, batchSize);
+        List<ChunkTiming> chunks = new ArrayList<>();
+        long started = nanoClock.getAsLong();
+        int totalUpdated = 0;
+
+        for (Map.Entry<String, List<Long>> group : idsByAccountCode.entrySet()) {
+            String accountCode = group.getKey();
+            List<Long> ids = group.getValue();
+
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                LocalDateTime now = LocalDateTime.now();
+
+                long chunkStart = nanoClock.getAsLong();
+                Integer updated = chunkTransaction.execute(status ->
+                    bankTransactionRepository.assignAccountCodeToUnclassified(accountCode, chunk, now));
+                long chunkMillis = (nanoClock.getAsLong() - chunkStart) / 1_000_000;
+
+                int rows = updated != null ? updated : 0;
+                totalUpdated += rows;
+                chunks.add(new ChunkTiming(accountCode, chunk.size(), rows, chunkMillis));
+                LOGGER.fine("Classification chunk: account " + accountCode + ", " + rows + "/" + chunk.size()
+                    + " rows in " + chunkMillis + " ms");
+            }
+        }
+
+        long totalMillis = (nanoClock.getAsLong() - started) / 1_000_000;
+        return new WriteResult(totalUpdated, chunkSize, totalMillis, chunks);
+    }
+
+    /**
+     * Timing for one bulk UPDATE chunk.
+     */
+    public static class ChunkTiming {
+        private final String accountCode;
+        private final int requestedRows;
+        private final int updatedRows;
+        private final long elapsedMillis;
+
+        public ChunkTiming(String accountCode, int requestedRows, int updatedRows, long elapsedMillis) {
+            this.accountCode = accountCode;
+            this.requestedRows = requestedRows;
+            this.updatedRows = updatedRows;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getAccountCode() { return accountCode; }
+        public int getRequestedRows() { return requestedRows; }
+        public int getUpdatedRows() { return updatedRows; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    /**
+     * Outcome of a batched classification write.
+     */
+    public static class WriteResult {
+        private final int updatedRows;
+        private final int batchSize;
+        private final long elapsedMillis;
+        private final List<ChunkTiming> chunks;
+
+        public WriteResult(int updatedRows, int batchSize, long elapsedMillis, List<ChunkTiming> chunks) {
+            this.updatedRows = updatedRows;
+            this.batchSize = batchSize;
+            this.elapsedMillis = elapsedMillis;
+            this.chunks = Collections.unmodifiableList(chunks);
+        }
+
+        public int getUpdatedRows() { return updatedRows; }
+        public int getBatchSize() { return batchSize; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public List<ChunkTiming> getChunks() { return chunks; }
+
+        public long getSlowestChunkMillis() {
+            return chunks.stream().mapToLong(ChunkTiming::getElapsedMillis).max().orElse(0L);
+        }
+
+        @Override
+        public String toString() {
+            return updatedRows + " rows in " + chunks.size() + " chunks (batch size " + batchSize + ", "
+                + elapsedMillis + " ms total, slowest chunk " + getSlowestChunkMillis() + " ms)";
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.engine;
+
+import fin.repository.BankTransactionRepository;
+import fin.service.classification.engine.TransactionClassificationEngine.RangeClassificationResult;
+import fin.service.classification.rules.TransactionMappingRuleService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs company-wide auto-classification as a background job.
+ *
+ * Unclassified transactions are classified in chunks of {@code chunk-size} rows on a bounded
+ * worker pool. Chunk boundaries come from keyset pagination over the company's unclassified IDs,
+ * taken one chunk at a time as workers free up, so sparse or shared ID sequences never produce
+ * empty chunks. A job runs on at most one worker per pool thread and the pool's queue is bounded.
+ * Each chunk reads and writes in its own short transaction, so no request thread or long-running
+ * transaction is held. Progress is polled by job ID.
+ *
+ * SINGLE RESPONSIBILITY: Scheduling and tracking asynchronous classification jobs
+ */
+@Service
+public class ClassificationJobService {
+
+    private static final Logger LOGGER = Logger.getLogger(ClassificationJobService.class.getName());
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+    // Queued chunk runners per pool thread; each job queues at most one runner per thread
+    private static final int QUEUED_RUNNERS_PER_WORKER = 8;
+
+    private final TransactionClassificationEngine engine;
+    private final TransactionMappingRuleService transactionMappingRuleService;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int chunkSize;
+
+    private final Map<String, ClassificationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, ClassificationJob> activeJobsByCompany = new ConcurrentHashMap<>();
+
+    public ClassificationJobService(TransactionClassificationEngine engine,
+                                    TransactionMappingRuleService transactionMappingRuleService,
+                                    BankTransactionRepository bankTransactionRepository,
+                                    @Value("${fin.classification.job.workers:0}") int configuredWorkers,
+                                    @Value("${fin.classification.job.chunk-size:5000}") long chunkSize) {
+        this.engine = engine;
+        this.transactionMappingRuleService = transactionMappingRuleService;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.chunkSize = (int) Math.min(Integer.MAX_VALUE, Math.max(1, chunkSize));
+
+        this.workerCount = configuredWorkers > 0 ? configuredWorkers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(workerCount * QUEUED_RUNNERS_PER_WORKER), runnable -> {
+                Thread thread = new Thread(runnable, "classification-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Start an auto-classification job for a company. If a job is already running for the
+     * company, that job is returned instead of starting a second one.
+     */
+    public ClassificationJob submit(Long companyId) {
+        if (companyId == null) {
+            throw new IllegalArgumentException("Company ID is required");
+        }
+        evictFinishedJobs();
+
+        ClassificationJob job = new ClassificationJob(UUID.randomUUID().toString(), companyId);
+        ClassificationJob existing = activeJobsByCompany.putIfAbsent(companyId, job);
+        if (existing != null) {
+            return existing;
+        }
+        jobs.put(job.getJobId(), job);
+
+        try {
+            // Warm the compiled rule cache once so chunks don't race to build it
+            transactionMappingRuleService.getCompiledMatcher(companyId);
+
+            long total = bankTransactionRepository.countByCompanyIdAndAccountCodeIsNullAndFiscalPeriodIdIsNotNull(companyId);
+            if (total == 0) {
+                job.start(0, 0);
+                job.finish();
+                activeJobsByCompany.remove(companyId, job);
+                return job;
+            }
+
+            int chunkCount = (int) ((total + chunkSize - 1) / chunkSize);
+            int runners = Math.min(workerCount, chunkCount);
+            job.start(total, chunkCount);
+            job.activeRunners.set(runners);
+
+            int started = 0;
+            for (int i = 0; i < runners; i++) {
+                try {
+                    workers.execute(() -> runChunks(job));
+                    started++;
+                } catch (RejectedExecutionException e) {
+                    LOGGER.fine("Classification worker queue full; job " + job.getJobId() + " runs on fewer workers");
+                }
+            }
+            if (started == 0) {
+                job.fail("Classification workers are busy, try again later");
+            }
+            for (int i = started; i < runners; i++) {
+                runnerExited(job);
+            }
+
+            LOGGER.info("Started classification job " + job.getJobId() + " for company " + companyId
+                        + ": " + total + " rows in about " + chunkCount + " chunks on " + started + " workers");
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            job.finish();
+            activeJobsByCompany.remove(companyId, job);
+            LOGGER.log(Level.SEVERE, "Failed to start classification job for company " + companyId, e);
+        }
+        return job;
+    }
+
+    /**
+     * Look up a job by ID, scoped to the company that owns it.
+     */
+    public Optional<ClassificationJob> getJob(Long companyId, String jobId) {
+        ClassificationJob job = jobs.get(jobId);
+        if (job == null || !job.getCompanyId().equals(companyId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Take chunks of the job until none are left, then retire this runner.
+     */
+    private void runChunks(ClassificationJob job) {
+        try {
+            long[] chunk;
+            while ((chunk = nextChunk(job)) != null) {
+                runChunk(job, chunk[0], chunk[1]);
+            }
+        } finally {
+            runnerExited(job);
+        }
+    }
+
+    /**
+     * Next ID range [from, to) of at most chunkSize unclassified rows, or null when the job has
+     * no rows left. Boundaries are taken under the job's lock, so runners never overlap.
+     */
+    private long[] nextChunk(ClassificationJob job) {
+        synchronized (job) {
+            if (job.exhausted || Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            long from = job.cursor + 1;
+            try {
+                List<Long> chunkEnd = bankTransactionRepository.findUnclassifiedIdsAfter(
+                    job.getCompanyId(), job.cursor, PageRequest.of(chunkSize - 1, 1));
+                if (chunkEnd.isEmpty()) {
+                    // Fewer than chunkSize rows remain: the last chunk takes everything after the cursor
+                    job.exhausted = true;
+                    return new long[]{from, Long.MAX_VALUE};
+                }
+                job.cursor = chunkEnd.get(0);
+                return new long[]{from, job.cursor + 1};
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Could not read the next chunk of job " + job.getJobId(), e);
+                job.fail("Could not read the next chunk: " + e.getMessage());
+                job.exhausted = true;
+                return null;
+            }
+        }
+    }
+
+    private void runChunk(ClassificationJob job, long fromId, long toId) {
+        try {
+            RangeClassificationResult result = engine.autoClassifyIdRange(job.getCompanyId(), fromId, toId);
+            job.recordChunk(result.getScanned(), result.getClassified());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Classification chunk [" + fromId + ", " + toId + ") failed for job "
+                       + job.getJobId(), e);
+            job.fail("Chunk [" + fromId + ", " + toId + ") failed: " + e.getMessage());
+            job.recordChunk(0, 0);
+        }
+    }
+
+    private void runnerExited(ClassificationJob job) {
+        if (job.activeRunners.decrementAndGet() == 0) {
+            job.finish();
+            activeJobsByCompany.remove(job.getCompanyId(), job);
+            LOGGER.info("Classification job " + job.getJobId() + " " + job.getStatus() + ": "
+                        + job.getClassifiedRows() + " of " + job.getProcessedRows() + " rows classified");
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Progress of one classification job. Counters are updated concurrently by workers.
+     */
+    public static class ClassificationJob {
+
+        public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+        private final String jobId;
+        private final Long companyId;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong processedRows = new AtomicLong();
+        private final AtomicLong classifiedRows = new AtomicLong();
+        private final AtomicInteger completedChunks = new AtomicInteger();
+        private final AtomicInteger activeRunners = new AtomicInteger();
+        // Keyset cursor: the last ID handed out in a chunk (guarded by the job's lock)
+        private long cursor = Long.MIN_VALUE;
+        private boolean exhausted;
+        private volatile Status status = Status.QUEUED;
+        private volatile long totalRows;
+        private volatile int totalChunks;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        ClassificationJob(String jobId, Long companyId) {
+            this.jobId = jobId;
+            this.companyId = companyId;
+        }
+
+        void start(long rows, int chunks) {
+            this.totalRows = rows;
+            this.totalChunks = chunks;
+            this.startedAt = Instant.now();
+            this.status = Status.RUNNING;
+        }
+
+        void recordChunk(int scanned, int classified) {
+            processedRows.addAndGet(scanned);
+            classifiedRows.addAndGet(classified);
+            completedChunks.incrementAndGet();
+        }
+
+        void fail(String message) {
+            this.error = message;
+        }
+
+        synchronized void finish() {
+            if (finishedAt == null) {
+                // The chunk count was estimated from the row count at submission
+                totalChunks = completedChunks.get();
+                finishedAt = Instant.now();
+                status = error == null ? Status.COMPLETED : Status.FAILED;
+            }
+        }
+
+        public String getJobId() { return jobId; }
+        public Long getCompanyId() { return companyId; }
+        public Status getStatus() { return status; }
+        public long getTotalRows() { return totalRows; }
+        public long getProcessedRows() { return processedRows.get(); }
+        public long getClassifiedRows() { return classifiedRows.get(); }
+        public int getTotalChunks() { return totalChunks; }
+        public int getCompletedChunks() { return completedChunks.get(); }
+        public Instant getSubmittedAt() { return submittedAt; }
+        public Instant getStartedAt() { return startedAt; }
+        public Instant getFinishedAt() { return finishedAt; }
+        public String getError() { return error; }
+
+        /**
+         * Rows scanned per second since the job started.
+         */
+        public double getRowsPerSecond() {
+            if (startedAt == null) {
+                return 0.0;
+            }
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Duration.between(startedAt, end).toMillis() / 1000.0;
+            return seconds > 0 ? processedRows.get() / seconds : 0.0;
+        }
+
+        /**
+         * Estimated seconds remaining, or null while no throughput has been measured yet.
+         */
+        public Long getEtaSeconds() {
+            if (finishedAt != null) {
+                return 0L;
+            }
+            double rate = getRowsPerSecond();
+            if (rate <= 0) {
+                return null;
+            }
+            long remaining = Math.max(0, totalRows - processedRows.get());
+            return (long) Math.ceil(remaining / rate);
+        }
+    }
+}
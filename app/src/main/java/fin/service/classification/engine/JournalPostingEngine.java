@@ -0,0 +1,268 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.engine;
+
+import fin.entity.Account;
+import fin.entity.BankTransaction;
+import fin.entity.JournalEntry;
+import fin.entity.JournalEntryLine;
+import fin.repository.AccountPeriodBalanceRepository;
+import fin.repository.AccountPeriodBalanceRepository.BalanceDeltas;
+import fin.repository.JournalEntryBatchRepository;
+import fin.repository.JournalEntryLineRepository;
+import fin.repository.JournalEntryRepository;
+import fin.service.journal.AccountService;
+import fin.validation.BankAccountResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bulk journal posting for classified bank transactions.
+ *
+ * Account lookups (code to ID map and the default bank/cash account) are resolved once per
+ * company, every header and line is built in memory, and rows are written with JDBC batch
+ * inserts. Cost therefore scales with the number of batches rather than with the number of rows.
+ * The posted lines are added to account_period_balances in the same transaction.
+ *
+ * SINGLE RESPONSIBILITY: Converting classified bank transactions into journal entries
+ */
+@Service
+@Transactional
+public class JournalPostingEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(JournalPostingEngine.class.getName());
+
+    @Value("${fin.journal.batch-size:500}")
+    private int batchSize;
+
+    private final AccountService accountService;
+    private final BankAccountResolver bankAccountResolver;
+    private final JournalEntryRepository journalEntryRepository;
+    private final JournalEntryLineRepository journalEntryLineRepository;
+    private final JournalEntryBatchRepository journalEntryBatchRepository;
+    private final AccountPeriodBalanceRepository accountPeriodBalanceRepository;
+
+    public JournalPostingEngine(AccountService accountService,
+                                BankAccountResolver bankAccountResolver,
+                                JournalEntryRepository journalEntryRepository,
+                                JournalEntryLineRepository journalEntryLineRepository,
+                                JournalEntryBatchRepository journalEntryBatchRepository,
+                                AccountPeriodBalanceRepository accountPeriodBalanceRepository) {
+        this.accountService = accountService;
+        this.bankAccountResolver = bankAccountResolver;
+        this.journalEntryRepository = journalEntryRepository;
+        this.journalEntryLineRepository = journalEntryLineRepository;
+        this.journalEntryBatchRepository = journalEntryBatchRepository;
+        this.accountPeriodBalanceRepository = accountPeriodBalanceRepository;
+    }
+
+    /**
+     * Post journal entries for classified transactions of one company.
+     *
+     * @param companyId company all transactions belong to
+     * @param transactions classified transactions to post
+     * @param createdBy value for journal_entries.created_by
+     * @param skipInvalid when true, transactions that cannot be posted are logged and skipped;
+     *                    when false the first failure is thrown and nothing is written
+     * @return number of journal entries created
+     */
+    @Transactional
+    public int postTransactions(Long companyId, List<BankTransaction> transactions,
+                                String createdBy, boolean skipInvalid) throws SQLException {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        long started = System.nanoTime();
+        AccountLookup lookup = new AccountLookup(companyId);
+
+        List<JournalEntry> entries = new ArrayList<>(transactions.size());
+        List<JournalEntryLine[]> linesPerEntry = new ArrayList<>(transactions.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (BankTransaction transaction : transactions) {
+            try {
+                JournalEntryLine[] lines = buildLines(transaction, lookup);
+                entries.add(buildHeader(transaction, createdBy, now));
+                linesPerEntry.add(lines);
+            } catch (SQLException | RuntimeException e) {
+                if (!skipInvalid) {
+                    throw e;
+                }
+                LOGGER.log(Level.WARNING, "Failed to create journal entry for transaction " +
+                           transaction.getId() + ", skipping: " + e.getMessage());
+            }
+        }
+
+        int rowsPerBatch = Math.max(1, batchSize);
+        journalEntryBatchRepository.insertEntries(entries, rowsPerBatch);
+
+        List<JournalEntryLine> allLines = new ArrayList<>(entries.size() * 2);
+        BalanceDeltas balanceDeltas = new BalanceDeltas();
+        for (int i = 0; i < entries.size(); i++) {
+            JournalEntry entry = entries.get(i);
+            for (JournalEntryLine line : linesPerEntry.get(i)) {
+                line.setJournalEntryId(entry.getId());
+                allLines.add(line);
+                balanceDeltas.add(entry.getCompanyId(), entry.getFiscalPeriodId(), line.getAccountId(),
+                                  line.getDebitAmount(), line.getCreditAmount());
+            }
+        }
+        journalEntryBatchRepository.insertLines(allLines, rowsPerBatch);
+        accountPeriodBalanceRepository.apply(balanceDeltas);
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        LOGGER.info("Posted " + entries.size() + " journal entries (" + allLines.size() + " lines) for company "
+                    + companyId + " in " + elapsedMillis + " ms, batch size " + rowsPerBatch);
+        return entries.size();
+    }
+
+    /**
+     * Delete every journal entry and line for a company using set-based statements,
+     * together with the company's account period balances.
+     *
+     * @return number of journal entries deleted
+     */
+    @Transactional
+    public int deleteAllForCompany(Long companyId) {
+        accountPeriodBalanceRepository.deleteByCompanyId(companyId);
+        journalEntryLineRepository.bulkDeleteByCompanyId(companyId);
+        return journalEntryRepository.bulkDeleteByCompanyId(companyId);
+    }
+
+    private JournalEntry buildHeader(BankTransaction transaction, String createdBy, LocalDateTime now) {
+        JournalEntry journalEntry = new JournalEntry();
+        journalEntry.setCompanyId(transaction.getCompanyId());
+        journalEntry.setFiscalPeriodId(transaction.getFiscalPeriodId());
+        journalEntry.setReference("TXN-" + transaction.getId());
+        journalEntry.setEntryDate(transaction.getTransactionDate());
+        journalEntry.setDescription(transaction.getDescription());
+        journalEntry.setCreatedBy(createdBy);
+        journalEntry.setCreatedAt(now);
+        return journalEntry;
+    }
+
+    /**
+     * Build the debit and credit lines for a transaction. Mirrors the single-entry rules:
+     * explicit debit/credit account IDs win; otherwise the legacy account code is posted
+     * against the company's default bank/cash account.
+     */
+    private JournalEntryLine[] buildLines(BankTransaction transaction, AccountLookup lookup) throws SQLException {
+        boolean isCreditTransaction = transaction.getCreditAmount().compareTo(BigDecimal.ZERO) != 0;
+        BigDecimal amount = isCreditTransaction ? transaction.getCreditAmount() : transaction.getDebitAmount();
+
+        Long debitAccountId;
+        Long creditAccountId;
+
+        if (transaction.getDebitAccountId() != null && transaction.getCreditAccountId() != null) {
+            debitAccountId = transaction.getDebitAccountId();
+            creditAccountId = transaction.getCreditAccountId();
+        } else if (transaction.getAccountCode() != null) {
+            Long classifiedAccountId = lookup.accountIdForCode(transaction.getAccountCode());
+            if (classifiedAccountId == null) {
+                throw new IllegalStateException("Account not found for code: " + transaction.getAccountCode());
+            }
+            Long bankAccountId = lookup.defaultCashAccountId();
+
+            if (isCreditTransaction) {
+                // Money coming in: Debit bank (asset increases), Credit classified account (income)
+                debitAccountId = bankAccountId;
+                creditAccountId = classifiedAccountId;
+            } else {
+                // Money going out: Debit classified account (expense), Credit bank (asset decreases)
+                debitAccountId = classifiedAccountId;
+                creditAccountId = bankAccountId;
+            }
+        } else {
+            throw new IllegalStateException("Transaction " + transaction.getId() + " is not properly classified");
+        }
+
+        return new JournalEntryLine[] {
+            buildLine(transaction, debitAccountId, amount, BigDecimal.ZERO),
+            buildLine(transaction, creditAccountId, BigDecimal.ZERO, amount)
+        };
+    }
+
+    private JournalEntryLine buildLine(BankTransaction transaction, Long accountId,
+                                       BigDecimal debitAmount, BigDecimal creditAmount) {
+        JournalEntryLine line = new JournalEntryLine();
+        line.setAccountId(accountId);
+        line.setDescription(transaction.getDescription());
+        line.setDebitAmount(debitAmount);
+        line.setCreditAmount(creditAmount);
+        line.setSourceTransactionId(transaction.getId());
+        return line;
+    }
+
+    /**
+     * Per-posting account resolution: loads the company's chart once and resolves the
+     * default bank/cash account on first use.
+     */
+    private final class AccountLookup {
+        private final Long companyId;
+        private Map<String, Long> idsByCode;
+        private Long defaultCashAccountId;
+
+        AccountLookup(Long companyId) {
+            this.companyId = companyId;
+        }
+
+        Long accountIdForCode(String accountCode) {
+            if (idsByCode == null) {
+                idsByCode = new HashMap<>();
+                for (Account account : accountService.getAccountsByCompany(companyId)) {
+                    idsByCode.put(account.getAccountCode(), account.getId());
+                }
+            }
+            return idsByCode.get(accountCode);
+        }
+
+        Long defaultCashAccountId() throws SQLException {
+            if (defaultCashAccountId == null) {
+                // Per project policy do NOT fall back silently - fail fast with clear message.
+                Optional<Account> bankAccount = bankAccountResolver.getDefaultCashAccount(companyId);
+                if (bankAccount.isEmpty()) {
+                    throw new SQLException("Bank/cash account not found in table 'accounts' for company " + companyId + ". Please insert an active bank/cash account. Example: INSERT INTO accounts (company_id, account_code, account_name, category_id, is_active) VALUES (" + companyId + ", '1230', 'Bank', <category_id>, true)");
+                }
+                defaultCashAccountId = bankAccount.get().getId();
+            }
+            return defaultCashAccountId;
+        }
+    }
+}
@@ -33,13 +33,17 @@ import fin.repository.JournalEntryRepository;
 import fin.repository.JournalEntryLineRepository;
 import fin.service.CompanyService;
 import fin.service.journal.AccountService;
+import fin.service.classification.rules.CompiledRuleMatcher;
 import fin.service.classification.rules.TransactionMappingRuleService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.ArrayList;
@@ -67,6 +71,8 @@ public class TransactionClassificationEngine {
     private final JournalEntryLineRepository journalEntryLineRepository;
     private final TransactionMappingRuleService transactionMappingRuleService;
     private final fin.validation.BankAccountResolver bankAccountResolver;
+    private final ClassificationBatchWriter classificationBatchWriter;
+    private final JournalPostingEngine journalPostingEngine;
 
     public TransactionClassificationEngine(AccountService accountService,
                                         CompanyService companyService,
@@ -75,7 +81,9 @@ public class TransactionClassificationEngine {
                                         JournalEntryRepository journalEntryRepository,
                                         JournalEntryLineRepository journalEntryLineRepository,
                                         TransactionMappingRuleService transactionMappingRuleService,
-                                        fin.validation.BankAccountResolver bankAccountResolver) {
+                                        fin.validation.BankAccountResolver bankAccountResolver,
+                                        ClassificationBatchWriter classificationBatchWriter,
+                                        JournalPostingEngine journalPostingEngine) {
         this.accountService = accountService;
         this.companyService = companyService;
         this.bankTransactionRepository = bankTransactionRepository;
@@ -84,47 +92,74 @@ public class TransactionClassificationEngine {
         this.journalEntryLineRepository = journalEntryLineRepository;
         this.transactionMappingRuleService = transactionMappingRuleService;
         this.bankAccountResolver = bankAccountResolver;
+        this.classificationBatchWriter = classificationBatchWriter;
+        this.journalPostingEngine = journalPostingEngine;
     }
 
     /**
-     * Auto-classify all unclassified transactions using mapping rules
+     * Auto-classify all unclassified transactions using mapping rules.
+     * Matches are grouped by account code and written in bulk chunks; when called without
+     * a surrounding transaction each chunk commits on its own.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public int autoClassifyTransactions(Long companyId, Long fiscalPeriodId) {
         try {
-            LOGGER.info("Auto-classifying transactions for company: " + companyId + ", period: " + fiscalPeriodId);
-
-            // Get active rules for the company
-            List<TransactionMappingRule> rules = transactionMappingRuleService.getActiveRulesForCompany(companyId);
-
-            // Get unclassified transactions for the period
-            List<BankTransaction> unclassifiedTransactions = bankTransactionRepository
-                .findByCompanyIdAndFiscalPeriodIdAndAccountCodeIsNull(companyId, fiscalPeriodId);
-
-            int classifiedCount = 0;
-
-            for (BankTransaction transaction : unclassifiedTransactions) {
-                // Try to classify using rules
-                for (TransactionMappingRule rule : rules) {
-                    if (rule.matches(transaction.getDescription())) {
-                        // Apply the classification
-                        transaction.setAccountCode(rule.getAccount() != null ? rule.getAccount().getAccountCode() : null);
-                        bankTransactionRepository.save(transaction);
-                        classifiedCount++;
-                        break; // Stop at first matching rule
-                    }
-                }
-            }
-
-            LOGGER.info("Auto-classified " + classifiedCount + " transactions");
-            return classifiedCount;
-
+            return classifyPeriod(companyId, fiscalPeriodId).getUpdatedRows();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to auto-classify transactions for company: " + companyId, e);
             return 0;
         }
     }
 
+    private ClassificationBatchWriter.WriteResult classifyPeriod(Long companyId, Long fiscalPeriodId) {
+        LOGGER.info("Auto-classifying transactions for company: " + companyId + ", period: " + fiscalPeriodId);
+
+        // Compiled active rules for the company (cached until the rules change)
+        CompiledRuleMatcher matcher = transactionMappingRuleService.getCompiledMatcher(companyId);
+
+        // Get unclassified transactions for the period
+        List<BankTransaction> unclassifiedTransactions = bankTransactionRepository
+            .findByCompanyIdAndFiscalPeriodIdAndAccountCodeIsNull(companyId, fiscalPeriodId);
+
+        ClassificationBatchWriter.WriteResult result = classifyAndWrite(matcher, unclassifiedTransactions);
+
+        LOGGER.info("Auto-classified " + result);
+        return result;
+    }
+
+    /**
+     * Auto-classify the unclassified transactions of a company whose IDs fall in [fromId, toId).
+     * Used by chunked classification jobs; each call reads and writes its own short transactions.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RangeClassificationResult autoClassifyIdRange(Long companyId, Long fromId, Long toId) {
+        CompiledRuleMatcher matcher = transactionMappingRuleService.getCompiledMatcher(companyId);
+        List<BankTransaction> unclassifiedTransactions =
+            bankTransactionRepository.findUnclassifiedInIdRange(companyId, fromId, toId);
+
+        ClassificationBatchWriter.WriteResult result = classifyAndWrite(matcher, unclassifiedTransactions);
+        return new RangeClassificationResult(unclassifiedTransactions.size(), result.getUpdatedRows(), result.getChunks());
+    }
+
+    /**
+     * Match each description once and write the matches grouped by account code
+     */
+    private ClassificationBatchWriter.WriteResult classifyAndWrite(CompiledRuleMatcher matcher,
+                                                                   List<BankTransaction> unclassifiedTransactions) {
+        Map<String, List<Long>> idsByAccountCode = new LinkedHashMap<>();
+
+        for (BankTransaction transaction : unclassifiedTransactions) {
+            // Single pass over the description; returns the highest-priority matching rule
+            CompiledRuleMatcher.CompiledRule rule = matcher.match(transaction.getDescription());
+            if (rule != null && rule.getAccountCode() != null) {
+                idsByAccountCode.computeIfAbsent(rule.getAccountCode(), code -> new ArrayList<>())
+                    .add(transaction.getId());
+            }
+        }
+
+        return classificationBatchWriter.writeAccountCodes(idsByAccountCode);
+    }
+
     /**
      * Perform auto-classification of transactions (internal method)
      */
@@ -267,21 +302,30 @@ public class TransactionClassificationEngine {
     /**
      * Auto-classify transactions (API version that returns result)
      */
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BatchClassificationResult autoClassifyTransactions(Long companyId) {
         try {
             // Get all fiscal periods for the company
             List<FiscalPeriod> periods = fiscalPeriodRepository.findByCompanyId(companyId);
 
             int totalClassified = 0;
+            List<ClassificationBatchWriter.ChunkTiming> chunks = new ArrayList<>();
             for (FiscalPeriod period : periods) {
-                totalClassified += autoClassifyTransactions(companyId, period.getId());
+                try {
+                    ClassificationBatchWriter.WriteResult result = classifyPeriod(companyId, period.getId());
+                    totalClassified += result.getUpdatedRows();
+                    chunks.addAll(result.getChunks());
+                } catch (Exception e) {
+                    LOGGER.log(Level.SEVERE, "Failed to auto-classify transactions for company: " + companyId
+                        + ", period: " + period.getId(), e);
+                }
             }
 
             return new BatchClassificationResult(
                 (long) totalClassified,
                 "SUCCESS",
-                "Auto-classified " + totalClassified + " transactions across " + periods.size() + " periods"
+                "Auto-classified " + totalClassified + " transactions across " + periods.size() + " periods",
+                chunks
             );
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to auto-classify transactions for company: " + companyId, e);
@@ -300,143 +344,14 @@ public class TransactionClassificationEngine {
         List<BankTransaction> transactionsWithoutJournalEntries =
             bankTransactionRepository.findClassifiedTransactionsWithoutJournalEntries(companyId);
 
-        int syncedCount = 0;
-
-        for (BankTransaction transaction : transactionsWithoutJournalEntries) {
-            // Fail fast: if creating a journal entry fails (e.g., missing bank account), let the exception bubble
-            // so the caller is alerted and can take corrective action. Do not silently skip transactions.
-            createJournalEntryForTransaction(transaction, "FIN");
-            syncedCount++;
-            LOGGER.info("Created journal entry for transaction: " + transaction.getId());
-        }
+        // Fail fast: if creating a journal entry fails (e.g., missing bank account), let the exception bubble
+        // so the caller is alerted and can take corrective action. Do not silently skip transactions.
+        int syncedCount = journalPostingEngine.postTransactions(companyId, transactionsWithoutJournalEntries, "FIN", false);
 
         LOGGER.info("Successfully synced " + syncedCount + " journal entries for company: " + companyId);
         return syncedCount;
     }
 
-    /**
-     * Create a journal entry for a classified transaction
-     */
-    private void createJournalEntryForTransaction(BankTransaction transaction, String createdBy) throws SQLException {
-        // Determine transaction type and amounts
-        BigDecimal amount = transaction.getCreditAmount().compareTo(BigDecimal.ZERO) != 0 ?
-                           transaction.getCreditAmount() : transaction.getDebitAmount();
-        boolean isCreditTransaction = transaction.getCreditAmount().compareTo(BigDecimal.ZERO) != 0;
-
-        // Create journal entry header
-        JournalEntry journalEntry = new JournalEntry();
-        journalEntry.setCompanyId(transaction.getCompanyId());
-        journalEntry.setFiscalPeriodId(transaction.getFiscalPeriodId());
-        journalEntry.setReference("TXN-" + transaction.getId());
-        journalEntry.setEntryDate(transaction.getTransactionDate());
-        journalEntry.setDescription(transaction.getDescription());
-        journalEntry.setCreatedBy(createdBy);
-        journalEntry.setCreatedAt(java.time.LocalDateTime.now());
-
-        JournalEntry savedEntry = journalEntryRepository.save(journalEntry);
-
-        // Handle different classification types
-        if (transaction.getDebitAccountId() != null && transaction.getCreditAccountId() != null) {
-            // New approach: debit and credit accounts are explicitly set
-            createJournalEntryLinesForDebitCreditAccounts(savedEntry, transaction, amount, createdBy);
-        } else if (transaction.getAccountCode() != null) {
-            // Legacy approach: single account code
-            createJournalEntryLinesForAccountCode(savedEntry, transaction, amount, isCreditTransaction, createdBy);
-        } else {
-            throw new IllegalStateException("Transaction " + transaction.getId() + " is not properly classified");
-        }
-    }
-
-    /**
-     * Create journal entry lines for transactions with explicit debit/credit account IDs
-     */
-    private void createJournalEntryLinesForDebitCreditAccounts(JournalEntry journalEntry,
-                                                              BankTransaction transaction,
-                                                              BigDecimal amount, String createdBy) {
-        // Debit line
-        JournalEntryLine debitLine = new JournalEntryLine();
-        debitLine.setJournalEntryId(journalEntry.getId());
-        debitLine.setAccountId(transaction.getDebitAccountId());
-        debitLine.setDescription(transaction.getDescription());
-        debitLine.setDebitAmount(amount);
-        debitLine.setCreditAmount(BigDecimal.ZERO);
-        debitLine.setSourceTransactionId(transaction.getId());
-        journalEntryLineRepository.save(debitLine);
-
-        // Credit line
-        JournalEntryLine creditLine = new JournalEntryLine();
-        creditLine.setJournalEntryId(journalEntry.getId());
-        creditLine.setAccountId(transaction.getCreditAccountId());
-        creditLine.setDescription(transaction.getDescription());
-        creditLine.setDebitAmount(BigDecimal.ZERO);
-        creditLine.setCreditAmount(amount);
-        creditLine.setSourceTransactionId(transaction.getId());
-        journalEntryLineRepository.save(creditLine);
-    }
-
-    /**
-     * Create journal entry lines for transactions with account codes (legacy approach)
-     */
-    private void createJournalEntryLinesForAccountCode(JournalEntry journalEntry,
-                                                      BankTransaction transaction,
-                                                      BigDecimal amount, boolean isCreditTransaction, String createdBy) throws SQLException {
-        // Find the classified account
-        Optional<Account> classifiedAccount = accountService.getAccountByCompanyAndCode(
-            transaction.getCompanyId(), transaction.getAccountCode());
-
-        if (classifiedAccount.isEmpty()) {
-            throw new IllegalStateException("Account not found for code: " + transaction.getAccountCode());
-        }
-
-        // Resolve bank/cash account by name using resolver. Per project policy do NOT fall back silently - fail fast with clear message.
-        Optional<Account> bankAccount = bankAccountResolver.getDefaultCashAccount(transaction.getCompanyId());
-        if (bankAccount.isEmpty()) {
-            throw new SQLException("Bank/cash account not found in table 'accounts' for company " + transaction.getCompanyId() + ". Please insert an active bank/cash account. Example: INSERT INTO accounts (company_id, account_code, account_name, category_id, is_active) VALUES (" + transaction.getCompanyId() + ", '1230', 'Bank', <category_id>, true)");
-        }
-
-        if (isCreditTransaction) {
-            // Credit transaction: money coming into bank account
-            // Correct accounting: Debit the bank account (asset increases), Credit the classified account (income)
-            JournalEntryLine debitLine = new JournalEntryLine();
-            debitLine.setJournalEntryId(journalEntry.getId());
-            debitLine.setAccountId(bankAccount.get().getId());
-            debitLine.setDescription(transaction.getDescription());
-            debitLine.setDebitAmount(amount);
-            debitLine.setCreditAmount(BigDecimal.ZERO);
-            debitLine.setSourceTransactionId(transaction.getId());
-            journalEntryLineRepository.save(debitLine);
-
-            JournalEntryLine creditLine = new JournalEntryLine();
-            creditLine.setJournalEntryId(journalEntry.getId());
-            creditLine.setAccountId(classifiedAccount.get().getId());
-            creditLine.setDescription(transaction.getDescription());
-            creditLine.setDebitAmount(BigDecimal.ZERO);
-            creditLine.setCreditAmount(amount);
-            creditLine.setSourceTransactionId(transaction.getId());
-            journalEntryLineRepository.save(creditLine);
-        } else {
-            // Debit transaction: money going out of bank account
-            // Correct accounting: Debit the classified account (expense), Credit the bank account (asset decreases)
-            JournalEntryLine debitLine = new JournalEntryLine();
-            debitLine.setJournalEntryId(journalEntry.getId());
-            debitLine.setAccountId(classifiedAccount.get().getId());
-            debitLine.setDescription(transaction.getDescription());
-            debitLine.setDebitAmount(amount);
-            debitLine.setCreditAmount(BigDecimal.ZERO);
-            debitLine.setSourceTransactionId(transaction.getId());
-            journalEntryLineRepository.save(debitLine);
-
-            JournalEntryLine creditLine = new JournalEntryLine();
-            creditLine.setJournalEntryId(journalEntry.getId());
-            creditLine.setAccountId(bankAccount.get().getId());
-            creditLine.setDescription(transaction.getDescription());
-            creditLine.setDebitAmount(BigDecimal.ZERO);
-            creditLine.setCreditAmount(amount);
-            creditLine.setSourceTransactionId(transaction.getId());
-            journalEntryLineRepository.save(creditLine);
-        }
-    }
-
     /**
      * Regenerate all journal entries after reclassification
      */
@@ -445,14 +360,8 @@ public class TransactionClassificationEngine {
         try {
             LOGGER.info("Regenerating all journal entries for company: " + companyId);
 
-            // Delete all existing journal entries and lines for the company
-            List<JournalEntry> existingEntries = journalEntryRepository.findByCompanyId(companyId);
-            int deletedCount = existingEntries.size();
-
-            for (JournalEntry entry : existingEntries) {
-                journalEntryLineRepository.deleteByJournalEntryId(entry.getId());
-            }
-            journalEntryRepository.deleteAll(existingEntries);
+            // Delete all existing journal entries and lines for the company (two set-based statements)
+            int deletedCount = journalPostingEngine.deleteAllForCompany(companyId);
 
             LOGGER.info("Deleted " + deletedCount + " existing journal entries for company: " + companyId);
 
@@ -463,17 +372,8 @@ public class TransactionClassificationEngine {
                            (t.getDebitAccountId() != null && t.getCreditAccountId() != null))
                 .collect(Collectors.toList());
 
-            // Create new journal entries for all classified transactions
-            int createdCount = 0;
-            for (BankTransaction transaction : classifiedTransactions) {
-                try {
-                    createJournalEntryForTransaction(transaction, "FIN");
-                    createdCount++;
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to create journal entry for transaction " +
-                               transaction.getId() + " during regeneration, skipping", e);
-                }
-            }
+            // Create new journal entries for all classified transactions, skipping any that fail
+            int createdCount = journalPostingEngine.postTransactions(companyId, classifiedTransactions, "FIN", true);
 
             LOGGER.info("Successfully regenerated " + createdCount + " journal entries for company: " + companyId);
             return createdCount;
@@ -510,6 +410,29 @@ public class TransactionClassificationEngine {
         public String getRuleApplied() { return ruleApplied; }
     }
 
+    /**
+     * Result of classifying one ID range.
+     */
+    public static class RangeClassificationResult {
+        private final int scanned;
+        private final int classified;
+        private final List<ClassificationBatchWriter.ChunkTiming> chunks;
+
+        public RangeClassificationResult(int scanned, int classified) {
+            this(scanned, classified, List.of());
+        }
+
+        public RangeClassificationResult(int scanned, int classified, List<ClassificationBatchWriter.ChunkTiming> chunks) {
+            this.scanned = scanned;
+            this.classified = classified;
+            this.chunks = List.copyOf(chunks);
+        }
+
+        public int getScanned() { return scanned; }
+        public int getClassified() { return classified; }
+        public List<ClassificationBatchWriter.ChunkTiming> getChunks() { return chunks; }
+    }
+
     /**
      * Result type for batch auto-classification operations.
      */
@@ -517,15 +440,27 @@ public class TransactionClassificationEngine {
         private final Long totalClassified;
         private final String status;
         private final String message;
+        private final List<ClassificationBatchWriter.ChunkTiming> chunks;
 
         public BatchClassificationResult(Long totalClassified, String status, String message) {
+            this(totalClassified, status, message, List.of());
+        }
+
+        public BatchClassificationResult(Long totalClassified, String status, String message,
+                                         List<ClassificationBatchWriter.ChunkTiming> chunks) {
             this.totalClassified = totalClassified;
             this.status = status;
             this.message = message;
+            this.chunks = List.copyOf(chunks);
         }
 
         public Long getTotalClassified() { return totalClassified; }
         public String getStatus() { return status; }
         public String getMessage() { return message; }
+
+        /**
+         * Timing of each bulk UPDATE chunk, for tuning fin.classification.batch-size
+         */
+        public List<ClassificationBatchWriter.ChunkTiming> getChunks() { return chunks; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,295 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.rules;
+
+import fin.entity.TransactionMappingRule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable, pre-compiled form of a company's active transaction mapping rules.
+ *
+ * Literal rules (CONTAINS, STARTS_WITH, ENDS_WITH, EQUALS) are compiled into a single
+ * Aho-Corasick automaton so a description is scanned once regardless of rule count.
+ * REGEX rules are compiled to {@link Pattern}s once instead of on every match.
+ *
+ * Matching semantics are identical to {@link TransactionMappingRule#matches(String)}
+ * (trimmed, upper-cased comparison) and the winner is the first rule in the order
+ * supplied, i.e. the highest-priority rule as returned by
+ * {@link TransactionMappingRuleService#getActiveRulesForCompany(Long)}.
+ *
+ * Instances are thread-safe and safe to cache.
+ */
+public final class CompiledRuleMatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(CompiledRuleMatcher.class.getName());
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final List<CompiledRule> rules;
+
+    // Aho-Corasick automaton: node 0 is the root
+    private final List<Map<Character, Integer>> transitions;
+    private final int[] failure;
+    private final int[][] output; // literal rule ranks terminating at each node (including via failure links)
+
+    // Rules whose literal is empty; evaluated directly
+    private final int[] emptyLiteralRanks;
+
+    // Regex rules, ordered by rank
+    private final int[] regexRanks;
+    private final Pattern[] regexPatterns;
+
+    private CompiledRuleMatcher(List<CompiledRule> rules,
+                                List<Map<Character, Integer>> transitions,
+                                List<List<Integer>> nodeOutputs,
+                                int[] failure,
+                                int[] emptyLiteralRanks,
+                                int[] regexRanks,
+                                Pattern[] regexPatterns) {
+        this.rules = rules;
+        this.transitions = transitions;
+        this.failure = failure;
+        this.output = new int[nodeOutputs.size()][];
+        for (int i = 0; i < nodeOutputs.size(); i++) {
+            this.output[i] = nodeOutputs.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.emptyLiteralRanks = emptyLiteralRanks;
+        this.regexRanks = regexRanks;
+        this.regexPatterns = regexPatterns;
+    }
+
+    /**
+     * Compile the given rules. The list order defines rule precedence (first wins).
+     * Inactive rules, rules without a match value and rules with an invalid regex are skipped.
+     */
+    public static CompiledRuleMatcher compile(List<TransactionMappingRule> sourceRules) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        trie.add(new HashMap<>());
+        nodeOutputs.add(new ArrayList<>());
+
+        List<Integer> emptyRanks = new ArrayList<>();
+        List<Integer> regexRankList = new ArrayList<>();
+        List<Pattern> regexPatternList = new ArrayList<>();
+
+        for (TransactionMappingRule rule : sourceRules) {
+            if (rule == null || !rule.isActive() || rule.getMatchValue() == null || rule.getMatchType() == null) {
+                continue;
+            }
+
+            String value = rule.getMatchValue().trim().toUpperCase();
+            int rank = compiled.size();
+
+            if (rule.getMatchType() == TransactionMappingRule.MatchType.REGEX) {
+                Pattern pattern;
+                try {
+                    pattern = Pattern.compile(value);
+                } catch (PatternSyntaxException e) {
+                    LOGGER.warning("Skipping rule '" + rule.getRuleName() + "' with invalid regex: " + e.getMessage());
+                    continue;
+                }
+                regexRankList.add(rank);
+                regexPatternList.add(pattern);
+            } else if (value.isEmpty()) {
+                emptyRanks.add(rank);
+            } else {
+                int node = 0;
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    Integer next = trie.get(node).get(c);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.add(new HashMap<>());
+                        nodeOutputs.add(new ArrayList<>());
+                        trie.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                nodeOutputs.get(node).add(rank);
+            }
+
+            String accountCode = rule.getAccount() != null ? rule.getAccount().getAccountCode() : null;
+            compiled.add(new CompiledRule(rule.getId(), rule.getRuleName(), rule.getMatchType(),
+                value.length(), accountCode));
+        }
+
+        int[] failure = buildFailureLinks(trie, nodeOutputs);
+
+        return new CompiledRuleMatcher(
+            List.copyOf(compiled),
+            trie,
+            nodeOutputs,
+            failure,
+            emptyRanks.stream().mapToInt(Integer::intValue).toArray(),
+            regexRankList.stream().mapToInt(Integer::intValue).toArray(),
+            regexPatternList.toArray(new Pattern[0]));
+    }
+
+    /**
+     * Breadth-first construction of failure links; outputs of the failure target are
+     * merged into each node so a single lookup per position yields every literal ending there.
+     */
+    private static int[] buildFailureLinks(List<Map<Character, Integer>> trie, List<List<Integer>> nodeOutputs) {
+        int[] failure = new int[trie.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (Integer child : trie.get(0).values()) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : trie.get(node).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                int f = failure[node];
+                while (f != 0 && !trie.get(f).containsKey(c)) {
+                    f = failure[f];
+                }
+                Integer target = trie.get(f).get(c);
+                failure[child] = (target != null && target != child) ? target : 0;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failure[child]));
+                queue.add(child);
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Find the highest-priority rule matching the description.
+     *
+     * @param transactionDescription raw bank transaction description
+     * @return the winning rule, or null when no rule matches
+     */
+    public CompiledRule match(String transactionDescription) {
+        if (transactionDescription == null || rules.isEmpty()) {
+            return null;
+        }
+
+        String desc = transactionDescription.trim().toUpperCase();
+        int length = desc.length();
+        int best = NO_MATCH;
+
+        for (int rank : emptyLiteralRanks) {
+            if (rank >= best) {
+                break;
+            }
+            if (rules.get(rank).getMatchType() != TransactionMappingRule.MatchType.EQUALS || length == 0) {
+                best = rank;
+            }
+        }
+
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+            char c = desc.charAt(i);
+            while (node != 0 && !transitions.get(node).containsKey(c)) {
+                node = failure[node];
+            }
+            Integer next = transitions.get(node).get(c);
+            node = next != null ? next : 0;
+
+            for (int rank : output[node]) {
+                if (rank < best && literalMatches(rules.get(rank), i, length)) {
+                    best = rank;
+                }
+            }
+        }
+
+        // Regexes are the expensive part; only evaluate those that could still win
+        for (int i = 0; i < regexRanks.length && regexRanks[i] < best; i++) {
+            if (regexPatterns[i].matcher(desc).matches()) {
+                best = regexRanks[i];
+                break;
+            }
+        }
+
+        return best == NO_MATCH ? null : rules.get(best);
+    }
+
+    private static boolean literalMatches(CompiledRule rule, int endIndex, int descLength) {
+        int start = endIndex - rule.getLiteralLength() + 1;
+        boolean atEnd = endIndex == descLength - 1;
+        switch (rule.getMatchType()) {
+            case CONTAINS:
+                return true;
+            case STARTS_WITH:
+                return start == 0;
+            case ENDS_WITH:
+                return atEnd;
+            case EQUALS:
+                return start == 0 && atEnd;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Number of rules compiled into this matcher.
+     */
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Detached snapshot of a rule: holds only what classification needs so cached
+     * matchers never touch lazy JPA associations outside a session.
+     */
+    public static final class CompiledRule {
+        private final Long ruleId;
+        private final String ruleName;
+        private final TransactionMappingRule.MatchType matchType;
+        private final int literalLength;
+        private final String accountCode;
+
+        CompiledRule(Long ruleId, String ruleName, TransactionMappingRule.MatchType matchType,
+                     int literalLength, String accountCode) {
+            this.ruleId = ruleId;
+            this.ruleName = ruleName;
+            this.matchType = matchType;
+            this.literalLength = literalLength;
+            this.accountCode = accountCode;
+        }
+
+        public Long getRuleId() { return ruleId; }
+        public String getRuleName() { return ruleName; }
+        public TransactionMappingRule.MatchType getMatchType() { return matchType; }
+        int getLiteralLength() { return literalLength; }
+        public String getAccountCode() { return accountCode; }
+    }
+}
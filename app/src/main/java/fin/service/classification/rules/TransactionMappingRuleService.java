@@ -33,9 +33,13 @@ import fin.repository.TransactionMappingRuleRepository;
 import fin.service.CompanyService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,6 +60,9 @@ public class TransactionMappingRuleService {
     private final TransactionMappingRuleRepository transactionMappingRuleRepository;
     private final AccountRepository accountRepository;
 
+    // Compiled active rules per company; evicted whenever a company's rules change
+    private final Map<Long, CompiledRuleMatcher> compiledMatchers = new ConcurrentHashMap<>();
+
     public TransactionMappingRuleService(CompanyService companyService,
                                        RuleTemplateRepository ruleTemplateRepository,
                                        TransactionMappingRuleRepository transactionMappingRuleRepository,
@@ -150,6 +157,7 @@ public class TransactionMappingRuleService {
                     rule.setActive(template.getIsDefaultEnabled());
 
                     transactionMappingRuleRepository.save(rule);
+                    invalidateCompiledMatcher(companyId);
                     count++;
 
                     LOGGER.info("Created rule: " + template.getRuleName());
@@ -186,6 +194,7 @@ public class TransactionMappingRuleService {
     public ClassificationRule addClassificationRule(ClassificationRule rule) {
         TransactionMappingRule entity = convertToTransactionMappingRule(rule);
         TransactionMappingRule saved = transactionMappingRuleRepository.save(entity);
+        invalidateCompiledMatcher(rule.getCompanyId());
         return convertToClassificationRule(saved);
     }
     @Transactional
@@ -204,6 +213,7 @@ public class TransactionMappingRuleService {
         // Note: Other fields would need to be mapped based on business logic
 
         TransactionMappingRule saved = transactionMappingRuleRepository.save(existing);
+        invalidateCompiledMatcher(saved.getCompany().getId());
         return convertToClassificationRule(saved);
     }
 
@@ -212,6 +222,8 @@ public class TransactionMappingRuleService {
      */
     @Transactional
     public void deleteClassificationRule(Long id) {
+        transactionMappingRuleRepository.findById(id)
+            .ifPresent(existing -> invalidateCompiledMatcher(existing.getCompany().getId()));
         transactionMappingRuleRepository.deleteById(id);
     }
 
@@ -253,6 +265,7 @@ public class TransactionMappingRuleService {
         rule.setActive(true);
 
         transactionMappingRuleRepository.save(rule);
+        invalidateCompiledMatcher(companyId);
     }
 
     /**
@@ -263,6 +276,43 @@ public class TransactionMappingRuleService {
         return transactionMappingRuleRepository.findByCompanyIdAndIsActiveOrderByPriorityDesc(companyId, true);
     }
 
+    /**
+     * Get the compiled matcher for a company's active rules.
+     * Built on first use and reused until the company's rules change.
+     */
+    @Transactional(readOnly = true)
+    public CompiledRuleMatcher getCompiledMatcher(Long companyId) {
+        CompiledRuleMatcher cached = compiledMatchers.get(companyId);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompiledRuleMatcher matcher = CompiledRuleMatcher.compile(getActiveRulesForCompany(companyId));
+        compiledMatchers.put(companyId, matcher);
+        LOGGER.info("Compiled " + matcher.size() + " classification rules for company: " + companyId);
+        return matcher;
+    }
+
+    /**
+     * Drop the compiled matcher for a company. When called inside a transaction the entry is
+     * evicted again after commit so a concurrent rebuild cannot cache pre-commit rules.
+     */
+    public void invalidateCompiledMatcher(Long companyId) {
+        if (companyId == null) {
+            return;
+        }
+        compiledMatchers.remove(companyId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    compiledMatchers.remove(companyId);
+                }
+            });
+        }
+    }
+
     /**
      * Convert TransactionMappingRule to ClassificationRule
      */
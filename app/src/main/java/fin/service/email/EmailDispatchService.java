@@ -0,0 +1,473 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.email;
+
+import fin.repository.EmailOutboxRepository;
+import fin.repository.EmailOutboxRepository.NewMessage;
+import fin.repository.EmailOutboxRepository.OutboxMessage;
+import fin.repository.EmailOutboxRepository.Status;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends queued emails from the durable outbox ({@link EmailOutboxRepository}) in parallel,
+ * at a controlled rate.
+ *
+ * A single poller thread claims due messages and hands them to {@code concurrency} workers;
+ * it claims only as many as there are free workers, and is woken as soon as one finishes,
+ * so the pool stays busy without claiming messages it cannot start. Workers share a token
+ * bucket of {@code rate-per-second} sends and a {@link SmtpTransportPool} of connections
+ * sized to the worker count.
+ *
+ * A failed send is retried with exponential backoff ({@code initial-backoff-seconds},
+ * doubling per attempt, capped at one hour) until {@code max-attempts} is reached. Rejected
+ * recipients, malformed addresses and missing attachments fail at once. Attachments stored
+ * under {@link #getAttachmentDir()} are deleted once their message is sent or has failed.
+ *
+ * Everything is driven from the outbox table, so queued messages survive a restart; messages
+ * claimed by an instance that stopped mid-send are returned to the queue after ten minutes.
+ *
+ * SINGLE RESPONSIBILITY: Delivering outbox messages over SMTP
+ */
+@Service
+public class EmailDispatchService {
+
+    private static final Logger LOGGER = Logger.getLogger(EmailDispatchService.class.getName());
+
+    private static final long BORROW_TIMEOUT_SECONDS = 60;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final Duration STALE_CLAIM_AGE = Duration.ofMinutes(10);
+
+    private final EmailOutboxRepository outbox;
+    private final SmtpTransportPool transports;
+    private final String fromEmail;
+    private final String fromName;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Path attachmentDir;
+    private final Bucket rateLimit;
+    private final Semaphore freeWorkers;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService poller;
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+    private volatile boolean stopping;
+
+    public EmailDispatchService(EmailOutboxRepository outbox,
+                                SmtpTransportPool transports,
+                                @Value("${fin.email.from:noreply@company.com}") String fromEmail,
+                                @Value("${fin.email.from-name:Payroll System}") String fromName,
+                                @Value("${fin.email.dispatch.concurrency:4}") int concurrency,
+                                @Value("${fin.email.dispatch.rate-per-second:5}") int ratePerSecond,
+                                @Value("${fin.email.dispatch.max-attempts:5}") int maxAttempts,
+                                @Value("${fin.email.dispatch.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                                @Value("${fin.email.dispatch.poll-interval-ms:5000}") long pollIntervalMillis,
+                                @Value("${fin.email.dispatch.attachment-dir:}") String attachmentDir) {
+        this.outbox = outbox;
+        this.transports = transports;
+        this.fromEmail = fromEmail;
+        this.fromName = fromName;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = Duration.ofSeconds(Math.max(1, initialBackoffSeconds));
+        // No default: a temporary directory would lose queued attachments on restart while their rows survive
+        this.attachmentDir = attachmentDir == null || attachmentDir.isBlank()
+            ? null
+            : Paths.get(attachmentDir).toAbsolutePath().normalize();
+        if (this.attachmentDir == null) {
+            LOGGER.warning("No attachment directory configured (fin.email.dispatch.attachment-dir); "
+                + "emails with attachments cannot be queued");
+        }
+
+        // 0 = unthrottled; greedy refill spreads the sends evenly across each second
+        this.rateLimit = ratePerSecond > 0
+            ? Bucket.builder()
+                .addLimit(Bandwidth.classic(ratePerSecond, Refill.greedy(ratePerSecond, Duration.ofSeconds(1))))
+                .build()
+            : null;
+
+        int threads = Math.max(1, concurrency);
+        this.freeWorkers = new Semaphore(threads);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "email-dispatch-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-dispatch-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (transports.isConfigured()) {
+            long interval = Math.max(100, pollIntervalMillis);
+            this.poller.scheduleWithFixedDelay(this::requeueStaleClaims, 0, 1, TimeUnit.MINUTES);
+            this.poller.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            LOGGER.warning("No SMTP host configured (spring.mail.host); queued emails will not be sent");
+        }
+    }
+
+    /**
+     * Queue messages for sending as one batch and wake the dispatcher.
+     *
+     * @return progress of the new batch, all messages pending
+     */
+    public DispatchProgress enqueue(Long companyId, List<NewMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            throw new IllegalArgumentException("At least one message is required");
+        }
+        String batchId = UUID.randomUUID().toString();
+        outbox.enqueue(batchId, companyId, messages);
+        LOGGER.info("Queued " + messages.size() + " emails in batch " + batchId);
+        if (transports.isConfigured()) {
+            wakePoller();
+        }
+        return new DispatchProgress(batchId, messages.size(), 0, 0, 0);
+    }
+
+    /**
+     * Current delivery progress of a batch queued for a company.
+     *
+     * @throws IllegalArgumentException if the company has no messages in the batch
+     */
+    public DispatchProgress getProgress(String batchId, Long companyId) {
+        Map<Status, Integer> counts = outbox.countByStatus(batchId, companyId);
+        DispatchProgress progress = new DispatchProgress(batchId, counts.get(Status.PENDING),
+            counts.get(Status.SENDING), counts.get(Status.SENT), counts.get(Status.FAILED));
+        if (progress.getTotal() == 0) {
+            throw new IllegalArgumentException("Email batch not found: " + batchId);
+        }
+        return progress;
+    }
+
+    /**
+     * Directory where callers should store attachments of queued messages. Files here are
+     * deleted once their message is sent or has failed; keep it on persistent storage so
+     * attachments survive a restart along with the outbox.
+     *
+     * @throws IllegalStateException if fin.email.dispatch.attachment-dir is not configured
+     */
+    public Path getAttachmentDir() {
+        if (attachmentDir == null) {
+            throw new IllegalStateException("fin.email.dispatch.attachment-dir must be set to a persistent directory "
+                + "before emails with attachments can be queued");
+        }
+        return attachmentDir;
+    }
+
+    /**
+     * Claim due messages for every free worker and start sending them.
+     *
+     * @return number of messages claimed
+     */
+    synchronized int dispatchDue() {
+        int claimed = 0;
+        while (!stopping) {
+            int free = freeWorkers.availablePermits();
+            if (free == 0) {
+                break;
+            }
+            List<OutboxMessage> due = outbox.claimDue(free);
+            for (OutboxMessage message : due) {
+                // Permits are only acquired here, under the lock, and at least due.size() were free
+                freeWorkers.acquireUninterruptibly();
+                try {
+                    workers.execute(() -> {
+                        try {
+                            send(message);
+                        } finally {
+                            freeWorkers.release();
+                            wakePoller();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    freeWorkers.release();
+                    outbox.markForRetry(message.getId(), message.getAttempts(), Duration.ZERO, "Dispatcher stopped");
+                }
+            }
+            claimed += due.size();
+            if (due.size() < free) {
+                break;
+            }
+        }
+        return claimed;
+    }
+
+    private void poll() {
+        pollRequested.set(false);
+        try {
+            int claimed = dispatchDue();
+            if (claimed > 0) {
+                LOGGER.fine("Dispatched " + claimed + " queued emails");
+            }
+        } catch (DataAccessException e) {
+            LOGGER.log(Level.WARNING, "Could not read the email outbox", e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Email outbox poll failed", e);
+        }
+    }
+
+    private void wakePoller() {
+        if (!stopping && pollRequested.compareAndSet(false, true)) {
+            try {
+                poller.execute(this::poll);
+            } catch (RejectedExecutionException e) {
+                pollRequested.set(false);
+            }
+        }
+    }
+
+    private void requeueStaleClaims() {
+        try {
+            int requeued = outbox.requeueStale(STALE_CLAIM_AGE);
+            if (requeued > 0) {
+                LOGGER.warning("Requeued " + requeued + " emails left in SENDING by a stopped dispatcher");
+            }
+        } catch (DataAccessException e) {
+            LOGGER.log(Level.WARNING, "Could not requeue stale email claims", e);
+        }
+    }
+
+    private void send(OutboxMessage message) {
+        int attempt = message.getAttempts() + 1;
+        try {
+            MimeMessage mime = buildMessage(message);
+            if (rateLimit != null) {
+                rateLimit.asBlocking().consume(1);
+            }
+            deliver(mime);
+        } catch (InterruptedException e) {
+            // Shutting down: back to the queue without using up an attempt
+            Thread.currentThread().interrupt();
+            outbox.markForRetry(message.getId(), message.getAttempts(), Duration.ZERO, "Interrupted before sending");
+            return;
+        } catch (MessagingException | IOException | RuntimeException e) {
+            handleFailure(message, attempt, e);
+            return;
+        }
+
+        try {
+            outbox.markSent(message.getId(), attempt);
+            LOGGER.fine("Sent email " + message.getId() + " to " + message.getToEmail());
+        } catch (DataAccessException e) {
+            // Delivered but still SENDING; it will be requeued as stale and may be sent again
+            LOGGER.log(Level.SEVERE, "Sent email " + message.getId() + " but could not mark it as sent", e);
+            return;
+        }
+        deleteAttachment(message);
+    }
+
+    private void deliver(MimeMessage mime) throws MessagingException, InterruptedException {
+        Transport transport = transports.borrow(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        boolean reusable = false;
+        try {
+            transport.sendMessage(mime, mime.getAllRecipients());
+            reusable = true;
+        } catch (SendFailedException e) {
+            // The server answered, so the connection itself is still good
+            reusable = true;
+            throw e;
+        } finally {
+            transports.release(transport, reusable);
+        }
+    }
+
+    private MimeMessage buildMessage(OutboxMessage message) throws MessagingException, IOException {
+        MimeMessage mime = new MimeMessage(transports.getSession());
+        mime.setFrom(new InternetAddress(fromEmail, fromName));
+        mime.setRecipient(Message.RecipientType.TO, new InternetAddress(message.getToEmail(), true));
+        mime.setSubject(message.getSubject());
+
+        if (message.getAttachmentPath() == null) {
+            mime.setText(message.getBody());
+            return mime;
+        }
+
+        Path attachment = Paths.get(message.getAttachmentPath());
+        if (!Files.isRegularFile(attachment)) {
+            throw new FileNotFoundException("Attachment not found: " + attachment);
+        }
+        Multipart multipart = new MimeMultipart();
+        BodyPart textPart = new MimeBodyPart();
+        textPart.setText(message.getBody());
+        multipart.addBodyPart(textPart);
+        MimeBodyPart attachmentPart = new MimeBodyPart();
+        attachmentPart.attachFile(attachment.toFile());
+        if (message.getAttachmentName() != null) {
+            attachmentPart.setFileName(message.getAttachmentName());
+        }
+        multipart.addBodyPart(attachmentPart);
+        mime.setContent(multipart);
+        return mime;
+    }
+
+    private void handleFailure(OutboxMessage message, int attempt, Exception error) {
+        String reason = error.getClass().getSimpleName() + ": " + error.getMessage();
+        try {
+            if (isPermanent(error) || attempt >= maxAttempts) {
+                outbox.markFailed(message.getId(), attempt, reason);
+                deleteAttachment(message);
+                LOGGER.log(Level.WARNING, "Giving up on email " + message.getId() + " to " + message.getToEmail()
+                    + " after " + attempt + " attempt(s): " + reason);
+            } else {
+                Duration delay = backoff(attempt);
+                outbox.markForRetry(message.getId(), attempt, delay, reason);
+                LOGGER.info("Email " + message.getId() + " to " + message.getToEmail() + " failed (attempt "
+                    + attempt + " of " + maxAttempts + "), retrying in " + delay.toSeconds() + "s: " + reason);
+            }
+        } catch (DataAccessException e) {
+            // Left in SENDING; requeued as stale later
+            LOGGER.log(Level.SEVERE, "Could not record the outcome of email " + message.getId(), e);
+        }
+    }
+
+    /**
+     * Delay before the retry that follows the given (1-based) failed attempt.
+     */
+    Duration backoff(int attempt) {
+        int doublings = Math.min(attempt - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    /**
+     * Failures that will not go away by retrying: bad or rejected addresses, missing attachments.
+     */
+    static boolean isPermanent(Exception error) {
+        if (error instanceof AddressException || error instanceof FileNotFoundException) {
+            return true;
+        }
+        if (error instanceof SendFailedException) {
+            // 5xx recipient rejections land in invalid addresses; 4xx in valid-unsent
+            SendFailedException sendFailed = (SendFailedException) error;
+            return sendFailed.getInvalidAddresses() != null && sendFailed.getInvalidAddresses().length > 0;
+        }
+        return false;
+    }
+
+    private void deleteAttachment(OutboxMessage message) {
+        if (message.getAttachmentPath() == null) {
+            return;
+        }
+        Path attachment = Paths.get(message.getAttachmentPath()).toAbsolutePath().normalize();
+        if (attachmentDir == null || !attachment.startsWith(attachmentDir)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(attachment);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete email attachment " + attachment, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        poller.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delivery progress of one batch of queued emails.
+     */
+    public static class DispatchProgress {
+        private final String batchId;
+        private final int pending;
+        private final int sending;
+        private final int sent;
+        private final int failed;
+
+        public DispatchProgress(String batchId, int pending, int sending, int sent, int failed) {
+            this.batchId = batchId;
+            this.pending = pending;
+            this.sending = sending;
+            this.sent = sent;
+            this.failed = failed;
+        }
+
+        public String getBatchId() { return batchId; }
+        public int getPending() { return pending; }
+        public int getSending() { return sending; }
+        public int getSent() { return sent; }
+        public int getFailed() { return failed; }
+        public int getTotal() { return pending + sending + sent + failed; }
+        /** True once every message is sent or has failed */
+        public boolean isComplete() { return pending == 0 && sending == 0; }
+        /** Share of messages sent or failed, 0-100 */
+        public int getPercentComplete() {
+            int total = getTotal();
+            return total == 0 ? 100 : (int) ((sent + failed) * 100L / total);
+        }
+    }
+}
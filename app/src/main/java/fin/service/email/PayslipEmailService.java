@@ -0,0 +1,138 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.email;
+
+import fin.entity.Employee;
+import fin.repository.EmailOutboxRepository.NewMessage;
+import fin.service.EmailService;
+import fin.service.PayslipBulkExportService;
+import fin.service.PayslipBulkExportService.PayslipBatch;
+import fin.service.PayslipBulkExportService.RenderedPayslip;
+import fin.service.email.EmailDispatchService.DispatchProgress;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queues payslips for delivery by email.
+ *
+ * The payslip PDFs are rendered in parallel into the dispatcher's attachment directory and one
+ * outbox message per payslip is queued in a single batch; {@link EmailDispatchService} sends them
+ * in the background. Employees without an email address are skipped.
+ */
+@Service
+public class PayslipEmailService {
+
+    private static final Logger LOGGER = Logger.getLogger(PayslipEmailService.class.getName());
+
+    private final PayslipBulkExportService payslipBulkExportService;
+    private final EmailDispatchService emailDispatchService;
+
+    public PayslipEmailService(PayslipBulkExportService payslipBulkExportService,
+                               EmailDispatchService emailDispatchService) {
+        this.payslipBulkExportService = payslipBulkExportService;
+        this.emailDispatchService = emailDispatchService;
+    }
+
+    /**
+     * Render and queue the given payslips, which must belong to one fiscal period.
+     *
+     * @throws IllegalArgumentException if the payslips cannot be loaded or none can be emailed
+     */
+    public QueuedPayslipEmails queuePayslipEmails(List<Long> payslipIds) throws IOException {
+        PayslipBatch batch = payslipBulkExportService.prepareByPayslipIds(payslipIds);
+        PayslipBatch withEmail = batch.filterByEmployee(PayslipEmailService::hasEmail);
+        if (withEmail.isEmpty()) {
+            throw new IllegalArgumentException("None of the selected payslips belongs to an employee with an email address");
+        }
+
+        List<RenderedPayslip> rendered =
+            payslipBulkExportService.writePdfFiles(withEmail, emailDispatchService.getAttachmentDir());
+        if (rendered.isEmpty()) {
+            throw new IOException("None of the selected payslips could be rendered");
+        }
+
+        String periodName = batch.getFiscalPeriod().getPeriodName();
+        List<NewMessage> messages = new ArrayList<>(rendered.size());
+        for (RenderedPayslip payslip : rendered) {
+            Employee employee = payslip.getEmployee();
+            String name = employee.getFullName();
+            messages.add(new NewMessage(
+                employee.getEmail().trim(),
+                name,
+                EmailService.createSubject(periodName),
+                EmailService.createEmailBody(name, periodName),
+                payslip.getFile().toString(),
+                EmailService.createAttachmentName(periodName)));
+        }
+
+        DispatchProgress progress;
+        try {
+            progress = emailDispatchService.enqueue(batch.getFiscalPeriod().getCompanyId(), messages);
+        } catch (RuntimeException e) {
+            deleteQuietly(rendered);
+            throw e;
+        }
+        return new QueuedPayslipEmails(progress, batch.size() - rendered.size());
+    }
+
+    private static boolean hasEmail(Employee employee) {
+        return employee.getEmail() != null && !employee.getEmail().isBlank();
+    }
+
+    private static void deleteQuietly(List<RenderedPayslip> rendered) {
+        for (RenderedPayslip payslip : rendered) {
+            try {
+                Files.deleteIfExists(payslip.getFile());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not delete " + payslip.getFile(), e);
+            }
+        }
+    }
+
+    /**
+     * Outcome of queueing payslip emails.
+     */
+    public static class QueuedPayslipEmails {
+        private final DispatchProgress progress;
+        private final int skipped;
+
+        public QueuedPayslipEmails(DispatchProgress progress, int skipped) {
+            this.progress = progress;
+            this.skipped = skipped;
+        }
+
+        public DispatchProgress getProgress() { return progress; }
+        /** Payslips not queued: no email address, or the PDF could not be rendered */
+        public int getSkipped() { return skipped; }
+    }
+}
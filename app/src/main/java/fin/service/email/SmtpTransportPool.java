@@ -0,0 +1,190 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of connected SMTP transports, so bulk sends reuse a handful of authenticated
+ * connections instead of connecting (TLS handshake and AUTH) once per message.
+ *
+ * At most {@code maxSize} transports are borrowed at a time. Idle transports are checked with
+ * {@link Transport#isConnected()} (an SMTP NOOP) before reuse and replaced when the server has
+ * dropped them. Thread-safe.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger LOGGER = Logger.getLogger(SmtpTransportPool.class.getName());
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final BlockingQueue<Transport> idle;
+    private final Semaphore borrowPermits;
+    private volatile boolean closed;
+
+    @Autowired
+    public SmtpTransportPool(@Value("${spring.mail.host:}") String host,
+                             @Value("${spring.mail.port:587}") int port,
+                             @Value("${spring.mail.username:}") String username,
+                             @Value("${spring.mail.password:}") String password,
+                             @Value("${spring.mail.properties.mail.smtp.auth:true}") boolean auth,
+                             @Value("${spring.mail.properties.mail.smtp.starttls.enable:true}") boolean startTls,
+                             @Value("${fin.email.dispatch.concurrency:4}") int maxSize) {
+        this(createSession(host, port, auth, startTls), host, port, username, password, maxSize);
+    }
+
+    public SmtpTransportPool(Session session, String host, int port, String username, String password, int maxSize) {
+        int size = Math.max(1, maxSize);
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username == null || username.isBlank() ? null : username;
+        this.password = this.username == null ? null : password;
+        this.idle = new LinkedBlockingQueue<>(size);
+        this.borrowPermits = new Semaphore(size, true);
+    }
+
+    /**
+     * Whether an SMTP host is configured; without one nothing can be sent.
+     */
+    public boolean isConfigured() {
+        return host != null && !host.isBlank();
+    }
+
+    /**
+     * Session used to create messages for transports from this pool.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Take a connected transport, waiting up to {@code timeout} for one to become free.
+     * Every borrowed transport must be handed back with {@link #release(Transport, boolean)}.
+     *
+     * @throws MessagingException when no transport became free in time or connecting failed
+     */
+    public Transport borrow(long timeout, TimeUnit unit) throws MessagingException, InterruptedException {
+        if (closed) {
+            throw new MessagingException("SMTP transport pool is closed");
+        }
+        if (!borrowPermits.tryAcquire(timeout, unit)) {
+            throw new MessagingException("Timed out waiting for a free SMTP connection");
+        }
+        try {
+            Transport transport;
+            while ((transport = idle.poll()) != null) {
+                if (transport.isConnected()) {
+                    return transport;
+                }
+                closeQuietly(transport);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            borrowPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hand back a borrowed transport.
+     *
+     * @param reusable false after a connection-level failure, so the transport is closed rather
+     *                 than offered to the next borrower
+     */
+    public void release(Transport transport, boolean reusable) {
+        try {
+            if (transport != null && !(reusable && !closed && idle.offer(transport))) {
+                closeQuietly(transport);
+            }
+        } finally {
+            borrowPermits.release();
+        }
+    }
+
+    /**
+     * Number of connected transports waiting to be borrowed.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        LOGGER.fine("Opened SMTP connection to " + host + ":" + port);
+        return transport;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.log(Level.FINE, "Error closing SMTP connection", e);
+        }
+    }
+
+    private static Session createSession(String host, int port, boolean auth, boolean startTls) {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", host == null ? "" : host);
+        props.put("mail.smtp.port", String.valueOf(port));
+        props.put("mail.smtp.auth", String.valueOf(auth));
+        props.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        // Pooled connections must not hang a worker forever on a stalled server
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "30000");
+        props.put("mail.smtp.writetimeout", "30000");
+        return Session.getInstance(props);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cell styles of one workbook, created on first use and then shared by every cell.
+ *
+ * Excel caps a workbook at 64,000 cell styles, so styles must never be created per cell.
+ * Data styles are keyed by column format and alignment; fonts and the data format table
+ * are created once per workbook.
+ */
+public class ExcelStyleCache {
+
+    static final String CURRENCY_FORMAT = "R #,##0.00";
+    static final String DATE_FORMAT = "yyyy-mm-dd";
+
+    private final Workbook workbook;
+    private final Map<String, CellStyle> dataStyles = new HashMap<>();
+    private Font dataFont;
+    private DataFormat dataFormat;
+    private CellStyle headerStyle;
+    private CellStyle titleStyle;
+
+    public ExcelStyleCache(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Style for a data cell of a column with the given format ("currency", "date", "number",
+     * "text") and alignment ("left", "center", "right").
+     */
+    public CellStyle dataStyle(String format, String alignment) {
+        String key = (format != null ? format : "text") + "|" + (alignment != null ? alignment : "left");
+        CellStyle style = dataStyles.get(key);
+        if (style == null) {
+            style = createDataStyle(format, alignment);
+            dataStyles.put(key, style);
+        }
+        return style;
+    }
+
+    /**
+     * Bold, shaded column header style.
+     */
+    public CellStyle headerStyle() {
+        if (headerStyle == null) {
+            headerStyle = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            font.setFontHeightInPoints((short) 10);
+            headerStyle.setFont(font);
+
+            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            setThinBorders(headerStyle);
+        }
+        return headerStyle;
+    }
+
+    /**
+     * Large bold report title style.
+     */
+    public CellStyle titleStyle() {
+        if (titleStyle == null) {
+            titleStyle = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            font.setFontHeightInPoints((short) 16);
+            titleStyle.setFont(font);
+        }
+        return titleStyle;
+    }
+
+    /**
+     * Number of distinct data styles created so far.
+     */
+    public int size() {
+        return dataStyles.size();
+    }
+
+    private CellStyle createDataStyle(String format, String alignment) {
+        if (dataFont == null) {
+            dataFont = workbook.createFont();
+            dataFont.setFontHeightInPoints((short) 10);
+            dataFormat = workbook.createDataFormat();
+        }
+
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(dataFont);
+        setThinBorders(style);
+        style.setAlignment(toHorizontalAlignment(alignment));
+
+        if ("currency".equals(format)) {
+            style.setDataFormat(dataFormat.getFormat(CURRENCY_FORMAT));
+        } else if ("date".equals(format)) {
+            style.setDataFormat(dataFormat.getFormat(DATE_FORMAT));
+        }
+        return style;
+    }
+
+    private static HorizontalAlignment toHorizontalAlignment(String alignment) {
+        if (alignment == null) {
+            return HorizontalAlignment.GENERAL;
+        }
+        switch (alignment.toLowerCase(Locale.ROOT)) {
+            case "right":
+                return HorizontalAlignment.RIGHT;
+            case "center":
+                return HorizontalAlignment.CENTER;
+            case "left":
+                return HorizontalAlignment.LEFT;
+            default:
+                return HorizontalAlignment.GENERAL;
+        }
+    }
+
+    private static void setThinBorders(CellStyle style) {
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+    }
+}
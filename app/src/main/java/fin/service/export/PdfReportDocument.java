@@ -0,0 +1,123 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A PDF report under construction, with the resources shared by all of its pages.
+ *
+ * Page content is buffered in memory up to {@code maxMainMemoryBytes} and in a temporary file
+ * beyond that (PDFBox mixed {@link MemoryUsageSetting}), so very long reports do not have to fit
+ * on the heap. Fonts are created once per document and reused by every page, header and footer.
+ * {@link #save(OutputStream)} writes the finished document straight to the caller's stream.
+ *
+ * Not thread-safe: one instance per report. Always {@link #close()} to delete the temporary file.
+ */
+public class PdfReportDocument implements AutoCloseable {
+
+    private final PDDocument document;
+    private final Map<Standard14Fonts.FontName, PDType1Font> fonts = new EnumMap<>(Standard14Fonts.FontName.class);
+
+    /**
+     * @param maxMainMemoryBytes page content kept in memory before spilling to a temporary file
+     */
+    public PdfReportDocument(long maxMainMemoryBytes) {
+        this.document = new PDDocument(MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache);
+    }
+
+    public PDDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Standard 14 font for this document, created on first use.
+     */
+    public PDType1Font font(Standard14Fonts.FontName name) {
+        return fonts.computeIfAbsent(name, PDType1Font::new);
+    }
+
+    /**
+     * Width of {@code text} in points when set in the given font and size.
+     */
+    public float textWidth(Standard14Fonts.FontName name, String text, float fontSize) throws IOException {
+        return font(name).getStringWidth(text) / 1000 * fontSize;
+    }
+
+    /**
+     * Append a new A4 page.
+     */
+    public PDPage addPage() {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        return page;
+    }
+
+    public int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    /**
+     * Write the document to {@code out}. The stream is not closed.
+     */
+    public void save(OutputStream out) throws IOException {
+        document.save(out);
+        out.flush();
+    }
+
+    /**
+     * The finished document as an export that saves it on write; closing the export closes this document.
+     */
+    public PreparedExport asExport() {
+        return new PreparedExport() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                save(out);
+            }
+
+            @Override
+            public void close() throws IOException {
+                PdfReportDocument.this.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
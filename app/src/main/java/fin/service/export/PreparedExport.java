@@ -0,0 +1,48 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A report export whose data has been loaded and validated and that is ready to be written.
+ *
+ * Streaming endpoints prepare the export before they commit to a 200 response, so an empty
+ * report or a failed query still becomes an error status; only the final write happens inside
+ * the response body. Must be closed whether or not it was written, to release temporary files.
+ */
+public interface PreparedExport extends AutoCloseable {
+
+    /**
+     * Write the finished document to {@code out}. The stream is not closed.
+     */
+    void writeTo(OutputStream out) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -37,18 +37,18 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -73,6 +73,10 @@ public class ReportExportService {
     @Value("${fin.reports.pdf.header-font-size:12}")
     private int pdfHeaderFontSize;
     
+    // Page content held in memory per PDF before it is buffered in a temporary file
+    @Value("${fin.reports.pdf.max-main-memory-mb:16}")
+    private int pdfMaxMainMemoryMb;
+    
     @Value("${fin.reports.company-logo-path:logos/}")
     private String companyLogoPath;
     
@@ -86,6 +90,10 @@ public class ReportExportService {
     @Value("${fin.reports.excel.default-column-width:15}")
     private int excelDefaultColumnWidth;
     
+    // Rows kept in memory per sheet; older rows are flushed to a temporary file
+    @Value("${fin.reports.excel.row-window:500}")
+    private int excelRowWindow;
+    
     // CSV Configuration (from application.properties)
     @Value("${fin.reports.csv.delimiter:,}")
     private String csvDelimiter;
@@ -126,6 +134,61 @@ public class ReportExportService {
             throw new IllegalArgumentException("No data provided for PDF export");
         }
         
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writePDF(data.iterator(), columns, reportTitle, companyId, fiscalPeriod, outputStream);
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * Write report data as a PDF directly to an output stream. Rows are pulled from the iterator
+     * one at a time and laid out page by page; page content beyond the configured memory budget
+     * is buffered in a temporary file rather than on the heap.
+     *
+     * @param rows Data rows (each row is a Map of field name to value), consumed once
+     * @param columns Column definitions (header names, widths, alignment)
+     * @param reportTitle Report title for header (e.g., "TRIAL BALANCE")
+     * @param companyId Company ID for fetching company details
+     * @param fiscalPeriod Fiscal period for report header
+     * @param out Destination stream (left open)
+     * @throws IOException if PDF generation fails
+     */
+    public void writePDF(
+            Iterator<Map<String, Object>> rows,
+            List<ColumnDefinition> columns,
+            String reportTitle,
+            Long companyId,
+            FiscalPeriod fiscalPeriod,
+            OutputStream out) throws IOException {
+        
+        try (PreparedExport export = preparePDF(rows, columns, reportTitle, companyId, fiscalPeriod)) {
+            export.writeTo(out);
+        }
+    }
+    
+    /**
+     * Lay out report data as a PDF without writing it yet. Every row is consumed and every page
+     * built here, so missing data or a failing row source is reported before any output is sent;
+     * the returned export only saves the finished document and must be closed.
+     *
+     * @param rows Data rows (each row is a Map of field name to value), consumed once
+     * @param columns Column definitions (header names, widths, alignment)
+     * @param reportTitle Report title for header (e.g., "TRIAL BALANCE")
+     * @param companyId Company ID for fetching company details
+     * @param fiscalPeriod Fiscal period for report header
+     * @return The laid-out document, ready to be written
+     * @throws IOException if PDF generation fails
+     */
+    public PreparedExport preparePDF(
+            Iterator<Map<String, Object>> rows,
+            List<ColumnDefinition> columns,
+            String reportTitle,
+            Long companyId,
+            FiscalPeriod fiscalPeriod) throws IOException {
+        
+        if (rows == null || !rows.hasNext()) {
+            throw new IllegalArgumentException("No data provided for PDF export");
+        }
+        
         if (columns == null || columns.isEmpty()) {
             throw new IllegalArgumentException("No column definitions provided for PDF export");
         }
@@ -133,28 +196,23 @@ public class ReportExportService {
         // Fetch company details
         Company company = companyService.getCompanyById(companyId);
         
-        PDDocument document = new PDDocument();
-        
+        PdfReportDocument pdf = new PdfReportDocument(pdfMaxMainMemoryMb * 1024L * 1024L);
         try {
             // Add metadata
-            addMetadata(document, company, fiscalPeriod, reportTitle);
+            addMetadata(pdf.getDocument(), company, fiscalPeriod, reportTitle);
             
-            // Create title page
-            PDPage titlePage = new PDPage(PDRectangle.A4);
-            document.addPage(titlePage);
-            addTitlePage(document, titlePage, company, fiscalPeriod, reportTitle, data.size());
+            // Title page comes first; its record count is only known once the rows are laid out
+            PDPage titlePage = pdf.addPage();
             
             // Add report data pages
-            addReportPages(document, data, columns, company, fiscalPeriod, reportTitle);
-            
-            // Convert to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            document.save(outputStream);
-            return outputStream.toByteArray();
-            
-        } finally {
-            document.close();
+            int rowCount = addReportPages(pdf, rows, columns, company, fiscalPeriod, reportTitle);
+            addTitlePage(pdf, titlePage, company, fiscalPeriod, reportTitle, rowCount);
+        } catch (IOException | RuntimeException e) {
+            pdf.close();
+            throw e;
         }
+        
+        return pdf.asExport();
     }
     
     /**
@@ -175,245 +233,91 @@ public class ReportExportService {
             Long companyId,
             FiscalPeriod fiscalPeriod) throws IOException {
         
-        if (data == null || data.isEmpty()) {
-            throw new IllegalArgumentException("No data provided for Excel export");
-        }
-        
-        if (columns == null || columns.isEmpty()) {
-            throw new IllegalArgumentException("No column definitions provided for Excel export");
-        }
-        
-        // Fetch company details
-        Company company = companyService.getCompanyById(companyId);
-        
-        Workbook workbook = new XSSFWorkbook();
-        
-        try {
-            // Create title sheet
-            Sheet titleSheet = workbook.createSheet("Title");
-            addExcelTitlePage(titleSheet, reportTitle, company, fiscalPeriod, data.size());
-            
-            // Create data sheet
-            Sheet dataSheet = workbook.createSheet(reportTitle.replaceAll("[^\\w]", "_"));
-            
-            // Freeze header row if configured
-            if (excelFreezeHeaderRow) {
-                dataSheet.createFreezePane(0, 1);
-            }
-            
-            int rowNum = 0;
-            
-            // Add column headers
-            Row headerRow = dataSheet.createRow(rowNum++);
-            CellStyle headerStyle = createExcelHeaderStyle(workbook);
-            
-            for (int i = 0; i < columns.size(); i++) {
-                ColumnDefinition column = columns.get(i);
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(column.getHeaderName());
-                cell.setCellStyle(headerStyle);
-                
-                // Set column width
-                int width = column.getWidth() > 0 ? column.getWidth() : excelDefaultColumnWidth;
-                dataSheet.setColumnWidth(i, width * 256); // POI uses 1/256th of a character width
-            }
-            
-            // Add data rows
-            CellStyle dataStyle = createExcelDataStyle(workbook);
-            
-            for (Map<String, Object> rowData : data) {
-                Row dataRow = dataSheet.createRow(rowNum++);
-                
-                for (int i = 0; i < columns.size(); i++) {
-                    ColumnDefinition column = columns.get(i);
-                    Cell cell = dataRow.createCell(i);
-                    
-                    Object value = rowData.get(column.getFieldName());
-                    setExcelCellValue(cell, value, column.getFormat());
-                    cell.setCellStyle(dataStyle);
-                }
-            }
-            
-            // Auto-size columns if configured
-            if (excelAutoSizeColumns) {
-                for (int i = 0; i < columns.size(); i++) {
-                    dataSheet.autoSizeColumn(i);
-                }
-            }
-            
-            // Convert to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-            
-        } finally {
-            workbook.close();
-        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeExcel(data, columns, reportTitle, companyId, fiscalPeriod, outputStream);
+        return outputStream.toByteArray();
     }
     
     /**
-     * Add title page to Excel workbook
+     * Write report data as an Excel workbook (.xlsx) directly to an output stream
+     *
+     * @param data List of data rows (each row is a Map of field name to value)
+     * @param columns Column definitions (header names, widths, alignment)
+     * @param reportTitle Report title for sheet name
+     * @param companyId Company ID for fetching company details
+     * @param fiscalPeriod Fiscal period for report header
+     * @param out Destination stream (left open)
+     * @throws IOException if Excel generation fails
      */
-    private void addExcelTitlePage(Sheet sheet, String reportTitle, Company company, FiscalPeriod fiscalPeriod, int dataCount) {
-        int rowNum = 0;
-        
-        // Title
-        Row titleRow = sheet.createRow(rowNum++);
-        Cell titleCell = titleRow.createCell(0);
-        titleCell.setCellValue(reportTitle.toUpperCase());
-        CellStyle titleStyle = sheet.getWorkbook().createCellStyle();
-        Font titleFont = sheet.getWorkbook().createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 16);
-        titleStyle.setFont(titleFont);
-        titleCell.setCellStyle(titleStyle);
-        
-        // Empty row
-        sheet.createRow(rowNum++);
-        
-        // Company name
-        Row companyRow = sheet.createRow(rowNum++);
-        Cell companyCell = companyRow.createCell(0);
-        companyCell.setCellValue("Company: " + (company != null ? company.getName() : "N/A"));
+    public void writeExcel(
+            List<Map<String, Object>> data,
+            List<ColumnDefinition> columns,
+            String reportTitle,
+            Long companyId,
+            FiscalPeriod fiscalPeriod,
+            OutputStream out) throws IOException {
         
-        // Registration number if available
-        if (company != null && company.getRegistrationNumber() != null) {
-            Row regRow = sheet.createRow(rowNum++);
-            Cell regCell = regRow.createCell(0);
-            regCell.setCellValue("Registration Number: " + company.getRegistrationNumber());
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("No data provided for Excel export");
         }
         
-        // Empty row
-        sheet.createRow(rowNum++);
-        
-        // Fiscal period
-        if (fiscalPeriod != null) {
-            Row periodRow = sheet.createRow(rowNum++);
-            Cell periodCell = periodRow.createCell(0);
-            String periodText = String.format("Period: %s (%s to %s)",
-                fiscalPeriod.getPeriodName(),
-                fiscalPeriod.getStartDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")),
-                fiscalPeriod.getEndDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-            periodCell.setCellValue(periodText);
+        try (StreamingExcelWriter writer = openExcelWriter(reportTitle, columns)) {
+            for (Map<String, Object> rowData : data) {
+                writer.writeRow(rowData);
+            }
+            finishExcel(writer, companyId, fiscalPeriod, out);
         }
-        
-        // Empty row
-        sheet.createRow(rowNum++);
-        
-        // Record count
-        Row countRow = sheet.createRow(rowNum++);
-        Cell countCell = countRow.createCell(0);
-        countCell.setCellValue("Total Records: " + dataCount);
-        
-        // Empty row
-        sheet.createRow(rowNum++);
-        
-        // Generation date
-        Row genRow = sheet.createRow(rowNum++);
-        Cell genCell = genRow.createCell(0);
-        genCell.setCellValue("Generated: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy")));
-        
-        // Empty row
-        sheet.createRow(rowNum++);
-        
-        // Instructions
-        Row instrRow = sheet.createRow(rowNum++);
-        Cell instrCell = instrRow.createCell(0);
-        instrCell.setCellValue("Data: See '" + reportTitle.replaceAll("[^\\w]", "_") + "' sheet");
-        
-        // Auto-size column
-        sheet.autoSizeColumn(0);
     }
     
     /**
-     * Create Excel header cell style
+     * Open a streaming Excel writer configured from application.properties. Rows can be written
+     * as they are read; the caller must close the writer.
      */
-    private CellStyle createExcelHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 10);
-        style.setFont(font);
-        
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        
-        return style;
+    public StreamingExcelWriter openExcelWriter(String reportTitle, List<ColumnDefinition> columns) {
+        return new StreamingExcelWriter(reportTitle, columns, excelRowWindow,
+            excelFreezeHeaderRow, excelDefaultColumnWidth, excelAutoSizeColumns);
     }
     
     /**
-     * Create Excel data cell style
+     * Add the title sheet (company and period details) and write the workbook to the output stream
      */
-    private CellStyle createExcelDataStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setFontHeightInPoints((short) 10);
-        style.setFont(font);
-        
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        
-        return style;
+    public void finishExcel(StreamingExcelWriter writer, Long companyId, FiscalPeriod fiscalPeriod,
+                            OutputStream out) throws IOException {
+        Company company = companyService.getCompanyById(companyId);
+        writer.finish(company, fiscalPeriod, out);
     }
-    
+
     /**
-     * Set Excel cell value based on data type and format
+     * Check that rows were written and load the company details, so that an empty report fails
+     * before anything is sent. The returned export owns the writer; if validation fails the
+     * writer is closed here.
      */
-    private void setExcelCellValue(Cell cell, Object value, String format) {
-        if (value == null) {
-            cell.setCellValue("");
-            return;
-        }
-        
-        switch (format) {
-            case "currency":
-                if (value instanceof BigDecimal) {
-                    cell.setCellValue(((BigDecimal) value).doubleValue());
-                } else if (value instanceof Number) {
-                    cell.setCellValue(((Number) value).doubleValue());
-                } else {
-                    cell.setCellValue(value.toString());
-                }
-                // Set currency format
-                CellStyle currencyStyle = cell.getSheet().getWorkbook().createCellStyle();
-                currencyStyle.cloneStyleFrom(cell.getCellStyle());
-                DataFormat dataFormat = cell.getSheet().getWorkbook().createDataFormat();
-                currencyStyle.setDataFormat(dataFormat.getFormat("R #,##0.00"));
-                cell.setCellStyle(currencyStyle);
-                break;
-                
-            case "date":
-                if (value instanceof LocalDate) {
-                    cell.setCellValue(java.sql.Date.valueOf((LocalDate) value));
-                } else if (value instanceof LocalDateTime) {
-                    cell.setCellValue(java.sql.Timestamp.valueOf((LocalDateTime) value));
-                } else {
-                    cell.setCellValue(value.toString());
-                }
-                break;
-                
-            case "number":
-                if (value instanceof Number) {
-                    cell.setCellValue(((Number) value).doubleValue());
-                } else {
-                    cell.setCellValue(value.toString());
-                }
-                break;
-                
-            case "text":
-            default:
-                cell.setCellValue(value.toString());
-                break;
+    public PreparedExport prepareExcel(StreamingExcelWriter writer, Long companyId, FiscalPeriod fiscalPeriod)
+            throws IOException {
+        Company company;
+        try {
+            if (writer.getRowCount() == 0) {
+                throw new IllegalArgumentException("No data provided for Excel export");
+            }
+            company = companyService.getCompanyById(companyId);
+        } catch (RuntimeException e) {
+            writer.close();
+            throw e;
         }
+
+        return new PreparedExport() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                writer.finish(company, fiscalPeriod, out);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
     }
-    
+
     /**
      * Export report data to CSV format
      *
@@ -529,8 +433,8 @@ public class ReportExportService {
     /**
      * Add title page with company and period information
      */
-    private void addTitlePage(PDDocument document, PDPage page, Company company, FiscalPeriod fiscalPeriod, String reportTitle, int dataCount) throws IOException {
-        PDPageContentStream contentStream = new PDPageContentStream(document, page);
+    private void addTitlePage(PdfReportDocument pdf, PDPage page, Company company, FiscalPeriod fiscalPeriod, String reportTitle, int dataCount) throws IOException {
+        PDPageContentStream contentStream = new PDPageContentStream(pdf.getDocument(), page);
 
         try {
             float yPosition = PDRectangle.A4.getHeight() - 100;
@@ -538,9 +442,9 @@ public class ReportExportService {
 
             // Title
             contentStream.beginText();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 20);
+            contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 20);
             String title = reportTitle.toUpperCase();
-            float titleWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD)
+            float titleWidth = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD)
                 .getStringWidth(title) / 1000 * 20;
             contentStream.newLineAtOffset(centerX - titleWidth / 2, yPosition);
             contentStream.showText(title);
@@ -551,9 +455,9 @@ public class ReportExportService {
             // Company information
             if (company != null) {
                 contentStream.beginText();
-                contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
+                contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
                 String companyName = company.getName();
-                float companyWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD)
+                float companyWidth = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD)
                     .getStringWidth(companyName) / 1000 * 14;
                 contentStream.newLineAtOffset(centerX - companyWidth / 2, yPosition);
                 contentStream.showText(companyName);
@@ -564,8 +468,8 @@ public class ReportExportService {
                 if (company.getRegistrationNumber() != null) {
                     String regText = "Registration Number: " + company.getRegistrationNumber();
                     contentStream.beginText();
-                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
-                    float regWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA)
+                    contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 12);
+                    float regWidth = pdf.font(Standard14Fonts.FontName.HELVETICA)
                         .getStringWidth(regText) / 1000 * 12;
                     contentStream.newLineAtOffset(centerX - regWidth / 2, yPosition);
                     contentStream.showText(regText);
@@ -584,8 +488,8 @@ public class ReportExportService {
                 );
 
                 contentStream.beginText();
-                contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
-                float periodWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD)
+                contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
+                float periodWidth = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD)
                     .getStringWidth(periodText) / 1000 * 12;
                 contentStream.newLineAtOffset(centerX - periodWidth / 2, yPosition - 15);
                 contentStream.showText(periodText);
@@ -597,8 +501,8 @@ public class ReportExportService {
             // Data count
             String countText = String.format("Total Records: %d", dataCount);
             contentStream.beginText();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
-            float countWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA)
+            contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 12);
+            float countWidth = pdf.font(Standard14Fonts.FontName.HELVETICA)
                 .getStringWidth(countText) / 1000 * 12;
             contentStream.newLineAtOffset(centerX - countWidth / 2, yPosition);
             contentStream.showText(countText);
@@ -609,13 +513,16 @@ public class ReportExportService {
             // Generation date
             String genDateText = "Generated: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy"));
             contentStream.beginText();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-            float genWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA)
+            contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 10);
+            float genWidth = pdf.font(Standard14Fonts.FontName.HELVETICA)
                 .getStringWidth(genDateText) / 1000 * 10;
             contentStream.newLineAtOffset(centerX - genWidth / 2, yPosition);
             contentStream.showText(genDateText);
             contentStream.endText();
 
+            // Footer for page 1; data pages are numbered from 2 as they are laid out
+            addPageFooter(pdf, contentStream, 1, company, fiscalPeriod, reportTitle);
+
         } finally {
             contentStream.close();
         }
@@ -624,7 +531,7 @@ public class ReportExportService {
     /**
      * Add pages with report data in table format
      */
-    private void addReportPages(PDDocument document, List<Map<String, Object>> data, List<ColumnDefinition> columns, Company company, FiscalPeriod fiscalPeriod, String reportTitle) throws IOException {
+    private int addReportPages(PdfReportDocument pdf, Iterator<Map<String, Object>> rows, List<ColumnDefinition> columns, Company company, FiscalPeriod fiscalPeriod, String reportTitle) throws IOException {
         final float MARGIN_LEFT = 40f;
         final float MARGIN_TOP = 80f;
         final float MARGIN_BOTTOM = 50f;
@@ -639,59 +546,60 @@ public class ReportExportService {
 
         String[] headers = columns.stream().map(ColumnDefinition::getHeaderName).toArray(String[]::new);
 
-        PDPage currentPage = new PDPage(PDRectangle.A4);
-        document.addPage(currentPage);
-        PDPageContentStream contentStream = new PDPageContentStream(document, currentPage);
+        PDPage currentPage = pdf.addPage();
+        PDPageContentStream contentStream = new PDPageContentStream(pdf.getDocument(), currentPage);
+        int rowCount = 0;
 
         float yPosition = PDRectangle.A4.getHeight() - MARGIN_TOP;
         int pageNumber = 2; // Title page is page 1
 
         try {
             // Add table header
-            addTableHeader(contentStream, headers, columnWidths, MARGIN_LEFT, yPosition);
+            addTableHeader(pdf, contentStream, headers, columnWidths, MARGIN_LEFT, yPosition);
             yPosition -= LINE_HEIGHT * 1.5f;
 
             // Add data rows
-            for (int i = 0; i < data.size(); i++) {
-                Map<String, Object> rowData = data.get(i);
+            while (rows.hasNext()) {
+                Map<String, Object> rowData = rows.next();
+                rowCount++;
 
                 // Check if we need a new page
                 if (yPosition < MARGIN_BOTTOM + LINE_HEIGHT) {
                     // Add footer to current page
-                    addPageFooter(contentStream, pageNumber, company, fiscalPeriod, reportTitle);
+                    addPageFooter(pdf, contentStream, pageNumber, company, fiscalPeriod, reportTitle);
                     contentStream.close();
 
                     // Create new page
-                    currentPage = new PDPage(PDRectangle.A4);
-                    document.addPage(currentPage);
-                    contentStream = new PDPageContentStream(document, currentPage);
+                    currentPage = pdf.addPage();
+                    contentStream = new PDPageContentStream(pdf.getDocument(), currentPage);
                     yPosition = PDRectangle.A4.getHeight() - MARGIN_TOP;
                     pageNumber++;
 
                     // Add table header to new page
-                    addTableHeader(contentStream, headers, columnWidths, MARGIN_LEFT, yPosition);
+                    addTableHeader(pdf, contentStream, headers, columnWidths, MARGIN_LEFT, yPosition);
                     yPosition -= LINE_HEIGHT * 1.5f;
                 }
 
                 // Add data row
-                float usedHeight = addDataRow(contentStream, rowData, columns, columnWidths, MARGIN_LEFT, yPosition, FONT_SIZE);
+                float usedHeight = addDataRow(pdf, contentStream, rowData, columns, columnWidths, MARGIN_LEFT, yPosition, FONT_SIZE);
                 yPosition -= usedHeight;
             }
 
             // Add footer to last page
-            addPageFooter(contentStream, pageNumber, company, fiscalPeriod, reportTitle);
+            addPageFooter(pdf, contentStream, pageNumber, company, fiscalPeriod, reportTitle);
 
         } finally {
             contentStream.close();
         }
+        return rowCount;
     }
 
     /**
      * Add table header row
      */
-    private void addTableHeader(PDPageContentStream contentStream, String[] headers, float[] columnWidths,
+    private void addTableHeader(PdfReportDocument pdf, PDPageContentStream contentStream, String[] headers, float[] columnWidths,
                                float startX, float yPosition) throws IOException {
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 9);
+        contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 9);
 
         float xPosition = startX;
         for (int i = 0; i < headers.length; i++) {
@@ -712,9 +620,9 @@ public class ReportExportService {
      * Add data row with multiline support for text columns
      * Returns the height used by this row (for pagination)
      */
-    private float addDataRow(PDPageContentStream contentStream, Map<String, Object> rowData,
+    private float addDataRow(PdfReportDocument pdf, PDPageContentStream contentStream, Map<String, Object> rowData,
                             List<ColumnDefinition> columns, float[] columnWidths, float startX, float yPosition, float fontSize) throws IOException {
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.COURIER), fontSize);
+        contentStream.setFont(pdf.font(Standard14Fonts.FontName.COURIER), fontSize);
 
         float xPosition = startX;
         float maxHeightUsed = fontSize + 2; // Minimum row height
@@ -727,7 +635,7 @@ public class ReportExportService {
             // Check if this column might need multiline (e.g., if it's a text field with long content)
             if (column.getFormat().equals("text") && displayValue.length() > 50) {
                 // Use multiline for long text
-                float textHeight = addMultilineText(contentStream, displayValue, xPosition, yPosition, columnWidths[i], fontSize);
+                float textHeight = addMultilineText(pdf, contentStream, displayValue, xPosition, yPosition, columnWidths[i], fontSize);
                 maxHeightUsed = Math.max(maxHeightUsed, textHeight);
             } else {
                 // Simple text
@@ -747,13 +655,13 @@ public class ReportExportService {
      * Add multiline text within a column width
      * Returns the total height used by the multiline text
      */
-    private float addMultilineText(PDPageContentStream contentStream, String text, float xPosition,
+    private float addMultilineText(PdfReportDocument pdf, PDPageContentStream contentStream, String text, float xPosition,
                                  float startY, float maxWidth, float fontSize) throws IOException {
         if (text == null || text.trim().isEmpty()) {
             return fontSize + 2; // Return minimum height
         }
 
-        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.COURIER);
+        PDType1Font font = pdf.font(Standard14Fonts.FontName.COURIER);
         contentStream.setFont(font, fontSize);
 
         // Split text into lines based on existing line breaks or wrap long lines
@@ -824,7 +732,7 @@ public class ReportExportService {
     /**
      * Add page footer
      */
-    private void addPageFooter(PDPageContentStream contentStream, int pageNumber, Company company, FiscalPeriod fiscalPeriod, String reportTitle) throws IOException {
+    private void addPageFooter(PdfReportDocument pdf, PDPageContentStream contentStream, int pageNumber, Company company, FiscalPeriod fiscalPeriod, String reportTitle) throws IOException {
         float centerX = PDRectangle.A4.getWidth() / 2;
         float footerY = 30f;
 
@@ -833,8 +741,8 @@ public class ReportExportService {
             LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
 
         contentStream.beginText();
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 8);
-        float footerWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA)
+        contentStream.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 8);
+        float footerWidth = pdf.font(Standard14Fonts.FontName.HELVETICA)
             .getStringWidth(footerText) / 1000 * 8;
         contentStream.newLineAtOffset(centerX - footerWidth / 2, footerY);
         contentStream.showText(footerText);
@@ -0,0 +1,246 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import fin.entity.Company;
+import fin.entity.FiscalPeriod;
+import fin.model.report.ColumnDefinition;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one tabular report to an .xlsx workbook row by row.
+ *
+ * Built on SXSSF: only the last {@code rowWindow} rows of the data sheet are kept in memory,
+ * older rows are flushed to a compressed temporary file, and {@link #finish} streams the
+ * workbook straight to the caller's output stream. Cell styles come from an
+ * {@link ExcelStyleCache}, so a workbook holds a handful of styles however many rows it has.
+ *
+ * Usage: create, call {@link #writeRow} per record, then {@link #finish}; always {@link #close}
+ * (try-with-resources) to delete the temporary files.
+ */
+public class StreamingExcelWriter implements AutoCloseable {
+
+    // ColumnDefinition widths are PDF points; Excel widths are in characters
+    private static final int POINTS_PER_CHARACTER = 6;
+    private static final int MIN_COLUMN_CHARACTERS = 8;
+    private static final int MAX_COLUMN_CHARACTERS = 255;
+
+    private static final DateTimeFormatter TITLE_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final DateTimeFormatter GENERATED_DATE = DateTimeFormatter.ofPattern("dd MMMM yyyy");
+
+    private final SXSSFWorkbook workbook;
+    private final ExcelStyleCache styles;
+    private final String reportTitle;
+    private final List<ColumnDefinition> columns;
+    private final SXSSFSheet titleSheet;
+    private final SXSSFSheet dataSheet;
+    private final int rowWindow;
+    private final boolean autoSizeColumns;
+    private int rowCount;
+
+    /**
+     * @param reportTitle report title; also used (sanitised) as the data sheet name
+     * @param columns column definitions in output order
+     * @param rowWindow data rows kept in memory before older rows are flushed to disk
+     * @param freezeHeaderRow keep the header row visible while scrolling
+     * @param defaultColumnWidth width in characters for columns without a width
+     * @param autoSizeColumns size columns to their content when the whole sheet fits in the row window
+     */
+    public StreamingExcelWriter(String reportTitle, List<ColumnDefinition> columns, int rowWindow,
+                                boolean freezeHeaderRow, int defaultColumnWidth, boolean autoSizeColumns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("No column definitions provided for Excel export");
+        }
+        this.reportTitle = reportTitle;
+        this.columns = columns;
+        this.rowWindow = Math.max(1, rowWindow);
+        this.autoSizeColumns = autoSizeColumns;
+        this.workbook = new SXSSFWorkbook(this.rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.styles = new ExcelStyleCache(workbook);
+
+        // Title sheet comes first but is filled in by finish(), once the row count is known
+        this.titleSheet = workbook.createSheet("Title");
+        this.dataSheet = workbook.createSheet(sheetName(reportTitle));
+        if (autoSizeColumns) {
+            dataSheet.trackAllColumnsForAutoSizing();
+        }
+        if (freezeHeaderRow) {
+            dataSheet.createFreezePane(0, 1);
+        }
+
+        Row headerRow = dataSheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDefinition column = columns.get(i);
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(column.getHeaderName());
+            cell.setCellStyle(styles.headerStyle());
+
+            int characters = column.getWidth() > 0 ? column.getWidth() / POINTS_PER_CHARACTER : defaultColumnWidth;
+            characters = Math.max(MIN_COLUMN_CHARACTERS, Math.min(MAX_COLUMN_CHARACTERS, characters));
+            dataSheet.setColumnWidth(i, characters * 256); // POI uses 1/256th of a character width
+        }
+    }
+
+    /**
+     * Append one record to the data sheet.
+     *
+     * @param rowData field name to value, keyed by {@link ColumnDefinition#getFieldName()}
+     */
+    public void writeRow(Map<String, Object> rowData) {
+        Row row = dataSheet.createRow(++rowCount);
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDefinition column = columns.get(i);
+            Cell cell = row.createCell(i);
+            setCellValue(cell, rowData.get(column.getFieldName()), column.getFormat());
+            cell.setCellStyle(styles.dataStyle(column.getFormat(), column.getAlignment()));
+        }
+    }
+
+    /**
+     * Number of data rows written so far.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Fill in the title sheet and write the finished workbook to {@code out}. The stream is not closed.
+     */
+    public void finish(Company company, FiscalPeriod fiscalPeriod, OutputStream out) throws IOException {
+        writeTitleSheet(company, fiscalPeriod);
+
+        // Auto-sizing measures every cell still in memory; skip it once rows have been flushed
+        if (autoSizeColumns && rowCount < rowWindow) {
+            for (int i = 0; i < columns.size(); i++) {
+                dataSheet.autoSizeColumn(i);
+            }
+        }
+
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * Delete the temporary files and release the workbook.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    ExcelStyleCache getStyles() {
+        return styles;
+    }
+
+    private void writeTitleSheet(Company company, FiscalPeriod fiscalPeriod) {
+        titleSheet.trackColumnForAutoSizing(0);
+        int rowNum = 0;
+
+        Cell titleCell = titleSheet.createRow(rowNum++).createCell(0);
+        titleCell.setCellValue(reportTitle.toUpperCase());
+        titleCell.setCellStyle(styles.titleStyle());
+        rowNum++;
+
+        titleSheet.createRow(rowNum++).createCell(0)
+            .setCellValue("Company: " + (company != null ? company.getName() : "N/A"));
+        if (company != null && company.getRegistrationNumber() != null) {
+            titleSheet.createRow(rowNum++).createCell(0)
+                .setCellValue("Registration Number: " + company.getRegistrationNumber());
+        }
+        rowNum++;
+
+        if (fiscalPeriod != null) {
+            titleSheet.createRow(rowNum++).createCell(0).setCellValue(String.format("Period: %s (%s to %s)",
+                fiscalPeriod.getPeriodName(),
+                fiscalPeriod.getStartDate().format(TITLE_DATE),
+                fiscalPeriod.getEndDate().format(TITLE_DATE)));
+        }
+        rowNum++;
+
+        titleSheet.createRow(rowNum++).createCell(0).setCellValue("Total Records: " + rowCount);
+        rowNum++;
+        titleSheet.createRow(rowNum++).createCell(0)
+            .setCellValue("Generated: " + LocalDate.now().format(GENERATED_DATE));
+        rowNum++;
+        titleSheet.createRow(rowNum).createCell(0).setCellValue("Data: See '" + sheetName(reportTitle) + "' sheet");
+
+        titleSheet.autoSizeColumn(0);
+    }
+
+    private static void setCellValue(Cell cell, Object value, String format) {
+        if (value == null) {
+            cell.setCellValue("");
+            return;
+        }
+
+        switch (format != null ? format : "text") {
+            case "currency":
+            case "number":
+                if (value instanceof BigDecimal) {
+                    cell.setCellValue(((BigDecimal) value).doubleValue());
+                } else if (value instanceof Number) {
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+                break;
+
+            case "date":
+                if (value instanceof LocalDate) {
+                    cell.setCellValue((LocalDate) value);
+                } else if (value instanceof LocalDateTime) {
+                    cell.setCellValue((LocalDateTime) value);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+                break;
+
+            case "text":
+            default:
+                cell.setCellValue(value.toString());
+                break;
+        }
+    }
+
+    static String sheetName(String reportTitle) {
+        return reportTitle.replaceAll("[^\\w]", "_");
+    }
+}
@@ -28,7 +28,10 @@ package fin.service.journal;
 
 import fin.entity.*;
 import fin.repository.*;
+import fin.repository.AccountPeriodBalanceRepository.BalanceDeltas;
+import fin.repository.AccountPeriodBalanceRepository.BalanceMismatch;
 import fin.service.CompanyService;
+import fin.service.FiscalPeriodIndexService;
 import fin.util.Debugger;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -62,6 +65,8 @@ public class DataManagementService {
     private final JournalEntryMapper journalEntryMapper;
     private final DataCorrectionRepository dataCorrectionRepository;
     private final Debugger debugger;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
+    private final AccountPeriodBalanceRepository accountPeriodBalanceRepository;
 
     public DataManagementService(CompanyService companyService,
                                      AccountService accountService,
@@ -73,7 +78,9 @@ public class DataManagementService {
                                     JournalEntryLineRepository journalEntryLineRepository,
                                     JournalEntryMapper journalEntryMapper,
                                     DataCorrectionRepository dataCorrectionRepository,
-                                    Debugger debugger) {
+                                    Debugger debugger,
+                                    FiscalPeriodIndexService fiscalPeriodIndexService,
+                                    AccountPeriodBalanceRepository accountPeriodBalanceRepository) {
         this.companyService = companyService;
         this.accountService = accountService;
         this.accountRepository = accountRepository;
@@ -85,6 +92,8 @@ public class DataManagementService {
                                 this.journalEntryMapper = journalEntryMapper;
         this.dataCorrectionRepository = dataCorrectionRepository;
         this.debugger = debugger;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
+        this.accountPeriodBalanceRepository = accountPeriodBalanceRepository;
     }
 
     /**
@@ -122,6 +131,9 @@ public class DataManagementService {
             journalEntryRepository.deleteByCompanyId(companyId);
             debugger.logDatabaseOperation("DELETE", "journal_entries", "company_id = " + companyId, 1);
 
+            accountPeriodBalanceRepository.deleteByCompanyId(companyId);
+            debugger.logDatabaseOperation("DELETE", "account_period_balances", "company_id = " + companyId, 1);
+
             manualInvoiceRepository.deleteByCompanyId(companyId);
             debugger.logDatabaseOperation("DELETE", "manual_invoices", "company_id = " + companyId, 1);
 
@@ -134,6 +146,7 @@ public class DataManagementService {
                 debugger.logDatabaseOperation("DELETE", "accounts", "company_id = " + companyId, 1);
 
                 fiscalPeriodRepository.deleteByCompanyId(companyId);
+                fiscalPeriodIndexService.invalidate(companyId);
                 debugger.logDatabaseOperation("DELETE", "fiscal_periods", "company_id = " + companyId, 1);
             }
 
@@ -236,6 +249,8 @@ public class DataManagementService {
         creditLine.setCreditAmount(invoice.getAmount());
         creditLine.setReference("INV-" + invoice.getInvoiceNumber() + "-CR");
         journalEntryLineRepository.save(creditLine);
+
+        applyToPeriodBalances(savedEntry, List.of(debitLine, creditLine));
     }
 
     /**
@@ -326,10 +341,57 @@ public class DataManagementService {
             line.setReference("JE-" + savedEntry.getId() + "-L" + System.currentTimeMillis());
             journalEntryLineRepository.save(line);
         }
+        applyToPeriodBalances(savedEntry, lines);
 
         return savedEntry;
     }
 
+    /**
+     * Add the lines of a newly saved journal entry to account_period_balances.
+     */
+    private void applyToPeriodBalances(JournalEntry entry, List<JournalEntryLine> lines) {
+        BalanceDeltas deltas = new BalanceDeltas();
+        for (JournalEntryLine line : lines) {
+            deltas.add(entry.getCompanyId(), entry.getFiscalPeriodId(), line.getAccountId(),
+                       line.getDebitAmount(), line.getCreditAmount());
+        }
+        accountPeriodBalanceRepository.apply(deltas);
+    }
+
+    /**
+     * Recomputes a company's account period balances from its journal entry lines.
+     *
+     * @return number of balance rows written
+     */
+    @Transactional
+    public int rebuildAccountPeriodBalances(Long companyId) {
+        Company company = companyService.getCompanyById(companyId);
+        if (company == null) {
+            throw new IllegalArgumentException("Company not found: " + companyId);
+        }
+
+        int rows = accountPeriodBalanceRepository.rebuildForCompany(companyId);
+        LOGGER.info("Rebuilt " + rows + " account period balances for company " + companyId);
+        return rows;
+    }
+
+    /**
+     * Lists account period balances that disagree with the company's journal entry lines.
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceMismatch> verifyAccountPeriodBalances(Long companyId) {
+        Company company = companyService.getCompanyById(companyId);
+        if (company == null) {
+            throw new IllegalArgumentException("Company not found: " + companyId);
+        }
+
+        List<BalanceMismatch> mismatches = accountPeriodBalanceRepository.findMismatches(companyId);
+        if (!mismatches.isEmpty()) {
+            LOGGER.warning("Found " + mismatches.size() + " account period balances out of sync for company " + companyId);
+        }
+        return mismatches;
+    }
+
     /**
      * Records a correction to a transaction's categorization.
      */
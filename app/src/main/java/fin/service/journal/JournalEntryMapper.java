@@ -9,7 +9,13 @@ import fin.repository.JournalEntryLineRepository;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Component
 public class JournalEntryMapper {
@@ -25,7 +31,55 @@ public class JournalEntryMapper {
 
     public JournalEntryDTO toDto(JournalEntry entry) {
         List<JournalEntryLine> lines = journalEntryLineRepository.findByJournalEntryId(entry.getId());
+        return toDto(entry, lines, accountId -> accountRepository.findById(accountId).orElse(null));
+    }
+
+    /**
+     * Map a page of entries with two queries in total: one IN query for all of their lines and,
+     * when some entry has no usable header description, one for the accounts those lines post to.
+     * The result is in the same order as {@code entries}.
+     */
+    public List<JournalEntryDTO> toDtos(List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
 
+        List<Long> entryIds = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            entryIds.add(entry.getId());
+        }
+        Map<Long, List<JournalEntryLine>> linesByEntry = new HashMap<>();
+        for (JournalEntryLine line : journalEntryLineRepository
+                .findByJournalEntryIdInOrderByJournalEntryIdAscLineNumberAscIdAsc(entryIds)) {
+            linesByEntry.computeIfAbsent(line.getJournalEntryId(), id -> new ArrayList<>()).add(line);
+        }
+
+        // Accounts are only needed to describe entries without a header description
+        Set<Long> accountIds = new HashSet<>();
+        for (JournalEntry entry : entries) {
+            if (headerDescription(entry) == null) {
+                for (JournalEntryLine line : linesByEntry.getOrDefault(entry.getId(), List.of())) {
+                    if (line.getAccountId() != null) {
+                        accountIds.add(line.getAccountId());
+                    }
+                }
+            }
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            for (Account account : accountRepository.findAllById(accountIds)) {
+                accounts.put(account.getId(), account);
+            }
+        }
+
+        List<JournalEntryDTO> dtos = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            dtos.add(toDto(entry, linesByEntry.getOrDefault(entry.getId(), List.of()), accounts::get));
+        }
+        return dtos;
+    }
+
+    private JournalEntryDTO toDto(JournalEntry entry, List<JournalEntryLine> lines, Function<Long, Account> accounts) {
         BigDecimal totalDebit = BigDecimal.ZERO;
         BigDecimal totalCredit = BigDecimal.ZERO;
         int lineCount = lines.size();
@@ -35,7 +89,7 @@ public class JournalEntryMapper {
             if (line.getCreditAmount() != null) totalCredit = totalCredit.add(line.getCreditAmount());
         }
 
-        String description = buildDescriptionFromLines(entry, lines);
+        String description = buildDescriptionFromLines(entry, lines, accounts);
 
         return new JournalEntryDTO(
             entry.getId(),
@@ -51,18 +105,25 @@ public class JournalEntryMapper {
         );
     }
 
-    private String buildDescriptionFromLines(JournalEntry entry, List<JournalEntryLine> lines) {
+    private static String headerDescription(JournalEntry entry) {
         if (entry.getDescription() != null) {
             String headerDesc = entry.getDescription().trim();
             if (!headerDesc.equalsIgnoreCase("null") && !headerDesc.matches("(?i)\\s*null\\s*(-\\s*null\\s*)?")) {
                 if (!headerDesc.isEmpty()) return headerDesc;
             }
         }
+        return null;
+    }
+
+    private String buildDescriptionFromLines(JournalEntry entry, List<JournalEntryLine> lines,
+                                             Function<Long, Account> accounts) {
+        String headerDesc = headerDescription(entry);
+        if (headerDesc != null) return headerDesc;
         if (lines == null || lines.isEmpty()) return "No description";
         String debitAccount = null;
         String creditAccount = null;
         for (JournalEntryLine line : lines) {
-            Account account = accountRepository.findById(line.getAccountId()).orElse(null);
+            Account account = line.getAccountId() != null ? accounts.apply(line.getAccountId()) : null;
             if (account != null) {
                 if (line.getDebitAmount() != null && line.getDebitAmount().compareTo(BigDecimal.ZERO) > 0) {
                     debitAccount = account.getAccountName();
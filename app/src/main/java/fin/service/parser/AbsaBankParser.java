@@ -54,9 +54,19 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
         Pattern.CASE_INSENSITIVE
     );
 
-    // State tracking
-    private boolean isAbsaStatement = false;
-    private BigDecimal previousBalance = null;
+    /**
+     * Per-document state: statement detection and the running balance used to tell
+     * debits from credits.
+     */
+    private static class AbsaParseState extends ParseState {
+        private boolean isAbsaStatement = false;
+        private BigDecimal previousBalance = null;
+    }
+
+    @Override
+    protected ParseState newState() {
+        return new AbsaParseState();
+    }
 
     @Override
     public boolean canParse(String line, TransactionParsingContext context) {
@@ -65,8 +75,9 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
         }
 
         // Check if this is an Absa statement (first time detection)
-        if (!isAbsaStatement && ABSA_HEADER_PATTERN.matcher(line).matches()) {
-            isAbsaStatement = true;
+        AbsaParseState state = (AbsaParseState) stateFor(context);
+        if (!state.isAbsaStatement && ABSA_HEADER_PATTERN.matcher(line).matches()) {
+            state.isAbsaStatement = true;
             return false; // Header line itself is not parseable
         }
 
@@ -97,7 +108,8 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
     }
 
     @Override
-    protected StandardizedTransaction parseTransactionLine(String line) {
+    protected StandardizedTransaction parseTransactionLine(String line, ParseState parseState) {
+        AbsaParseState state = (AbsaParseState) parseState;
         try {
             // Extract date (first 10 characters: "23/02/2023")
             String dateStr = line.substring(0, 10).trim();
@@ -154,8 +166,8 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
                 BigDecimal secondAmount = amounts.get(amounts.size() - 2);
                 
                 // Determine if credit or debit by balance comparison
-                if (previousBalance != null) {
-                    BigDecimal balanceChange = currentBalance.subtract(previousBalance);
+                if (state.previousBalance != null) {
+                    BigDecimal balanceChange = currentBalance.subtract(state.previousBalance);
                     if (balanceChange.compareTo(BigDecimal.ZERO) > 0) {
                         // Balance increased → credit transaction
                         creditAmount = secondAmount;
@@ -198,7 +210,7 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
             }
             
             // Update previous balance for next transaction
-            previousBalance = currentBalance;
+            state.previousBalance = currentBalance;
 
             return new StandardizedTransaction.Builder()
                     .date(transactionDate)
@@ -218,11 +230,12 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
     @Override
     public ParsedTransaction parse(String line, TransactionParsingContext context) {
         // Use multiline parsing logic
-        StandardizedTransaction stdTx = handleMultilineParsing(line, canParse(line, context));
+        ParseState state = stateFor(context);
+        StandardizedTransaction stdTx = handleMultilineParsing(line, canParse(line, context), state);
 
         // For single-line transactions, get the completed transaction
         if (stdTx == null) {
-            stdTx = getCompletedTransaction();
+            stdTx = takeCompletedTransaction(state);
         }
 
         if (stdTx == null) {
@@ -326,14 +339,4 @@ public class AbsaBankParser extends AbstractMultilineTransactionParser {
                lower.contains("payment dt") ||    // "Digital Payment Dt" = debit payment
                (lower.contains("payment") && !lower.contains("fr")); // Generic payment (not "from")
     }
-
-    /**
-     * Reset parser state
-     */
-    @Override
-    public void reset() {
-        super.reset();
-        isAbsaStatement = false;
-        previousBalance = null;
-    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package fin.service.parser;
 
 import fin.model.parser.StandardizedTransaction;
+import fin.service.transaction.TransactionParsingContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,13 +14,46 @@ import java.util.List;
  * 1. Implement isContinuationLine() to detect description continuation lines
  * 2. Implement parseTransactionLine() to parse a complete transaction line
  * 3. Call handleMultilineParsing() in their parse() method
+ *
+ * Parsers are singletons shared by concurrent uploads, so no per-document state is held on
+ * the parser itself. It lives in a ParseState stored on the document's TransactionParsingContext.
  */
 public abstract class AbstractMultilineTransactionParser implements TransactionParser {
-    
-    // State tracking for multiline descriptions
-    protected StandardizedTransaction pendingTransaction = null;
-    protected final List<String> currentDescriptionLines = new ArrayList<>();
-    protected boolean lastLineWasTransaction = false;
+
+    /**
+     * Per-document state tracking for multiline descriptions.
+     * Subclasses needing more state extend this and override newState().
+     */
+    protected static class ParseState {
+        protected StandardizedTransaction pendingTransaction = null;
+        protected final List<String> currentDescriptionLines = new ArrayList<>();
+        protected boolean lastLineWasTransaction = false;
+    }
+
+    // State for callers that parse without a context; they must feed one document at a time
+    private ParseState contextlessState;
+
+    /**
+     * Create empty state for a new document.
+     */
+    protected ParseState newState() {
+        return new ParseState();
+    }
+
+    /**
+     * Get this parser's state for the document described by the context.
+     * Without a context the parser's own fallback state is used, so continuation lines
+     * still attach to the transaction before them.
+     */
+    protected ParseState stateFor(TransactionParsingContext context) {
+        if (context == null) {
+            if (contextlessState == null) {
+                contextlessState = newState();
+            }
+            return contextlessState;
+        }
+        return context.getParserState(getClass(), this::newState);
+    }
 
     /**
      * Check if the line is a continuation of the previous transaction's description.
@@ -38,9 +72,10 @@ public abstract class AbstractMultilineTransactionParser implements TransactionP
      * Should extract date, description, amounts, and balance.
      * 
      * @param line The transaction line to parse
+     * @param state Parser state of the document the line belongs to
      * @return StandardizedTransaction with parsed data
      */
-    protected abstract StandardizedTransaction parseTransactionLine(String line);
+    protected abstract StandardizedTransaction parseTransactionLine(String line, ParseState state);
 
     /**
      * Centralized multiline parsing logic.
@@ -48,9 +83,10 @@ public abstract class AbstractMultilineTransactionParser implements TransactionP
      * 
      * @param line The line to parse
      * @param canParse Whether the line can be parsed by this parser
+     * @param state Parser state of the document the line belongs to
      * @return StandardizedTransaction if a complete transaction is ready, null otherwise
      */
-    protected StandardizedTransaction handleMultilineParsing(String line, boolean canParse) {
+    protected StandardizedTransaction handleMultilineParsing(String line, boolean canParse, ParseState state) {
         if (!canParse) {
             return null;
         }
@@ -58,25 +94,25 @@ public abstract class AbstractMultilineTransactionParser implements TransactionP
         try {
             // Check if this is a continuation line
             if (isContinuationLine(line)) {
-                if (pendingTransaction != null) {
-                    currentDescriptionLines.add(line.trim());
+                if (state.pendingTransaction != null) {
+                    state.currentDescriptionLines.add(line.trim());
                 }
                 return null; // Don't return transaction yet - accumulating description
             }
 
             // This is a new transaction line - complete previous if exists
             StandardizedTransaction completedTransaction = null;
-            if (pendingTransaction != null) {
-                completedTransaction = buildCompletedTransaction();
+            if (state.pendingTransaction != null) {
+                completedTransaction = buildCompletedTransaction(state);
             }
 
             // Parse new transaction
-            StandardizedTransaction newTransaction = parseTransactionLine(line);
+            StandardizedTransaction newTransaction = parseTransactionLine(line, state);
             if (newTransaction != null) {
-                pendingTransaction = newTransaction;
-                currentDescriptionLines.clear();
-                currentDescriptionLines.add(newTransaction.getDescription());
-                lastLineWasTransaction = true;
+                state.pendingTransaction = newTransaction;
+                state.currentDescriptionLines.clear();
+                state.currentDescriptionLines.add(newTransaction.getDescription());
+                state.lastLineWasTransaction = true;
             }
 
             return completedTransaction; // Return previous transaction (if any)
@@ -89,14 +125,16 @@ public abstract class AbstractMultilineTransactionParser implements TransactionP
     /**
      * Build a completed transaction with accumulated multiline description.
      * 
+     * @param state Parser state holding the pending transaction
      * @return StandardizedTransaction with complete description
      */
-    protected StandardizedTransaction buildCompletedTransaction() {
-        if (pendingTransaction == null || currentDescriptionLines.isEmpty()) {
+    protected StandardizedTransaction buildCompletedTransaction(ParseState state) {
+        StandardizedTransaction pendingTransaction = state.pendingTransaction;
+        if (pendingTransaction == null || state.currentDescriptionLines.isEmpty()) {
             return null;
         }
 
-        String fullDescription = String.join(" ", currentDescriptionLines);
+        String fullDescription = String.join(" ", state.currentDescriptionLines);
         
         // Rebuild transaction with complete description
         return new StandardizedTransaction.Builder()
@@ -113,25 +151,35 @@ public abstract class AbstractMultilineTransactionParser implements TransactionP
      * Get the final pending transaction when end of statement is reached.
      * Call this after processing all lines to get the last transaction.
      * 
+     * @param context Context of the document being parsed
      * @return The final completed transaction, or null if none pending
      */
-    public StandardizedTransaction getCompletedTransaction() {
-        if (pendingTransaction != null && !currentDescriptionLines.isEmpty()) {
-            StandardizedTransaction completed = buildCompletedTransaction();
-            pendingTransaction = null;
-            currentDescriptionLines.clear();
-            lastLineWasTransaction = false;
+    public StandardizedTransaction getCompletedTransaction(TransactionParsingContext context) {
+        return takeCompletedTransaction(stateFor(context));
+    }
+
+    /**
+     * Complete the pending transaction held in the given state and clear it.
+     */
+    protected StandardizedTransaction takeCompletedTransaction(ParseState state) {
+        if (state.pendingTransaction != null && !state.currentDescriptionLines.isEmpty()) {
+            StandardizedTransaction completed = buildCompletedTransaction(state);
+            state.pendingTransaction = null;
+            state.currentDescriptionLines.clear();
+            state.lastLineWasTransaction = false;
             return completed;
         }
         return null;
     }
 
     /**
-     * Reset parser state. Call this when starting a new statement.
+     * Reset parser state for a document. Call this when restarting a statement.
      */
-    public void reset() {
-        pendingTransaction = null;
-        currentDescriptionLines.clear();
-        lastLineWasTransaction = false;
+    public void reset(TransactionParsingContext context) {
+        if (context != null) {
+            context.clearParserState(getClass());
+        } else {
+            contextlessState = null;
+        }
     }
 }
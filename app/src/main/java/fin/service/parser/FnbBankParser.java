@@ -44,10 +44,20 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
     // Date formatter for FNB statements
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ENGLISH);
 
-    // State tracking
-    private boolean isFnbStatement = false;
-    private int statementYear = 2024; // Default fallback
-    private LocalDate lastTransactionDate = null;
+    /**
+     * Per-document state: statement detection, statement year and the last transaction
+     * date (bank charge lines reuse it).
+     */
+    private static class FnbParseState extends ParseState {
+        private boolean isFnbStatement = false;
+        private int statementYear = 2024; // Default fallback
+        private LocalDate lastTransactionDate = null;
+    }
+
+    @Override
+    protected ParseState newState() {
+        return new FnbParseState();
+    }
 
     @Override
     public boolean canParse(String line, TransactionParsingContext context) {
@@ -56,8 +66,9 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
         }
 
         // Check if this is an FNB statement (first time detection)
-        if (!isFnbStatement && FNB_HEADER_PATTERN.matcher(line).matches()) {
-            isFnbStatement = true;
+        FnbParseState state = (FnbParseState) stateFor(context);
+        if (!state.isFnbStatement && FNB_HEADER_PATTERN.matcher(line).matches()) {
+            state.isFnbStatement = true;
             return false; // Header line itself is not parseable
         }
 
@@ -100,11 +111,12 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
     }
 
     @Override
-    protected StandardizedTransaction parseTransactionLine(String line) {
+    protected StandardizedTransaction parseTransactionLine(String line, ParseState parseState) {
+        FnbParseState state = (FnbParseState) parseState;
         try {
             // Check if this is a bank charge line (starts with #)
             if (line.trim().startsWith("#")) {
-                return parseBankChargeLine(line);
+                return parseBankChargeLine(line, state);
             }
 
             // Extract date (first part until space, then month)
@@ -115,7 +127,7 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
                 // If not DD/MM/YYYY and second part is not year, it's "DD MMM"
                 dateStr += " " + lineParts[1];
             }
-            LocalDate transactionDate = parseDate(dateStr, statementYear);
+            LocalDate transactionDate = parseDate(dateStr, state.statementYear);
 
             // Get the rest after date
             String rest = line.substring(line.indexOf(dateStr) + dateStr.length()).trim();
@@ -219,7 +231,7 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
             }
 
             // Track this transaction date for potential bank charges
-            lastTransactionDate = transactionDate;
+            state.lastTransactionDate = transactionDate;
 
             return new StandardizedTransaction.Builder()
                     .date(transactionDate)
@@ -241,7 +253,7 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
      * Format: # Description Amount Balance
      * Example: # Service Fee 5.50 10294.50
      */
-    private StandardizedTransaction parseBankChargeLine(String line) {
+    private StandardizedTransaction parseBankChargeLine(String line, FnbParseState state) {
         try {
             // Remove # prefix and trim
             String content = line.substring(1).trim();
@@ -267,7 +279,7 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
             }
             
             // Bank charges don't have their own date - they use the previous transaction's date
-            LocalDate chargeDate = lastTransactionDate != null ? lastTransactionDate : LocalDate.of(statementYear, 1, 1);
+            LocalDate chargeDate = state.lastTransactionDate != null ? state.lastTransactionDate : LocalDate.of(state.statementYear, 1, 1);
             
             return new StandardizedTransaction.Builder()
                     .date(chargeDate)
@@ -287,15 +299,16 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
     @Override
     public ParsedTransaction parse(String line, TransactionParsingContext context) {
         // Set statement year from context
+        FnbParseState state = (FnbParseState) stateFor(context);
         if (context != null && context.getStatementDate() != null) {
-            statementYear = context.getStatementDate().getYear();
+            state.statementYear = context.getStatementDate().getYear();
         }
 
         if (!canParse(line, context)) {
             return null;
         }
 
-        StandardizedTransaction stdTx = parseTransactionLine(line);
+        StandardizedTransaction stdTx = parseTransactionLine(line, state);
         if (stdTx == null) {
             return null;
         }
@@ -412,14 +425,4 @@ public class FnbBankParser extends AbstractMultilineTransactionParser {
                lower.contains("salary") ||
                lower.contains("income");
     }
-
-    /**
-     * Reset parser state
-     */
-    @Override
-    public void reset() {
-        super.reset();
-        isFnbStatement = false;
-        lastTransactionDate = null;
-    }
 }
\ No newline at end of file
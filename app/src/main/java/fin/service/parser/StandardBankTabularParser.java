@@ -21,6 +21,9 @@ import java.util.regex.Pattern;
  * Details (0-55) | Service Fee (55-70) | Debits (70-95) | Credits (95-115) | Date (115-125) | Balance (125-135)
  * 
  * CRITICAL: Address lines from document headers should NEVER appear in transaction details!
+ *
+ * Multi-line state is kept per document on the TransactionParsingContext, so one parser
+ * instance can serve concurrent uploads.
  */
 @Component
 public class StandardBankTabularParser implements TransactionParser {
@@ -48,12 +51,19 @@ public class StandardBankTabularParser implements TransactionParser {
         "MONTHLY EMAIL VAT|Statement Frequency:|BANK STATEMENT).*$"
     );
     
-    // State for multi-line transactions
-    private ParsedTransaction pendingTransaction = null;
-    private List<String> currentDescriptionLines = new ArrayList<>();
-    private LocalDate statementStartDate;
-    private LocalDate statementEndDate;
-    private boolean lastLineWasTransaction = false;
+    /**
+     * Per-document state for multi-line transactions
+     */
+    private static class ParseState {
+        private ParsedTransaction pendingTransaction = null;
+        private final List<String> currentDescriptionLines = new ArrayList<>();
+        private LocalDate statementStartDate;
+        private LocalDate statementEndDate;
+        private boolean lastLineWasTransaction = false;
+    }
+
+    // State for callers that parse without a context; they must feed one document at a time
+    private ParseState contextlessState = new ParseState();
     
     // Pattern to extract statement period from header
     private static final Pattern STATEMENT_PERIOD_PATTERN = Pattern.compile(
@@ -66,35 +76,37 @@ public class StandardBankTabularParser implements TransactionParser {
             return false;
         }
         
+        ParseState state = stateFor(context);
+
         // Extract statement period from header if found
-        extractStatementPeriod(line);
+        extractStatementPeriod(line, state);
         
         // Initialize statement dates from context if not set and no period extracted yet
-        if (statementStartDate == null && context != null) {
-            statementStartDate = context.getStatementDate();
+        if (state.statementStartDate == null && context != null) {
+            state.statementStartDate = context.getStatementDate();
             // Estimate end date (statements are typically monthly)
-            statementEndDate = statementStartDate.plusMonths(1);
+            state.statementEndDate = state.statementStartDate.plusMonths(1);
         }
         
         // Skip header/footer lines and address information
         if (SKIP_PATTERN.matcher(line).matches()) {
-            lastLineWasTransaction = false;
+            state.lastLineWasTransaction = false;
             return false;
         }
         
         // Check if this is a NEW transaction line (has date + balance pattern at end)
         if (isTransactionLine(line)) {
-            lastLineWasTransaction = true;
+            state.lastLineWasTransaction = true;
             return true;
         }
         
         // Only accept description continuation lines that immediately follow a transaction
-        if (lastLineWasTransaction && isDescriptionLine(line)) {
+        if (state.lastLineWasTransaction && isDescriptionLine(line)) {
             return true;
         }
         
         // Reset flag for non-continuation lines
-        lastLineWasTransaction = false;
+        state.lastLineWasTransaction = false;
         return false;
     }
 
@@ -138,19 +150,20 @@ public class StandardBankTabularParser implements TransactionParser {
         if (!canParse(line, context)) {
             return null;
         }
+        ParseState state = stateFor(context);
 
         // Check if this is a transaction line or continuation line
         if (isTransactionLine(line)) {
             // We found a new transaction line
             
             // If we have a pending transaction, finalize it with collected continuation lines
-            if (pendingTransaction != null) {
-                ParsedTransaction completedTransaction = finalizePendingTransaction();
+            if (state.pendingTransaction != null) {
+                ParsedTransaction completedTransaction = finalizePendingTransaction(state);
                 
                 // Now create new pending transaction from current line
                 TransactionData data = extractTransactionData(line);
                 if (data != null) {
-                    createPendingTransaction(data, context);
+                    createPendingTransaction(data, context, state);
                 }
                 
                 // Return the completed transaction (with continuation lines)
@@ -159,9 +172,9 @@ public class StandardBankTabularParser implements TransactionParser {
                 // This is the first transaction - create and return it immediately
                 TransactionData data = extractTransactionData(line);
                 if (data != null) {
-                    createPendingTransaction(data, context);
+                    createPendingTransaction(data, context, state);
                     // For single transactions, finalize and return immediately
-                    return finalizePendingTransaction();
+                    return finalizePendingTransaction(state);
                 }
                 return null;
             }
@@ -170,7 +183,7 @@ public class StandardBankTabularParser implements TransactionParser {
             // This is a continuation line - collect it
             String trimmed = line.trim();
             if (!trimmed.isEmpty()) {
-                currentDescriptionLines.add(trimmed);
+                state.currentDescriptionLines.add(trimmed);
             }
             return null; // Continue collecting
         }
@@ -181,7 +194,7 @@ public class StandardBankTabularParser implements TransactionParser {
     /**
      * Helper method to create a new pending transaction
      */
-    private void createPendingTransaction(TransactionData data, TransactionParsingContext context) {
+    private void createPendingTransaction(TransactionData data, TransactionParsingContext context, ParseState state) {
         // Determine transaction type
         TransactionType type;
         if (data.isServiceFee) {
@@ -192,9 +205,9 @@ public class StandardBankTabularParser implements TransactionParser {
             type = TransactionType.CREDIT;
         }
 
-        LocalDate transactionDate = parseTransactionDate(data.month, data.day, context);
+        LocalDate transactionDate = parseTransactionDate(data.month, data.day, context, state);
 
-        pendingTransaction = new ParsedTransaction.Builder()
+        state.pendingTransaction = new ParsedTransaction.Builder()
             .type(type)
             .amount(data.debitAmount != null ? data.debitAmount : data.creditAmount)
             .description(data.details != null ? data.details.trim() : "")
@@ -205,13 +218,14 @@ public class StandardBankTabularParser implements TransactionParser {
             .build();
         
         // Clear continuation lines for the new transaction
-        currentDescriptionLines.clear();
+        state.currentDescriptionLines.clear();
     }
 
     /**
      * Finalize the pending transaction by appending collected continuation lines
      */
-    private ParsedTransaction finalizePendingTransaction() {
+    private ParsedTransaction finalizePendingTransaction(ParseState state) {
+        ParsedTransaction pendingTransaction = state.pendingTransaction;
         if (pendingTransaction == null) {
             return null;
         }
@@ -221,7 +235,7 @@ public class StandardBankTabularParser implements TransactionParser {
         fullDescription.append(pendingTransaction.getDescription());
         
         // Append continuation lines
-        for (String continuationLine : currentDescriptionLines) {
+        for (String continuationLine : state.currentDescriptionLines) {
             if (fullDescription.length() > 0) {
                 fullDescription.append(" ");
             }
@@ -240,17 +254,29 @@ public class StandardBankTabularParser implements TransactionParser {
             .build();
 
         // Clear the pending transaction
-        pendingTransaction = null;
-        currentDescriptionLines.clear();
+        state.pendingTransaction = null;
+        state.currentDescriptionLines.clear();
 
         return result;
     }
 
     /**
-     * Call this at the end of parsing to finalize any remaining pending transaction
+     * Call this at the end of parsing a document to finalize any remaining pending transaction
      */
-    public ParsedTransaction finalizeParsing() {
-        return finalizePendingTransaction();
+    public ParsedTransaction finalizeParsing(TransactionParsingContext context) {
+        return finalizePendingTransaction(stateFor(context));
+    }
+
+    /**
+     * Get this parser's state for the document described by the context.
+     * Without a context the parser's own fallback state is used, so continuation lines
+     * still attach to the transaction before them.
+     */
+    private ParseState stateFor(TransactionParsingContext context) {
+        if (context == null) {
+            return contextlessState;
+        }
+        return context.getParserState(StandardBankTabularParser.class, ParseState::new);
     }
     
     /**
@@ -341,7 +367,7 @@ public class StandardBankTabularParser implements TransactionParser {
     /**
      * Extract statement period from header line if present
      */
-    private void extractStatementPeriod(String line) {
+    private void extractStatementPeriod(String line, ParseState state) {
         Matcher periodMatcher = STATEMENT_PERIOD_PATTERN.matcher(line);
         if (periodMatcher.find()) {
             try {
@@ -350,17 +376,20 @@ public class StandardBankTabularParser implements TransactionParser {
                 
                 // Parse dates like "16 February 2024"
                 DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.ENGLISH);
-                statementStartDate = LocalDate.parse(startDateStr, formatter);
-                statementEndDate = LocalDate.parse(endDateStr, formatter);
+                state.statementStartDate = LocalDate.parse(startDateStr, formatter);
+                state.statementEndDate = LocalDate.parse(endDateStr, formatter);
                 
-                LOGGER.info("Extracted statement period: " + statementStartDate + " to " + statementEndDate);
+                LOGGER.info("Extracted statement period: " + state.statementStartDate + " to " + state.statementEndDate);
             } catch (Exception e) {
                 LOGGER.warning("Failed to parse statement period: " + e.getMessage());
             }
         }
     }
 
-    private LocalDate parseTransactionDate(int month, int day, TransactionParsingContext context) {
+    private LocalDate parseTransactionDate(int month, int day, TransactionParsingContext context, ParseState state) {
+        LocalDate statementStartDate = state.statementStartDate;
+        LocalDate statementEndDate = state.statementEndDate;
+
         // Use extracted statement period if available
         if (statementStartDate != null && statementEndDate != null) {
             // Try to find the correct year based on the statement period
@@ -415,14 +444,14 @@ public class StandardBankTabularParser implements TransactionParser {
     }
     
     /**
-     * Reset parser state
+     * Reset parser state for a document
      */
-    public void reset() {
-        currentDescriptionLines.clear();
-        pendingTransaction = null;
-        statementStartDate = null;
-        statementEndDate = null;
-        lastLineWasTransaction = false;
+    public void reset(TransactionParsingContext context) {
+        if (context != null) {
+            context.clearParserState(StandardBankTabularParser.class);
+        } else {
+            contextlessState = new ParseState();
+        }
     }
     
     /**
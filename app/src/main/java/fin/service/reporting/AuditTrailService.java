@@ -37,13 +37,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing Audit Trail operations.
@@ -56,6 +58,14 @@ public class AuditTrailService {
 
     private static final Logger LOGGER = Logger.getLogger(AuditTrailService.class.getName());
 
+    // Date bounds used by cursor pages when no date filter is given
+    private static final LocalDate MIN_ENTRY_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_ENTRY_DATE = LocalDate.of(9999, 12, 30);
+    private static final String CURSOR_SEPARATOR = ":";
+
+    /** Largest page either audit trail mode returns; larger requested sizes are capped to it */
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final JournalEntryRepository journalEntryRepository;
     private final JournalEntryLineRepository journalEntryLineRepository;
     private final CompanyService companyService;
@@ -83,7 +93,7 @@ public class AuditTrailService {
      * @param companyId Company identifier
      * @param fiscalPeriodId Fiscal period identifier
      * @param page Page number (0-indexed)
-     * @param pageSize Number of entries per page
+     * @param pageSize Number of entries per page, capped at {@link #MAX_PAGE_SIZE}
      * @param startDate Optional start date filter
      * @param endDate Optional end date filter
      * @param searchTerm Optional search term for description/reference
@@ -94,26 +104,10 @@ public class AuditTrailService {
     public AuditTrailResponse getAuditTrail(Long companyId, Long fiscalPeriodId, int page, int pageSize,
                                            LocalDate startDate, LocalDate endDate, String searchTerm) throws SQLException {
         
-        // Validate company exists
-        Company company = companyService.getCompanyById(companyId);
-        if (company == null) {
-            throw new SQLException(
-                "Company not found in table 'companies' with id " + companyId + ". " +
-                "Please ensure the company exists. " +
-                "SQL: SELECT * FROM companies WHERE id = " + companyId
-            );
-        }
-
-        // Validate fiscal period exists
-        FiscalPeriod fiscalPeriod = fiscalPeriodRepository.findById(fiscalPeriodId)
-            .orElseThrow(() -> new SQLException(
-                "Fiscal period not found in table 'fiscal_periods' with id " + fiscalPeriodId + ". " +
-                "Please ensure the fiscal period exists. " +
-                "SQL: SELECT * FROM fiscal_periods WHERE id = " + fiscalPeriodId
-            ));
+        validateCompanyAndFiscalPeriod(companyId, fiscalPeriodId);
 
         // Create pageable with sorting
-        Pageable pageable = PageRequest.of(page, pageSize);
+        Pageable pageable = PageRequest.of(page, Math.min(pageSize, MAX_PAGE_SIZE));
 
         // Query journal entries based on active filters
         Page<JournalEntry> journalEntriesPage = queryJournalEntries(
@@ -125,15 +119,13 @@ public class AuditTrailService {
             LOGGER.warning("No journal entries found for company " + companyId + 
                          " and fiscal period " + fiscalPeriodId);
             // Return empty response instead of throwing exception
-            PaginationMetadata pagination = new PaginationMetadata(page, pageSize, 0, 0);
+            PaginationMetadata pagination = new PaginationMetadata(page, pageable.getPageSize(), 0, 0);
             FilterMetadata filters = new FilterMetadata(startDate, endDate, null, searchTerm);
             return new AuditTrailResponse(new ArrayList<>(), pagination, filters);
         }
 
-        // Convert entities to DTOs
-        List<JournalEntryDTO> entryDTOs = journalEntriesPage.getContent().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        // Convert entities to DTOs, loading the lines of the whole page at once
+        List<JournalEntryDTO> entryDTOs = journalEntryMapper.toDtos(journalEntriesPage.getContent());
 
         // Build pagination metadata
         PaginationMetadata pagination = new PaginationMetadata(
@@ -149,6 +141,66 @@ public class AuditTrailService {
         return new AuditTrailResponse(entryDTOs, pagination, filters);
     }
 
+    /**
+     * Get one keyset (cursor) page of the audit trail, newest entries first.
+     *
+     * Unlike {@link #getAuditTrail}, no OFFSET is used and no total is counted: the query seeks
+     * directly to the entry after the cursor on (entry_date, id), and the page's lines and
+     * accounts are loaded in one query each, so every page costs the same however deep it is.
+     *
+     * @param companyId Company identifier
+     * @param fiscalPeriodId Fiscal period identifier
+     * @param cursor Opaque cursor from the previous page's {@code nextCursor}, or null/blank for the first page
+     * @param pageSize Number of entries per page, capped at {@link #MAX_PAGE_SIZE}
+     * @param startDate Optional start date filter
+     * @param endDate Optional end date filter
+     * @param searchTerm Optional search term for description/reference
+     * @return Audit trail page; {@code pagination.nextCursor} is null on the last page
+     * @throws SQLException If company or fiscal period not found
+     * @throws IllegalArgumentException If the cursor is malformed or the page size is not positive
+     */
+    @Transactional(readOnly = true)
+    public AuditTrailResponse getAuditTrailPage(Long companyId, Long fiscalPeriodId, String cursor, int requestedPageSize,
+                                               LocalDate startDate, LocalDate endDate, String searchTerm) throws SQLException {
+        if (requestedPageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int pageSize = Math.min(requestedPageSize, MAX_PAGE_SIZE);
+        validateCompanyAndFiscalPeriod(companyId, fiscalPeriodId);
+
+        boolean hasDateFilter = startDate != null && endDate != null;
+        boolean hasSearchFilter = searchTerm != null && !searchTerm.trim().isEmpty();
+        LocalDate fromDate = hasDateFilter ? startDate : MIN_ENTRY_DATE;
+        LocalDate toDate = hasDateFilter ? endDate : MAX_ENTRY_DATE;
+
+        LocalDate afterDate = MAX_ENTRY_DATE.plusDays(1);
+        Long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = decodeCursor(cursor);
+            afterDate = LocalDate.parse(key[0]);
+            afterId = Long.parseLong(key[1]);
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<JournalEntry> entries = hasSearchFilter
+            ? journalEntryRepository.findKeysetPageBySearchTerm(companyId, fiscalPeriodId, fromDate, toDate,
+                afterDate, afterId, searchTerm.trim(), limit)
+            : journalEntryRepository.findKeysetPage(companyId, fiscalPeriodId, fromDate, toDate,
+                afterDate, afterId, limit);
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            JournalEntry last = entries.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getEntryDate(), last.getId());
+        }
+
+        FilterMetadata filters = new FilterMetadata(startDate, endDate, null, searchTerm);
+        return new AuditTrailResponse(journalEntryMapper.toDtos(entries),
+            PaginationMetadata.forCursor(pageSize, nextCursor), filters);
+    }
+
     /**
      * Get detailed journal entry with all line items.
      * 
@@ -170,6 +222,46 @@ public class AuditTrailService {
         return convertToDetailDTO(journalEntry);
     }
 
+    private void validateCompanyAndFiscalPeriod(Long companyId, Long fiscalPeriodId) throws SQLException {
+        // Validate company exists
+        Company company = companyService.getCompanyById(companyId);
+        if (company == null) {
+            throw new SQLException(
+                "Company not found in table 'companies' with id " + companyId + ". " +
+                "Please ensure the company exists. " +
+                "SQL: SELECT * FROM companies WHERE id = " + companyId
+            );
+        }
+
+        // Validate fiscal period exists
+        fiscalPeriodRepository.findById(fiscalPeriodId)
+            .orElseThrow(() -> new SQLException(
+                "Fiscal period not found in table 'fiscal_periods' with id " + fiscalPeriodId + ". " +
+                "Please ensure the fiscal period exists. " +
+                "SQL: SELECT * FROM fiscal_periods WHERE id = " + fiscalPeriodId
+            ));
+    }
+
+    private static String encodeCursor(LocalDate entryDate, Long id) {
+        String key = entryDate + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split(CURSOR_SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid audit trail cursor: " + cursor);
+            }
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid audit trail cursor: " + cursor, e);
+        }
+    }
+
     /**
      * Query journal entries based on active filters.
      */
@@ -202,15 +294,6 @@ public class AuditTrailService {
         }
     }
 
-    /**
-     * Convert JournalEntry entity to summary DTO.
-     */
-    private JournalEntryDTO convertToDTO(JournalEntry entry) {
-        return journalEntryMapper.toDto(entry);
-    }
-
-
-
     /**
      * Convert JournalEntry entity to detail DTO with all lines.
      */
@@ -26,42 +26,50 @@
 
 package fin.service.reporting;
 
-import fin.entity.Account;
-import fin.entity.BankTransaction;
-import fin.entity.JournalEntryLine;
-import fin.repository.AccountRepository;
-import fin.repository.BankTransactionRepository;
-import fin.repository.JournalEntryLineRepository;
+import fin.repository.TransactionExportRepository;
+import fin.repository.TransactionExportRepository.ExportRow;
 import fin.util.Debugger;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
 
 /**
- * Spring service for exporting transactions to CSV format
+ * Spring service for exporting transactions to CSV format.
+ *
+ * Rows are read with a single join query (transaction, classifying journal line and account)
+ * and written to the output as they arrive, so memory use stays flat regardless of period size.
  */
 @Service
 public class CsvExportService {
 
-    private final BankTransactionRepository bankTransactionRepository;
-    private final JournalEntryLineRepository journalEntryLineRepository;
-    private final AccountRepository accountRepository;
+    private static final String HEADER = "ID,Date,Details,Debit,Credit,Balance,Classification,Created At\n";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM");
+    private static final DateTimeFormatter CREATED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionExportRepository transactionExportRepository;
+    private final TransactionTemplate readTransaction;
     private final Debugger debugger;
 
     public CsvExportService(
-            BankTransactionRepository bankTransactionRepository,
-            JournalEntryLineRepository journalEntryLineRepository,
-            AccountRepository accountRepository,
+            TransactionExportRepository transactionExportRepository,
+            PlatformTransactionManager transactionManager,
             Debugger debugger) {
-        this.bankTransactionRepository = bankTransactionRepository;
-        this.journalEntryLineRepository = journalEntryLineRepository;
-        this.accountRepository = accountRepository;
+        this.transactionExportRepository = transactionExportRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
         this.debugger = debugger;
     }
 
@@ -75,60 +83,81 @@ public class CsvExportService {
     public byte[] exportTransactionsToCsvBytes(Long companyId, Long fiscalPeriodId) throws IOException {
         debugger.logMethodEntry("CsvExportService", "exportTransactionsToCsvBytes", companyId, fiscalPeriodId);
 
-        List<BankTransaction> transactions = bankTransactionRepository.findByCompanyIdAndFiscalPeriodId(companyId, fiscalPeriodId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int rows = writeTransactionsCsv(companyId, fiscalPeriodId, out);
 
-        if (transactions.isEmpty()) {
+        if (rows == 0) {
             debugger.logValidationError("CsvExportService", "exportTransactionsToCsvBytes", "transactions", "empty", "No transactions found to export");
             throw new IllegalArgumentException("No transactions found to export for company " + companyId + " and fiscal period " + fiscalPeriodId);
         }
 
-        // Enrich transactions with classification data from journal entries
-        enrichTransactionsWithClassification(transactions, companyId);
-
-        StringBuilder csvContent = new StringBuilder();
-
-        // Write header
-        csvContent.append("ID,Date,Details,Debit,Credit,Balance,Classification,Created At\n");
+        debugger.logMethodExit("CsvExportService", "exportTransactionsToCsvBytes",
+            String.format("Generated CSV with %d transactions", rows));
 
-        // Format for currency values (no thousands separator, 2 decimal places)
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM");
+        return out.toByteArray();
+    }
 
-        // Write transactions
-        for (BankTransaction transaction : transactions) {
-            StringBuilder line = new StringBuilder();
+    /**
+     * Stream transactions as CSV to an output stream for a company and fiscal period.
+     * The stream is flushed but not closed.
+     *
+     * @param companyId The company ID
+     * @param fiscalPeriodId The fiscal period ID
+     * @param out Destination, typically the HTTP response body
+     * @return number of transactions written
+     */
+    public int writeTransactionsCsv(Long companyId, Long fiscalPeriodId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write(HEADER);
+
+        Integer rows;
+        try {
+            // Read-only transaction so the driver can fetch through a cursor instead of buffering all rows
+            rows = readTransaction.execute(status ->
+                transactionExportRepository.streamTransactions(companyId, fiscalPeriodId, row -> {
+                    try {
+                        writeRow(writer, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
-            // ID
-            line.append(transaction.getId()).append(",");
+        writer.flush();
+        return rows != null ? rows : 0;
+    }
 
-            // Date (DD/MM format)
-            line.append(transaction.getTransactionDate().format(dateFormatter)).append(",");
+    private void writeRow(Writer writer, ExportRow row) throws IOException {
+        StringBuilder line = new StringBuilder(128);
 
-            // Details (escape quotes and commas)
-            line.append(escapeField(transaction.getDetails())).append(",");
+        // ID
+        line.append(row.getId()).append(",");
 
-            // Debit
-            line.append(formatAmount(transaction.getDebitAmount())).append(",");
+        // Date (DD/MM format)
+        line.append(row.getTransactionDate() != null ? row.getTransactionDate().format(DATE_FORMATTER) : "").append(",");
 
-            // Credit
-            line.append(formatAmount(transaction.getCreditAmount())).append(",");
+        // Details (escape quotes and commas)
+        line.append(escapeField(row.getDetails())).append(",");
 
-            // Balance
-            line.append(formatAmount(transaction.getBalance())).append(",");
+        // Debit
+        line.append(formatAmount(row.getDebitAmount())).append(",");
 
-            // Classification - Main Account in [code] name format
-            String classification = getMainAccountClassification(transaction);
-            line.append(escapeField(classification)).append(",");
+        // Credit
+        line.append(formatAmount(row.getCreditAmount())).append(",");
 
-            // Created At
-            line.append(transaction.getCreatedAt() != null ? transaction.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "");
+        // Balance
+        line.append(formatAmount(row.getBalance())).append(",");
 
-            csvContent.append(line).append("\n");
-        }
+        // Classification - Main Account in [code] name format
+        line.append(escapeField(getMainAccountClassification(row))).append(",");
 
-        debugger.logMethodExit("CsvExportService", "exportTransactionsToCsvBytes",
-            String.format("Generated CSV with %d transactions", transactions.size()));
+        // Created At
+        line.append(row.getCreatedAt() != null ? row.getCreatedAt().format(CREATED_AT_FORMATTER) : "");
 
-        return csvContent.toString().getBytes(StandardCharsets.UTF_8);
+        line.append("\n");
+        writer.write(line.toString());
     }
 
     private String escapeField(String field) {
@@ -148,60 +177,17 @@ public class CsvExportService {
         return String.format(Locale.US, "%.2f", amount);
     }
 
-    /**
-     * Enrich transactions with classification data from journal entries.
-     * Populates the transient debit/credit account fields by querying journal_entry_lines.
-     * This matches the pattern used in CompanyController.getTransactions().
-     */
-    private void enrichTransactionsWithClassification(List<BankTransaction> transactions, Long companyId) {
-        for (BankTransaction transaction : transactions) {
-            List<JournalEntryLine> journalLines = journalEntryLineRepository.findBySourceTransactionId(transaction.getId());
-            
-            if (!journalLines.isEmpty()) {
-                // For each transaction, we have 2 journal lines (debit and credit)
-                // Find the debit line (debit_amount > 0) and credit line (credit_amount > 0)
-                for (JournalEntryLine line : journalLines) {
-                    Optional<Account> accountOpt = accountRepository.findById(line.getAccountId());
-                    
-                    if (accountOpt.isPresent()) {
-                        Account account = accountOpt.get();
-                        
-                        if (line.getDebitAmount() != null && line.getDebitAmount().compareTo(java.math.BigDecimal.ZERO) > 0) {
-                            // This is a debit line
-                            transaction.setDebitAccountId(account.getId());
-                            transaction.setDebitAccountCode(account.getAccountCode());
-                            transaction.setDebitAccountName(account.getAccountName());
-                        } else if (line.getCreditAmount() != null && line.getCreditAmount().compareTo(java.math.BigDecimal.ZERO) > 0) {
-                            // This is a credit line
-                            transaction.setCreditAccountId(account.getId());
-                            transaction.setCreditAccountCode(account.getAccountCode());
-                            transaction.setCreditAccountName(account.getAccountName());
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Get the main account for classification display.
-     * Logic: Show the non-cash/non-bank account
-     * - Credit transaction (money IN) → show credit account (revenue/income)
-     * - Debit transaction (money OUT) → show debit account (expense)
+     * The export query already joins the non-cash/non-bank side of the journal entry:
+     * - Credit transaction (money IN) → credit account (revenue/income)
+     * - Debit transaction (money OUT) → debit account (expense)
      */
-    private String getMainAccountClassification(BankTransaction transaction) {
-        if (transaction.getCreditAmount() != null && transaction.getCreditAmount().compareTo(java.math.BigDecimal.ZERO) > 0) {
-            // Credit transaction → main account is the credit account (revenue/income)
-            if (transaction.getCreditAccountCode() != null && transaction.getCreditAccountName() != null) {
-                return "[" + transaction.getCreditAccountCode() + "] " + transaction.getCreditAccountName();
-            }
-        } else if (transaction.getDebitAmount() != null && transaction.getDebitAmount().compareTo(java.math.BigDecimal.ZERO) > 0) {
-            // Debit transaction → main account is the debit account (expense)
-            if (transaction.getDebitAccountCode() != null && transaction.getDebitAccountName() != null) {
-                return "[" + transaction.getDebitAccountCode() + "] " + transaction.getDebitAccountName();
-            }
+    private String getMainAccountClassification(ExportRow row) {
+        if (row.getAccountCode() != null && row.getAccountName() != null) {
+            return "[" + row.getAccountCode() + "] " + row.getAccountName();
         }
         // Fallback to original category if not classified
-        return transaction.getCategory() != null ? transaction.getCategory() : "Not classified";
+        return row.getCategory() != null ? row.getCategory() : "Not classified";
     }
-}
\ No newline at end of file
+}
@@ -30,13 +30,16 @@ import fin.dto.*;
 import fin.entity.*;
 import fin.model.report.ColumnDefinition;
 import fin.repository.*;
+import fin.service.export.PreparedExport;
 import fin.service.export.ReportExportService;
+import fin.service.export.StreamingExcelWriter;
 import fin.service.CompanyService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -47,6 +50,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 import java.util.*;
+import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -60,7 +64,7 @@ import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
 // Apache POI imports
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 // Java IO imports
 import java.io.ByteArrayOutputStream;
@@ -82,6 +86,7 @@ public class FinancialReportingService {
     private static final int ACCOUNT_NAME_TRUNCATE_LENGTH = 20;
     private static final int DESCRIPTION_TRUNCATE_CHECK = 28;
     private static final int DESCRIPTION_TRUNCATE_LENGTH = 25;
+    private static final int TEXT_REPORT_ROW_WINDOW = 500;
 
     // Dependencies
     private final CompanyService companyService;
@@ -91,6 +96,7 @@ public class FinancialReportingService {
     private final JournalEntryLineRepository journalEntryLineRepository;
     private final ReportExportService reportExportService;
     private final FinancialDataRepository financialDataRepository;
+    private final AccountPeriodBalanceRepository accountPeriodBalanceRepository;
 
     public FinancialReportingService(CompanyService companyService,
                                          FiscalPeriodRepository fiscalPeriodRepository,
@@ -98,7 +104,8 @@ public class FinancialReportingService {
                                          JournalEntryRepository journalEntryRepository,
                                          JournalEntryLineRepository journalEntryLineRepository,
                                          ReportExportService reportExportService,
-                                         FinancialDataRepository financialDataRepository) {
+                                         FinancialDataRepository financialDataRepository,
+                                         AccountPeriodBalanceRepository accountPeriodBalanceRepository) {
         this.companyService = companyService;
         this.fiscalPeriodRepository = fiscalPeriodRepository;
         this.accountRepository = accountRepository;
@@ -106,6 +113,7 @@ public class FinancialReportingService {
         this.journalEntryLineRepository = journalEntryLineRepository;
         this.reportExportService = reportExportService;
         this.financialDataRepository = financialDataRepository;
+        this.accountPeriodBalanceRepository = accountPeriodBalanceRepository;
         this.currencyFormat = NumberFormat.getCurrencyInstance(Locale.forLanguageTag("en-ZA"));
     }
 
@@ -117,37 +125,9 @@ public class FinancialReportingService {
         try {
             List<GeneralLedgerDTO> entries = new ArrayList<>();
 
-            // Get all accounts for the company
-            List<Account> accounts = accountRepository.findByCompanyId(companyId);
-
-            for (Account account : accounts) {
-                List<JournalEntryLine> journalEntries = journalEntryLineRepository
-                    .findByAccountIdAndJournalEntry_FiscalPeriodId(account.getId(), fiscalPeriodId);
-
-                if (journalEntries.isEmpty()) {
-                    continue;
-                }
-
-                BigDecimal runningBalance = BigDecimal.ZERO;
-
-                for (JournalEntryLine entry : journalEntries) {
-                    JournalEntry journalEntry = entry.getJournalEntry();
-                    BigDecimal debit = entry.getDebitAmount() != null ? entry.getDebitAmount() : BigDecimal.ZERO;
-                    BigDecimal credit = entry.getCreditAmount() != null ? entry.getCreditAmount() : BigDecimal.ZERO;
-
-                    // Update running balance
-                    runningBalance = runningBalance.add(debit).subtract(credit);
-
-                    entries.add(new GeneralLedgerDTO(
-                        journalEntry.getEntryDate(),
-                        journalEntry.getReference(),
-                        entry.getDescription(),
-                        debit.compareTo(BigDecimal.ZERO) > 0 ? debit : BigDecimal.ZERO,
-                        credit.compareTo(BigDecimal.ZERO) > 0 ? credit : BigDecimal.ZERO,
-                        runningBalance
-                    ));
-                }
-            }
+            // One streamed query for all accounts instead of a line fetch per account
+            financialDataRepository.streamGeneralLedger(companyId, fiscalPeriodId,
+                (accountCode, accountName, entry) -> entries.add(entry));
 
             return entries;
 
@@ -617,19 +597,27 @@ public class FinancialReportingService {
     @Transactional(readOnly = true)
     public String generateIncomeStatement(Long companyId, Long fiscalPeriodId) {
         try {
-            Company company = companyService.getCompanyById(companyId);
-            FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
+            return generateIncomeStatement(loadReportContext(companyId, fiscalPeriodId));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating income statement", e);
+            return "Error generating report: " + e.getMessage();
+        }
+    }
 
+    /**
+     * Generates an Income Statement report as formatted text from preloaded report data
+     */
+    @Transactional(readOnly = true)
+    public String generateIncomeStatement(ReportContext context) {
+        try {
             StringBuilder report = new StringBuilder();
-            report.append(generateReportHeader("INCOME STATEMENT", company, period));
+            report.append(generateReportHeader("INCOME STATEMENT", context.getCompany(), context.getPeriod()));
 
             // Revenue accounts (typically 4000-4999)
-            BigDecimal totalRevenue = generateAccountSection(report, companyId, fiscalPeriodId,
-                    "REVENUE", "4%", "Revenue");
+            BigDecimal totalRevenue = generateAccountSection(report, context, "REVENUE", "4%", context::netBalance);
 
             // Expense accounts (typically 5000-5999)
-            BigDecimal totalExpenses = generateAccountSection(report, companyId, fiscalPeriodId,
-                    "EXPENSES", "5%", "Expenses");
+            BigDecimal totalExpenses = generateAccountSection(report, context, "EXPENSES", "5%", context::netBalance);
 
             // Calculate profit/loss
             BigDecimal profitLoss = totalRevenue.subtract(totalExpenses);
@@ -683,23 +671,32 @@ public class FinancialReportingService {
     @Transactional(readOnly = true)
     public String generateBalanceSheet(Long companyId, Long fiscalPeriodId) {
         try {
-            Company company = companyService.getCompanyById(companyId);
-            FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
+            return generateBalanceSheet(loadReportContext(companyId, fiscalPeriodId));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating balance sheet", e);
+            return "Error generating report: " + e.getMessage();
+        }
+    }
 
+    /**
+     * Generates a Balance Sheet report as formatted text from preloaded report data
+     */
+    @Transactional(readOnly = true)
+    public String generateBalanceSheet(ReportContext context) {
+        try {
             StringBuilder report = new StringBuilder();
-            report.append(generateReportHeader("BALANCE SHEET", company, period));
+            report.append(generateReportHeader("BALANCE SHEET", context.getCompany(), context.getPeriod()));
+
+            // Balance sheet accounts carry their brought-forward balances into the period
 
             // Assets (typically 1000-1999)
-            BigDecimal totalAssets = generateAccountSection(report, companyId, fiscalPeriodId,
-                    "ASSETS", "1%", "Assets");
+            BigDecimal totalAssets = generateAccountSection(report, context, "ASSETS", "1%", context::closingBalance);
 
             // Liabilities (typically 2000-2999)
-            BigDecimal totalLiabilities = generateAccountSection(report, companyId, fiscalPeriodId,
-                    "LIABILITIES", "2%", "Liabilities");
+            BigDecimal totalLiabilities = generateAccountSection(report, context, "LIABILITIES", "2%", context::closingBalance);
 
             // Equity (typically 3000-3999)
-            BigDecimal totalEquity = generateAccountSection(report, companyId, fiscalPeriodId,
-                    "EQUITY", "3%", "Equity");
+            BigDecimal totalEquity = generateAccountSection(report, context, "EQUITY", "3%", context::closingBalance);
 
             BigDecimal totalLiabilitiesAndEquity = totalLiabilities.add(totalEquity);
 
@@ -769,23 +766,38 @@ public class FinancialReportingService {
     @Transactional(readOnly = true)
     public String generateCashbook(Long companyId, Long fiscalPeriodId) {
         try {
-            Company company = companyService.getCompanyById(companyId);
-            FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
+            return generateCashbook(loadReportContext(companyId, fiscalPeriodId));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating cashbook", e);
+            return "Error generating report: " + e.getMessage();
+        }
+    }
 
+    /**
+     * Generates a Cashbook report from preloaded report data
+     */
+    @Transactional(readOnly = true)
+    public String generateCashbook(ReportContext context) {
+        try {
             StringBuilder report = new StringBuilder();
-            report.append(generateReportHeader("CASHBOOK", company, period));
+            report.append(generateReportHeader("CASHBOOK", context.getCompany(), context.getPeriod()));
 
-            // Get cash/bank accounts (typically starting with 1)
-            List<Account> cashAccounts = accountRepository.findByCompanyIdAndAccountCodeStartingWith(companyId, "1");
+            // Cash/bank accounts (typically starting with 1)
+            List<Account> cashAccounts = context.accountsStartingWith("1");
 
             BigDecimal totalDebits = BigDecimal.ZERO;
             BigDecimal totalCredits = BigDecimal.ZERO;
 
             for (Account account : cashAccounts) {
-                List<JournalEntryLine> entries = journalEntryLineRepository
-                    .findByAccountIdAndJournalEntry_FiscalPeriodIdOrderByJournalEntry_EntryDate(account.getId(), fiscalPeriodId);
+                BigDecimal openingBalance = context.openingBalance(account);
 
-                if (entries.isEmpty()) {
+                // Skip the line query for accounts with nothing posted in the period
+                List<JournalEntryLine> entries = context.hasLines(account)
+                    ? journalEntryLineRepository.findByAccountIdAndJournalEntry_FiscalPeriodIdOrderByJournalEntry_EntryDate(
+                        account.getId(), context.getFiscalPeriodId())
+                    : List.of();
+
+                if (entries.isEmpty() && openingBalance.signum() == 0) {
                     continue;
                 }
 
@@ -797,7 +809,12 @@ public class FinancialReportingService {
                         "Date", "Reference", "Description", "Receipts", "Payments", "Balance"));
                 report.append("-".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
 
-                BigDecimal runningBalance = BigDecimal.ZERO;
+                BigDecimal runningBalance = openingBalance;
+                if (openingBalance.signum() != 0) {
+                    report.append(String.format("%-12s %-15s %-30s %15s %15s %15s%n",
+                            context.getPeriod().getStartDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                            "", "Opening Balance", "", "", formatCurrency(openingBalance)));
+                }
 
                 for (JournalEntryLine entry : entries) {
                     JournalEntry journalEntry = entry.getJournalEntry();
@@ -854,31 +871,43 @@ public class FinancialReportingService {
      */
     @Transactional(readOnly = true)
     public byte[] exportGeneralLedgerToPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeGeneralLedgerToPDF(companyId, fiscalPeriodId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Writes the General Ledger as a PDF to the output stream.
+     */
+    @Transactional(readOnly = true)
+    public void writeGeneralLedgerToPDF(Long companyId, Long fiscalPeriodId, OutputStream out) throws SQLException {
+        try (PreparedExport export = prepareGeneralLedgerPDF(companyId, fiscalPeriodId)) {
+            export.writeTo(out);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error exporting general ledger to PDF", e);
+            throw new SQLException("Failed to export general ledger to PDF: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lays out the General Ledger as a PDF, ready to be written. Rows are read from a database
+     * cursor as the pages are laid out, so the ledger is never held in memory; the query has run
+     * to completion by the time this returns, so an empty ledger or a query failure is reported
+     * before any output.
+     */
+    @Transactional(readOnly = true)
+    public PreparedExport prepareGeneralLedgerPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
         try {
             FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
-            int cId = companyId.intValue();
-            int fId = fiscalPeriodId.intValue();
-            List<AccountInfo> accounts = financialDataRepository.getActiveAccountsFromJournals(cId, fId);
             List<ColumnDefinition> columns = buildGeneralLedgerColumns();
-            List<Map<String, Object>> data = new ArrayList<>();
 
-            for (AccountInfo account : accounts) {
-                List<GeneralLedgerDTO> entries = financialDataRepository.getGeneralLedgerDTOs(companyId, fiscalPeriodId, account.getAccountCode());
-                for (GeneralLedgerDTO e : entries) {
-                    Map<String, Object> row = new HashMap<>();
-                    row.put("date", e.getDate());
-                    row.put("reference", e.getReference());
-                    row.put("description", e.getDescription());
-                    row.put("debit", e.getDebit());
-                    row.put("credit", e.getCredit());
-                    row.put("balance", e.getBalance());
-                    row.put("accountCode", account.getAccountCode());
-                    row.put("accountName", account.getAccountName());
-                    data.add(row);
-                }
+            try (FinancialDataRepository.GeneralLedgerCursor cursor =
+                     financialDataRepository.openGeneralLedger(companyId, fiscalPeriodId)) {
+                return reportExportService.preparePDF(new GeneralLedgerRowIterator(cursor), columns,
+                    "GENERAL LEDGER", companyId, period);
             }
-
-            return reportExportService.exportToPDF(data, columns, "GENERAL LEDGER", companyId, period);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error exporting general ledger to PDF", e);
             throw new SQLException("Failed to export general ledger to PDF: " + e.getMessage(), e);
@@ -890,32 +919,46 @@ public class FinancialReportingService {
      */
     @Transactional(readOnly = true)
     public byte[] exportGeneralLedgerToExcel(Long companyId, Long fiscalPeriodId) throws SQLException {
-        try {
-            FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
-            int cId = companyId.intValue();
-            int fId = fiscalPeriodId.intValue();
-            List<AccountInfo> accounts = financialDataRepository.getActiveAccountsFromJournals(cId, fId);
-            List<ColumnDefinition> columns = buildGeneralLedgerColumns();
-            List<Map<String, Object>> data = new ArrayList<>();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeGeneralLedgerToExcel(companyId, fiscalPeriodId, outputStream);
+        return outputStream.toByteArray();
+    }
 
-            for (AccountInfo account : accounts) {
-                List<GeneralLedgerDTO> entries = financialDataRepository.getGeneralLedgerDTOs(companyId, fiscalPeriodId, account.getAccountCode());
-                for (GeneralLedgerDTO e : entries) {
-                    Map<String, Object> row = new HashMap<>();
-                    row.put("date", e.getDate());
-                    row.put("reference", e.getReference());
-                    row.put("description", e.getDescription());
-                    row.put("debit", e.getDebit());
-                    row.put("credit", e.getCredit());
-                    row.put("balance", e.getBalance());
-                    row.put("accountCode", account.getAccountCode());
-                    row.put("accountName", account.getAccountName());
-                    data.add(row);
-                }
-            }
+    /**
+     * Writes the General Ledger as an Excel workbook to the output stream.
+     */
+    @Transactional(readOnly = true)
+    public void writeGeneralLedgerToExcel(Long companyId, Long fiscalPeriodId, OutputStream out) throws SQLException {
+        try (PreparedExport export = prepareGeneralLedgerExcel(companyId, fiscalPeriodId)) {
+            export.writeTo(out);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error exporting general ledger to Excel", e);
+            throw new SQLException("Failed to export general ledger to Excel: " + e.getMessage(), e);
+        }
+    }
 
-            return reportExportService.exportToExcel(data, columns, "GENERAL LEDGER", companyId, period);
+    /**
+     * Reads the General Ledger into a streaming workbook, ready to be written. Ledger rows go from
+     * the database cursor straight into the workbook, so memory use does not grow with the ledger;
+     * all queries run here, so an empty ledger or a query failure is reported before any output.
+     */
+    @Transactional(readOnly = true)
+    public PreparedExport prepareGeneralLedgerExcel(Long companyId, Long fiscalPeriodId) throws SQLException {
+        StreamingExcelWriter writer = null;
+        try {
+            FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
+            writer = reportExportService.openExcelWriter("GENERAL LEDGER", buildGeneralLedgerColumns());
+            StreamingExcelWriter target = writer;
+            financialDataRepository.streamGeneralLedger(companyId, fiscalPeriodId,
+                (accountCode, accountName, e) -> target.writeRow(generalLedgerRow(accountCode, accountName, e)));
+            // prepareExcel takes ownership of the writer, closing it itself if validation fails
+            StreamingExcelWriter filled = writer;
+            writer = null;
+            return reportExportService.prepareExcel(filled, companyId, period);
         } catch (Exception e) {
+            closeQuietly(writer);
             LOGGER.log(Level.SEVERE, "Error exporting general ledger to Excel", e);
             throw new SQLException("Failed to export general ledger to Excel: " + e.getMessage(), e);
         }
@@ -927,27 +970,8 @@ public class FinancialReportingService {
     @Transactional(readOnly = true)
     public String exportGeneralLedgerToCSV(Long companyId, Long fiscalPeriodId) throws SQLException {
         try {
-            int cId = companyId.intValue();
-            int fId = fiscalPeriodId.intValue();
-            List<AccountInfo> accounts = financialDataRepository.getActiveAccountsFromJournals(cId, fId);
             List<ColumnDefinition> columns = buildGeneralLedgerColumns();
-            List<Map<String, Object>> data = new ArrayList<>();
-
-            for (AccountInfo account : accounts) {
-                List<GeneralLedgerDTO> entries = financialDataRepository.getGeneralLedgerDTOs(companyId, fiscalPeriodId, account.getAccountCode());
-                for (GeneralLedgerDTO e : entries) {
-                    Map<String, Object> row = new HashMap<>();
-                    row.put("date", e.getDate());
-                    row.put("reference", e.getReference());
-                    row.put("description", e.getDescription());
-                    row.put("debit", e.getDebit());
-                    row.put("credit", e.getCredit());
-                    row.put("balance", e.getBalance());
-                    row.put("accountCode", account.getAccountCode());
-                    row.put("accountName", account.getAccountName());
-                    data.add(row);
-                }
-            }
+            List<Map<String, Object>> data = buildGeneralLedgerData(companyId, fiscalPeriodId);
 
             return reportExportService.exportToCSV(data, columns);
         } catch (Exception e) {
@@ -956,6 +980,29 @@ public class FinancialReportingService {
         }
     }
 
+    /**
+     * Build general ledger export rows for every active account from one streamed query.
+     */
+    private List<Map<String, Object>> buildGeneralLedgerData(Long companyId, Long fiscalPeriodId) throws SQLException {
+        List<Map<String, Object>> data = new ArrayList<>();
+        financialDataRepository.streamGeneralLedger(companyId, fiscalPeriodId,
+            (accountCode, accountName, e) -> data.add(generalLedgerRow(accountCode, accountName, e)));
+        return data;
+    }
+
+    private Map<String, Object> generalLedgerRow(String accountCode, String accountName, GeneralLedgerDTO e) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("date", e.getDate());
+        row.put("reference", e.getReference());
+        row.put("description", e.getDescription());
+        row.put("debit", e.getDebit());
+        row.put("credit", e.getCredit());
+        row.put("balance", e.getBalance());
+        row.put("accountCode", accountCode);
+        row.put("accountName", accountName);
+        return row;
+    }
+
     private List<ColumnDefinition> buildGeneralLedgerColumns() {
         List<ColumnDefinition> columns = new ArrayList<>();
         columns.add(new ColumnDefinition("Account Code", "accountCode", 90, "text", "left"));
@@ -974,29 +1021,39 @@ public class FinancialReportingService {
      */
     @Transactional(readOnly = true)
     public byte[] exportCashbookToPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeCashbookToPDF(companyId, fiscalPeriodId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Writes the Cashbook as a PDF to the output stream.
+     */
+    @Transactional(readOnly = true)
+    public void writeCashbookToPDF(Long companyId, Long fiscalPeriodId, OutputStream out) throws SQLException {
+        try (PreparedExport export = prepareCashbookPDF(companyId, fiscalPeriodId)) {
+            export.writeTo(out);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error exporting cashbook to PDF", e);
+            throw new SQLException("Failed to export cashbook to PDF: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lays out the Cashbook as a PDF, ready to be written. Cash accounts are read one at a time
+     * as the pages are laid out, so only one account's entries are held in memory; every account
+     * has been read by the time this returns.
+     */
+    @Transactional(readOnly = true)
+    public PreparedExport prepareCashbookPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
         try {
             FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
             List<Account> cashAccounts = accountRepository.findByCompanyIdAndAccountCodeStartingWith(companyId, "1");
-            List<ColumnDefinition> columns = buildCashbookColumns();
-            List<Map<String, Object>> data = new ArrayList<>();
-
-            for (Account account : cashAccounts) {
-                List<CashbookDTO> entries = financialDataRepository.getCashbookDTOs(companyId, fiscalPeriodId, account.getAccountCode());
-                for (CashbookDTO e : entries) {
-                    Map<String, Object> row = new HashMap<>();
-                    row.put("date", e.getDate());
-                    row.put("reference", e.getReference());
-                    row.put("description", e.getDescription());
-                    row.put("receipts", e.getReceipts());
-                    row.put("payments", e.getPayments());
-                    row.put("balance", e.getBalance());
-                    row.put("accountCode", account.getAccountCode());
-                    row.put("accountName", account.getAccountName());
-                    data.add(row);
-                }
-            }
 
-            return reportExportService.exportToPDF(data, columns, "CASHBOOK", companyId, period);
+            return reportExportService.preparePDF(new CashbookRowIterator(companyId, fiscalPeriodId, cashAccounts),
+                buildCashbookColumns(), "CASHBOOK", companyId, period);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error exporting cashbook to PDF", e);
             throw new SQLException("Failed to export cashbook to PDF: " + e.getMessage(), e);
@@ -1005,35 +1062,139 @@ public class FinancialReportingService {
 
     @Transactional(readOnly = true)
     public byte[] exportCashbookToExcel(Long companyId, Long fiscalPeriodId) throws SQLException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeCashbookToExcel(companyId, fiscalPeriodId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Writes the Cashbook as an Excel workbook to the output stream.
+     */
+    @Transactional(readOnly = true)
+    public void writeCashbookToExcel(Long companyId, Long fiscalPeriodId, OutputStream out) throws SQLException {
+        try (PreparedExport export = prepareCashbookExcel(companyId, fiscalPeriodId)) {
+            export.writeTo(out);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error exporting cashbook to Excel", e);
+            throw new SQLException("Failed to export cashbook to Excel: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the Cashbook into a streaming workbook one cash account at a time, ready to be written.
+     */
+    @Transactional(readOnly = true)
+    public PreparedExport prepareCashbookExcel(Long companyId, Long fiscalPeriodId) throws SQLException {
+        StreamingExcelWriter writer = null;
         try {
             FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
             List<Account> cashAccounts = accountRepository.findByCompanyIdAndAccountCodeStartingWith(companyId, "1");
-            List<ColumnDefinition> columns = buildCashbookColumns();
-            List<Map<String, Object>> data = new ArrayList<>();
 
+            writer = reportExportService.openExcelWriter("CASHBOOK", buildCashbookColumns());
             for (Account account : cashAccounts) {
                 List<CashbookDTO> entries = financialDataRepository.getCashbookDTOs(companyId, fiscalPeriodId, account.getAccountCode());
                 for (CashbookDTO e : entries) {
-                    Map<String, Object> row = new HashMap<>();
-                    row.put("date", e.getDate());
-                    row.put("reference", e.getReference());
-                    row.put("description", e.getDescription());
-                    row.put("receipts", e.getReceipts());
-                    row.put("payments", e.getPayments());
-                    row.put("balance", e.getBalance());
-                    row.put("accountCode", account.getAccountCode());
-                    row.put("accountName", account.getAccountName());
-                    data.add(row);
+                    writer.writeRow(cashbookRow(account, e));
                 }
             }
-
-            return reportExportService.exportToExcel(data, columns, "CASHBOOK", companyId, period);
+            // prepareExcel takes ownership of the writer, closing it itself if validation fails
+            StreamingExcelWriter filled = writer;
+            writer = null;
+            return reportExportService.prepareExcel(filled, companyId, period);
         } catch (Exception e) {
+            closeQuietly(writer);
             LOGGER.log(Level.SEVERE, "Error exporting cashbook to Excel", e);
             throw new SQLException("Failed to export cashbook to Excel: " + e.getMessage(), e);
         }
     }
 
+    private Map<String, Object> cashbookRow(Account account, CashbookDTO e) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("date", e.getDate());
+        row.put("reference", e.getReference());
+        row.put("description", e.getDescription());
+        row.put("receipts", e.getReceipts());
+        row.put("payments", e.getPayments());
+        row.put("balance", e.getBalance());
+        row.put("accountCode", account.getAccountCode());
+        row.put("accountName", account.getAccountName());
+        return row;
+    }
+
+    /**
+     * General ledger export rows, fetched from the cursor one at a time.
+     */
+    private class GeneralLedgerRowIterator implements Iterator<Map<String, Object>> {
+        private final FinancialDataRepository.GeneralLedgerCursor cursor;
+        private FinancialDataRepository.GeneralLedgerRow row;
+
+        GeneralLedgerRowIterator(FinancialDataRepository.GeneralLedgerCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (row == null) {
+                try {
+                    row = cursor.next();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to read general ledger", e);
+                }
+            }
+            return row != null;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            FinancialDataRepository.GeneralLedgerRow current = row;
+            row = null;
+            return generalLedgerRow(current.getAccountCode(), current.getAccountName(), current.getEntry());
+        }
+    }
+
+    /**
+     * Cashbook export rows, loading each cash account's entries only when the previous account is exhausted.
+     */
+    private class CashbookRowIterator implements Iterator<Map<String, Object>> {
+        private final Long companyId;
+        private final Long fiscalPeriodId;
+        private final Iterator<Account> accounts;
+        private Account account;
+        private Iterator<CashbookDTO> entries = Collections.emptyIterator();
+
+        CashbookRowIterator(Long companyId, Long fiscalPeriodId, List<Account> cashAccounts) {
+            this.companyId = companyId;
+            this.fiscalPeriodId = fiscalPeriodId;
+            this.accounts = cashAccounts.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!entries.hasNext() && accounts.hasNext()) {
+                account = accounts.next();
+                try {
+                    entries = financialDataRepository.getCashbookDTOs(companyId, fiscalPeriodId, account.getAccountCode()).iterator();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to load cashbook for account " + account.getAccountCode(), e);
+                }
+            }
+            return entries.hasNext();
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return cashbookRow(account, entries.next());
+        }
+    }
+
     @Transactional(readOnly = true)
     public String exportCashbookToCSV(Long companyId, Long fiscalPeriodId) throws SQLException {
         try {
@@ -1135,77 +1296,118 @@ public class FinancialReportingService {
         try {
             Company company = companyService.getCompanyById(companyId);
             FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
+            return buildAuditTrail(companyId, fiscalPeriodId, company, period);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating audit trail", e);
+            return "Error generating report: " + e.getMessage();
+        }
+    }
 
-            StringBuilder report = new StringBuilder();
-            report.append(generateReportHeader("AUDIT TRAIL", company, period));
+    /**
+     * Generates an Audit Trail report from preloaded report data
+     */
+    @Transactional(readOnly = true)
+    public String generateAuditTrail(ReportContext context) {
+        try {
+            return buildAuditTrail(context.getCompanyId(), context.getFiscalPeriodId(),
+                context.getCompany(), context.getPeriod());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating audit trail", e);
+            return "Error generating report: " + e.getMessage();
+        }
+    }
 
-            List<JournalEntry> journalEntries = journalEntryRepository
-                .findByCompanyIdAndFiscalPeriodIdOrderByEntryDateAscIdAsc(companyId, fiscalPeriodId);
+    private String buildAuditTrail(Long companyId, Long fiscalPeriodId, Company company, FiscalPeriod period) {
+        StringBuilder report = new StringBuilder();
+        report.append(generateReportHeader("AUDIT TRAIL", company, period));
 
-            String currentEntry = null;
-            BigDecimal grandTotalDebits = BigDecimal.ZERO;
-            BigDecimal grandTotalCredits = BigDecimal.ZERO;
+        List<JournalEntry> journalEntries = journalEntryRepository
+            .findByCompanyIdAndFiscalPeriodIdOrderByEntryDateAscIdAsc(companyId, fiscalPeriodId);
 
-            for (JournalEntry je : journalEntries) {
-                // New journal entry header — always print header for the first entry even if reference is null
-                if (currentEntry == null || !Objects.equals(je.getReference(), currentEntry)) {
-                    currentEntry = je.getReference();
+        String currentEntry = null;
+        BigDecimal grandTotalDebits = BigDecimal.ZERO;
+        BigDecimal grandTotalCredits = BigDecimal.ZERO;
 
-                    report.append("\n").append("=".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
-                    report.append(String.format("ENTRY: %-20s DATE: %-12s CREATED BY: %-20s%n",
-                            je.getReference(),
-                            je.getEntryDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                            je.getCreatedBy() != null ? je.getCreatedBy() : "FIN"));
-                    report.append(String.format("DESCRIPTION: %s%n", je.getDescription()));
-                    report.append(String.format("TIMESTAMP: %s%n",
-                            je.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))));
-                    report.append("-".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
-                    report.append(String.format("%-10s %-25s %-30s %15s %15s%n",
-                            "Code", "Account", "Description", "Debit", "Credit"));
-                    report.append("-".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
-                }
+        for (JournalEntry je : journalEntries) {
+            // New journal entry header — always print header for the first entry even if reference is null
+            if (currentEntry == null || !Objects.equals(je.getReference(), currentEntry)) {
+                currentEntry = je.getReference();
 
-                // Journal entry lines
-                for (JournalEntryLine jel : je.getJournalEntryLines()) {
-                    Account account = jel.getAccount();
+                report.append("\n").append("=".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
+                report.append(String.format("ENTRY: %-20s DATE: %-12s CREATED BY: %-20s%n",
+                        je.getReference(),
+                        je.getEntryDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                        je.getCreatedBy() != null ? je.getCreatedBy() : "FIN"));
+                report.append(String.format("DESCRIPTION: %s%n", je.getDescription()));
+                report.append(String.format("TIMESTAMP: %s%n",
+                        je.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))));
+                report.append("-".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
+                report.append(String.format("%-10s %-25s %-30s %15s %15s%n",
+                        "Code", "Account", "Description", "Debit", "Credit"));
+                report.append("-".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
+            }
 
-                    if (jel.getDebitAmount() != null) {
-                        grandTotalDebits = grandTotalDebits.add(jel.getDebitAmount());
-                    }
-                    if (jel.getCreditAmount() != null) {
-                        grandTotalCredits = grandTotalCredits.add(jel.getCreditAmount());
-                    }
+            // Journal entry lines
+            for (JournalEntryLine jel : je.getJournalEntryLines()) {
+                Account account = jel.getAccount();
 
-                    report.append(String.format("%-10s %-25s %-30s %15s %15s%n",
-                            account.getAccountCode(),
-                            truncateText(account.getAccountName(), ACCOUNT_NAME_TRUNCATE_CHECK, ACCOUNT_NAME_TRUNCATE_LENGTH),
-                            truncateText(jel.getDescription(), DESCRIPTION_TRUNCATE_CHECK, DESCRIPTION_TRUNCATE_LENGTH),
-                            jel.getDebitAmount() != null ? formatCurrency(jel.getDebitAmount()) : "",
-                            jel.getCreditAmount() != null ? formatCurrency(jel.getCreditAmount()) : ""));
+                if (jel.getDebitAmount() != null) {
+                    grandTotalDebits = grandTotalDebits.add(jel.getDebitAmount());
+                }
+                if (jel.getCreditAmount() != null) {
+                    grandTotalCredits = grandTotalCredits.add(jel.getCreditAmount());
                 }
+
+                report.append(String.format("%-10s %-25s %-30s %15s %15s%n",
+                        account.getAccountCode(),
+                        truncateText(account.getAccountName(), ACCOUNT_NAME_TRUNCATE_CHECK, ACCOUNT_NAME_TRUNCATE_LENGTH),
+                        truncateText(jel.getDescription(), DESCRIPTION_TRUNCATE_CHECK, DESCRIPTION_TRUNCATE_LENGTH),
+                        jel.getDebitAmount() != null ? formatCurrency(jel.getDebitAmount()) : "",
+                        jel.getCreditAmount() != null ? formatCurrency(jel.getCreditAmount()) : ""));
             }
+        }
 
-            // Grand totals
-            report.append("\n").append("=".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
-            report.append(String.format("%-71s %15s %15s%n",
-                    "GRAND TOTALS:",
-                    formatCurrency(grandTotalDebits),
-                    formatCurrency(grandTotalCredits)));
-            report.append("=".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
+        // Grand totals
+        report.append("\n").append("=".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
+        report.append(String.format("%-71s %15s %15s%n",
+                "GRAND TOTALS:",
+                formatCurrency(grandTotalDebits),
+                formatCurrency(grandTotalCredits)));
+        report.append("=".repeat(REPORT_SEPARATOR_WIDTH)).append("\n");
 
-            return report.toString();
+        return report.toString();
+    }
 
+    /**
+     * Export Audit Trail to PDF format
+     */
+    @Transactional(readOnly = true)
+    public byte[] exportAuditTrailToPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeAuditTrailToPDF(companyId, fiscalPeriodId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Writes the Audit Trail as a PDF to the output stream.
+     */
+    @Transactional(readOnly = true)
+    public void writeAuditTrailToPDF(Long companyId, Long fiscalPeriodId, OutputStream out) throws SQLException {
+        try (PreparedExport export = prepareAuditTrailPDF(companyId, fiscalPeriodId)) {
+            export.writeTo(out);
+        } catch (SQLException e) {
+            throw e;
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error generating audit trail", e);
-            return "Error generating report: " + e.getMessage();
+            LOGGER.log(java.util.logging.Level.SEVERE, "Error exporting audit trail to PDF", e);
+            throw new SQLException("Failed to export audit trail to PDF: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Export Audit Trail to PDF format
+     * Lays out the audit trail as a PDF, ready to be written.
      */
     @Transactional(readOnly = true)
-    public byte[] exportAuditTrailToPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
+    public PreparedExport prepareAuditTrailPDF(Long companyId, Long fiscalPeriodId) throws SQLException {
         try {
             Company company = companyService.getCompanyById(companyId);
             FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
@@ -1213,7 +1415,7 @@ public class FinancialReportingService {
             List<AuditTrailDTO> dtos = generateAuditTrailDTOs(companyId, fiscalPeriodId);
             // Use structured PDF renderer for a styled table-based PDF
             try {
-                return PdfReportRenderer.renderAuditTrail(dtos, company, period);
+                return PdfReportRenderer.prepareAuditTrail(dtos.iterator(), company, period);
             } catch (IOException e) {
                 throw new SQLException("Failed to render audit trail PDF: " + e.getMessage(), e);
             }
@@ -1317,7 +1519,9 @@ public class FinancialReportingService {
             Company company = companyService.getCompanyById(companyId);
             FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
 
-            Workbook workbook = new XSSFWorkbook();
+            // Text reports can run to many thousands of lines; keep only a window of rows in memory
+            SXSSFWorkbook workbook = new SXSSFWorkbook(TEXT_REPORT_ROW_WINDOW);
+            workbook.setCompressTempFiles(true);
             Sheet sheet = workbook.createSheet("Report");
 
             int rowNum = 0;
@@ -1343,8 +1547,12 @@ public class FinancialReportingService {
             }
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            workbook.close();
+            try {
+                workbook.write(outputStream);
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
 
             return outputStream.toByteArray();
         } catch (IOException e) {
@@ -1374,34 +1582,33 @@ public class FinancialReportingService {
         return csv.toString();
     }
 
+    /**
+     * Read the data shared by the text reports of a company and fiscal period: company, period,
+     * chart of accounts by account code, and per-account period and brought-forward totals
+     * (from the account period balance summary).
+     */
+    @Transactional(readOnly = true)
+    public ReportContext loadReportContext(Long companyId, Long fiscalPeriodId) {
+        FiscalPeriod period = getFiscalPeriod(fiscalPeriodId);
+        Company company = companyService.getCompanyById(companyId);
+        List<Account> accounts = accountRepository.findByCompanyIdOrderByAccountCodeAsc(companyId);
+        return new ReportContext(companyId, fiscalPeriodId, company, period, accounts,
+            accountPeriodBalanceRepository.findPeriodTotals(companyId, fiscalPeriodId),
+            accountPeriodBalanceRepository.findOpeningTotals(companyId, fiscalPeriodId));
+    }
+
     // Helper methods
 
-    private BigDecimal generateAccountSection(StringBuilder report, Long companyId, Long fiscalPeriodId,
-                                            String sectionTitle, String accountCodePrefix, String accountType) {
+    private BigDecimal generateAccountSection(StringBuilder report, ReportContext context,
+                                            String sectionTitle, String accountCodePrefix,
+                                            Function<Account, BigDecimal> balance) {
         report.append("\n").append(sectionTitle).append("\n");
         report.append("-".repeat(50)).append("\n");
 
-        List<Account> accounts = accountRepository.findByCompanyIdAndAccountCodeStartingWith(companyId, accountCodePrefix.substring(0, 1));
-
         BigDecimal sectionTotal = BigDecimal.ZERO;
 
-        for (Account account : accounts) {
-            List<JournalEntryLine> entries = journalEntryLineRepository
-                .findByAccountIdAndJournalEntry_FiscalPeriodId(account.getId(), fiscalPeriodId);
-
-            BigDecimal debitBalance = BigDecimal.ZERO;
-            BigDecimal creditBalance = BigDecimal.ZERO;
-
-            for (JournalEntryLine entry : entries) {
-                if (entry.getDebitAmount() != null) {
-                    debitBalance = debitBalance.add(entry.getDebitAmount());
-                }
-                if (entry.getCreditAmount() != null) {
-                    creditBalance = creditBalance.add(entry.getCreditAmount());
-                }
-            }
-
-            BigDecimal netBalance = debitBalance.subtract(creditBalance);
+        for (Account account : context.accountsStartingWith(accountCodePrefix.substring(0, 1))) {
+            BigDecimal netBalance = balance.apply(account);
 
             if (netBalance.compareTo(BigDecimal.ZERO) != 0) {
                 report.append(String.format("%-40s %15s%n",
@@ -1549,6 +1756,17 @@ public class FinancialReportingService {
         };
     }
 
+    private void closeQuietly(StreamingExcelWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to release Excel export scratch files", e);
+        }
+    }
+
     private FiscalPeriod getFiscalPeriod(Long fiscalPeriodId) {
         return fiscalPeriodRepository.findById(fiscalPeriodId)
                 .orElseThrow(() -> new IllegalArgumentException(
@@ -4,20 +4,23 @@ import fin.dto.AuditTrailDTO;
 import fin.dto.AuditTrailLineDTO;
 import fin.entity.Company;
 import fin.entity.FiscalPeriod;
+import fin.service.export.PdfReportDocument;
+import fin.service.export.PreparedExport;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -30,26 +33,46 @@ public final class PdfReportRenderer {
     private static final float HEADER_FONT_SIZE = 10f;
     private static final float BODY_FONT_SIZE = 9f;
     private static final float LINE_SPACING = 1.2f;
+    // Page content kept in memory before the rest of the document is buffered in a temporary file
+    private static final long MAX_MAIN_MEMORY_BYTES = 16L * 1024 * 1024;
 
     private PdfReportRenderer() {}
 
     public static byte[] renderAuditTrail(List<AuditTrailDTO> entries, Company company, FiscalPeriod period) throws IOException {
-        try (PDDocument document = new PDDocument()) {
-            // Add document metadata and cover page consistent with other exporters
-            addMetadata(document, company, period);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeAuditTrail(entries.iterator(), company, period, out);
+        return out.toByteArray();
+    }
 
-            PDPage titlePage = new PDPage(PDRectangle.A4);
-            addTitlePage(document, titlePage, company, period, "AUDIT TRAIL");
+    /**
+     * Render the audit trail straight to {@code out}.
+     */
+    public static void writeAuditTrail(Iterator<AuditTrailDTO> entries, Company company, FiscalPeriod period,
+                                       OutputStream out) throws IOException {
+        try (PreparedExport export = prepareAuditTrail(entries, company, period)) {
+            export.writeTo(out);
+        }
+    }
 
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
+    /**
+     * Lay out the audit trail, pulling entries from the iterator one at a time, without writing it yet.
+     * Each page gets its footer as it is completed, so no page is reopened afterwards. The returned
+     * export must be closed to delete the document's temporary file.
+     */
+    public static PreparedExport prepareAuditTrail(Iterator<AuditTrailDTO> entries, Company company,
+                                                   FiscalPeriod period) throws IOException {
+        PdfReportDocument pdf = new PdfReportDocument(MAX_MAIN_MEMORY_BYTES);
+        try {
+            // Add document metadata and cover page consistent with other exporters
+            addMetadata(pdf.getDocument(), company, period);
+
+            addTitlePage(pdf, pdf.addPage(), company, period, "AUDIT TRAIL");
 
-            PDFont titleFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-            PDFont headerFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-            PDFont bodyFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            PDFont titleFont = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD);
+            PDFont headerFont = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD);
+            PDFont bodyFont = pdf.font(Standard14Fonts.FontName.HELVETICA);
 
-            float pageWidth = page.getMediaBox().getWidth();
-            float usableWidth = pageWidth - 2 * MARGIN;
+            float usableWidth = PDRectangle.A4.getWidth() - 2 * MARGIN;
 
             // Column widths (adjustable)
             float codeW = 60f;
@@ -59,139 +82,156 @@ public final class PdfReportRenderer {
             float spacing = 8f;
             float descW = usableWidth - (codeW + accountW + debitW + creditW + spacing * 3);
 
-            PDPageContentStream cs = new PDPageContentStream(document, page);
-
-            float yStart = page.getMediaBox().getHeight() - MARGIN;
-            float yPosition = yStart;
+            try (PageCursor page = new PageCursor(pdf)) {
+                PDPageContentStream cs = page.stream();
 
-            // Title and company header on content page (smaller than cover)
-            cs.setFont(titleFont, TITLE_FONT_SIZE);
-            String title = "AUDIT TRAIL";
-            centerText(cs, title, titleFont, TITLE_FONT_SIZE, page.getMediaBox().getWidth());
-            yPosition -= TITLE_FONT_SIZE * 1.5f;
+                // Title and company header on content page (smaller than cover)
+                cs.setFont(titleFont, TITLE_FONT_SIZE);
+                String title = "AUDIT TRAIL";
+                centerText(cs, title, titleFont, TITLE_FONT_SIZE, PDRectangle.A4.getWidth());
+                page.y -= TITLE_FONT_SIZE * 1.5f;
 
-            cs.setFont(bodyFont, HEADER_FONT_SIZE);
-            String companyLine = company.getName() + " - " + period.getPeriodName();
-            cs.beginText();
-            cs.newLineAtOffset(MARGIN, yPosition);
-            cs.showText(companyLine);
-            cs.endText();
-            yPosition -= HEADER_FONT_SIZE * 1.5f;
-
-            // Generated timestamp
-            String generated = "Generated: " + DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").format(java.time.LocalDateTime.now());
-            cs.beginText();
-            cs.newLineAtOffset(MARGIN, yPosition);
-            cs.showText(generated);
-            cs.endText();
-            yPosition -= HEADER_FONT_SIZE * 1.8f;
-
-            // Table header
-            cs.setFont(headerFont, HEADER_FONT_SIZE);
-            if (yPosition - (HEADER_FONT_SIZE * LINE_SPACING * 2) < MARGIN) {
-                cs.close();
-                page = new PDPage(PDRectangle.A4);
-                document.addPage(page);
-                cs = new PDPageContentStream(document, page);
-                cs.setFont(headerFont, HEADER_FONT_SIZE);
-                yPosition = yStart;
-            }
-
-            cs.beginText();
-            cs.newLineAtOffset(MARGIN, yPosition);
-            cs.showText(padRight("Code", (int) codeW / 6) + padRight("Account", (int) accountW / 6) + padRight("Description", (int) descW / 6) + padLeft("Debit", (int) debitW / 6) + padLeft("Credit", (int) creditW / 6));
-            cs.endText();
-
-            yPosition -= HEADER_FONT_SIZE * LINE_SPACING * 1.8f;
-
-            cs.setFont(bodyFont, BODY_FONT_SIZE);
-            float bodyLineHeight = BODY_FONT_SIZE * LINE_SPACING;
-
-            for (AuditTrailDTO entry : entries) {
-                // Entry header
-                if (yPosition - (BODY_FONT_SIZE * 4.5f) < MARGIN) {
-                    cs.close();
-                    page = new PDPage(PDRectangle.A4);
-                    document.addPage(page);
-                    cs = new PDPageContentStream(document, page);
-                    cs.setFont(bodyFont, BODY_FONT_SIZE);
-                    yPosition = yStart;
-                }
+                cs.setFont(bodyFont, HEADER_FONT_SIZE);
+                String companyLine = company.getName() + " - " + period.getPeriodName();
                 cs.beginText();
-                cs.newLineAtOffset(MARGIN, yPosition);
-                cs.showText("ENTRY: " + entry.getReference());
+                cs.newLineAtOffset(MARGIN, page.y);
+                cs.showText(companyLine);
                 cs.endText();
-                yPosition -= BODY_FONT_SIZE * LINE_SPACING;
+                page.y -= HEADER_FONT_SIZE * 1.5f;
 
+                // Generated timestamp
+                String generated = "Generated: " + DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").format(java.time.LocalDateTime.now());
                 cs.beginText();
-                cs.newLineAtOffset(MARGIN, yPosition);
-                cs.showText("DATE: " + entry.getEntryDate().toLocalDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + "  CREATED BY: " + entry.getCreatedBy());
+                cs.newLineAtOffset(MARGIN, page.y);
+                cs.showText(generated);
                 cs.endText();
-                yPosition -= BODY_FONT_SIZE * LINE_SPACING;
+                page.y -= HEADER_FONT_SIZE * 1.8f;
 
+                // Table header
+                cs = page.ensureSpace(HEADER_FONT_SIZE * LINE_SPACING * 2, headerFont, HEADER_FONT_SIZE);
+                cs.setFont(headerFont, HEADER_FONT_SIZE);
                 cs.beginText();
-                cs.newLineAtOffset(MARGIN, yPosition);
-                cs.showText("DESCRIPTION: " + (entry.getDescription() == null ? "" : entry.getDescription()));
+                cs.newLineAtOffset(MARGIN, page.y);
+                cs.showText(padRight("Code", (int) codeW / 6) + padRight("Account", (int) accountW / 6) + padRight("Description", (int) descW / 6) + padLeft("Debit", (int) debitW / 6) + padLeft("Credit", (int) creditW / 6));
                 cs.endText();
-                yPosition -= BODY_FONT_SIZE * LINE_SPACING;
 
-                // Table of lines
+                page.y -= HEADER_FONT_SIZE * LINE_SPACING * 1.8f;
+
                 cs.setFont(bodyFont, BODY_FONT_SIZE);
+                float bodyLineHeight = BODY_FONT_SIZE * LINE_SPACING;
 
-                for (AuditTrailLineDTO line : entry.getLines()) {
-                    // Wrap description
-                    List<String> wrapped = wrapText(bodyFont, line.getDescription() == null ? "" : line.getDescription(), BODY_FONT_SIZE, descW);
-                    int lineCount = Math.max(wrapped.size(), 1);
-                    if (yPosition - (bodyLineHeight * lineCount) < MARGIN) {
-                        cs.close();
-                        page = new PDPage(PDRectangle.A4);
-                        document.addPage(page);
-                        cs = new PDPageContentStream(document, page);
-                        cs.setFont(bodyFont, BODY_FONT_SIZE);
-                        yPosition = yStart;
-                    }
+                while (entries.hasNext()) {
+                    AuditTrailDTO entry = entries.next();
 
-                    // First line with amounts
+                    // Entry header
+                    cs = page.ensureSpace(BODY_FONT_SIZE * 4.5f, bodyFont, BODY_FONT_SIZE);
                     cs.beginText();
-                    cs.newLineAtOffset(MARGIN, yPosition);
-                    cs.showText(padRight(line.getAccountCode(), (int) codeW / 6));
-                    cs.showText(padRight(truncate(line.getAccountName(), 24), (int) accountW / 6));
-                    cs.showText(padRight(wrapped.get(0), (int) descW / 6));
-                    cs.showText(padLeft(line.getDebit() != null ? formatCurrency(line.getDebit()) : "", (int) debitW / 6));
-                    cs.showText(padLeft(line.getCredit() != null ? formatCurrency(line.getCredit()) : "", (int) creditW / 6));
+                    cs.newLineAtOffset(MARGIN, page.y);
+                    cs.showText("ENTRY: " + entry.getReference());
                     cs.endText();
-                    yPosition -= bodyLineHeight;
-
-                    // Subsequent wrapped lines
-                    for (int i = 1; i < wrapped.size(); i++) {
-                        if (yPosition - bodyLineHeight < MARGIN) {
-                            cs.close();
-                            page = new PDPage(PDRectangle.A4);
-                            document.addPage(page);
-                            cs = new PDPageContentStream(document, page);
-                            cs.setFont(bodyFont, BODY_FONT_SIZE);
-                            yPosition = yStart;
-                        }
+                    page.y -= BODY_FONT_SIZE * LINE_SPACING;
+
+                    cs.beginText();
+                    cs.newLineAtOffset(MARGIN, page.y);
+                    cs.showText("DATE: " + entry.getEntryDate().toLocalDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + "  CREATED BY: " + entry.getCreatedBy());
+                    cs.endText();
+                    page.y -= BODY_FONT_SIZE * LINE_SPACING;
+
+                    cs.beginText();
+                    cs.newLineAtOffset(MARGIN, page.y);
+                    cs.showText("DESCRIPTION: " + (entry.getDescription() == null ? "" : entry.getDescription()));
+                    cs.endText();
+                    page.y -= BODY_FONT_SIZE * LINE_SPACING;
+
+                    // Table of lines
+                    cs.setFont(bodyFont, BODY_FONT_SIZE);
+
+                    for (AuditTrailLineDTO line : entry.getLines()) {
+                        // Wrap description
+                        List<String> wrapped = wrapText(bodyFont, line.getDescription() == null ? "" : line.getDescription(), BODY_FONT_SIZE, descW);
+                        int lineCount = Math.max(wrapped.size(), 1);
+                        cs = page.ensureSpace(bodyLineHeight * lineCount, bodyFont, BODY_FONT_SIZE);
+
+                        // First line with amounts
                         cs.beginText();
-                        cs.newLineAtOffset(MARGIN + codeW + accountW + spacing, yPosition);
-                        cs.showText(wrapped.get(i));
+                        cs.newLineAtOffset(MARGIN, page.y);
+                        cs.showText(padRight(line.getAccountCode(), (int) codeW / 6));
+                        cs.showText(padRight(truncate(line.getAccountName(), 24), (int) accountW / 6));
+                        cs.showText(padRight(wrapped.get(0), (int) descW / 6));
+                        cs.showText(padLeft(line.getDebit() != null ? formatCurrency(line.getDebit()) : "", (int) debitW / 6));
+                        cs.showText(padLeft(line.getCredit() != null ? formatCurrency(line.getCredit()) : "", (int) creditW / 6));
                         cs.endText();
-                        yPosition -= bodyLineHeight;
+                        page.y -= bodyLineHeight;
+
+                        // Subsequent wrapped lines
+                        for (int i = 1; i < wrapped.size(); i++) {
+                            cs = page.ensureSpace(bodyLineHeight, bodyFont, BODY_FONT_SIZE);
+                            cs.beginText();
+                            cs.newLineAtOffset(MARGIN + codeW + accountW + spacing, page.y);
+                            cs.showText(wrapped.get(i));
+                            cs.endText();
+                            page.y -= bodyLineHeight;
+                        }
                     }
+
+                    // Spacer after entry
+                    page.y -= BODY_FONT_SIZE * LINE_SPACING * 0.9f;
                 }
+            }
+        } catch (IOException | RuntimeException e) {
+            pdf.close();
+            throw e;
+        }
 
-                // Spacer after entry
-                yPosition -= BODY_FONT_SIZE * LINE_SPACING * 0.9f;
+        return pdf.asExport();
+    }
+
+    /**
+     * The content page currently being written. Starting a new page stamps the footer on the
+     * finished one and closes its content stream.
+     */
+    private static final class PageCursor implements AutoCloseable {
+        private final PdfReportDocument pdf;
+        private final float yStart = PDRectangle.A4.getHeight() - MARGIN;
+        private PDPageContentStream cs;
+        float y;
+
+        PageCursor(PdfReportDocument pdf) throws IOException {
+            this.pdf = pdf;
+            newPage();
+        }
+
+        PDPageContentStream stream() {
+            return cs;
+        }
+
+        /**
+         * Move to a new page, with the given body font selected, if fewer than {@code height}
+         * points remain above the bottom margin.
+         */
+        PDPageContentStream ensureSpace(float height, PDFont font, float fontSize) throws IOException {
+            if (y - height < MARGIN) {
+                finishPage();
+                newPage();
+                cs.setFont(font, fontSize);
             }
+            return cs;
+        }
 
-            // Footer with page number etc. — add footer to all pages
-            addFooterToAllPages(document, company, period);
+        private void newPage() throws IOException {
+            PDPage page = pdf.addPage();
+            cs = new PDPageContentStream(pdf.getDocument(), page);
+            y = yStart;
+        }
 
+        private void finishPage() throws IOException {
+            addFooter(pdf, cs, pdf.getPageCount());
             cs.close();
+        }
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            document.save(out);
-            return out.toByteArray();
+        @Override
+        public void close() throws IOException {
+            finishPage();
         }
     }
 
@@ -229,22 +269,17 @@ public final class PdfReportRenderer {
     }
 
 
-    private static void addFooterToAllPages(PDDocument document, Company company, FiscalPeriod period) throws IOException {
-        int pageCount = document.getNumberOfPages();
-        for (int i = 0; i < pageCount; i++) {
-            PDPage page = document.getPage(i);
-            try (PDPageContentStream footerStream = new PDPageContentStream(document, page, PDPageContentStream.AppendMode.APPEND, true)) {
-                footerStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 8f);
-                String generated = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                String footerText = String.format("Page %d | Generated: %s | FIN Financial Management System", i + 1, generated);
-                float footerWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA).getStringWidth(footerText) / 1000 * 8;
-                float centerX = PDRectangle.A4.getWidth() / 2;
-                footerStream.beginText();
-                footerStream.newLineAtOffset(centerX - footerWidth / 2, 20);
-                footerStream.showText(footerText);
-                footerStream.endText();
-            }
-        }
+    private static void addFooter(PdfReportDocument pdf, PDPageContentStream cs, int pageNumber) throws IOException {
+        PDFont font = pdf.font(Standard14Fonts.FontName.HELVETICA);
+        cs.setFont(font, 8f);
+        String generated = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        String footerText = String.format("Page %d | Generated: %s | FIN Financial Management System", pageNumber, generated);
+        float footerWidth = font.getStringWidth(footerText) / 1000 * 8;
+        float centerX = PDRectangle.A4.getWidth() / 2;
+        cs.beginText();
+        cs.newLineAtOffset(centerX - footerWidth / 2, 20);
+        cs.showText(footerText);
+        cs.endText();
     }
 
     private static String padRight(String s, int width) {
@@ -262,16 +297,15 @@ public final class PdfReportRenderer {
         info.setCreator("FIN Application v1.0");
     }
 
-    private static void addTitlePage(PDDocument document, PDPage page, Company company, FiscalPeriod period, String title) throws IOException {
-        document.addPage(page);
-        try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+    private static void addTitlePage(PdfReportDocument pdf, PDPage page, Company company, FiscalPeriod period, String title) throws IOException {
+        try (PDPageContentStream cs = new PDPageContentStream(pdf.getDocument(), page)) {
             float yPosition = PDRectangle.A4.getHeight() - 100;
             float centerX = PDRectangle.A4.getWidth() / 2;
 
             // Title
             cs.beginText();
-            cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 20);
-            float titleWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(title) / 1000 * 20;
+            cs.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 20);
+            float titleWidth = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(title) / 1000 * 20;
             cs.newLineAtOffset(centerX - titleWidth / 2, yPosition);
             cs.showText(title);
             cs.endText();
@@ -281,9 +315,9 @@ public final class PdfReportRenderer {
             // Company name
             if (company != null) {
                 cs.beginText();
-                cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
+                cs.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
                 String companyName = company.getName();
-                float companyWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(companyName) / 1000 * 14;
+                float companyWidth = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(companyName) / 1000 * 14;
                 cs.newLineAtOffset(centerX - companyWidth / 2, yPosition);
                 cs.showText(companyName);
                 cs.endText();
@@ -293,8 +327,8 @@ public final class PdfReportRenderer {
                 if (company.getRegistrationNumber() != null) {
                     String regText = "Registration Number: " + company.getRegistrationNumber();
                     cs.beginText();
-                    cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
-                    float regWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA).getStringWidth(regText) / 1000 * 12;
+                    cs.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 12);
+                    float regWidth = pdf.font(Standard14Fonts.FontName.HELVETICA).getStringWidth(regText) / 1000 * 12;
                     cs.newLineAtOffset(centerX - regWidth / 2, yPosition);
                     cs.showText(regText);
                     cs.endText();
@@ -312,8 +346,8 @@ public final class PdfReportRenderer {
                 );
 
                 cs.beginText();
-                cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
-                float periodWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(periodText) / 1000 * 12;
+                cs.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
+                float periodWidth = pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(periodText) / 1000 * 12;
                 cs.newLineAtOffset(centerX - periodWidth / 2, yPosition - 15);
                 cs.showText(periodText);
                 cs.endText();
@@ -324,11 +358,13 @@ public final class PdfReportRenderer {
             // Generation date
             String genDateText = "Generated: " + java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("dd MMMM yyyy"));
             cs.beginText();
-            cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-            float genWidth = new PDType1Font(Standard14Fonts.FontName.HELVETICA).getStringWidth(genDateText) / 1000 * 10;
+            cs.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 10);
+            float genWidth = pdf.font(Standard14Fonts.FontName.HELVETICA).getStringWidth(genDateText) / 1000 * 10;
             cs.newLineAtOffset(centerX - genWidth / 2, yPosition);
             cs.showText(genDateText);
             cs.endText();
+
+            addFooter(pdf, cs, pdf.getPageCount());
         }
     }
 
@@ -0,0 +1,118 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.reporting;
+
+import fin.entity.Account;
+import fin.entity.Company;
+import fin.entity.FiscalPeriod;
+import fin.repository.AccountPeriodBalanceRepository.BalanceDelta;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Data read once and shared by every text report of one company and fiscal period: the
+ * company, the period, the chart of accounts (ordered by account code), each account's
+ * debit/credit totals for the period and the totals brought forward from earlier periods.
+ * Immutable, so the reports of a package can be built from it concurrently.
+ */
+public class ReportContext {
+
+    private final Long companyId;
+    private final Long fiscalPeriodId;
+    private final Company company;
+    private final FiscalPeriod period;
+    private final List<Account> accounts;
+    private final Map<Long, BalanceDelta> periodTotals;
+    private final Map<Long, BalanceDelta> openingTotals;
+
+    public ReportContext(Long companyId, Long fiscalPeriodId, Company company, FiscalPeriod period,
+                         List<Account> accounts, Map<Long, BalanceDelta> periodTotals,
+                         Map<Long, BalanceDelta> openingTotals) {
+        this.companyId = companyId;
+        this.fiscalPeriodId = fiscalPeriodId;
+        this.company = company;
+        this.period = period;
+        this.accounts = List.copyOf(accounts);
+        this.periodTotals = Map.copyOf(periodTotals);
+        this.openingTotals = Map.copyOf(openingTotals);
+    }
+
+    public Long getCompanyId() { return companyId; }
+    public Long getFiscalPeriodId() { return fiscalPeriodId; }
+    public Company getCompany() { return company; }
+    public FiscalPeriod getPeriod() { return period; }
+    public List<Account> getAccounts() { return accounts; }
+
+    /**
+     * Accounts whose code starts with the prefix, in the order they were loaded (by account code).
+     */
+    public List<Account> accountsStartingWith(String prefix) {
+        return accounts.stream()
+            .filter(account -> account.getAccountCode() != null && account.getAccountCode().startsWith(prefix))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether any journal lines were posted to the account in the period.
+     */
+    public boolean hasLines(Account account) {
+        return periodTotals.containsKey(account.getId());
+    }
+
+    /**
+     * Debits minus credits posted to the account in the period; zero when it has no lines.
+     */
+    public BigDecimal netBalance(Account account) {
+        BalanceDelta totals = periodTotals.get(account.getId());
+        if (totals == null) {
+            return BigDecimal.ZERO;
+        }
+        return totals.getDebitTotal().subtract(totals.getCreditTotal());
+    }
+
+    /**
+     * Debits minus credits brought forward from the periods that ended before this one; zero
+     * when nothing was posted to the account earlier.
+     */
+    public BigDecimal openingBalance(Account account) {
+        BalanceDelta totals = openingTotals.get(account.getId());
+        if (totals == null) {
+            return BigDecimal.ZERO;
+        }
+        return totals.getDebitTotal().subtract(totals.getCreditTotal());
+    }
+
+    /**
+     * Opening balance plus the period's net movement.
+     */
+    public BigDecimal closingBalance(Account account) {
+        return openingBalance(account).add(netBalance(account));
+    }
+}
@@ -0,0 +1,469 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.reporting;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates report exports as background jobs so servlet threads are not held while a
+ * PDF, Excel or CSV file is built.
+ *
+ * Jobs run on a bounded worker pool. Each company has its own queue and workers take
+ * the next job from the companies in turn, so one company exporting many reports cannot
+ * starve the others. A second request for the same report (company, fiscal period,
+ * report type and format) while the first is still queued or running is given the
+ * existing job. Finished files are written to local disk and deleted, together with
+ * their job, once the retention period has passed.
+ *
+ * SINGLE RESPONSIBILITY: Scheduling, storing and expiring asynchronous report exports
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReportJobService.class.getName());
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final FinancialReportingService reportingService;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService cleaner;
+    private final Path storageDir;
+    private final Duration retention;
+    private final int maxQueuedPerCompany;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> activeJobsByKey = new ConcurrentHashMap<>();
+
+    // Per-company queues, served round-robin; guarded by queueLock
+    private final Object queueLock = new Object();
+    private final Map<Long, Deque<ReportJob>> queuedByCompany = new HashMap<>();
+    private final Deque<Long> companyTurns = new ArrayDeque<>();
+
+    public ReportJobService(FinancialReportingService reportingService,
+                            @Value("${fin.reports.jobs.workers:4}") int workerCount,
+                            @Value("${fin.reports.jobs.max-queued-per-company:20}") int maxQueuedPerCompany,
+                            @Value("${fin.reports.jobs.retention-minutes:60}") long retentionMinutes,
+                            @Value("${fin.reports.jobs.storage-dir:${java.io.tmpdir}/fin-report-jobs}") String storageDir) {
+        this.reportingService = reportingService;
+        this.maxQueuedPerCompany = Math.max(1, maxQueuedPerCompany);
+        this.retention = Duration.ofMinutes(Math.max(1, retentionMinutes));
+        this.storageDir = Paths.get(storageDir);
+
+        int threads = Math.max(1, workerCount);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "report-job-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMinutes = Math.max(1, this.retention.toMinutes() / 4);
+        this.cleaner.scheduleWithFixedDelay(this::evictExpiredJobs, sweepMinutes, sweepMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Queue a report export. If the same report is already queued or running for the company,
+     * that job is returned instead of generating the report twice.
+     *
+     * @throws IllegalStateException when the company already has the maximum number of queued jobs
+     */
+    public ReportJob submit(Long companyId, Long fiscalPeriodId, ReportType reportType, ReportFormat format) {
+        if (companyId == null || fiscalPeriodId == null) {
+            throw new IllegalArgumentException("Company ID and fiscal period ID are required");
+        }
+        if (reportType == null || format == null) {
+            throw new IllegalArgumentException("Report type and format are required");
+        }
+
+        String key = companyId + ":" + fiscalPeriodId + ":" + reportType + ":" + format;
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, companyId, fiscalPeriodId, reportType, format);
+        ReportJob existing = activeJobsByKey.putIfAbsent(key, job);
+        if (existing != null) {
+            return existing;
+        }
+
+        synchronized (queueLock) {
+            Deque<ReportJob> queue = queuedByCompany.computeIfAbsent(companyId, id -> new ArrayDeque<>());
+            if (queue.size() >= maxQueuedPerCompany) {
+                activeJobsByKey.remove(key, job);
+                throw new IllegalStateException("Company " + companyId + " already has " + queue.size()
+                                                + " report jobs queued");
+            }
+            if (queue.isEmpty()) {
+                companyTurns.addLast(companyId);
+            }
+            queue.addLast(job);
+        }
+        jobs.put(job.getJobId(), job);
+
+        // One worker turn per queued job; the turn runs whichever company is next, not necessarily this one
+        workers.execute(this::runNextJob);
+        return job;
+    }
+
+    /**
+     * Look up a job by ID, scoped to the company that owns it.
+     */
+    public Optional<ReportJob> getJob(Long companyId, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.getCompanyId().equals(companyId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Generated file of a completed job.
+     *
+     * @throws IllegalStateException when the job has not completed or its file has expired
+     */
+    public Path getResultFile(ReportJob job) {
+        Path file = job.getFile();
+        if (job.getStatus() != ReportJob.Status.COMPLETED || file == null || !Files.exists(file)) {
+            throw new IllegalStateException("Report job " + job.getJobId() + " has no result available");
+        }
+        return file;
+    }
+
+    private void runNextJob() {
+        ReportJob job;
+        synchronized (queueLock) {
+            Long companyId = companyTurns.pollFirst();
+            if (companyId == null) {
+                return;
+            }
+            Deque<ReportJob> queue = queuedByCompany.get(companyId);
+            job = queue.pollFirst();
+            if (queue.isEmpty()) {
+                queuedByCompany.remove(companyId);
+            } else {
+                companyTurns.addLast(companyId);
+            }
+        }
+
+        job.start();
+        Path target = storageDir.resolve(job.getJobId() + "." + job.getFormat().getExtension());
+        Path partial = storageDir.resolve(job.getJobId() + PARTIAL_SUFFIX);
+        try {
+            Files.createDirectories(storageDir);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                generate(job, out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(target, Files.size(target));
+            LOGGER.info("Report job " + job.getJobId() + " completed: " + job.getReportType() + " " + job.getFormat()
+                        + " for company " + job.getCompanyId() + " (" + job.getSizeBytes() + " bytes)");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Report job " + job.getJobId() + " failed", e);
+            deleteQuietly(partial);
+            job.fail(e.getMessage());
+        } finally {
+            activeJobsByKey.remove(job.getKey(), job);
+        }
+    }
+
+    private void generate(ReportJob job, OutputStream out) throws SQLException, IOException {
+        Long companyId = job.getCompanyId();
+        Long fiscalPeriodId = job.getFiscalPeriodId();
+        switch (job.getReportType()) {
+            case TRIAL_BALANCE:
+                write(out, job.getFormat(),
+                    () -> reportingService.exportTrialBalanceToPDF(companyId, fiscalPeriodId),
+                    () -> reportingService.exportTrialBalanceToExcel(companyId, fiscalPeriodId),
+                    () -> reportingService.exportTrialBalanceToCSV(companyId, fiscalPeriodId));
+                break;
+            case INCOME_STATEMENT:
+                write(out, job.getFormat(),
+                    () -> reportingService.exportIncomeStatementToPDF(companyId, fiscalPeriodId),
+                    () -> reportingService.exportIncomeStatementToExcel(companyId, fiscalPeriodId),
+                    () -> reportingService.exportIncomeStatementToCSV(companyId, fiscalPeriodId));
+                break;
+            case BALANCE_SHEET:
+                write(out, job.getFormat(),
+                    () -> reportingService.exportBalanceSheetToPDF(companyId, fiscalPeriodId),
+                    () -> reportingService.exportBalanceSheetToExcel(companyId, fiscalPeriodId),
+                    () -> reportingService.exportBalanceSheetToCSV(companyId, fiscalPeriodId));
+                break;
+            case GENERAL_LEDGER:
+                // Large reports are written straight to the file
+                if (job.getFormat() == ReportFormat.PDF) {
+                    reportingService.writeGeneralLedgerToPDF(companyId, fiscalPeriodId, out);
+                } else if (job.getFormat() == ReportFormat.EXCEL) {
+                    reportingService.writeGeneralLedgerToExcel(companyId, fiscalPeriodId, out);
+                } else {
+                    writeText(out, reportingService.exportGeneralLedgerToCSV(companyId, fiscalPeriodId));
+                }
+                break;
+            case CASHBOOK:
+                if (job.getFormat() == ReportFormat.PDF) {
+                    reportingService.writeCashbookToPDF(companyId, fiscalPeriodId, out);
+                } else if (job.getFormat() == ReportFormat.EXCEL) {
+                    reportingService.writeCashbookToExcel(companyId, fiscalPeriodId, out);
+                } else {
+                    writeText(out, reportingService.exportCashbookToCSV(companyId, fiscalPeriodId));
+                }
+                break;
+            case AUDIT_TRAIL:
+                if (job.getFormat() == ReportFormat.PDF) {
+                    reportingService.writeAuditTrailToPDF(companyId, fiscalPeriodId, out);
+                } else {
+                    write(out, job.getFormat(),
+                        () -> reportingService.exportAuditTrailToPDF(companyId, fiscalPeriodId),
+                        () -> reportingService.exportAuditTrailToExcel(companyId, fiscalPeriodId),
+                        () -> reportingService.exportAuditTrailToCSV(companyId, fiscalPeriodId));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported report type: " + job.getReportType());
+        }
+    }
+
+    private static void write(OutputStream out, ReportFormat format, BinaryExport pdf, BinaryExport excel,
+                              TextExport csv) throws SQLException, IOException {
+        switch (format) {
+            case PDF:
+                out.write(pdf.export());
+                break;
+            case EXCEL:
+                out.write(excel.export());
+                break;
+            case CSV:
+                writeText(out, csv.export());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
+    private static void writeText(OutputStream out, String content) throws IOException {
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Drop finished jobs past the retention period and delete their files, including files
+     * left behind by jobs from before a restart.
+     */
+    void evictExpiredJobs() {
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            jobs.values().removeIf(job -> {
+                if (job.getFinishedAt() == null || !job.getFinishedAt().isBefore(cutoff)) {
+                    return false;
+                }
+                if (job.getFile() != null) {
+                    deleteQuietly(job.getFile());
+                }
+                return true;
+            });
+
+            if (Files.isDirectory(storageDir)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(storageDir)) {
+                    for (Path file : files) {
+                        if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                            deleteQuietly(file);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never propagate: an exception would cancel the scheduled sweep
+            LOGGER.log(Level.WARNING, "Failed to clean up report job files in " + storageDir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not delete " + file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        cleaner.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface BinaryExport {
+        byte[] export() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface TextExport {
+        String export() throws SQLException;
+    }
+
+    /**
+     * Reports that can be generated as a job.
+     */
+    public enum ReportType {
+        TRIAL_BALANCE("TrialBalance"),
+        INCOME_STATEMENT("IncomeStatement"),
+        BALANCE_SHEET("BalanceSheet"),
+        GENERAL_LEDGER("GeneralLedger"),
+        CASHBOOK("Cashbook"),
+        AUDIT_TRAIL("AuditTrail");
+
+        private final String fileNamePrefix;
+
+        ReportType(String fileNamePrefix) {
+            this.fileNamePrefix = fileNamePrefix;
+        }
+
+        public String getFileNamePrefix() { return fileNamePrefix; }
+    }
+
+    /**
+     * Export formats, with the file extension and content type of the generated file.
+     */
+    public enum ReportFormat {
+        PDF("pdf", "application/pdf"),
+        EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        CSV("csv", "text/plain");
+
+        private final String extension;
+        private final String contentType;
+
+        ReportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() { return extension; }
+        public String getContentType() { return contentType; }
+    }
+
+    /**
+     * State of one report job. Updated by the worker that runs it and read by pollers.
+     */
+    public static class ReportJob {
+
+        public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+        private final String jobId;
+        private final String key;
+        private final Long companyId;
+        private final Long fiscalPeriodId;
+        private final ReportType reportType;
+        private final ReportFormat format;
+        private final Instant submittedAt = Instant.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Path file;
+        private volatile long sizeBytes;
+        private volatile String error;
+
+        ReportJob(String jobId, String key, Long companyId, Long fiscalPeriodId,
+                  ReportType reportType, ReportFormat format) {
+            this.jobId = jobId;
+            this.key = key;
+            this.companyId = companyId;
+            this.fiscalPeriodId = fiscalPeriodId;
+            this.reportType = reportType;
+            this.format = format;
+        }
+
+        void start() {
+            this.startedAt = Instant.now();
+            this.status = Status.RUNNING;
+        }
+
+        void complete(Path file, long sizeBytes) {
+            this.file = file;
+            this.sizeBytes = sizeBytes;
+            this.finishedAt = Instant.now();
+            this.status = Status.COMPLETED;
+        }
+
+        void fail(String message) {
+            this.error = message;
+            this.finishedAt = Instant.now();
+            this.status = Status.FAILED;
+        }
+
+        String getKey() { return key; }
+        Path getFile() { return file; }
+
+        public String getJobId() { return jobId; }
+        public Long getCompanyId() { return companyId; }
+        public Long getFiscalPeriodId() { return fiscalPeriodId; }
+        public ReportType getReportType() { return reportType; }
+        public ReportFormat getFormat() { return format; }
+        public Status getStatus() { return status; }
+        public Instant getSubmittedAt() { return submittedAt; }
+        public Instant getStartedAt() { return startedAt; }
+        public Instant getFinishedAt() { return finishedAt; }
+        public long getSizeBytes() { return sizeBytes; }
+        public String getError() { return error; }
+
+        /**
+         * Download file name, e.g. TrialBalance_Company1_Period2.pdf
+         */
+        public String getFileName() {
+            return String.format("%s_Company%d_Period%d.%s",
+                reportType.getFileNamePrefix(), companyId, fiscalPeriodId, format.getExtension());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.reporting;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Builds the combined financial report package.
+ *
+ * The data every section needs (company, fiscal period, accounts, per-account period
+ * totals and opening balances) is read once into a {@link ReportContext}. The sections are then built
+ * concurrently on a bounded pool and joined in a fixed order, so the package takes about
+ * as long as its slowest section and its content does not depend on which finished first.
+ *
+ * SINGLE RESPONSIBILITY: Concurrent assembly of the financial report package
+ */
+@Service
+public class ReportPackageService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReportPackageService.class.getName());
+
+    private static final String PACKAGE_HEADER = "FINANCIAL REPORT PACKAGE\n========================\n\n";
+    private static final String SECTION_SEPARATOR = "\n\n";
+
+    private final FinancialReportingService reportingService;
+    private final ExecutorService workers;
+
+    public ReportPackageService(FinancialReportingService reportingService,
+                                @Value("${fin.reports.package.workers:5}") int workerCount) {
+        this.reportingService = reportingService;
+
+        int threads = Math.max(1, workerCount);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "report-package-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Build the trial balance, income statement, balance sheet, cashbook and audit trail
+     * for a company and fiscal period as one text package.
+     *
+     * @throws IllegalArgumentException if the fiscal period does not exist
+     * @throws SQLException if a section fails
+     */
+    public ReportPackage build(Long companyId, Long fiscalPeriodId) throws SQLException {
+        long packageStart = System.nanoTime();
+
+        ReportContext context = reportingService.loadReportContext(companyId, fiscalPeriodId);
+        List<SectionTiming> timings = new ArrayList<>();
+        timings.add(new SectionTiming("shared-reads", elapsedMillis(packageStart)));
+
+        // Submission order is assembly order
+        List<Section> sections = List.of(
+            new Section("trial-balance", () -> reportingService.exportTrialBalanceToCSV(companyId, fiscalPeriodId)),
+            new Section("income-statement", () -> reportingService.generateIncomeStatement(context)),
+            new Section("balance-sheet", () -> reportingService.generateBalanceSheet(context)),
+            new Section("cashbook", () -> reportingService.generateCashbook(context)),
+            new Section("audit-trail", () -> reportingService.generateAuditTrail(context)));
+
+        List<Future<SectionResult>> futures = new ArrayList<>();
+        for (Section section : sections) {
+            futures.add(workers.submit(() -> {
+                long start = System.nanoTime();
+                String content = section.builder.build();
+                return new SectionResult(content, new SectionTiming(section.name, elapsedMillis(start)));
+            }));
+        }
+
+        StringBuilder content = new StringBuilder(PACKAGE_HEADER);
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                SectionResult result = futures.get(i).get();
+                if (i > 0) {
+                    content.append(SECTION_SEPARATOR);
+                }
+                content.append(result.content);
+                timings.add(result.timing);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while building report package", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        long totalMillis = elapsedMillis(packageStart);
+        LOGGER.info("Built report package for company " + companyId + ", period " + fiscalPeriodId
+                    + " in " + totalMillis + " ms " + timings);
+        return new ReportPackage(content.toString(), timings, totalMillis);
+    }
+
+    private static SQLException unwrap(Throwable cause) {
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof IllegalArgumentException) {
+            throw (IllegalArgumentException) cause;
+        }
+        return new SQLException("Failed to build report package: " + cause.getMessage(), cause);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface SectionBuilder {
+        String build() throws SQLException;
+    }
+
+    private static final class Section {
+        private final String name;
+        private final SectionBuilder builder;
+
+        Section(String name, SectionBuilder builder) {
+            this.name = name;
+            this.builder = builder;
+        }
+    }
+
+    private static final class SectionResult {
+        private final String content;
+        private final SectionTiming timing;
+
+        SectionResult(String content, SectionTiming timing) {
+            this.content = content;
+            this.timing = timing;
+        }
+    }
+
+    /**
+     * Wall-clock time spent on one part of the package.
+     */
+    public static class SectionTiming {
+        private final String name;
+        private final long millis;
+
+        public SectionTiming(String name, long millis) {
+            this.name = name;
+            this.millis = millis;
+        }
+
+        public String getName() { return name; }
+        public long getMillis() { return millis; }
+
+        @Override
+        public String toString() {
+            return name + "=" + millis + "ms";
+        }
+    }
+
+    /**
+     * The assembled package text with the time taken by the shared reads, each section and the whole.
+     */
+    public static class ReportPackage {
+        private final String content;
+        private final List<SectionTiming> timings;
+        private final long totalMillis;
+
+        public ReportPackage(String content, List<SectionTiming> timings, long totalMillis) {
+            this.content = content;
+            this.timings = List.copyOf(timings);
+            this.totalMillis = totalMillis;
+        }
+
+        public String getContent() { return content; }
+        public List<SectionTiming> getTimings() { return timings; }
+        public long getTotalMillis() { return totalMillis; }
+    }
+}
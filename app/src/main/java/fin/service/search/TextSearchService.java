@@ -0,0 +1,104 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.search;
+
+import fin.dto.SearchHit;
+import fin.repository.TextSearchRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Company-wide search over bank transaction and journal entry text.
+ *
+ * Each selected source returns its own best {@code limit} hits (see {@link TextSearchRepository}
+ * for matching and ranking); the sources are then merged by score, newest first on ties.
+ */
+@Service
+public class TextSearchService {
+
+    public static final int MIN_TERM_LENGTH = 2;
+    public static final int DEFAULT_LIMIT = 25;
+    public static final int MAX_LIMIT = 200;
+
+    private static final Comparator<SearchHit> BY_RELEVANCE = Comparator
+        .comparingDouble(SearchHit::getScore).reversed()
+        .thenComparing(SearchHit::getDate, Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()));
+
+    private final TextSearchRepository textSearchRepository;
+
+    public TextSearchService(TextSearchRepository textSearchRepository) {
+        this.textSearchRepository = textSearchRepository;
+    }
+
+    /**
+     * Search a company's transactions and/or journal entries.
+     *
+     * @param fiscalPeriodId restrict to one fiscal period, or null for all
+     * @param term search text of at least {@link #MIN_TERM_LENGTH} characters
+     * @param types sources to search; null or empty searches all
+     * @param limit maximum number of hits, capped at {@link #MAX_LIMIT}
+     * @return hits, best first
+     * @throws IllegalArgumentException if the term is too short or has no letters or digits
+     */
+    public List<SearchHit> search(Long companyId, Long fiscalPeriodId, String term, Set<SearchHit.Type> types, int limit) {
+        if (companyId == null) {
+            throw new IllegalArgumentException("Company ID is required");
+        }
+        String trimmed = term != null ? term.trim() : "";
+        if (trimmed.length() < MIN_TERM_LENGTH || !trimmed.matches("(?s).*[\\p{L}\\p{N}].*")) {
+            throw new IllegalArgumentException(
+                "Search term must have at least " + MIN_TERM_LENGTH + " characters, including a letter or digit");
+        }
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Set<SearchHit.Type> sources = types == null || types.isEmpty()
+            ? EnumSet.allOf(SearchHit.Type.class) : types;
+
+        List<SearchHit> hits = new ArrayList<>();
+        if (sources.contains(SearchHit.Type.BANK_TRANSACTION)) {
+            hits.addAll(textSearchRepository.searchBankTransactions(companyId, fiscalPeriodId, trimmed, cappedLimit));
+        }
+        if (sources.contains(SearchHit.Type.JOURNAL_ENTRY)) {
+            hits.addAll(textSearchRepository.searchJournalEntries(companyId, fiscalPeriodId, trimmed, cappedLimit));
+        }
+
+        hits.sort(BY_RELEVANCE);
+        return hits.size() > cappedLimit ? new ArrayList<>(hits.subList(0, cappedLimit)) : hits;
+    }
+
+    /**
+     * Whether searches are ranked with full-text and fuzzy matching on this database.
+     */
+    public boolean isRankedSearchAvailable() {
+        return textSearchRepository.getMode() == TextSearchRepository.Mode.RANKED;
+    }
+}
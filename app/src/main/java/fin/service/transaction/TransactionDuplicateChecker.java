@@ -28,11 +28,20 @@ package fin.service.transaction;
 
 import fin.entity.BankTransaction;
 import fin.repository.BankTransactionRepository;
+import fin.util.TransactionFingerprint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for detecting duplicate bank transactions during upload.
@@ -50,6 +59,9 @@ import java.math.BigDecimal;
  * <p>All 5 fields must match for a transaction to be considered a duplicate.
  * This ensures high accuracy while avoiding false positives.
  * 
+ * <p>For statement uploads, {@link #checkDuplicates(Long, List)} checks a whole batch at
+ * once using the persisted fingerprint of these fields (see {@link TransactionFingerprint}).
+ * 
  * @author Immaculate Nyoni
  * @since 2025-12-06
  */
@@ -57,6 +69,9 @@ import java.math.BigDecimal;
 public class TransactionDuplicateChecker {
     
     private static final Logger logger = LoggerFactory.getLogger(TransactionDuplicateChecker.class);
+
+    // Upper bound for fingerprints per IN list
+    private static final int FINGERPRINT_LOOKUP_CHUNK = 1000;
     
     private final BankTransactionRepository transactionRepository;
     
@@ -167,4 +182,127 @@ public class TransactionDuplicateChecker {
         
         return duplicate;
     }
+
+    /**
+     * Check a whole upload for duplicates.
+     * 
+     * <p>Each transaction is fingerprinted, existing matches for the upload's date range are
+     * loaded with one indexed query (per 1000 distinct fingerprints), and repeats within the
+     * upload itself are detected as well. The computed fingerprint is set on each transaction.
+     * 
+     * @param companyId Company the transactions belong to
+     * @param transactions Parsed transactions, in upload order
+     * @return duplicate status for each transaction, aligned with the input list
+     */
+    public BatchDuplicateResult checkDuplicates(Long companyId, List<BankTransaction> transactions) {
+        List<String> fingerprints = new ArrayList<>(transactions.size());
+        Set<String> distinct = new LinkedHashSet<>();
+        LocalDate fromDate = null;
+        LocalDate toDate = null;
+
+        for (BankTransaction transaction : transactions) {
+            String fingerprint = TransactionFingerprint.of(transaction);
+            transaction.setFingerprint(fingerprint);
+            fingerprints.add(fingerprint);
+            distinct.add(fingerprint);
+
+            LocalDate date = transaction.getTransactionDate();
+            if (date != null) {
+                fromDate = fromDate == null || date.isBefore(fromDate) ? date : fromDate;
+                toDate = toDate == null || date.isAfter(toDate) ? date : toDate;
+            }
+        }
+
+        Map<String, DuplicateMatch> existing = new HashMap<>();
+        if (companyId != null && fromDate != null) {
+            List<String> lookup = new ArrayList<>(distinct);
+            for (int from = 0; from < lookup.size(); from += FINGERPRINT_LOOKUP_CHUNK) {
+                List<String> chunk = lookup.subList(from, Math.min(from + FINGERPRINT_LOOKUP_CHUNK, lookup.size()));
+                for (Object[] row : transactionRepository.findFingerprintMatches(companyId, fromDate, toDate, chunk)) {
+                    existing.putIfAbsent((String) row[0],
+                        DuplicateMatch.existing(((Number) row[1]).longValue(), (LocalDateTime) row[2]));
+                }
+            }
+        }
+
+        List<DuplicateMatch> matches = new ArrayList<>(transactions.size());
+        Map<String, Integer> firstRowInUpload = new HashMap<>();
+        int duplicates = 0;
+        for (int i = 0; i < fingerprints.size(); i++) {
+            String fingerprint = fingerprints.get(i);
+            DuplicateMatch match = existing.get(fingerprint);
+            if (match == null) {
+                Integer firstRow = firstRowInUpload.putIfAbsent(fingerprint, i);
+                match = firstRow != null ? DuplicateMatch.withinUpload(firstRow) : null;
+            }
+            if (match != null) {
+                duplicates++;
+            }
+            matches.add(match);
+        }
+
+        logger.debug("Batch duplicate check for company {}: {} rows, {} distinct, {} existing matches, {} duplicates",
+            companyId, transactions.size(), distinct.size(), existing.size(), duplicates);
+        return new BatchDuplicateResult(matches);
+    }
+
+    /**
+     * Duplicate status of each transaction in a batch, by position.
+     */
+    public static class BatchDuplicateResult {
+        private final List<DuplicateMatch> matches;
+
+        BatchDuplicateResult(List<DuplicateMatch> matches) {
+            this.matches = matches;
+        }
+
+        public boolean isDuplicate(int index) {
+            return matches.get(index) != null;
+        }
+
+        /**
+         * @return the match for the transaction at index, or null if it is not a duplicate
+         */
+        public DuplicateMatch getMatch(int index) {
+            return matches.get(index);
+        }
+    }
+
+    /**
+     * What a duplicate transaction matched: an existing row, or an earlier row of the same upload.
+     */
+    public static class DuplicateMatch {
+        private final Long existingId;
+        private final LocalDateTime existingCreatedAt;
+        private final Integer firstRowInUpload;
+
+        private DuplicateMatch(Long existingId, LocalDateTime existingCreatedAt, Integer firstRowInUpload) {
+            this.existingId = existingId;
+            this.existingCreatedAt = existingCreatedAt;
+            this.firstRowInUpload = firstRowInUpload;
+        }
+
+        static DuplicateMatch existing(Long id, LocalDateTime createdAt) {
+            return new DuplicateMatch(id, createdAt, null);
+        }
+
+        static DuplicateMatch withinUpload(int firstRow) {
+            return new DuplicateMatch(null, null, firstRow);
+        }
+
+        public boolean isWithinUpload() { return firstRowInUpload != null; }
+        public Long getExistingId() { return existingId; }
+        public LocalDateTime getExistingCreatedAt() { return existingCreatedAt; }
+        public Integer getFirstRowInUpload() { return firstRowInUpload; }
+
+        /**
+         * Human-readable rejection detail.
+         */
+        public String describe() {
+            if (isWithinUpload()) {
+                return String.format("Duplicate of row %d in this upload", firstRowInUpload + 1);
+            }
+            return String.format("Duplicate of transaction ID %d (uploaded %s)", existingId, existingCreatedAt);
+        }
+    }
 }
@@ -1,15 +1,24 @@
 package fin.service.transaction;
 
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Context object providing additional information needed for parsing transactions.
+ *
+ * One context is created per document being parsed. Parsers are shared singleton beans, so any
+ * state they carry between lines of a document (pending multi-line transactions, detected
+ * statement period, running balance) lives here rather than on the parser. Documents parsed
+ * concurrently therefore never see each other's state.
  */
 public class TransactionParsingContext {
     private final LocalDate statementDate;
     private final String accountNumber;
     private final String statementPeriod;
     private final String sourceFile;
+    private final Map<Class<?>, Object> parserStates = new ConcurrentHashMap<>();
 
     private TransactionParsingContext(Builder builder) {
         this.statementDate = builder.statementDate;
@@ -34,6 +43,24 @@ public class TransactionParsingContext {
         return sourceFile;
     }
 
+    /**
+     * Get the per-document state of a parser, creating it on first use.
+     *
+     * @param parserType parser class owning the state
+     * @param initialState creates the state the first time the parser sees this document
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getParserState(Class<?> parserType, Supplier<T> initialState) {
+        return (T) parserStates.computeIfAbsent(parserType, type -> initialState.get());
+    }
+
+    /**
+     * Discard a parser's state for this document so the next line starts from scratch.
+     */
+    public void clearParserState(Class<?> parserType) {
+        parserStates.remove(parserType);
+    }
+
     public static class Builder {
         private LocalDate statementDate;
         private String accountNumber;
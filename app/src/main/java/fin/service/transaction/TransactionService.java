@@ -28,6 +28,7 @@ package fin.service.transaction;
 
 import fin.entity.BankTransaction;
 import fin.repository.BankTransactionRepository;
+import fin.repository.TextSearchRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -120,6 +121,8 @@ public class TransactionService {
      * Search transactions by details
      */
     public List<BankTransaction> searchTransactionsByDetails(Long companyId, String searchTerm) {
-        return bankTransactionRepository.findByCompanyIdAndDescriptionContainingIgnoreCase(companyId, searchTerm);
+        // Wildcards in the search text match literally, as they did with the derived Containing query
+        String escaped = searchTerm != null ? TextSearchRepository.escapeLike(searchTerm) : null;
+        return bankTransactionRepository.findByCompanyIdAndDescriptionContainingIgnoreCase(companyId, escaped);
     }
 }
\ No newline at end of file
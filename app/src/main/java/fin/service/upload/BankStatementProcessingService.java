@@ -12,6 +12,8 @@ import fin.service.parser.*;
 import fin.service.CompanyService;
 import fin.service.transaction.TransactionDuplicateChecker;
 import fin.service.FiscalPeriodBoundaryValidator;
+import fin.service.FiscalPeriodIndex;
+import fin.service.FiscalPeriodIndexService;
 import fin.validation.BankTransactionValidator;
 import fin.validation.ValidationResult;
 import org.slf4j.Logger;
@@ -41,12 +43,12 @@ public class BankStatementProcessingService {
 
     // Expose a debug extraction helper for controllers/tests without exposing the extractor field publicly
     public fin.dto.DocumentExtractionDebugResponse debugExtractFromFile(java.io.File pdfFile) throws java.io.IOException {
-        java.util.List<String> lines = textExtractor.parseDocument(pdfFile);
-        String raw = textExtractor.getStatementPeriod();
+        DocumentTextExtractor.ExtractedDocument document = textExtractor.extractDocument(pdfFile);
+        String raw = document.getStatementPeriod();
         DocumentTextExtractor.StatementPeriod period = textExtractor.parseStatementPeriod(raw);
         return new fin.dto.DocumentExtractionDebugResponse(
-            lines,
-            textExtractor.getAccountNumber(),
+            document.getLines(),
+            document.getAccountNumber(),
             raw,
             period != null ? period.getStart() : null,
             period != null ? period.getEnd() : null,
@@ -59,6 +61,7 @@ public class BankStatementProcessingService {
     private final CompanyService companyService;
     private final TransactionDuplicateChecker duplicateChecker;
     private final FiscalPeriodBoundaryValidator fiscalPeriodValidator;
+    private final FiscalPeriodIndexService fiscalPeriodIndexService;
 
     // Date constants for fiscal year handling
     private static final int DEFAULT_FISCAL_YEAR = 2025;
@@ -73,6 +76,7 @@ public class BankStatementProcessingService {
             CompanyService companyService,
             TransactionDuplicateChecker duplicateChecker,
             FiscalPeriodBoundaryValidator fiscalPeriodValidator,
+            FiscalPeriodIndexService fiscalPeriodIndexService,
             StandardBankTabularParser standardBankParser,
             AbsaBankParser absaBankParser,
             FnbBankParser fnbBankParser,
@@ -85,6 +89,7 @@ public class BankStatementProcessingService {
         this.companyService = companyService;
         this.duplicateChecker = duplicateChecker;
         this.fiscalPeriodValidator = fiscalPeriodValidator;
+        this.fiscalPeriodIndexService = fiscalPeriodIndexService;
         this.parsers = Arrays.asList(standardBankParser, absaBankParser, fnbBankParser, creditParser, serviceFeeParser);
     }
 
@@ -93,11 +98,11 @@ public class BankStatementProcessingService {
      */
     public List<BankTransaction> processStatement(String pdfPath, Company company) {
         try {
-            List<String> lines = textExtractor.parseDocument(new File(pdfPath));
-            List<BankTransaction> transactions = processLines(lines, pdfPath, company);
+            DocumentTextExtractor.ExtractedDocument document = textExtractor.extractDocument(new File(pdfPath));
+            List<BankTransaction> transactions = processDocument(document, pdfPath, company);
 
             // Update each transaction with metadata from the document
-            // String accountNumber = textExtractor.getAccountNumber();
+            // String accountNumber = document.getAccountNumber();
 
             // Note: accountNumber is extracted but not stored in current schema
             // for (BankTransaction transaction : transactions) {
@@ -109,7 +114,7 @@ public class BankStatementProcessingService {
             for (BankTransaction transaction : transactions) {
                 ValidationResult validationResult = validator.validate(transaction);
                 if (validationResult.isValid()) {
-                    validTransactions.add(transactionRepository.save(transaction));
+                    validTransactions.add(transaction);
                 } else {
                     // Log validation errors
                     System.err.println("Invalid transaction: " + transaction.getDetails());
@@ -118,7 +123,8 @@ public class BankStatementProcessingService {
                 }
             }
 
-            return validTransactions;
+            // One transaction for the whole statement, so inserts are sent in JDBC batches
+            return transactionRepository.saveAll(validTransactions);
         } catch (IOException e) {
             throw new RuntimeException("Failed to extract text from PDF: " + pdfPath, e);
         }
@@ -140,11 +146,20 @@ public class BankStatementProcessingService {
      * This method is primarily used for testing.
      */
     public List<BankTransaction> processLines(List<String> lines, String sourceName, Company company) {
+        return processDocument(textExtractor.extractMetadata(lines), sourceName, company);
+    }
+
+    /**
+     * Parse an extracted document into transactions. All parser state for the document lives
+     * in its own TransactionParsingContext, so documents may be processed concurrently.
+     */
+    private List<BankTransaction> processDocument(DocumentTextExtractor.ExtractedDocument document,
+                                                  String sourceName, Company company) {
         // Create parsing context
-        TransactionParsingContext context = createParsingContext(sourceName);
+        TransactionParsingContext context = createParsingContext(document, sourceName);
 
         // Parse transactions using registered parsers
-        List<ParsedTransaction> parsedTransactions = parseTransactions(lines, context);
+        List<ParsedTransaction> parsedTransactions = parseTransactions(document.getLines(), context);
 
         // Convert to BankTransaction entities and validate
         List<BankTransaction> transactions = convertToEntities(parsedTransactions, company);
@@ -158,12 +173,12 @@ public class BankStatementProcessingService {
      * Used for batch processing and importing.
      */
     public List<BankTransaction> processAndSaveTransactions(List<BankTransaction> transactions) {
-        List<BankTransaction> savedTransactions = new ArrayList<>();
+        List<BankTransaction> validTransactions = new ArrayList<>();
 
         for (BankTransaction transaction : transactions) {
             ValidationResult validationResult = validator.validate(transaction);
             if (validationResult.isValid()) {
-                savedTransactions.add(transactionRepository.save(transaction));
+                validTransactions.add(transaction);
             } else {
                 // Log validation errors
                 System.err.println("Invalid transaction: " + transaction.getDetails());
@@ -172,12 +187,12 @@ public class BankStatementProcessingService {
             }
         }
 
-        return savedTransactions;
+        return transactionRepository.saveAll(validTransactions);
     }
 
-    private TransactionParsingContext createParsingContext(String pdfPath) {
+    private TransactionParsingContext createParsingContext(DocumentTextExtractor.ExtractedDocument document, String pdfPath) {
         // Extract statement date from the PDF content
-        LocalDate statementDate = extractStatementDateFromPdf();
+        LocalDate statementDate = extractStatementDateFromPdf(document.getStatementPeriod());
         if (statementDate == null) {
             // Fallback to a date in the correct fiscal year (2025)
             statementDate = LocalDate.of(DEFAULT_FISCAL_YEAR, MID_YEAR_MONTH, MID_YEAR_DAY); // Mid fiscal year
@@ -185,6 +200,8 @@ public class BankStatementProcessingService {
 
         return new TransactionParsingContext.Builder()
             .statementDate(statementDate)
+            .accountNumber(document.getAccountNumber())
+            .statementPeriod(document.getStatementPeriod())
             .sourceFile(pdfPath)
             .build();
     }
@@ -193,8 +210,7 @@ public class BankStatementProcessingService {
      * Extract statement date from the PDF content.
      * Parses the statement period to get the appropriate year.
      */
-    private LocalDate extractStatementDateFromPdf() {
-        String statementPeriod = textExtractor.getStatementPeriod();
+    private LocalDate extractStatementDateFromPdf(String statementPeriod) {
         if (statementPeriod == null || statementPeriod.isEmpty()) {
             return null;
         }
@@ -280,14 +296,14 @@ public class BankStatementProcessingService {
         // Finalize any pending transactions from StandardBank parser
         if (standardParser != null) {
             try {
-                ParsedTransaction finalTransaction = ((StandardBankTabularParser) standardParser).finalizeParsing();
+                ParsedTransaction finalTransaction = standardParser.finalizeParsing(context);
                 if (finalTransaction != null) {
                     results.add(finalTransaction);
                 }
             } catch (Exception e) {
                 System.err.println("Failed to finalize pending transaction - " + e.getMessage());
             }
-            ((StandardBankTabularParser) standardParser).reset();
+            standardParser.reset(context);
         }
 
         return results;
@@ -295,6 +311,8 @@ public class BankStatementProcessingService {
 
     private List<BankTransaction> convertToEntities(List<ParsedTransaction> parsedTransactions, Company company) {
         List<BankTransaction> transactions = new ArrayList<>();
+        // Resolve periods from the company's cached index: one load per company, O(log n) per row
+        FiscalPeriodIndex fiscalPeriods = fiscalPeriodIndexService.getIndex(company.getId());
 
         for (ParsedTransaction parsed : parsedTransactions) {
             BankTransaction transaction = new BankTransaction();
@@ -312,7 +330,7 @@ public class BankStatementProcessingService {
 
             // Determine fiscal period based on transaction date (only if not already set)
             if (transaction.getFiscalPeriodId() == null) {
-                FiscalPeriod fiscalPeriod = findFiscalPeriodForDate(company.getId(), parsed.getDate());
+                FiscalPeriod fiscalPeriod = findFiscalPeriodForDate(fiscalPeriods, parsed.getDate());
                 if (fiscalPeriod != null) {
                     transaction.setFiscalPeriodId(fiscalPeriod.getId());
                 }
@@ -340,14 +358,10 @@ public class BankStatementProcessingService {
     /**
      * Find the fiscal period that contains the given transaction date
      */
-    private FiscalPeriod findFiscalPeriodForDate(Long companyId, LocalDate transactionDate) {
-        List<FiscalPeriod> fiscalPeriods = fiscalPeriodRepository.findByCompanyIdOrderByStartDateDesc(companyId);
-
-        for (FiscalPeriod period : fiscalPeriods) {
-            if (!transactionDate.isBefore(period.getStartDate()) &&
-                !transactionDate.isAfter(period.getEndDate())) {
-                return period;
-            }
+    private FiscalPeriod findFiscalPeriodForDate(FiscalPeriodIndex fiscalPeriods, LocalDate transactionDate) {
+        FiscalPeriod period = fiscalPeriods.findContaining(transactionDate);
+        if (period != null) {
+            return period;
         }
 
         // No matching fiscal period found
@@ -414,10 +428,11 @@ public class BankStatementProcessingService {
 
             try {
                 logger.info("Starting text extraction for file: {}", file.getOriginalFilename());
-                List<String> lines = textExtractor.parseDocument(tempFile);
+                DocumentTextExtractor.ExtractedDocument document = textExtractor.extractDocument(tempFile);
+                List<String> lines = document.getLines();
                 logger.info("Text extraction completed successfully: {} lines extracted", lines.size());
 
-                List<BankTransaction> transactions = processLines(lines, file.getOriginalFilename(), company);
+                List<BankTransaction> transactions = processDocument(document, file.getOriginalFilename(), company);
                 logger.info("Line processing completed: {} transactions parsed", transactions.size());
 
                 // Validate and save each transaction with duplicate and fiscal period checks
@@ -428,20 +443,23 @@ public class BankStatementProcessingService {
                 int duplicateCount = 0;
                 int outOfPeriodCount = 0;
                 int validationErrorCount = 0;
+
+                // One fingerprint lookup for the whole upload instead of a query per row
+                TransactionDuplicateChecker.BatchDuplicateResult duplicates =
+                    duplicateChecker.checkDuplicates(companyId, transactions);
                 
-                for (BankTransaction transaction : transactions) {
+                for (int row = 0; row < transactions.size(); row++) {
+                    BankTransaction transaction = transactions.get(row);
+
                     // Set fiscal period if provided BEFORE validation
                     if (fiscalPeriodId != null) {
                         transaction.setFiscalPeriodId(fiscalPeriodId);
                     }
 
-                    // Check for duplicate
-                    if (duplicateChecker.isDuplicate(transaction)) {
+                    // Check for duplicate (against existing rows and earlier rows of this upload)
+                    if (duplicates.isDuplicate(row)) {
                         duplicateCount++;
-                        BankTransaction existing = duplicateChecker.findDuplicate(transaction);
-                        String detail = existing != null 
-                            ? String.format("Duplicate of transaction ID %d (uploaded %s)", existing.getId(), existing.getCreatedAt())
-                            : "Duplicate transaction already exists in database";
+                        String detail = duplicates.getMatch(row).describe();
                         
                         rejectedTransactions.add(new RejectedTransaction(
                             transaction.getTransactionDate(),
@@ -480,7 +498,7 @@ public class BankStatementProcessingService {
                     // Standard validation
                     ValidationResult validationResult = validator.validate(transaction);
                     if (validationResult.isValid()) {
-                        validTransactions.add(transactionRepository.save(transaction));
+                        validTransactions.add(transaction);
                     } else {
                         // Collect validation errors
                         validationErrorCount++;
@@ -501,11 +519,14 @@ public class BankStatementProcessingService {
                     }
                 }
 
+                // One transaction for the whole statement, so inserts are sent in JDBC batches
+                validTransactions = transactionRepository.saveAll(validTransactions);
+
                 logger.info("Processing completed: {} valid transactions saved, {} duplicates, {} out-of-period, {} validation errors", 
                     validTransactions.size(), duplicateCount, outOfPeriodCount, validationErrorCount);
 
                 // Parse statement period and include metadata
-                String rawStatementPeriod = textExtractor.getStatementPeriod();
+                String rawStatementPeriod = document.getStatementPeriod();
                 DocumentTextExtractor.StatementPeriod parsedPeriod = textExtractor.parseStatementPeriod(rawStatementPeriod);
 
                 // If fiscalPeriodId is provided, perform overlap checks
@@ -26,7 +26,7 @@
 
 package fin.service.upload;
 
-import fin.util.TesseractConfigUtil;
+import fin.util.TesseractEnginePool;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
@@ -34,7 +34,9 @@ import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import fin.config.PdfBoxConfigurator;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.awt.image.BufferedImage;
@@ -42,6 +44,15 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,23 +60,45 @@ import java.util.regex.Pattern;
  * Extracts text content from PDF documents for bank statement processing.
  * Uses Apache PDFBox for text-based PDFs with OCR fallback for image-based PDFs.
  * Implements hybrid extraction strategy for comprehensive document support.
+ *
+ * This bean holds no per-document state: metadata is returned with the lines in an
+ * ExtractedDocument, so several statements can be extracted concurrently.
  */
 @Service
 public class DocumentTextExtractor {
 
     private final PdfBoxConfigurator pdfBoxConfigurator;
 
+    // OCR worker threads; 0 means one per available processor
+    @Value("${fin.ocr.workers:0}")
+    private int ocrWorkers;
+
+    private ExecutorService ocrExecutor;
+    private OcrEngine ocrEngine;
+
     @Autowired
     public DocumentTextExtractor(PdfBoxConfigurator pdfBoxConfigurator) {
         this.pdfBoxConfigurator = pdfBoxConfigurator;
     }
 
-    private static final Logger logger = LoggerFactory.getLogger(DocumentTextExtractor.class);
+    DocumentTextExtractor(PdfBoxConfigurator pdfBoxConfigurator, int ocrWorkers, OcrEngine ocrEngine) {
+        this.pdfBoxConfigurator = pdfBoxConfigurator;
+        this.ocrWorkers = ocrWorkers;
+        this.ocrEngine = ocrEngine;
+    }
 
+    private static final Logger logger = LoggerFactory.getLogger(DocumentTextExtractor.class);
 
+    private static final Pattern ACCOUNT_NUMBER_PATTERN = Pattern.compile("Account(?:\\s+Number)?\\s*:\\s*([0-9\\s-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STATEMENT_PERIOD_PATTERN = Pattern.compile("(\\d{1,2}\\s+[A-Za-z]{3,9}\\s+\\d{4})\\s+to\\s+(\\d{1,2}\\s+[A-Za-z]{3,9}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
 
-    private String accountNumber;
-    private String statementPeriod;
+    /**
+     * Parse a PDF document and return its text lines together with the account number and
+     * statement period found in them.
+     */
+    public ExtractedDocument extractDocument(File pdfFile) throws IOException {
+        return extractMetadata(parseDocument(pdfFile));
+    }
 
     /**
      * Parse a PDF document and extract text lines.
@@ -175,7 +208,6 @@ public class DocumentTextExtractor {
                         line = line.trim();
                         if (!line.isEmpty()) {
                             lines.add(line);
-                            extractMetadata(line);
                         }
                     }
                 }
@@ -219,66 +251,66 @@ public class DocumentTextExtractor {
      * Enhanced with better error handling and quality checks.
      * OPTIMIZED: Reduced DPI from 300 to 200 for faster processing while maintaining accuracy.
      * Added timeout protection to prevent infinite processing.
+     *
+     * Pages are rendered one at a time on the calling thread (PDDocument is not thread-safe) and
+     * handed to the OCR worker pool as soon as they are rendered, so rendering of later pages
+     * overlaps OCR of earlier ones. Results are reassembled in page order.
      */
     List<String> extractWithOCR(PDDocument document, File pdfFile, long startTime, int maxProcessingTimeMs) throws IOException {
         List<String> allLines = new ArrayList<>();
+        List<PendingPage> pendingPages = new ArrayList<>();
+        long deadline = startTime + maxProcessingTimeMs;
 
         try {
             // Create PDF renderer with optimized DPI for better performance/accuracy balance
             PDFRenderer renderer = new PDFRenderer(document);
             int totalPages = document.getNumberOfPages();
+            ExecutorService workers = getOcrExecutor();
+            OcrEngine engine = getOcrEngine();
+
+            // Bound rendered-but-not-yet-recognised pages so rendering cannot run far ahead of OCR
+            Semaphore renderedPages = new Semaphore(ocrWorkerCount() * 2);
 
-            logger.info("Starting OCR extraction for {} pages (optimized 200 DPI)", totalPages);
+            logger.info("Starting OCR extraction for {} pages (optimized 200 DPI, {} OCR workers)", totalPages, ocrWorkerCount());
 
             boolean sawFontProviderError = false;
             for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
                 // Check timeout before processing each page
                 long elapsedTime = System.currentTimeMillis() - startTime;
-                if (elapsedTime > maxProcessingTimeMs) {
+                if (elapsedTime > maxProcessingTimeMs
+                    || !renderedPages.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
                     throw new IOException("OCR processing timeout: exceeded " + maxProcessingTimeMs + "ms while processing page " + (pageIndex + 1) + " of " + totalPages);
                 }
 
                 try {
-                    logger.info("OCR processing page {}/{} (elapsed: {}ms)", pageIndex + 1, totalPages, elapsedTime);
+                    logger.info("OCR rendering page {}/{} (elapsed: {}ms)", pageIndex + 1, totalPages, elapsedTime);
 
                     // OPTIMIZED: Use 200 DPI instead of 300 for faster processing
                     // 200 DPI provides good accuracy for financial documents while being ~2x faster
+                    long renderStart = System.nanoTime();
                     BufferedImage image = renderer.renderImageWithDPI(pageIndex, 200);
 
                     // Apply image preprocessing if needed
-                    image = preprocessImageForOCR(image);
-
-                    // Perform OCR using utility
-                    String pageText = TesseractConfigUtil.performOCR(image);
+                    BufferedImage pageImage = preprocessImageForOCR(image);
+                    long renderMillis = (System.nanoTime() - renderStart) / 1_000_000;
 
-                    if (pageText == null || pageText.trim().isEmpty()) {
-                        logger.warn("OCR returned empty text for page {}", pageIndex + 1);
-                        continue;
-                    }
-
-                    // Split into lines and filter/process
-                    String[] lines = pageText.split("\\r?\\n");
-                    int validLines = 0;
-
-                    for (String line : lines) {
-                        line = line.trim();
-                        if (!line.isEmpty() && line.length() > 3) { // Filter out very short noise
-                            // Clean up common OCR errors in financial text
-                            line = cleanOCRErrors(line);
-                            allLines.add(line);
-                            extractMetadata(line);
-                            validLines++;
+                    int pageNumber = pageIndex + 1;
+                    pendingPages.add(new PendingPage(pageNumber, workers.submit(() -> {
+                        try {
+                            return ocrPage(engine, pageNumber, pageImage, renderMillis);
+                        } finally {
+                            renderedPages.release();
                         }
-                    }
-
-                    logger.info("Page {}: {} valid lines extracted", pageIndex + 1, validLines);
+                    })));
 
                 } catch (Throwable t) {
-                    logger.error("Failed to OCR page {}: {} ({})", pageIndex + 1, t.getMessage(), t.getClass().getSimpleName());
+                    renderedPages.release();
+                    logger.error("Failed to render page {}: {} ({})", pageIndex + 1, t.getMessage(), t.getClass().getSimpleName());
                     // If the page failed due to the PDFBox font provider (known issue), mark flag and attempt external rasterizer immediately
                     if (isFontProviderError(t)) {
                         sawFontProviderError = true;
                         logger.warn("Detected PDFBox font-provider error - aborting per-page rendering and attempting external rasterizer fallback");
+                        cancelPages(pendingPages);
                         try {
                             List<String> external = ocrUsingExternalRasterizer(pdfFile, startTime, maxProcessingTimeMs);
                             if (external != null && !external.isEmpty()) {
@@ -293,6 +325,25 @@ public class DocumentTextExtractor {
                 }
             }
 
+            // Reassemble in page order, waiting no longer than the remaining processing budget
+            List<PageOcrResult> results = new ArrayList<>(pendingPages.size());
+            for (PendingPage page : pendingPages) {
+                if (page.result.isCancelled()) {
+                    continue;
+                }
+                try {
+                    results.add(page.result.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+                } catch (TimeoutException e) {
+                    throw new IOException("OCR processing timeout: exceeded " + maxProcessingTimeMs + "ms while waiting for page " + page.pageNumber + " of " + totalPages);
+                } catch (ExecutionException e) {
+                    logger.error("Failed to OCR page {}: {}", page.pageNumber, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+            for (PageOcrResult result : results) {
+                allLines.addAll(result.lines);
+            }
+            logPageTimings(results, startTime);
+
             // If no lines were extracted and we saw the PDFBox font-provider error, attempt external rasterizer fallback
             if (allLines.isEmpty() && sawFontProviderError) {
                 logger.info("No OCR lines extracted and detected PDFBox font-provider failures; trying external rasterizer (pdftoppm)");
@@ -307,8 +358,12 @@ public class DocumentTextExtractor {
 
             return allLines;
         } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             // If renderer construction or other fatal errors occur, try external rasterizer-based OCR as a fallback
             logger.error("OCR extraction failed during initialization: {} ({}). Attempting external rasterizer fallback", t.getMessage(), t.getClass().getSimpleName());
+            cancelPages(pendingPages);
             try {
                 List<String> external = ocrUsingExternalRasterizer(pdfFile, startTime, maxProcessingTimeMs);
                 if (external != null && !external.isEmpty()) {
@@ -319,6 +374,140 @@ public class DocumentTextExtractor {
             }
             // If everything fails, return what we have (possibly empty)
             return allLines; // empty
+        } finally {
+            // Stop any page still queued or running once this document is finished or abandoned
+            cancelPages(pendingPages);
+        }
+    }
+
+    /**
+     * OCR one rendered page on a worker thread. Errors are logged and yield an empty page so the
+     * remaining pages still contribute.
+     */
+    private PageOcrResult ocrPage(OcrEngine engine, int pageNumber, BufferedImage image, long renderMillis) {
+        long ocrStart = System.nanoTime();
+        List<String> pageLines = new ArrayList<>();
+        try {
+            // Perform OCR with a pooled engine
+            String pageText = engine.recognize(image);
+
+            if (pageText == null || pageText.trim().isEmpty()) {
+                logger.warn("OCR returned empty text for page {}", pageNumber);
+            } else {
+                // Split into lines and filter/process
+                for (String line : pageText.split("\\r?\\n")) {
+                    line = line.trim();
+                    if (!line.isEmpty() && line.length() > 3) { // Filter out very short noise
+                        // Clean up common OCR errors in financial text
+                        pageLines.add(cleanOCRErrors(line));
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            if (t instanceof VirtualMachineError) {
+                throw (VirtualMachineError) t;
+            }
+            logger.error("Failed to OCR page {}: {} ({})", pageNumber, t.getMessage(), t.getClass().getSimpleName());
+        }
+        long ocrMillis = (System.nanoTime() - ocrStart) / 1_000_000;
+        logger.info("Page {}: {} valid lines extracted (render {}ms, OCR {}ms)", pageNumber, pageLines.size(), renderMillis, ocrMillis);
+        return new PageOcrResult(pageNumber, pageLines, renderMillis, ocrMillis);
+    }
+
+    private void logPageTimings(List<PageOcrResult> results, long startTime) {
+        if (results.isEmpty()) {
+            return;
+        }
+        long totalRender = 0;
+        long totalOcr = 0;
+        PageOcrResult slowest = results.get(0);
+        for (PageOcrResult result : results) {
+            totalRender += result.renderMillis;
+            totalOcr += result.ocrMillis;
+            if (result.ocrMillis > slowest.ocrMillis) {
+                slowest = result;
+            }
+        }
+        logger.info("OCR page timings: {} pages, render {}ms total, OCR {}ms total (avg {}ms/page, slowest page {} at {}ms), wall clock {}ms",
+                   results.size(), totalRender, totalOcr, totalOcr / results.size(),
+                   slowest.pageNumber, slowest.ocrMillis, System.currentTimeMillis() - startTime);
+    }
+
+    private static void cancelPages(List<PendingPage> pages) {
+        for (PendingPage page : pages) {
+            page.result.cancel(true);
+        }
+    }
+
+    private int ocrWorkerCount() {
+        return ocrWorkers > 0 ? ocrWorkers : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Shared OCR worker pool, created on first use. Workers borrow engines from the OCR engine
+     * pool, which holds one Tesseract instance per worker, so they never contend on one engine.
+     */
+    private synchronized ExecutorService getOcrExecutor() {
+        if (ocrExecutor == null) {
+            int workerCount = ocrWorkerCount();
+            AtomicInteger threadCounter = new AtomicInteger();
+            ocrExecutor = new ThreadPoolExecutor(workerCount, workerCount, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ocr-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+        return ocrExecutor;
+    }
+
+    /**
+     * OCR engine for this extractor, created on first use: a Tesseract pool sized to the OCR workers.
+     */
+    private synchronized OcrEngine getOcrEngine() {
+        if (ocrEngine == null) {
+            ocrEngine = new TesseractEnginePool(ocrWorkerCount())::doOCR;
+        }
+        return ocrEngine;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ocrExecutor != null) {
+            ocrExecutor.shutdownNow();
+            ocrExecutor = null;
+        }
+    }
+
+    /**
+     * Text recognition for one rendered page image.
+     */
+    @FunctionalInterface
+    interface OcrEngine {
+        String recognize(BufferedImage image) throws IOException;
+    }
+
+    /**
+     * A page handed to the OCR workers, with its page number for ordering and error reporting.
+     */
+    private static class PendingPage {
+        private final int pageNumber;
+        private final Future<PageOcrResult> result;
+        PendingPage(int pageNumber, Future<PageOcrResult> result) {
+            this.pageNumber = pageNumber; this.result = result;
+        }
+    }
+
+    /**
+     * Lines and timings for one OCR'd page.
+     */
+    private static class PageOcrResult {
+        private final int pageNumber;
+        private final List<String> lines;
+        private final long renderMillis;
+        private final long ocrMillis;
+        PageOcrResult(int pageNumber, List<String> lines, long renderMillis, long ocrMillis) {
+            this.pageNumber = pageNumber; this.lines = lines; this.renderMillis = renderMillis; this.ocrMillis = ocrMillis;
         }
     }
 
@@ -420,7 +609,7 @@ public class DocumentTextExtractor {
                             logger.warn("ImageIO could not read generated image {}", imgPath);
                             continue;
                         }
-                        String pageText = TesseractConfigUtil.performOCR(img);
+                        String pageText = getOcrEngine().recognize(img);
                         if (pageText == null || pageText.trim().isEmpty()) {
                             logger.warn("External OCR returned empty text for image {}", imgPath);
                             continue;
@@ -431,7 +620,6 @@ public class DocumentTextExtractor {
                             if (!line.isEmpty() && line.length() > 3) {
                                 line = cleanOCRErrors(line);
                                 allLines.add(line);
-                                extractMetadata(line);
                             }
                         }
                 } catch (Throwable t) {
@@ -569,7 +757,6 @@ public class DocumentTextExtractor {
                 String line = currentLine.toString().trim();
                 if (!line.isEmpty() && isTransaction(line)) {
                     reconstructed.add(line);
-                    extractMetadata(line);
                 }
                 currentLine = new StringBuilder(fragment);
             } else {
@@ -589,7 +776,6 @@ public class DocumentTextExtractor {
             String line = currentLine.toString().trim();
             if (!line.isEmpty() && isTransaction(line)) {
                 reconstructed.add(line);
-                extractMetadata(line);
             }
         }
 
@@ -600,26 +786,34 @@ public class DocumentTextExtractor {
 
     /**
      * Extract account number and statement period from document lines.
-     * Package-private for testing.
+     * The first match of each wins. Package-private for testing.
      */
-    void extractMetadata(String line) {
-        // Extract account number - look for patterns like "Account: 1234567890" or "Account Number: 1234567890"
-        if (accountNumber == null) {
-            Pattern accountPattern = Pattern.compile("Account(?:\\s+Number)?\\s*:\\s*([0-9\\s-]+)", Pattern.CASE_INSENSITIVE);
-            Matcher matcher = accountPattern.matcher(line);
-            if (matcher.find()) {
-                accountNumber = matcher.group(1).replaceAll("\\s+", "");
+    ExtractedDocument extractMetadata(List<String> lines) {
+        String accountNumber = null;
+        String statementPeriod = null;
+
+        for (String line : lines) {
+            // Extract account number - look for patterns like "Account: 1234567890" or "Account Number: 1234567890"
+            if (accountNumber == null) {
+                Matcher matcher = ACCOUNT_NUMBER_PATTERN.matcher(line);
+                if (matcher.find()) {
+                    accountNumber = matcher.group(1).replaceAll("\\s+", "");
+                }
+            }
+
+            // Extract statement period - look for date ranges
+            if (statementPeriod == null) {
+                Matcher matcher = STATEMENT_PERIOD_PATTERN.matcher(line);
+                if (matcher.find()) {
+                    statementPeriod = matcher.group(1) + " to " + matcher.group(2);
+                }
             }
-        }
 
-        // Extract statement period - look for date ranges
-        if (statementPeriod == null) {
-            Pattern periodPattern = Pattern.compile("(\\d{1,2}\\s+[A-Za-z]{3,9}\\s+\\d{4})\\s+to\\s+(\\d{1,2}\\s+[A-Za-z]{3,9}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
-            Matcher matcher = periodPattern.matcher(line);
-            if (matcher.find()) {
-                statementPeriod = matcher.group(1) + " to " + matcher.group(2);
+            if (accountNumber != null && statementPeriod != null) {
+                break;
             }
         }
+        return new ExtractedDocument(lines, accountNumber, statementPeriod);
     }
 
     /**
@@ -702,17 +896,18 @@ public class DocumentTextExtractor {
     }
 
     /**
-     * Get the extracted account number.
+     * Text lines and metadata extracted from one document.
      */
-    public String getAccountNumber() {
-        return accountNumber;
-    }
-
-    /**
-     * Get the extracted statement period.
-     */
-    public String getStatementPeriod() {
-        return statementPeriod;
+    public static class ExtractedDocument {
+        private final List<String> lines;
+        private final String accountNumber;
+        private final String statementPeriod;
+        public ExtractedDocument(List<String> lines, String accountNumber, String statementPeriod) {
+            this.lines = lines; this.accountNumber = accountNumber; this.statementPeriod = statementPeriod;
+        }
+        public List<String> getLines() { return lines; }
+        public String getAccountNumber() { return accountNumber; }
+        public String getStatementPeriod() { return statementPeriod; }
     }
 
     /**
@@ -27,7 +27,6 @@
 package fin.util;
 
 import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +36,9 @@ import java.io.IOException;
 /**
  * Utility class for configuring Tesseract OCR engine and JNA native library paths.
  * Handles platform-specific library path configuration for macOS Homebrew installations.
+ *
+ * A Tesseract instance is not thread-safe; concurrent OCR goes through a {@link TesseractEnginePool},
+ * which lends each caller an engine of its own.
  */
 public final class TesseractConfigUtil {
 
@@ -51,8 +53,8 @@ public final class TesseractConfigUtil {
     private static final String LINUX_TESSDATA_PATH = "/usr/share/tesseract-ocr/5/tessdata";
     private static final String LINUX_TESSDATA_PATH_ALT = "/usr/share/tesseract-ocr/tessdata";
     
-    private static boolean jnaConfigured = false;
-    private static Tesseract tesseractInstance = null;
+    private static volatile boolean jnaConfigured = false;
+    private static volatile TesseractEnginePool sharedEngines = newSharedPool();
 
     /**
      * Detect if running in a Linux container environment.
@@ -149,34 +151,31 @@ public final class TesseractConfigUtil {
     }
 
     /**
-     * Get or create a configured Tesseract instance (singleton pattern).
+     * Create a configured Tesseract instance. Not thread-safe: use it from one thread at a time.
      * 
      * @return Configured Tesseract instance ready for OCR operations
      */
-    private static synchronized Tesseract getTesseractInstance() {
-        if (tesseractInstance == null) {
-            // Ensure JNA is configured before creating Tesseract instance
-            configureJnaLibraryPath();
-            
-            tesseractInstance = new Tesseract();
-            
-            // Set Tesseract data path based on environment
-            String tessdataPath = getTessdataPathForEnvironment();
-            tesseractInstance.setDatapath(tessdataPath);
-            
-            // Configure for English language
-            tesseractInstance.setLanguage("eng");
-            
-            // Automatic page segmentation with Orientation and Script Detection
-            tesseractInstance.setPageSegMode(1);
-            
-            // Neural nets LSTM engine for better accuracy
-            tesseractInstance.setOcrEngineMode(1);
-            
-            logger.info("Initialized Tesseract OCR engine with tessdata path: {}", tessdataPath);
-        }
+    static Tesseract createTesseractInstance() {
+        // Ensure JNA is configured before creating Tesseract instance
+        configureJnaLibraryPath();
+        
+        Tesseract tesseract = new Tesseract();
+        
+        // Set Tesseract data path based on environment
+        String tessdataPath = getTessdataPathForEnvironment();
+        tesseract.setDatapath(tessdataPath);
+        
+        // Configure for English language
+        tesseract.setLanguage("eng");
         
-        return tesseractInstance;
+        // Automatic page segmentation with Orientation and Script Detection
+        tesseract.setPageSegMode(1);
+        
+        // Neural nets LSTM engine for better accuracy
+        tesseract.setOcrEngineMode(1);
+        
+        logger.info("Initialized Tesseract OCR engine with tessdata path: {}", tessdataPath);
+        return tesseract;
     }
 
     /**
@@ -207,27 +206,32 @@ public final class TesseractConfigUtil {
     }
 
     /**
-     * Perform OCR on a buffered image using Tesseract.
+     * Perform OCR on a buffered image with an engine from the shared pool (one engine per
+     * available processor). Safe to call from several threads at once.
      * 
      * @param image The image to perform OCR on
      * @return Extracted text from the image
      * @throws IOException if OCR extraction fails
      */
-    public static synchronized String performOCR(BufferedImage image) throws IOException {
+    public static String performOCR(BufferedImage image) throws IOException {
         try {
-            Tesseract tesseract = getTesseractInstance();
-            return tesseract.doOCR(image);
-        } catch (TesseractException e) {
+            return sharedEngines.doOCR(image);
+        } catch (IOException e) {
             logger.error("OCR extraction failed", e);
-            throw new IOException("Failed to perform OCR on image: " + e.getMessage(), e);
+            throw e;
         }
     }
     
     /**
-     * Reset the Tesseract instance (useful for testing or configuration changes).
+     * Reset the shared Tesseract engines (useful for testing or configuration changes).
+     * Engines are created afresh on the next OCR calls.
      */
     static synchronized void resetInstance() {
-        tesseractInstance = null;
+        sharedEngines = newSharedPool();
         jnaConfigured = false;
     }
+
+    private static TesseractEnginePool newSharedPool() {
+        return new TesseractEnginePool(Runtime.getRuntime().availableProcessors());
+    }
 }
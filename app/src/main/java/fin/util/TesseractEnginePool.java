@@ -0,0 +1,105 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.util;
+
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * A bounded set of Tesseract engines shared by the threads that OCR.
+ *
+ * A Tesseract instance is not thread-safe, so each OCR call borrows an idle engine (creating one
+ * if fewer than {@code maxEngines} exist) and returns it afterwards. At most {@code maxEngines}
+ * engines are ever created and they belong to the pool rather than to a thread, so request threads
+ * that OCR once do not each keep an engine alive.
+ */
+public class TesseractEnginePool {
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Tesseract> idle = new ConcurrentLinkedQueue<>();
+    private final Supplier<Tesseract> factory;
+    private final int maxEngines;
+
+    /**
+     * @param maxEngines engines that may run at once; callers beyond that wait for a free engine
+     */
+    public TesseractEnginePool(int maxEngines) {
+        this(maxEngines, TesseractConfigUtil::createTesseractInstance);
+    }
+
+    TesseractEnginePool(int maxEngines, Supplier<Tesseract> factory) {
+        this.maxEngines = Math.max(1, maxEngines);
+        this.permits = new Semaphore(this.maxEngines, true);
+        this.factory = factory;
+    }
+
+    /**
+     * Run OCR on the image with a pooled engine, waiting for one if all are busy.
+     *
+     * @throws IOException if OCR fails or the caller is interrupted while waiting
+     */
+    public String doOCR(BufferedImage image) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an OCR engine", e);
+        }
+        Tesseract tesseract = null;
+        try {
+            tesseract = idle.poll();
+            if (tesseract == null) {
+                tesseract = factory.get();
+            }
+            return tesseract.doOCR(image);
+        } catch (TesseractException e) {
+            throw new IOException("Failed to perform OCR on image: " + e.getMessage(), e);
+        } finally {
+            if (tesseract != null) {
+                idle.offer(tesseract);
+            }
+            permits.release();
+        }
+    }
+
+    public int getMaxEngines() {
+        return maxEngines;
+    }
+
+    /**
+     * Engines created so far and currently not in use.
+     */
+    int getIdleCount() {
+        return idle.size();
+    }
+}
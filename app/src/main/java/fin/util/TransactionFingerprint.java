@@ -0,0 +1,82 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.util;
+
+import fin.entity.BankTransaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Normalized duplicate-detection fingerprint for bank transactions.
+ *
+ * The fingerprint is the SHA-256 (hex) of
+ * {@code company|date|debit|credit|lower(description)|balance}, with amounts at scale 2,
+ * missing debit/credit treated as zero and other missing values as empty strings.
+ * It is stored in bank_transactions.fingerprint; the V15 migration backfills existing rows
+ * with the same formula in SQL, so the two must stay in step.
+ */
+public final class TransactionFingerprint {
+
+    private TransactionFingerprint() {
+    }
+
+    /**
+     * Fingerprint of a transaction's duplicate-detection fields.
+     */
+    public static String of(BankTransaction transaction) {
+        return of(transaction.getCompanyId(), transaction.getTransactionDate(), transaction.getDebitAmount(),
+                  transaction.getCreditAmount(), transaction.getDetails(), transaction.getBalance());
+    }
+
+    public static String of(Long companyId, LocalDate transactionDate, BigDecimal debitAmount,
+                            BigDecimal creditAmount, String description, BigDecimal balance) {
+        String canonical = String.join("|",
+            companyId != null ? companyId.toString() : "",
+            transactionDate != null ? transactionDate.toString() : "",
+            amount(debitAmount != null ? debitAmount : BigDecimal.ZERO),
+            amount(creditAmount != null ? creditAmount : BigDecimal.ZERO),
+            description != null ? description.toLowerCase(Locale.ROOT) : "",
+            balance != null ? amount(balance) : "");
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static String amount(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,30 @@
+-- V15 migration: persisted duplicate-detection fingerprint for bank transactions
+-- Idempotent: adds the column, backfills rows that have none and indexes (company_id, fingerprint).
+-- The formula must match fin.util.TransactionFingerprint:
+--   sha256(company|date|debit|credit|lower(description)|balance), amounts at scale 2,
+--   missing debit/credit as 0, other missing values as ''.
+ALTER TABLE IF EXISTS public.bank_transactions
+    ADD COLUMN IF NOT EXISTS fingerprint character varying(64);
+
+DO $$
+BEGIN
+    IF to_regclass('public.bank_transactions') IS NOT NULL THEN
+        UPDATE public.bank_transactions
+        SET fingerprint = encode(sha256(convert_to(
+                COALESCE(company_id::text, '') || '|' ||
+                COALESCE(to_char(transaction_date, 'YYYY-MM-DD'), '') || '|' ||
+                round(COALESCE(debit_amount, 0), 2)::text || '|' ||
+                round(COALESCE(credit_amount, 0), 2)::text || '|' ||
+                lower(COALESCE(description, '')) || '|' ||
+                COALESCE(round(balance, 2)::text, ''),
+            'UTF8')), 'hex')
+        WHERE fingerprint IS NULL;
+
+        CREATE INDEX IF NOT EXISTS idx_bank_transactions_company_fingerprint
+            ON public.bank_transactions (company_id, fingerprint);
+    END IF;
+END$$;
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V15 (bank transaction fingerprint column, backfill and index) applied.';
+END$$;
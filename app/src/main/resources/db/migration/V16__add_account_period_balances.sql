@@ -0,0 +1,42 @@
+-- V16 migration: per-account, per-fiscal-period debit/credit totals maintained by journal posting
+-- Idempotent: creates the summary table and backfills it from journal_entry_lines when it is empty.
+-- Lines whose journal entry has no fiscal period are summarised under fiscal_period_id 0.
+-- Reconcile with POST /api/v1/companies/{companyId}/data-management/account-balances/rebuild.
+CREATE TABLE IF NOT EXISTS public.account_period_balances (
+    company_id bigint NOT NULL,
+    fiscal_period_id bigint NOT NULL,
+    account_id bigint NOT NULL,
+    debit_total numeric(38,2) NOT NULL DEFAULT 0,
+    credit_total numeric(38,2) NOT NULL DEFAULT 0,
+    line_count bigint NOT NULL DEFAULT 0,
+    updated_at timestamp without time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT account_period_balances_pkey PRIMARY KEY (company_id, fiscal_period_id, account_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_account_period_balances_account
+    ON public.account_period_balances (account_id);
+
+DO $$
+BEGIN
+    IF to_regclass('public.journal_entry_lines') IS NOT NULL
+       AND to_regclass('public.journal_entries') IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM public.account_period_balances) THEN
+        INSERT INTO public.account_period_balances
+            (company_id, fiscal_period_id, account_id, debit_total, credit_total, line_count, updated_at)
+        SELECT je.company_id,
+               COALESCE(je.fiscal_period_id, 0),
+               jel.account_id,
+               COALESCE(SUM(jel.debit_amount), 0),
+               COALESCE(SUM(jel.credit_amount), 0),
+               COUNT(*),
+               CURRENT_TIMESTAMP
+        FROM public.journal_entry_lines jel
+        JOIN public.journal_entries je ON je.id = jel.journal_entry_id
+        WHERE je.company_id IS NOT NULL AND jel.account_id IS NOT NULL
+        GROUP BY je.company_id, COALESCE(je.fiscal_period_id, 0), jel.account_id;
+    END IF;
+END$$;
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V16 (account_period_balances summary table and backfill) applied.';
+END$$;
@@ -0,0 +1,21 @@
+-- V17 migration: indexes behind the cursor (keyset) audit trail
+-- Idempotent: each index is created only when its table exists.
+-- idx_journal_entries_company_period_date_id matches the audit trail order (entry_date DESC, id DESC),
+-- so a page seeks straight to its cursor instead of skipping OFFSET rows.
+-- idx_journal_entry_lines_entry_line serves the per-page "journal_entry_id IN (...)" line load.
+DO $$
+BEGIN
+    IF to_regclass('public.journal_entries') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_journal_entries_company_period_date_id
+            ON public.journal_entries (company_id, fiscal_period_id, entry_date DESC, id DESC);
+    END IF;
+
+    IF to_regclass('public.journal_entry_lines') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_journal_entry_lines_entry_line
+            ON public.journal_entry_lines (journal_entry_id, line_number);
+    END IF;
+END$$;
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V17 (journal entry keyset pagination indexes) applied.';
+END$$;
@@ -0,0 +1,45 @@
+-- V18 migration: indexes for description/reference search on bank transactions and journal entries
+-- Idempotent: the pg_trgm extension is installed when the role may do so; every index is created
+-- only when its table (and, for trigram indexes, pg_trgm) exists.
+-- Index expressions must match the queries in fin.repository.TextSearchRepository and the
+-- LOWER(...) LIKE queries in BankTransactionRepository / JournalEntryRepository:
+--   trigram GIN on lower(column)                          -> LIKE '%term%' and similarity (%)
+--   GIN on to_tsvector('simple', coalesce(column, ''))    -> prefix word matches (term:*)
+-- Without pg_trgm the application falls back to unranked LIKE search.
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    WHEN insufficient_privilege THEN
+        RAISE NOTICE 'pg_trgm could not be installed (insufficient privilege); trigram indexes skipped.';
+END$$;
+
+DO $$
+DECLARE
+    has_trgm boolean := EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm');
+BEGIN
+    IF to_regclass('public.bank_transactions') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_bank_transactions_description_tsv
+            ON public.bank_transactions USING gin (to_tsvector('simple', coalesce(description, '')));
+        IF has_trgm THEN
+            CREATE INDEX IF NOT EXISTS idx_bank_transactions_description_trgm
+                ON public.bank_transactions USING gin (lower(description) gin_trgm_ops);
+        END IF;
+    END IF;
+
+    IF to_regclass('public.journal_entries') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_journal_entries_search_tsv
+            ON public.journal_entries USING gin (
+                to_tsvector('simple', coalesce(description, '') || ' ' || coalesce(reference, '')));
+        IF has_trgm THEN
+            CREATE INDEX IF NOT EXISTS idx_journal_entries_description_trgm
+                ON public.journal_entries USING gin (lower(description) gin_trgm_ops);
+            CREATE INDEX IF NOT EXISTS idx_journal_entries_reference_trgm
+                ON public.journal_entries USING gin (lower(reference) gin_trgm_ops);
+        END IF;
+    END IF;
+END$$;
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V18 (trigram and full-text search indexes) applied.';
+END$$;
@@ -0,0 +1,35 @@
+-- V19 migration: durable outbox for queued emails (payslip dispatch)
+-- Idempotent: creates the table and its indexes if missing.
+-- Rows move PENDING -> SENDING -> SENT, or back to PENDING with a later next_attempt_at after a
+-- transient failure, or to FAILED once attempts are exhausted. SENDING rows left behind by a
+-- stopped instance are returned to PENDING by fin.service.email.EmailDispatchService.
+CREATE TABLE IF NOT EXISTS public.email_outbox (
+    id bigserial PRIMARY KEY,
+    batch_id character varying(36) NOT NULL,
+    company_id bigint,
+    to_email character varying(320) NOT NULL,
+    recipient_name character varying(255),
+    subject character varying(500) NOT NULL,
+    body text NOT NULL,
+    attachment_path character varying(1024),
+    attachment_name character varying(255),
+    status character varying(20) NOT NULL DEFAULT 'PENDING',
+    attempts integer NOT NULL DEFAULT 0,
+    next_attempt_at timestamp without time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error text,
+    created_at timestamp without time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp without time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at timestamp without time zone,
+    CONSTRAINT email_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- Due-message claim: WHERE status = 'PENDING' AND next_attempt_at <= now ORDER BY next_attempt_at, id
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON public.email_outbox (next_attempt_at, id) WHERE status = 'PENDING';
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_batch
+    ON public.email_outbox (batch_id, status);
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V19 (email_outbox table) applied.';
+END$$;
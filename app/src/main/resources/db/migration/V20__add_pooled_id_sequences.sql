@@ -0,0 +1,44 @@
+-- V20 migration: pooled ID sequences for high-volume tables
+-- Idempotent: each sequence is created (and its table's id default switched to it) only when the
+-- table exists; re-running leaves existing sequences and their values alone.
+-- Hibernate fetches one value per 50 rows (pooled optimizer, allocationSize = 50 on the entities),
+-- which lets it batch INSERTs instead of sending one per row as IDENTITY requires. INCREMENT BY
+-- must stay equal to allocationSize. The id default moves to the same sequence so plain SQL
+-- inserts (e.g. JournalEntryBatchRepository) take values that never fall inside a pooled block.
+DO $$
+DECLARE
+    tbl text;
+    seq text;
+    start_value bigint;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['bank_transactions', 'journal_entries', 'journal_entry_lines', 'payslips', 'data_corrections']
+    LOOP
+        CONTINUE WHEN to_regclass('public.' || tbl) IS NULL;
+        seq := tbl || '_pooled_id_seq';
+        CONTINUE WHEN to_regclass('public.' || seq) IS NOT NULL;
+
+        -- The first block handed out is (start_value - 49 .. start_value]; keep it above every
+        -- existing id and above anything the old id sequence may still hand out.
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM public.%I', tbl) INTO start_value;
+        IF pg_get_serial_sequence('public.' || tbl, 'id') IS NOT NULL THEN
+            EXECUTE format('SELECT GREATEST(%s, last_value) FROM %s',
+                           start_value, pg_get_serial_sequence('public.' || tbl, 'id'))
+                INTO start_value;
+        END IF;
+        start_value := start_value + 50;
+
+        EXECUTE format('CREATE SEQUENCE public.%I START WITH %s INCREMENT BY 50 MINVALUE 1 NO MAXVALUE CACHE 1',
+                       seq, start_value);
+
+        IF EXISTS (SELECT 1 FROM pg_attribute
+                   WHERE attrelid = ('public.' || tbl)::regclass AND attname = 'id' AND attidentity <> '') THEN
+            EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id DROP IDENTITY', tbl);
+        END IF;
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id SET DEFAULT nextval(%L::regclass)', tbl, 'public.' || seq);
+        EXECUTE format('ALTER SEQUENCE public.%I OWNED BY public.%I.id', seq, tbl);
+    END LOOP;
+END$$;
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V20 (pooled id sequences) applied.';
+END$$;
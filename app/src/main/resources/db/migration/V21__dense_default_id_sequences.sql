@@ -0,0 +1,52 @@
+-- V21 migration: dense id defaults next to the pooled Hibernate sequences
+-- Idempotent: a table is handled only when it exists and has no default sequence yet.
+-- V20 pointed each id default at the INCREMENT BY 50 pooled sequence, so every row inserted by
+-- plain SQL (JournalEntryBatchRepository, DataManagementService) used up a whole block of 50 ids.
+-- The id default now takes its own INCREMENT BY 1 sequence, and the two sequences are kept apart:
+--   * <table>_default_id_seq hands out [current high water mark + 1, split) one at a time;
+--   * <table>_pooled_id_seq restarts above the split, so Hibernate's blocks never meet it.
+-- The split is 2^40 for bigint ids and 2^30 for integer ids. The default sequence stops at the
+-- split (MAXVALUE, NO CYCLE) rather than running into pooled ids.
+DO $$
+DECLARE
+    tbl text;
+    pooled_seq text;
+    default_seq text;
+    high_water bigint;
+    split bigint;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['bank_transactions', 'journal_entries', 'journal_entry_lines', 'payslips', 'data_corrections']
+    LOOP
+        CONTINUE WHEN to_regclass('public.' || tbl) IS NULL;
+        pooled_seq := tbl || '_pooled_id_seq';
+        default_seq := tbl || '_default_id_seq';
+        CONTINUE WHEN to_regclass('public.' || pooled_seq) IS NULL;
+        CONTINUE WHEN to_regclass('public.' || default_seq) IS NOT NULL;
+
+        SELECT CASE WHEN format_type(atttypid, atttypmod) = 'bigint' THEN 1099511627776 ELSE 1073741824 END
+          INTO split
+          FROM pg_attribute
+         WHERE attrelid = ('public.' || tbl)::regclass AND attname = 'id';
+
+        -- Every id handed out so far (rows, and blocks Hibernate may still hold in memory) is at
+        -- or below the pooled sequence's last value.
+        EXECUTE format('SELECT GREATEST(COALESCE(MAX(id), 0), (SELECT last_value FROM public.%I)) FROM public.%I',
+                       pooled_seq, tbl)
+            INTO high_water;
+        IF high_water >= split THEN
+            RAISE EXCEPTION 'Migration V21: %.id has reached % and cannot be split at %', tbl, high_water, split;
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE public.%I START WITH %s INCREMENT BY 1 MINVALUE 1 MAXVALUE %s NO CYCLE',
+                       default_seq, high_water + 1, split);
+        EXECUTE format('ALTER SEQUENCE public.%I OWNED BY public.%I.id', default_seq, tbl);
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id SET DEFAULT nextval(%L::regclass)', tbl, 'public.' || default_seq);
+
+        -- Pooled optimizer: a value v reserves (v - 49 .. v], so the first block starts at split + 1
+        EXECUTE format('ALTER SEQUENCE public.%I MINVALUE %s RESTART WITH %s', pooled_seq, split + 50, split + 50);
+    END LOOP;
+END$$;
+
+DO $$ BEGIN
+    RAISE NOTICE 'Migration V21 (dense default id sequences) applied.';
+END$$;
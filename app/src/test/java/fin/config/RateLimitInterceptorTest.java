@@ -0,0 +1,117 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.config;
+
+import fin.entity.User;
+import fin.service.CompanyMembershipCache;
+import fin.service.JwtService;
+import fin.service.KeyedRateLimiter;
+import fin.service.KeyedRateLimiter.Decision;
+import fin.service.KeyedRateLimiter.EndpointClass;
+import fin.service.KeyedRateLimiter.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RateLimitInterceptor
+ *
+ * Tests which buckets a request is charged against
+ */
+public class RateLimitInterceptorTest {
+
+    private KeyedRateLimiter rateLimiter;
+    private CompanyMembershipCache membershipCache;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = mock(KeyedRateLimiter.class);
+        membershipCache = mock(CompanyMembershipCache.class);
+        when(rateLimiter.tryConsume(any(), anyString())).thenReturn(new Decision(true, 100, 99, 0));
+        interceptor = new RateLimitInterceptor(rateLimiter, mock(JwtService.class), membershipCache);
+    }
+
+    @Test
+    void testMemberRequestIsChargedToTheCompany() throws Exception {
+        when(membershipCache.isMember(7L, 42L)).thenReturn(true);
+
+        assertTrue(interceptor.preHandle(companyRequest(7L, 42L), new MockHttpServletResponse(), null));
+
+        verify(rateLimiter).tryConsume(EndpointClass.API, Scope.USER.key(7L));
+        verify(rateLimiter).tryConsume(EndpointClass.COMPANY, Scope.COMPANY.key(42L));
+    }
+
+    @Test
+    void testNonMemberCannotSpendAnotherCompanysLimit() throws Exception {
+        when(membershipCache.isMember(7L, 42L)).thenReturn(false);
+
+        assertTrue(interceptor.preHandle(companyRequest(7L, 42L), new MockHttpServletResponse(), null));
+
+        verify(rateLimiter).tryConsume(EndpointClass.API, Scope.USER.key(7L));
+        verify(rateLimiter, never()).tryConsume(eq(EndpointClass.COMPANY), anyString());
+    }
+
+    @Test
+    void testAnonymousRequestIsNotChargedToTheCompany() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/companies/42/accounts");
+        request.setRemoteAddr("10.0.0.9");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+
+        verify(rateLimiter).tryConsume(EndpointClass.API, Scope.IP.key("10.0.0.9"));
+        verify(rateLimiter, never()).tryConsume(eq(EndpointClass.COMPANY), anyString());
+        verifyNoInteractions(membershipCache);
+    }
+
+    @Test
+    void testCompanyRejectionIsReturnedAs429() throws Exception {
+        when(membershipCache.isMember(7L, 42L)).thenReturn(true);
+        when(rateLimiter.tryConsume(EndpointClass.COMPANY, Scope.COMPANY.key(42L)))
+            .thenReturn(new Decision(false, 1000, 0, 12));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(companyRequest(7L, 42L), response, null));
+
+        assertEquals(429, response.getStatus());
+        assertEquals("12", response.getHeader("Retry-After"));
+        assertEquals("1000", response.getHeader("X-RateLimit-Limit"));
+    }
+
+    private MockHttpServletRequest companyRequest(Long userId, Long companyId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/companies/" + companyId + "/accounts");
+        User user = new User();
+        user.setId(userId);
+        request.setAttribute("user", user);
+        return request;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.controller.spring;
+
+import fin.controller.PayrollController;
+import fin.entity.FiscalPeriod;
+import fin.service.PayrollService;
+import fin.service.PayslipBulkExportService;
+import fin.service.PayslipBulkExportService.PayslipBatch;
+import fin.service.PayslipPdfService;
+import fin.service.email.EmailDispatchService;
+import fin.service.email.EmailDispatchService.DispatchProgress;
+import fin.service.email.PayslipEmailService;
+import fin.service.reporting.PayrollReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the bulk payslip ZIP export and payslip email progress endpoints of PayrollController.
+ */
+public class PayrollControllerTest {
+
+    @Mock
+    private PayrollService payrollService;
+
+    @Mock
+    private PayslipPdfService payslipPdfService;
+
+    @Mock
+    private PayrollReportService payrollReportService;
+
+    @Mock
+    private PayslipBulkExportService payslipBulkExportService;
+
+    @Mock
+    private PayslipEmailService payslipEmailService;
+
+    @Mock
+    private EmailDispatchService emailDispatchService;
+
+    @Mock
+    private PayslipBatch batch;
+
+    private PayrollController controller;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new PayrollController(payrollService, payslipPdfService, payrollReportService,
+            payslipBulkExportService, payslipEmailService, emailDispatchService);
+
+        FiscalPeriod period = new FiscalPeriod();
+        period.setId(7L);
+        period.setPeriodName("March/2025");
+        when(batch.getFiscalPeriod()).thenReturn(period);
+        when(batch.size()).thenReturn(2);
+    }
+
+    @Test
+    @DisplayName("Should return 500 instead of an empty archive when no payslip renders")
+    public void testBulkExport_noPayslipRenders() throws Exception {
+        when(payslipBulkExportService.prepare(7L, null)).thenReturn(batch);
+        when(payslipBulkExportService.prepareZip(batch)).thenThrow(new IOException("None of the 2 payslips could be rendered"));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportBulkPayslipsByFiscalPeriod(7L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should return 404 when the fiscal period has no payslips")
+    public void testBulkExport_noPayslips() throws Exception {
+        when(batch.isEmpty()).thenReturn(true);
+        when(payslipBulkExportService.prepare(7L, null)).thenReturn(batch);
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportBulkPayslipsByFiscalPeriod(7L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(payslipBulkExportService, never()).prepareZip(any());
+    }
+
+    @Test
+    @DisplayName("Should report a payslip email batch only to its own company")
+    public void testPayslipEmailProgress_scopedToCompany() {
+        DispatchProgress progress = new DispatchProgress("batch-1", 1, 0, 2, 0);
+        when(emailDispatchService.getProgress("batch-1", 3L)).thenReturn(progress);
+        when(emailDispatchService.getProgress("batch-1", 4L))
+            .thenThrow(new IllegalArgumentException("Email batch not found: batch-1"));
+
+        assertSame(progress, controller.getPayslipEmailProgress("batch-1", 3L).getBody());
+        assertEquals(HttpStatus.NOT_FOUND, controller.getPayslipEmailProgress("batch-1", 4L).getStatusCode());
+    }
+}
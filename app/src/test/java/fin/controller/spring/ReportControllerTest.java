@@ -28,8 +28,12 @@ package fin.controller.spring;
 
 import fin.controller.ReportController;
 import fin.dto.*;
+import fin.service.export.PreparedExport;
 import fin.service.reporting.AuditTrailService;
 import fin.service.reporting.FinancialReportingService;
+import fin.service.reporting.ReportPackageService;
+import fin.service.reporting.ReportPackageService.ReportPackage;
+import fin.service.reporting.ReportPackageService.SectionTiming;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -37,6 +41,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -63,12 +68,15 @@ public class ReportControllerTest {
     @Mock
     private AuditTrailService auditTrailService;
 
+    @Mock
+    private ReportPackageService reportPackageService;
+
     private ReportController controller;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        controller = new ReportController(reportingService, auditTrailService);
+        controller = new ReportController(reportingService, auditTrailService, reportPackageService);
     }
 
     private AuditTrailResponse createMockAuditTrailResponse() {
@@ -426,15 +434,16 @@ public class ReportControllerTest {
         }
 
         @Test
-        @DisplayName("GET /api/v1/reports/general-ledger/export?format=PDF should return PDF bytes and headers")
-        public void testExportGeneralLedger_pdf_success() throws SQLException {
+        @DisplayName("GET /api/v1/reports/general-ledger/export?format=PDF should stream PDF bytes with headers")
+        public void testExportGeneralLedger_pdf_success() throws Exception {
                 // Arrange
                 Long companyId = 1L;
                 Long fiscalPeriodId = 1L;
                 String format = "PDF";
                 byte[] pdfBytes = new byte[] {11, 12, 13};
 
-                when(reportingService.exportGeneralLedgerToPDF(companyId, fiscalPeriodId)).thenReturn(pdfBytes);
+                TrackingExport export = new TrackingExport(pdfBytes);
+                when(reportingService.prepareGeneralLedgerPDF(companyId, fiscalPeriodId)).thenReturn(export);
 
                 // Act
                 ResponseEntity<?> response = controller.exportGeneralLedger(companyId, fiscalPeriodId, format);
@@ -442,21 +451,24 @@ public class ReportControllerTest {
                 // Assert
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertTrue(response.getHeaders().getContentType().includes(org.springframework.http.MediaType.APPLICATION_PDF));
-                assertEquals(pdfBytes.length, response.getHeaders().getContentLength());
-                assertArrayEquals(pdfBytes, (byte[]) response.getBody());
-                verify(reportingService, times(1)).exportGeneralLedgerToPDF(companyId, fiscalPeriodId);
+                java.io.ByteArrayOutputStream streamed = new java.io.ByteArrayOutputStream();
+                ((StreamingResponseBody) response.getBody()).writeTo(streamed);
+                assertArrayEquals(pdfBytes, streamed.toByteArray());
+                assertTrue(export.closed);
+                verify(reportingService, times(1)).prepareGeneralLedgerPDF(companyId, fiscalPeriodId);
         }
 
         @Test
-        @DisplayName("GET /api/v1/reports/general-ledger/export?format=EXCEL should return Excel bytes and headers")
-        public void testExportGeneralLedger_excel_success() throws SQLException {
+        @DisplayName("GET /api/v1/reports/general-ledger/export?format=EXCEL should stream Excel bytes with headers")
+        public void testExportGeneralLedger_excel_success() throws Exception {
                 // Arrange
                 Long companyId = 1L;
                 Long fiscalPeriodId = 1L;
                 String format = "EXCEL";
                 byte[] excelBytes = new byte[] {21, 22, 23};
 
-                when(reportingService.exportGeneralLedgerToExcel(companyId, fiscalPeriodId)).thenReturn(excelBytes);
+                TrackingExport export = new TrackingExport(excelBytes);
+                when(reportingService.prepareGeneralLedgerExcel(companyId, fiscalPeriodId)).thenReturn(export);
 
                 // Act
                 ResponseEntity<?> response = controller.exportGeneralLedger(companyId, fiscalPeriodId, format);
@@ -464,9 +476,29 @@ public class ReportControllerTest {
                 // Assert
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertTrue(response.getHeaders().getContentType().includes(org.springframework.http.MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")));
-                assertEquals(excelBytes.length, response.getHeaders().getContentLength());
-                assertArrayEquals(excelBytes, (byte[]) response.getBody());
-                verify(reportingService, times(1)).exportGeneralLedgerToExcel(companyId, fiscalPeriodId);
+                java.io.ByteArrayOutputStream streamed = new java.io.ByteArrayOutputStream();
+                ((StreamingResponseBody) response.getBody()).writeTo(streamed);
+                assertArrayEquals(excelBytes, streamed.toByteArray());
+                assertTrue(export.closed);
+                verify(reportingService, times(1)).prepareGeneralLedgerExcel(companyId, fiscalPeriodId);
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/reports/general-ledger/export?format=EXCEL should fail before streaming when there is no data")
+        public void testExportGeneralLedger_excel_noData() throws Exception {
+                // Arrange
+                Long companyId = 1L;
+                Long fiscalPeriodId = 1L;
+                when(reportingService.prepareGeneralLedgerExcel(companyId, fiscalPeriodId))
+                        .thenThrow(new SQLException("Failed to export: No data provided for Excel export"));
+
+                // Act
+                ResponseEntity<?> response = controller.exportGeneralLedger(companyId, fiscalPeriodId, "EXCEL");
+
+                // Assert
+                assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+                assertFalse(response.getBody() instanceof StreamingResponseBody);
+                assertNull(response.getHeaders().getContentDisposition().getFilename());
         }
 
         @Test
@@ -492,15 +524,16 @@ public class ReportControllerTest {
         }
 
         @Test
-        @DisplayName("GET /api/v1/reports/cashbook/export?format=PDF should return PDF bytes and headers")
-        public void testExportCashbook_pdf_success() throws SQLException {
+        @DisplayName("GET /api/v1/reports/cashbook/export?format=PDF should stream PDF bytes with headers")
+        public void testExportCashbook_pdf_success() throws Exception {
                 // Arrange
                 Long companyId = 1L;
                 Long fiscalPeriodId = 1L;
                 String format = "PDF";
                 byte[] pdfBytes = new byte[] {31, 32, 33};
 
-                when(reportingService.exportCashbookToPDF(companyId, fiscalPeriodId)).thenReturn(pdfBytes);
+                TrackingExport export = new TrackingExport(pdfBytes);
+                when(reportingService.prepareCashbookPDF(companyId, fiscalPeriodId)).thenReturn(export);
 
                 // Act
                 ResponseEntity<?> response = controller.exportCashbook(companyId, fiscalPeriodId, format);
@@ -508,21 +541,24 @@ public class ReportControllerTest {
                 // Assert
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertTrue(response.getHeaders().getContentType().includes(org.springframework.http.MediaType.APPLICATION_PDF));
-                assertEquals(pdfBytes.length, response.getHeaders().getContentLength());
-                assertArrayEquals(pdfBytes, (byte[]) response.getBody());
-                verify(reportingService, times(1)).exportCashbookToPDF(companyId, fiscalPeriodId);
+                java.io.ByteArrayOutputStream streamed = new java.io.ByteArrayOutputStream();
+                ((StreamingResponseBody) response.getBody()).writeTo(streamed);
+                assertArrayEquals(pdfBytes, streamed.toByteArray());
+                assertTrue(export.closed);
+                verify(reportingService, times(1)).prepareCashbookPDF(companyId, fiscalPeriodId);
         }
 
         @Test
-        @DisplayName("GET /api/v1/reports/cashbook/export?format=EXCEL should return Excel bytes and headers")
-        public void testExportCashbook_excel_success() throws SQLException {
+        @DisplayName("GET /api/v1/reports/cashbook/export?format=EXCEL should stream Excel bytes with headers")
+        public void testExportCashbook_excel_success() throws Exception {
                 // Arrange
                 Long companyId = 1L;
                 Long fiscalPeriodId = 1L;
                 String format = "EXCEL";
                 byte[] excelBytes = new byte[] {41, 42, 43};
 
-                when(reportingService.exportCashbookToExcel(companyId, fiscalPeriodId)).thenReturn(excelBytes);
+                TrackingExport export = new TrackingExport(excelBytes);
+                when(reportingService.prepareCashbookExcel(companyId, fiscalPeriodId)).thenReturn(export);
 
                 // Act
                 ResponseEntity<?> response = controller.exportCashbook(companyId, fiscalPeriodId, format);
@@ -530,9 +566,46 @@ public class ReportControllerTest {
                 // Assert
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertTrue(response.getHeaders().getContentType().includes(org.springframework.http.MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")));
-                assertEquals(excelBytes.length, response.getHeaders().getContentLength());
-                assertArrayEquals(excelBytes, (byte[]) response.getBody());
-                verify(reportingService, times(1)).exportCashbookToExcel(companyId, fiscalPeriodId);
+                java.io.ByteArrayOutputStream streamed = new java.io.ByteArrayOutputStream();
+                ((StreamingResponseBody) response.getBody()).writeTo(streamed);
+                assertArrayEquals(excelBytes, streamed.toByteArray());
+                assertTrue(export.closed);
+                verify(reportingService, times(1)).prepareCashbookExcel(companyId, fiscalPeriodId);
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/reports/cashbook/export?format=EXCEL should fail before streaming when there is no data")
+        public void testExportCashbook_excel_noData() throws Exception {
+                // Arrange
+                Long companyId = 1L;
+                Long fiscalPeriodId = 1L;
+                when(reportingService.prepareCashbookExcel(companyId, fiscalPeriodId))
+                        .thenThrow(new SQLException("Failed to export: No data provided for Excel export"));
+
+                // Act
+                ResponseEntity<?> response = controller.exportCashbook(companyId, fiscalPeriodId, "EXCEL");
+
+                // Assert
+                assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+                assertFalse(response.getBody() instanceof StreamingResponseBody);
+                assertNull(response.getHeaders().getContentDisposition().getFilename());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/reports/audit-trail/export?format=PDF should fail before streaming when the report cannot be built")
+        public void testExportAuditTrail_pdf_failureBeforeStreaming() throws Exception {
+                // Arrange
+                Long companyId = 1L;
+                Long fiscalPeriodId = 1L;
+                when(reportingService.prepareAuditTrailPDF(companyId, fiscalPeriodId))
+                        .thenThrow(new SQLException("Failed to export audit trail to PDF: connection reset"));
+
+                // Act
+                ResponseEntity<?> response = controller.exportAuditTrail(companyId, fiscalPeriodId, "PDF");
+
+                // Assert
+                assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+                assertFalse(response.getBody() instanceof StreamingResponseBody);
         }
 
         @Test
@@ -610,11 +683,10 @@ public class ReportControllerTest {
                 Long companyId = 1L;
                 Long fiscalPeriodId = 1L;
 
-                when(reportingService.exportTrialBalanceToCSV(companyId, fiscalPeriodId)).thenReturn("TB");
-                when(reportingService.generateIncomeStatement(companyId, fiscalPeriodId)).thenReturn("IS");
-                when(reportingService.generateBalanceSheet(companyId, fiscalPeriodId)).thenReturn("BS");
-                when(reportingService.generateCashbook(companyId, fiscalPeriodId)).thenReturn("CB");
-                when(reportingService.generateAuditTrail(companyId, fiscalPeriodId)).thenReturn("AT");
+                ReportPackage reportPackage = new ReportPackage("FINANCIAL REPORT PACKAGE\nTB\n\nIS\n\nBS\n\nCB\n\nAT",
+                        List.of(new SectionTiming("shared-reads", 3), new SectionTiming("trial-balance", 12),
+                                new SectionTiming("audit-trail", 40)), 45);
+                when(reportPackageService.build(companyId, fiscalPeriodId)).thenReturn(reportPackage);
 
                 // Act
                 ResponseEntity<String> response = controller.generateFinancialReportPackage(companyId, fiscalPeriodId);
@@ -628,6 +700,8 @@ public class ReportControllerTest {
                 assertTrue(content.contains("BS"));
                 assertTrue(content.contains("CB"));
                 assertTrue(content.contains("AT"));
+                assertEquals("shared-reads;dur=3, trial-balance;dur=12, audit-trail;dur=40, total;dur=45",
+                        response.getHeaders().getFirst("Server-Timing"));
         }
 
         @Test
@@ -690,4 +764,26 @@ public class ReportControllerTest {
                 // Assert
                 assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         }
+
+        /**
+         * Prepared export that writes fixed bytes and records whether it was released.
+         */
+        private static class TrackingExport implements PreparedExport {
+                private final byte[] bytes;
+                private boolean closed;
+
+                TrackingExport(byte[] bytes) {
+                        this.bytes = bytes;
+                }
+
+                @Override
+                public void writeTo(java.io.OutputStream out) throws java.io.IOException {
+                        out.write(bytes);
+                }
+
+                @Override
+                public void close() {
+                        closed = true;
+                }
+        }
 }
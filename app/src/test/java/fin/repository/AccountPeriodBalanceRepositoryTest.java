@@ -0,0 +1,131 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import fin.repository.AccountPeriodBalanceRepository.BalanceDelta;
+import fin.repository.AccountPeriodBalanceRepository.BalanceDeltas;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the incremental account period balance updates.
+ */
+class AccountPeriodBalanceRepositoryTest {
+
+    @Test
+    void balanceDeltas_accumulatePerCompanyPeriodAndAccount() {
+        BalanceDeltas deltas = new BalanceDeltas();
+        deltas.add(1L, 7L, 1100L, new BigDecimal("250.00"), BigDecimal.ZERO);
+        deltas.add(1L, 7L, 4000L, BigDecimal.ZERO, new BigDecimal("250.00"));
+        deltas.add(1L, 7L, 1100L, new BigDecimal("100.00"), null);
+        deltas.add(1L, null, 1100L, new BigDecimal("5.00"), BigDecimal.ZERO);
+        deltas.add(1L, 7L, null, new BigDecimal("9.00"), BigDecimal.ZERO);
+
+        List<BalanceDelta> sorted = deltas.sorted();
+
+        assertEquals(3, sorted.size(), "Lines without an account are not summarised");
+        BalanceDelta unassigned = sorted.get(0);
+        assertEquals(AccountPeriodBalanceRepository.UNASSIGNED_PERIOD, unassigned.getFiscalPeriodId());
+        BalanceDelta bank = sorted.get(1);
+        assertEquals(1100L, bank.getAccountId());
+        assertEquals(0, new BigDecimal("350.00").compareTo(bank.getDebitTotal()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(bank.getCreditTotal()));
+        assertEquals(2, bank.getLineCount());
+        assertEquals(4000L, sorted.get(2).getAccountId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_upsertsEveryDeltaInOneBatch() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(jdbc.execute(any(ConnectionCallback.class)))
+            .thenAnswer(inv -> ((ConnectionCallback<Object>) inv.getArgument(0)).doInConnection(conn));
+
+        BalanceDeltas deltas = new BalanceDeltas();
+        deltas.add(2L, 3L, 10L, new BigDecimal("40.00"), BigDecimal.ZERO);
+        deltas.add(2L, 3L, 11L, BigDecimal.ZERO, new BigDecimal("40.00"));
+
+        new AccountPeriodBalanceRepository(jdbc).apply(deltas);
+
+        verify(stmt, times(2)).addBatch();
+        verify(stmt, times(1)).executeBatch();
+        verify(stmt).setLong(3, 10L);
+        verify(stmt).setLong(3, 11L);
+    }
+
+    @Test
+    void findOpeningTotals_sumsEveryEarlierPeriodOfTheCompany() {
+        JdbcTemplate jdbc = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:opening_totals;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE fiscal_periods (id BIGINT PRIMARY KEY, company_id BIGINT, start_date DATE, end_date DATE)");
+        jdbc.execute("CREATE TABLE account_period_balances (company_id BIGINT, fiscal_period_id BIGINT, account_id BIGINT, "
+            + "debit_total DECIMAL(15,2), credit_total DECIMAL(15,2), line_count BIGINT)");
+        jdbc.update("INSERT INTO fiscal_periods VALUES (1, 1, DATE '2023-03-01', DATE '2024-02-29'), "
+            + "(2, 1, DATE '2024-03-01', DATE '2025-02-28'), (3, 1, DATE '2025-03-01', DATE '2026-02-28'), "
+            + "(9, 2, DATE '2024-03-01', DATE '2025-02-28')");
+        jdbc.update("INSERT INTO account_period_balances VALUES "
+            + "(1, 1, 1100, 500.00, 100.00, 2), (1, 2, 1100, 300.00, 0.00, 1), (1, 2, 4000, 0.00, 300.00, 1), "
+            + "(1, 3, 1100, 70.00, 0.00, 1), (1, 0, 1100, 9.00, 0.00, 1), (2, 9, 1100, 1000.00, 0.00, 1)");
+
+        Map<Long, BalanceDelta> opening = new AccountPeriodBalanceRepository(jdbc).findOpeningTotals(1L, 3L);
+
+        assertEquals(2, opening.size());
+        BalanceDelta bank = opening.get(1100L);
+        assertEquals(0, new BigDecimal("800.00").compareTo(bank.getDebitTotal()),
+            "Current, unassigned and other companies' periods are not brought forward");
+        assertEquals(0, new BigDecimal("100.00").compareTo(bank.getCreditTotal()));
+        assertEquals(3, bank.getLineCount());
+        assertEquals(0, new BigDecimal("300.00").compareTo(opening.get(4000L).getCreditTotal()));
+        assertTrue(new AccountPeriodBalanceRepository(jdbc).findOpeningTotals(1L, 1L).isEmpty());
+    }
+
+    @Test
+    void apply_skipsDatabaseWhenNothingPosted() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+        new AccountPeriodBalanceRepository(jdbc).apply(new BalanceDeltas());
+
+        verifyNoInteractions(jdbc);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opt-in insert throughput benchmark for 100k bank-transaction-shaped rows against a real PostgreSQL.
+ *
+ * Compares the write patterns Hibernate produces before and after the pooled id sequences (V20):
+ * one auto-committed INSERT per row with IDENTITY ids, the same inside one transaction, and
+ * 50-row JDBC batches with ids taken from an INCREMENT BY 50 sequence (one nextval per batch, like
+ * the pooled optimizer) and the driver's reWriteBatchedInserts.
+ *
+ * Runs only when FIN_BENCH_DB_URL points at a scratch database, e.g.
+ * FIN_BENCH_DB_URL=jdbc:postgresql://localhost:5432/fin_bench FIN_BENCH_DB_USER=postgres
+ * FIN_BENCH_DB_PASSWORD=... ./gradlew test --tests fin.repository.InsertThroughputBenchmarkTest
+ * Everything is created in the fin_insert_bench schema, which is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "FIN_BENCH_DB_URL", matches = "jdbc:postgresql:.*")
+class InsertThroughputBenchmarkTest {
+    private static final Logger LOGGER = Logger.getLogger(InsertThroughputBenchmarkTest.class.getName());
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROWS = 5_000;
+    private static final int BATCH_SIZE = 50;
+    private static final String SCHEMA = "fin_insert_bench";
+    private static final String COLUMNS = "company_id BIGINT NOT NULL, "
+        + "transaction_date DATE NOT NULL, "
+        + "details VARCHAR(500), "
+        + "debit_amount NUMERIC(15,2), "
+        + "credit_amount NUMERIC(15,2), "
+        + "balance NUMERIC(15,2), "
+        + "created_at TIMESTAMP";
+
+    private String url;
+    private String user;
+    private String password;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        String configured = System.getenv("FIN_BENCH_DB_URL");
+        url = configured.contains("reWriteBatchedInserts")
+            ? configured
+            : configured + (configured.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        user = System.getenv().getOrDefault("FIN_BENCH_DB_USER", "postgres");
+        password = System.getenv().getOrDefault("FIN_BENCH_DB_PASSWORD", "");
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(url, user, password));
+
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        jdbc.execute("CREATE TABLE " + SCHEMA + ".identity_rows ("
+            + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " + COLUMNS + ")");
+        jdbc.execute("CREATE TABLE " + SCHEMA + ".pooled_rows (id BIGINT PRIMARY KEY, " + COLUMNS + ")");
+        jdbc.execute("CREATE SEQUENCE " + SCHEMA + ".pooled_rows_id_seq START WITH 50 INCREMENT BY " + BATCH_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void compareInsertThroughputFor100kRows() throws SQLException {
+        // Warm up the JIT, the driver and the server's plan cache before timing anything
+        insertPerRow(WARMUP_ROWS, true);
+        insertPooledBatches(WARMUP_ROWS);
+        truncate();
+
+        long autoCommitNanos = insertPerRow(ROWS, true);
+        assertEquals(ROWS, count("identity_rows"));
+        truncate();
+
+        long singleTransactionNanos = insertPerRow(ROWS, false);
+        assertEquals(ROWS, count("identity_rows"));
+
+        long pooledBatchNanos = insertPooledBatches(ROWS);
+        assertEquals(ROWS, count("pooled_rows"));
+
+        LOGGER.info(String.format("Insert throughput for %,d rows:%n"
+                + "  IDENTITY, one auto-committed INSERT per row: %s%n"
+                + "  IDENTITY, one INSERT per row in one transaction: %s%n"
+                + "  pooled sequence, %d-row batches in one transaction: %s",
+            ROWS, describe(autoCommitNanos), describe(singleTransactionNanos), BATCH_SIZE, describe(pooledBatchNanos)));
+    }
+
+    /**
+     * One INSERT per row with the id generated by the database, as Hibernate does for IDENTITY.
+     */
+    private long insertPerRow(int rows, boolean autoCommit) throws SQLException {
+        String sql = "INSERT INTO " + SCHEMA + ".identity_rows "
+            + "(company_id, transaction_date, details, debit_amount, credit_amount, balance, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(autoCommit);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < rows; i++) {
+                    bindRow(insert, 1, i);
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        keys.next();
+                    }
+                }
+            }
+            if (!autoCommit) {
+                connection.commit();
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Batched INSERTs with ids assigned client-side from one nextval per batch, as the pooled optimizer does.
+     */
+    private long insertPooledBatches(int rows) throws SQLException {
+        String sql = "INSERT INTO " + SCHEMA + ".pooled_rows "
+            + "(id, company_id, transaction_date, details, debit_amount, credit_amount, balance, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement nextBlock = connection.prepareStatement(
+                     "SELECT nextval('" + SCHEMA + ".pooled_rows_id_seq')");
+                 PreparedStatement insert = connection.prepareStatement(sql)) {
+                long nextId = 0;
+                long blockEnd = -1;
+                for (int i = 0; i < rows; i++) {
+                    if (nextId > blockEnd) {
+                        try (ResultSet block = nextBlock.executeQuery()) {
+                            block.next();
+                            blockEnd = block.getLong(1);
+                        }
+                        nextId = blockEnd - BATCH_SIZE + 1;
+                    }
+                    insert.setLong(1, nextId++);
+                    bindRow(insert, 2, i);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static void bindRow(PreparedStatement insert, int firstIndex, int row) throws SQLException {
+        BigDecimal amount = BigDecimal.valueOf(100 + row % 5000, 2);
+        insert.setLong(firstIndex, 1L + row % 10);
+        insert.setDate(firstIndex + 1, Date.valueOf(LocalDate.of(2024, 3, 1).plusDays(row % 365)));
+        insert.setString(firstIndex + 2, "IMMEDIATE PAYMENT REF " + row);
+        insert.setBigDecimal(firstIndex + 3, row % 2 == 0 ? amount : null);
+        insert.setBigDecimal(firstIndex + 4, row % 2 == 0 ? null : amount);
+        insert.setBigDecimal(firstIndex + 5, BigDecimal.valueOf(row, 2));
+        insert.setTimestamp(firstIndex + 6, Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 0, 0)));
+    }
+
+    private void truncate() {
+        jdbc.execute("TRUNCATE " + SCHEMA + ".identity_rows, " + SCHEMA + ".pooled_rows");
+    }
+
+    private int count(String table) {
+        Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM " + SCHEMA + "." + table, Integer.class);
+        return rows == null ? 0 : rows;
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private static String describe(long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        return String.format("%.2f s (%,.0f rows/s)", seconds, ROWS / seconds);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import fin.dto.GeneralLedgerDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the single-pass general ledger stream in JdbcFinancialDataRepository.
+ */
+class JdbcFinancialDataRepositoryTest {
+
+    @Test
+    void streamGeneralLedger_foldsOpeningBalancesAndRunsBalancesPerAccount() throws Exception {
+        // Arrange: rows as returned by the query, grouped by account with opening lines first
+        Object[][] rows = {
+            // account, name, date, reference, description, debit, credit, is_opening
+            {"1100", "Bank", "2025-03-01", "OB-1", "Opening balance", "1000.00", "0", 1},
+            {"1100", "Bank", "2025-03-05", "TXN-1", "Deposit", "200.00", "0", 0},
+            {"1100", "Bank", "2025-03-09", "TXN-2", "Rent", "0", "300.00", 0},
+            {"4000", "Sales", "2025-03-05", "TXN-1", "Deposit", "0", "200.00", 0},
+        };
+        ResultSet rs = mockRows(rows);
+
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(stmt.executeQuery()).thenReturn(rs);
+        Connection conn = mock(Connection.class);
+        when(conn.getAutoCommit()).thenReturn(true);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        ReportConnectionProvider connections = mock(ReportConnectionProvider.class);
+        when(connections.getConnection("general_ledger_stream")).thenReturn(conn);
+
+        JdbcFinancialDataRepository repository = new JdbcFinancialDataRepository(connections);
+        List<String> accounts = new ArrayList<>();
+        List<GeneralLedgerDTO> ledger = new ArrayList<>();
+
+        // Act
+        repository.streamGeneralLedger(1L, 2L, (accountCode, accountName, row) -> {
+            accounts.add(accountCode);
+            ledger.add(row);
+        });
+
+        // Assert
+        assertEquals(List.of("1100", "1100", "1100", "4000"), accounts);
+        assertEquals("Opening Balance", ledger.get(0).getDescription());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(ledger.get(0).getBalance()));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(ledger.get(1).getBalance()));
+        assertEquals(0, new BigDecimal("900.00").compareTo(ledger.get(2).getBalance()));
+        assertEquals(0, new BigDecimal("-200.00").compareTo(ledger.get(3).getBalance()), "Balance restarts per account");
+        verify(connections, times(1)).getConnection(anyString());
+        verify(conn).setAutoCommit(true);
+    }
+
+    @Test
+    void openGeneralLedger_readsRowsOnDemandAndReleasesConnectionWhenClosedEarly() throws Exception {
+        // Arrange
+        Object[][] rows = {
+            {"1100", "Bank", "2025-03-01", "OB-1", "Opening balance", "1000.00", "0", 1},
+            {"1100", "Bank", "2025-03-05", "TXN-1", "Deposit", "200.00", "0", 0},
+            {"1100", "Bank", "2025-03-09", "TXN-2", "Rent", "0", "300.00", 0},
+        };
+        ResultSet rs = mockRows(rows);
+
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(stmt.executeQuery()).thenReturn(rs);
+        Connection conn = mock(Connection.class);
+        when(conn.getAutoCommit()).thenReturn(true);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        ReportConnectionProvider connections = mock(ReportConnectionProvider.class);
+        when(connections.getConnection("general_ledger_stream")).thenReturn(conn);
+
+        JdbcFinancialDataRepository repository = new JdbcFinancialDataRepository(connections);
+
+        // Act
+        FinancialDataRepository.GeneralLedgerRow first;
+        try (FinancialDataRepository.GeneralLedgerCursor cursor = repository.openGeneralLedger(1L, 2L)) {
+            first = cursor.next();
+
+            // Assert: the opening balance is complete once the first ordinary line is read
+            verify(rs, times(2)).next();
+        }
+
+        assertEquals("1100", first.getAccountCode());
+        assertEquals("Opening Balance", first.getEntry().getDescription());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(first.getEntry().getBalance()));
+        verify(conn).rollback();
+        verify(conn, never()).commit();
+        verify(conn).setAutoCommit(true);
+        verify(rs).close();
+        verify(stmt).close();
+        verify(conn).close();
+    }
+
+    private ResultSet mockRows(Object[][] rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        int[] cursor = {-1};
+        when(rs.next()).thenAnswer(inv -> ++cursor[0] < rows.length);
+        when(rs.getString("account_code")).thenAnswer(inv -> rows[cursor[0]][0]);
+        when(rs.getString("account_name")).thenAnswer(inv -> rows[cursor[0]][1]);
+        when(rs.getDate("entry_date")).thenAnswer(inv -> Date.valueOf(LocalDate.parse((String) rows[cursor[0]][2])));
+        when(rs.getString("reference")).thenAnswer(inv -> rows[cursor[0]][3]);
+        when(rs.getString("description")).thenAnswer(inv -> rows[cursor[0]][4]);
+        when(rs.getBigDecimal("debit")).thenAnswer(inv -> new BigDecimal((String) rows[cursor[0]][5]));
+        when(rs.getBigDecimal("credit")).thenAnswer(inv -> new BigDecimal((String) rows[cursor[0]][6]));
+        when(rs.getInt("is_opening")).thenAnswer(inv -> rows[cursor[0]][7]);
+        return rs;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import fin.entity.JournalEntry;
+import fin.entity.JournalEntryLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JDBC batch journal writer against an in-memory H2 database in PostgreSQL mode:
+ * generated IDs, header/line linkage and rollback of a failed batch.
+ */
+class JournalEntryBatchRepositoryTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transaction;
+    private JournalEntryBatchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:journal_batch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("""
+            CREATE TABLE journal_entries (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                reference VARCHAR(100) NOT NULL,
+                entry_date DATE NOT NULL,
+                description VARCHAR(500),
+                transaction_type_id BIGINT,
+                fiscal_period_id BIGINT,
+                company_id BIGINT NOT NULL,
+                created_by VARCHAR(100),
+                created_at TIMESTAMP)
+            """);
+        jdbc.execute("""
+            CREATE TABLE journal_entry_lines (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                journal_entry_id BIGINT NOT NULL REFERENCES journal_entries(id),
+                manual_invoice_id BIGINT,
+                source_transaction_id BIGINT,
+                line_number INTEGER,
+                account_id BIGINT NOT NULL,
+                description VARCHAR(500),
+                debit_amount DECIMAL(15,2),
+                credit_amount DECIMAL(15,2))
+            """);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new JournalEntryBatchRepository(jdbc);
+    }
+
+    @Test
+    void insertEntries_assignsGeneratedIdsAcrossBatches() {
+        List<JournalEntry> entries = entries(5);
+
+        transaction.executeWithoutResult(status -> repository.insertEntries(entries, 2));
+
+        assertTrue(entries.stream().allMatch(entry -> entry.getId() != null));
+        assertEquals(5, entries.stream().map(JournalEntry::getId).distinct().count());
+        for (JournalEntry entry : entries) {
+            assertEquals(entry.getReference(),
+                jdbc.queryForObject("SELECT reference FROM journal_entries WHERE id = ?", String.class, entry.getId()));
+        }
+    }
+
+    @Test
+    void insertLines_linksEveryLineToItsBalancedEntry() {
+        List<JournalEntry> entries = entries(3);
+
+        transaction.executeWithoutResult(status -> {
+            repository.insertEntries(entries, 2);
+            repository.insertLines(balancedLines(entries), 2);
+        });
+
+        List<Map<String, Object>> totals = jdbc.queryForList("""
+            SELECT e.reference, COUNT(*) AS lines, SUM(l.debit_amount) AS debits, SUM(l.credit_amount) AS credits,
+                   MIN(l.source_transaction_id) AS source
+            FROM journal_entries e JOIN journal_entry_lines l ON l.journal_entry_id = e.id
+            GROUP BY e.reference ORDER BY e.reference
+            """);
+        assertEquals(3, totals.size());
+        for (int i = 0; i < totals.size(); i++) {
+            Map<String, Object> row = totals.get(i);
+            assertEquals("TXN-" + i, row.get("REFERENCE"));
+            assertEquals(2L, ((Number) row.get("LINES")).longValue());
+            assertEquals(0, ((BigDecimal) row.get("DEBITS")).compareTo((BigDecimal) row.get("CREDITS")));
+            assertEquals((long) i, ((Number) row.get("SOURCE")).longValue());
+        }
+    }
+
+    @Test
+    void failureMidBatch_rollsBackEveryEntryAndLine() {
+        List<JournalEntry> entries = entries(4);
+
+        assertThrows(DataAccessException.class, () -> transaction.executeWithoutResult(status -> {
+            repository.insertEntries(entries, 2);
+            List<JournalEntryLine> lines = balancedLines(entries);
+            // The third entry's credit line has no account: the NOT NULL constraint fails mid-batch
+            lines.get(5).setAccountId(null);
+            repository.insertLines(lines, 2);
+        }));
+
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM journal_entries", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM journal_entry_lines", Integer.class));
+    }
+
+    @Test
+    void emptyInputs_doNotTouchTheDatabase() {
+        JournalEntryBatchRepository unused = new JournalEntryBatchRepository(null);
+
+        assertDoesNotThrow(() -> unused.insertEntries(new ArrayList<>(), 10));
+        assertDoesNotThrow(() -> unused.insertLines(new ArrayList<>(), 10));
+    }
+
+    private static List<JournalEntry> entries(int count) {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JournalEntry entry = new JournalEntry();
+            entry.setReference("TXN-" + i);
+            entry.setEntryDate(LocalDate.of(2025, 3, 1).plusDays(i));
+            entry.setDescription("Entry " + i);
+            entry.setFiscalPeriodId(9L);
+            entry.setCompanyId(3L);
+            entry.setCreatedBy("tester");
+            entry.setCreatedAt(LocalDateTime.of(2025, 3, 31, 12, 0));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<JournalEntryLine> balancedLines(List<JournalEntry> entries) {
+        List<JournalEntryLine> lines = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            BigDecimal amount = new BigDecimal("100.00").add(BigDecimal.valueOf(i));
+            lines.add(line(entries.get(i), (long) i, 1, 1000L, amount, BigDecimal.ZERO));
+            lines.add(line(entries.get(i), (long) i, 2, 4000L, BigDecimal.ZERO, amount));
+        }
+        return lines;
+    }
+
+    private static JournalEntryLine line(JournalEntry entry, Long sourceTransactionId, int lineNumber, Long accountId,
+                                         BigDecimal debit, BigDecimal credit) {
+        JournalEntryLine line = new JournalEntryLine();
+        line.setJournalEntryId(entry.getId());
+        line.setSourceTransactionId(sourceTransactionId);
+        line.setLineNumber(lineNumber);
+        line.setAccountId(accountId);
+        line.setDescription(entry.getDescription());
+        line.setDebitAmount(debit);
+        line.setCreditAmount(credit);
+        return line;
+    }
+}
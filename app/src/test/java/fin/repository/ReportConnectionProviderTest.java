@@ -0,0 +1,76 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReportConnectionProvider pooled connection metrics.
+ */
+class ReportConnectionProviderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getConnection_recordsAcquireAndHoldTimePerQuery() throws Exception {
+        // Arrange
+        DataSource dataSource = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(pooled);
+        when(pooled.prepareStatement("SELECT 1")).thenReturn(statement);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> registryProvider = mock(ObjectProvider.class);
+        when(registryProvider.getIfAvailable(any())).thenReturn(registry);
+        ReportConnectionProvider provider = new ReportConnectionProvider(dataSource, registryProvider);
+
+        // Act
+        try (Connection conn = provider.getConnection("trial_balance")) {
+            assertSame(statement, conn.prepareStatement("SELECT 1"));
+        }
+
+        // Assert
+        verify(pooled, times(1)).close();
+        Timer acquire = registry.find("fin.report.connection.acquire").tag("query", "trial_balance").timer();
+        Timer query = registry.find("fin.report.query").tag("query", "trial_balance").timer();
+        assertNotNull(acquire, "Acquire wait should be recorded");
+        assertNotNull(query, "Connection hold time should be recorded");
+        assertEquals(1, acquire.count());
+        assertEquals(1, query.count());
+    }
+}
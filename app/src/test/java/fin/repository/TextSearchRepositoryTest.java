@@ -0,0 +1,138 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.repository;
+
+import fin.dto.SearchHit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for text search helpers and the LIKE fallback, run against an in-memory H2 database.
+ */
+class TextSearchRepositoryTest {
+
+    private JdbcTemplate jdbc;
+    private TextSearchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:text_search;DB_CLOSE_DELAY=-1"));
+        jdbc.execute("CREATE TABLE bank_transactions (id BIGINT PRIMARY KEY, company_id BIGINT, fiscal_period_id BIGINT, "
+            + "transaction_date DATE, description VARCHAR(255), reference VARCHAR(100), "
+            + "debit_amount DECIMAL(15,2), credit_amount DECIMAL(15,2))");
+        jdbc.execute("CREATE TABLE journal_entries (id BIGINT PRIMARY KEY, company_id BIGINT, fiscal_period_id BIGINT, "
+            + "entry_date DATE, description VARCHAR(255), reference VARCHAR(100))");
+
+        jdbc.update("INSERT INTO bank_transactions VALUES (1, 1, 7, DATE '2024-05-01', 'WOOLWORTHS SANDTON', NULL, 120.50, NULL)");
+        jdbc.update("INSERT INTO bank_transactions VALUES (2, 1, 7, DATE '2024-05-03', 'Card purchase Woolworths', NULL, 80.00, NULL)");
+        jdbc.update("INSERT INTO bank_transactions VALUES (3, 1, 7, DATE '2024-05-04', 'NEWOOLTEX FABRICS', NULL, NULL, 45.00)");
+        jdbc.update("INSERT INTO bank_transactions VALUES (4, 1, 8, DATE '2024-06-01', 'WOOLWORTHS ROSEBANK', NULL, 60.00, NULL)");
+        jdbc.update("INSERT INTO bank_transactions VALUES (5, 2, 7, DATE '2024-05-01', 'WOOLWORTHS SANDTON', NULL, 99.00, NULL)");
+        jdbc.update("INSERT INTO bank_transactions VALUES (6, 1, 7, DATE '2024-05-05', 'Fee 100% waived', NULL, 1.00, NULL)");
+
+        jdbc.update("INSERT INTO journal_entries VALUES (10, 1, 7, DATE '2024-05-01', 'Groceries', 'JE-WOOL-001')");
+        jdbc.update("INSERT INTO journal_entries VALUES (11, 1, 7, DATE '2024-05-02', NULL, 'JE-0002')");
+
+        repository = new TextSearchRepository(jdbc);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void detectsLikeModeOnH2() {
+        assertEquals(TextSearchRepository.Mode.LIKE, repository.getMode());
+    }
+
+    @Test
+    void searchBankTransactions_ranksPrefixMatchesAboveInnerMatches() {
+        List<SearchHit> hits = repository.searchBankTransactions(1L, 7L, "wool", 10);
+
+        assertEquals(List.of(1L, 2L, 3L), hits.stream().map(SearchHit::getId).toList());
+        assertEquals(1.0, hits.get(0).getScore(), "Description starts with the term");
+        assertEquals(0.75, hits.get(1).getScore(), "A later word starts with the term");
+        assertEquals(0.5, hits.get(2).getScore(), "Term only occurs inside a word");
+        assertEquals(SearchHit.Type.BANK_TRANSACTION, hits.get(0).getType());
+        assertEquals(0, new BigDecimal("45.00").compareTo(hits.get(2).getAmount()), "Credit amount when no debit");
+    }
+
+    @Test
+    void searchBankTransactions_requiresEveryWordAndHonoursScope() {
+        List<SearchHit> hits = repository.searchBankTransactions(1L, null, "wool sand", 10);
+        assertEquals(List.of(1L), hits.stream().map(SearchHit::getId).toList());
+
+        assertEquals(3, repository.searchBankTransactions(1L, null, "woolworths", 10).size());
+        assertEquals(1, repository.searchBankTransactions(1L, null, "woolworths", 1).size());
+    }
+
+    @Test
+    void searchBankTransactions_ranksBeforeApplyingLimit() {
+        // The prefix match is the oldest hit, so it is only returned if ranking happens before LIMIT
+        List<SearchHit> hits = repository.searchBankTransactions(1L, 7L, "wool", 1);
+
+        assertEquals(List.of(1L), hits.stream().map(SearchHit::getId).toList());
+        assertEquals(1.0, hits.get(0).getScore());
+    }
+
+    @Test
+    void searchBankTransactions_treatsLikeWildcardsLiterally() {
+        assertTrue(repository.searchBankTransactions(1L, 7L, "%%", 10).isEmpty(), "No letters or digits");
+        assertEquals(List.of(6L), repository.searchBankTransactions(1L, 7L, "100%", 10).stream()
+            .map(SearchHit::getId).toList());
+    }
+
+    @Test
+    void searchJournalEntries_matchesReference() {
+        List<SearchHit> hits = repository.searchJournalEntries(1L, 7L, "wool", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(10L, hits.get(0).getId());
+        assertEquals("JE-WOOL-001", hits.get(0).getReference());
+        assertNull(hits.get(0).getAmount());
+        assertEquals(0.75, hits.get(0).getScore(), "A word after a hyphen starts with the term");
+    }
+
+    @Test
+    void prefixQuery_requiresEveryWordAsPrefix() {
+        List<String> words = TextSearchRepository.words(TextSearchRepository.normalize("  Wool & Sand!  "));
+
+        assertEquals(List.of("wool", "sand"), words);
+        assertEquals("wool:* & sand:*", TextSearchRepository.prefixQuery(words));
+        assertEquals("%50\\%\\_off%", TextSearchRepository.containsPattern("50%_off"));
+        assertEquals("c:\\\\tmp\\_1", TextSearchRepository.escapeLike("c:\\tmp_1"));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.entity.User;
+import fin.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthPrincipalCache
+ *
+ * Tests TTL reuse, per-token keys, eviction and hit/miss metrics
+ */
+public class AuthPrincipalCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private UserRepository userRepository;
+    private MeterRegistry registry;
+    private AuthPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new SimpleMeterRegistry();
+        cache = new AuthPrincipalCache(userRepository, Duration.ofSeconds(30), 100, clock::get, registry);
+    }
+
+    @Test
+    void testUserIsLoadedOncePerTokenWithinTtl() {
+        User user = user(1L, true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertSame(user, cache.getActiveUser(1L, "token-a"));
+        assertSame(user, cache.getActiveUser(1L, "token-a"));
+        assertSame(user, cache.getActiveUser(1L, "token-b"));
+
+        verify(userRepository, times(2)).findById(1L);
+        assertEquals(1.0, registry.find("fin.auth.principal.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.find("fin.auth.principal.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, true)));
+
+        cache.getActiveUser(1L, "token-a");
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.getActiveUser(1L, "token-a");
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testInactiveAndMissingUsersResolveToNull() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, false)));
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertNull(cache.getActiveUser(1L, "token-a"));
+        assertNull(cache.getActiveUser(1L, "token-a"));
+        assertNull(cache.getActiveUser(2L, "token-b"));
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testEvictUserDropsAllOfItsTokens() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, true)), Optional.of(user(1L, false)));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L, true)));
+        cache.getActiveUser(1L, "token-a");
+        cache.getActiveUser(2L, "token-c");
+
+        cache.evictUser(1L);
+
+        assertNull(cache.getActiveUser(1L, "token-a"), "Deactivation should apply on the next request");
+        assertNotNull(cache.getActiveUser(2L, "token-c"));
+        verify(userRepository, times(1)).findById(2L);
+    }
+
+    private static User user(Long id, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setActive(active);
+        return user;
+    }
+}
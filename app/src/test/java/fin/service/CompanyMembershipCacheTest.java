@@ -0,0 +1,110 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.repository.UserCompanyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CompanyMembershipCache
+ *
+ * Tests TTL reuse, cached non-memberships, eviction and hit/miss metrics
+ */
+public class CompanyMembershipCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private UserCompanyRepository userCompanyRepository;
+    private MeterRegistry registry;
+    private CompanyMembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userCompanyRepository = mock(UserCompanyRepository.class);
+        registry = new SimpleMeterRegistry();
+        cache = new CompanyMembershipCache(userCompanyRepository, Duration.ofSeconds(30), 100, clock::get, registry);
+    }
+
+    @Test
+    void testMembershipIsQueriedOncePerUserAndCompanyWithinTtl() {
+        when(userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(7L, 42L, true)).thenReturn(true);
+        when(userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(7L, 43L, true)).thenReturn(false);
+
+        assertTrue(cache.isMember(7L, 42L));
+        assertTrue(cache.isMember(7L, 42L));
+        assertFalse(cache.isMember(7L, 43L));
+        assertFalse(cache.isMember(7L, 43L));
+
+        verify(userCompanyRepository, times(1)).existsByUserIdAndCompanyIdAndIsActive(7L, 42L, true);
+        verify(userCompanyRepository, times(1)).existsByUserIdAndCompanyIdAndIsActive(7L, 43L, true);
+        assertEquals(2.0, registry.find("fin.company.membership.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.find("fin.company.membership.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        when(userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(7L, 42L, true)).thenReturn(true);
+
+        cache.isMember(7L, 42L);
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.isMember(7L, 42L);
+
+        verify(userCompanyRepository, times(2)).existsByUserIdAndCompanyIdAndIsActive(7L, 42L, true);
+    }
+
+    @Test
+    void testEvictCompanyDropsOnlyThatCompanysMemberships() {
+        when(userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(7L, 42L, true)).thenReturn(false, true);
+        when(userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(7L, 43L, true)).thenReturn(true);
+        cache.isMember(7L, 42L);
+        cache.isMember(7L, 43L);
+
+        cache.evictCompany(42L);
+
+        assertTrue(cache.isMember(7L, 42L), "A new membership should apply on the next request");
+        assertTrue(cache.isMember(7L, 43L));
+        verify(userCompanyRepository, times(1)).existsByUserIdAndCompanyIdAndIsActive(7L, 43L, true);
+    }
+
+    @Test
+    void testEvictUserDropsAllOfItsMemberships() {
+        when(userCompanyRepository.existsByUserIdAndCompanyIdAndIsActive(7L, 42L, true)).thenReturn(true, false);
+        cache.isMember(7L, 42L);
+
+        cache.evictUser(7L);
+
+        assertFalse(cache.isMember(7L, 42L));
+    }
+}
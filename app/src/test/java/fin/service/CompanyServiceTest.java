@@ -0,0 +1,81 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.entity.FiscalPeriod;
+import fin.repository.CompanyRepository;
+import fin.repository.FiscalPeriodRepository;
+import fin.repository.UserCompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CompanyService
+ *
+ * Tests that fiscal period changes drop the cached fiscal period index
+ */
+public class CompanyServiceTest {
+
+    private FiscalPeriodRepository fiscalPeriodRepository;
+    private FiscalPeriodIndexService fiscalPeriodIndexService;
+    private CompanyService companyService;
+
+    @BeforeEach
+    void setUp() {
+        fiscalPeriodRepository = mock(FiscalPeriodRepository.class);
+        fiscalPeriodIndexService = mock(FiscalPeriodIndexService.class);
+        companyService = new CompanyService(mock(CompanyRepository.class), mock(UserCompanyRepository.class),
+            fiscalPeriodRepository, fiscalPeriodIndexService, mock(CompanyMembershipCache.class));
+    }
+
+    @Test
+    void testCloseFiscalPeriodInvalidatesTheCompanysIndex() {
+        FiscalPeriod period = new FiscalPeriod(42L, "FY2025", LocalDate.of(2025, 3, 1), LocalDate.of(2026, 2, 28));
+        when(fiscalPeriodRepository.findById(5L)).thenReturn(Optional.of(period));
+        when(fiscalPeriodRepository.save(any(FiscalPeriod.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        FiscalPeriod closed = companyService.closeFiscalPeriod(5L);
+
+        assertTrue(closed.isClosed());
+        verify(fiscalPeriodIndexService).invalidate(42L);
+    }
+
+    @Test
+    void testCloseUnknownFiscalPeriodLeavesTheIndexAlone() {
+        when(fiscalPeriodRepository.findById(5L)).thenReturn(Optional.empty());
+
+        assertNull(companyService.closeFiscalPeriod(5L));
+        verifyNoInteractions(fiscalPeriodIndexService);
+    }
+}
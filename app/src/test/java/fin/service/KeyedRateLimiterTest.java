@@ -0,0 +1,138 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service;
+
+import fin.service.KeyedRateLimiter.Decision;
+import fin.service.KeyedRateLimiter.EndpointClass;
+import fin.service.KeyedRateLimiter.Scope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeyedRateLimiter
+ *
+ * Tests per-key buckets, per-class limits, cache bounds and rejection metrics
+ */
+public class KeyedRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private MeterRegistry registry;
+    private KeyedRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new KeyedRateLimiter(2, 3, 5, 8, 100, Duration.ofMinutes(10), clock::get, registry);
+    }
+
+    @Test
+    void testKeysHaveIndependentBuckets() {
+        String noisy = Scope.USER.key(1);
+        String quiet = Scope.USER.key(2);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryConsume(EndpointClass.API, noisy).isAllowed());
+        }
+        Decision rejected = limiter.tryConsume(EndpointClass.API, noisy);
+        Decision other = limiter.tryConsume(EndpointClass.API, quiet);
+
+        assertFalse(rejected.isAllowed());
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertTrue(other.isAllowed());
+        assertEquals(4L, other.getRemaining());
+    }
+
+    @Test
+    void testLimitsAreConfiguredPerEndpointClass() {
+        String key = Scope.IP.key("10.0.0.1");
+
+        assertTrue(limiter.tryConsume(EndpointClass.LOGIN, key).isAllowed());
+        assertTrue(limiter.tryConsume(EndpointClass.LOGIN, key).isAllowed());
+        assertFalse(limiter.tryConsume(EndpointClass.LOGIN, key).isAllowed());
+
+        // The same key's API bucket is separate from its login bucket
+        Decision api = limiter.tryConsume(EndpointClass.API, key);
+        assertTrue(api.isAllowed());
+        assertEquals(5, api.getLimit());
+        assertEquals(8, limiter.getRequestsPerMinute(EndpointClass.COMPANY));
+    }
+
+    @Test
+    void testRejectionsAreCountedPerClassScopeAndKey() {
+        String key = Scope.COMPANY.key(7);
+        for (int i = 0; i < 11; i++) {
+            limiter.tryConsume(EndpointClass.COMPANY, key);
+        }
+
+        Counter counter = registry.find("fin.ratelimit.rejections").tag("class", "company").tag("scope", "company").counter();
+        assertNotNull(counter);
+        assertEquals(3.0, counter.count());
+        assertEquals(Map.of(key, 3L), limiter.getTopRejectedKeys(10));
+    }
+
+    @Test
+    void testIdleBucketsExpire() {
+        String key = Scope.USER.key(1);
+        limiter.tryConsume(EndpointClass.LOGIN, key);
+        limiter.tryConsume(EndpointClass.LOGIN, key);
+        assertFalse(limiter.tryConsume(EndpointClass.LOGIN, key).isAllowed());
+
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+        limiter.tryConsume(EndpointClass.API, Scope.USER.key(2));
+
+        assertEquals(1, limiter.getCachedKeyCount());
+        assertTrue(limiter.tryConsume(EndpointClass.LOGIN, key).isAllowed());
+    }
+
+    @Test
+    void testCacheIsBoundedByLeastRecentUse() {
+        KeyedRateLimiter bounded = new KeyedRateLimiter(2, 3, 5, 8, 10, Duration.ofMinutes(10), clock::get, registry);
+        for (int i = 0; i < 10; i++) {
+            clock.incrementAndGet();
+            bounded.tryConsume(EndpointClass.API, Scope.IP.key(i));
+        }
+        clock.incrementAndGet();
+        bounded.tryConsume(EndpointClass.API, Scope.IP.key(0));
+
+        clock.incrementAndGet();
+        bounded.tryConsume(EndpointClass.API, Scope.IP.key(10));
+
+        // Over capacity: evicted down to 90%, least recently used first
+        assertEquals(9, bounded.getCachedKeyCount());
+        assertEquals(4L, bounded.tryConsume(EndpointClass.API, Scope.IP.key(1)).getRemaining());
+        assertEquals(2L, bounded.tryConsume(EndpointClass.API, Scope.IP.key(0)).getRemaining());
+    }
+}
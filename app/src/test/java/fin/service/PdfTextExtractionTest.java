@@ -62,12 +62,13 @@ class PdfTextExtractionTest {
         when(pdfBoxConfigurator.isPdfBoxAvailable()).thenReturn(true);
         when(pdfBoxConfigurator.getPdfBoxStatus()).thenReturn("AVAILABLE");
         DocumentTextExtractor extractor = new DocumentTextExtractor(pdfBoxConfigurator);
-        List<String> lines = extractor.parseDocument(pdfFile);
+        DocumentTextExtractor.ExtractedDocument document = extractor.extractDocument(pdfFile);
+        List<String> lines = document.getLines();
 
         System.out.println("✅ Extraction completed!");
         System.out.println("📊 Total lines extracted: " + lines.size());
-        System.out.println("🏦 Account Number: " + extractor.getAccountNumber());
-        System.out.println("📅 Statement Period: " + extractor.getStatementPeriod());
+        System.out.println("🏦 Account Number: " + document.getAccountNumber());
+        System.out.println("📅 Statement Period: " + document.getStatementPeriod());
         
         // Analyze line lengths
         int shortLines = 0;
@@ -0,0 +1,130 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.engine;
+
+import fin.repository.BankTransactionRepository;
+import fin.service.classification.engine.ClassificationBatchWriter.ChunkTiming;
+import fin.service.classification.engine.ClassificationBatchWriter.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ClassificationBatchWriter
+ *
+ * Tests chunk boundaries, per-chunk transactions, returned counts and timings
+ */
+public class ClassificationBatchWriterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<List<Long>> writtenChunks = new ArrayList<>();
+    private BankTransactionRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private ClassificationBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BankTransactionRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // Each chunk takes 10 ms per requested row; one row per chunk is already classified elsewhere
+        when(repository.assignAccountCodeToUnclassified(anyString(), anyList(), any())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>(invocation.getArgument(1));
+            writtenChunks.add(ids);
+            clock.addAndGet(ids.size() * 10 * MILLIS);
+            return ids.size() - 1;
+        });
+
+        writer = new ClassificationBatchWriter(repository, transactionManager, clock::get);
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+    }
+
+    @Test
+    void testSplitsEachAccountIntoChunksOfBatchSize() {
+        Map<String, List<Long>> ids = new LinkedHashMap<>();
+        ids.put("4230", List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L));
+        ids.put("5000", List.of(8L, 9L, 10L));
+
+        WriteResult result = writer.writeAccountCodes(ids);
+
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L), List.of(8L, 9L, 10L)), writtenChunks);
+        verify(repository, times(3)).assignAccountCodeToUnclassified(eq("4230"), anyList(), any());
+        verify(repository, times(1)).assignAccountCodeToUnclassified(eq("5000"), anyList(), any());
+        // One transaction per chunk
+        verify(transactionManager, times(4)).commit(any());
+        assertEquals(3, result.getBatchSize());
+    }
+
+    @Test
+    void testReturnsUpdatedCountsAndTimingsPerChunk() {
+        Map<String, List<Long>> ids = new LinkedHashMap<>();
+        ids.put("4230", List.of(1L, 2L, 3L, 4L));
+
+        WriteResult result = writer.writeAccountCodes(ids);
+
+        // Counts are the rows the UPDATE actually changed, not the rows requested
+        assertEquals(2, result.getUpdatedRows());
+        List<ChunkTiming> chunks = result.getChunks();
+        assertEquals(2, chunks.size());
+
+        assertEquals("4230", chunks.get(0).getAccountCode());
+        assertEquals(3, chunks.get(0).getRequestedRows());
+        assertEquals(2, chunks.get(0).getUpdatedRows());
+        assertEquals(30, chunks.get(0).getElapsedMillis());
+
+        assertEquals(1, chunks.get(1).getRequestedRows());
+        assertEquals(0, chunks.get(1).getUpdatedRows());
+        assertEquals(10, chunks.get(1).getElapsedMillis());
+
+        assertEquals(40, result.getElapsedMillis());
+        assertEquals(30, result.getSlowestChunkMillis());
+    }
+
+    @Test
+    void testNothingToWriteRunsNoQueries() {
+        WriteResult result = writer.writeAccountCodes(Map.of());
+
+        assertEquals(0, result.getUpdatedRows());
+        assertTrue(result.getChunks().isEmpty());
+        verifyNoInteractions(repository, transactionManager);
+    }
+}
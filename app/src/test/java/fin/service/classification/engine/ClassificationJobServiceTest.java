@@ -0,0 +1,155 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.engine;
+
+import fin.repository.BankTransactionRepository;
+import fin.service.classification.engine.ClassificationJobService.ClassificationJob;
+import fin.service.classification.engine.TransactionClassificationEngine.RangeClassificationResult;
+import fin.service.classification.rules.TransactionMappingRuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ClassificationJobService: keyset chunk splitting over sparse IDs,
+ * failure of a single chunk and the job totals.
+ */
+public class ClassificationJobServiceTest {
+
+    private static final long COMPANY_ID = 7L;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private TransactionClassificationEngine engine;
+    private BankTransactionRepository repository;
+    private ClassificationJobService service;
+
+    // Unclassified IDs of the company: gappy, as with a shared pooled sequence
+    private final List<Long> unclassifiedIds = new ArrayList<>();
+    private final List<long[]> ranges = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        engine = mock(TransactionClassificationEngine.class);
+        repository = mock(BankTransactionRepository.class);
+        for (long id = 1; id <= 23; id++) {
+            unclassifiedIds.add(id * 1000 + 3);
+        }
+
+        when(repository.countByCompanyIdAndAccountCodeIsNullAndFiscalPeriodIdIsNotNull(COMPANY_ID))
+            .thenAnswer(invocation -> (long) unclassifiedIds.size());
+        when(repository.findUnclassifiedIdsAfter(eq(COMPANY_ID), anyLong(), any(Pageable.class)))
+            .thenAnswer(invocation -> idsAfter(invocation.getArgument(1), invocation.getArgument(2)));
+        when(engine.autoClassifyIdRange(eq(COMPANY_ID), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            ranges.add(new long[]{from, to});
+            int rows = (int) unclassifiedIds.stream().filter(id -> id >= from && id < to).count();
+            return new RangeClassificationResult(rows, rows / 2);
+        });
+
+        service = new ClassificationJobService(engine, mock(TransactionMappingRuleService.class), repository, 3, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void splitsSparseIdsIntoFullChunksAndTotalsThem() throws Exception {
+        ClassificationJob job = awaitFinished(service.submit(COMPANY_ID));
+
+        assertEquals(ClassificationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(23, job.getTotalRows());
+        assertEquals(23, job.getProcessedRows());
+        assertEquals(4 * 2 + 1, job.getClassifiedRows());   // four chunks of 5 (2 each) and one of 3 (1)
+        assertEquals(5, job.getTotalChunks());
+        assertEquals(5, job.getCompletedChunks());
+
+        // Chunks cover every ID exactly once and none is empty
+        assertEquals(5, ranges.size());
+        for (Long id : unclassifiedIds) {
+            long covering = ranges.stream().filter(r -> id >= r[0] && id < r[1]).count();
+            assertEquals(1, covering, "ID " + id);
+        }
+        for (long[] range : ranges) {
+            assertTrue(unclassifiedIds.stream().anyMatch(id -> id >= range[0] && id < range[1]));
+        }
+    }
+
+    @Test
+    void failedChunkFailsTheJobButOthersComplete() throws Exception {
+        when(engine.autoClassifyIdRange(eq(COMPANY_ID), eq(5004L), anyLong()))
+            .thenThrow(new IllegalStateException("deadlock detected"));
+
+        ClassificationJob job = awaitFinished(service.submit(COMPANY_ID));
+
+        assertEquals(ClassificationJob.Status.FAILED, job.getStatus());
+        assertTrue(job.getError().contains("deadlock detected"));
+        assertEquals(5, job.getCompletedChunks());
+        assertEquals(18, job.getProcessedRows());
+    }
+
+    @Test
+    void companyWithoutUnclassifiedRowsCompletesAtOnce() {
+        unclassifiedIds.clear();
+
+        ClassificationJob job = service.submit(COMPANY_ID);
+
+        assertEquals(ClassificationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(0, job.getTotalChunks());
+        verify(engine, never()).autoClassifyIdRange(anyLong(), anyLong(), anyLong());
+    }
+
+    private List<Long> idsAfter(long afterId, Pageable page) {
+        List<Long> after = unclassifiedIds.stream().filter(id -> id > afterId).sorted().toList();
+        if (page.getOffset() >= after.size()) {
+            return Collections.emptyList();
+        }
+        int from = (int) page.getOffset();
+        return after.subList(from, Math.min(after.size(), from + page.getPageSize()));
+    }
+
+    private static ClassificationJob awaitFinished(ClassificationJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(job.getFinishedAt(), "Job did not finish");
+        return job;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.classification.engine;
+
+import fin.entity.Account;
+import fin.entity.BankTransaction;
+import fin.entity.JournalEntry;
+import fin.entity.JournalEntryLine;
+import fin.repository.AccountPeriodBalanceRepository;
+import fin.repository.AccountPeriodBalanceRepository.BalanceDeltas;
+import fin.repository.JournalEntryBatchRepository;
+import fin.repository.JournalEntryLineRepository;
+import fin.repository.JournalEntryRepository;
+import fin.service.journal.AccountService;
+import fin.validation.BankAccountResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JournalPostingEngine
+ *
+ * Tests double-entry balance, header/line linkage, batching and failure handling
+ */
+public class JournalPostingEngineTest {
+
+    private static final long COMPANY_ID = 3L;
+    private static final long PERIOD_ID = 9L;
+    private static final long BANK_ID = 100L;
+    private static final long UTILITIES_ID = 423L;
+    private static final long SALES_ID = 400L;
+
+    private JournalEntryBatchRepository batchRepository;
+    private AccountPeriodBalanceRepository balanceRepository;
+    private JournalPostingEngine engine;
+
+    private final List<JournalEntry> insertedEntries = new ArrayList<>();
+    private final List<JournalEntryLine> insertedLines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AccountService accountService = mock(AccountService.class);
+        BankAccountResolver bankAccountResolver = mock(BankAccountResolver.class);
+        batchRepository = mock(JournalEntryBatchRepository.class);
+        balanceRepository = mock(AccountPeriodBalanceRepository.class);
+
+        when(accountService.getAccountsByCompany(COMPANY_ID))
+            .thenReturn(List.of(account("1000", BANK_ID), account("4230", UTILITIES_ID), account("4000", SALES_ID)));
+        when(bankAccountResolver.getDefaultCashAccount(COMPANY_ID)).thenReturn(Optional.of(account("1000", BANK_ID)));
+
+        // The database assigns header IDs; mimic it so the lines can be linked
+        doAnswer(invocation -> {
+            List<JournalEntry> entries = invocation.getArgument(0);
+            for (JournalEntry entry : entries) {
+                entry.setId(5000L + insertedEntries.size());
+                insertedEntries.add(entry);
+            }
+            return null;
+        }).when(batchRepository).insertEntries(anyList(), anyInt());
+        doAnswer(invocation -> {
+            insertedLines.addAll(invocation.getArgument(0));
+            return null;
+        }).when(batchRepository).insertLines(anyList(), anyInt());
+
+        engine = new JournalPostingEngine(accountService, bankAccountResolver, mock(JournalEntryRepository.class),
+            mock(JournalEntryLineRepository.class), batchRepository, balanceRepository);
+        ReflectionTestUtils.setField(engine, "batchSize", 2);
+    }
+
+    @Test
+    void testPostsOneBalancedEntryPerTransaction() throws Exception {
+        List<BankTransaction> transactions = List.of(
+            transaction(1L, "4230", new BigDecimal("1114.49"), BigDecimal.ZERO),
+            transaction(2L, "4000", BigDecimal.ZERO, new BigDecimal("2500.00")),
+            transaction(3L, "4230", new BigDecimal("80.00"), BigDecimal.ZERO));
+
+        int posted = engine.postTransactions(COMPANY_ID, transactions, "tester", false);
+
+        assertEquals(3, posted);
+        assertEquals(3, insertedEntries.size());
+        assertEquals(6, insertedLines.size());
+        for (JournalEntry entry : insertedEntries) {
+            List<JournalEntryLine> lines = linesOf(entry);
+            assertEquals(2, lines.size());
+            BigDecimal debits = lines.stream().map(JournalEntryLine::getDebitAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal credits = lines.stream().map(JournalEntryLine::getCreditAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, debits.compareTo(credits), "Entry " + entry.getReference() + " must balance");
+            assertTrue(debits.signum() > 0);
+        }
+        verify(batchRepository).insertEntries(anyList(), eq(2));
+        verify(batchRepository).insertLines(anyList(), eq(2));
+    }
+
+    @Test
+    void testLinesAreLinkedToTheirEntryAndTransaction() throws Exception {
+        BankTransaction expense = transaction(11L, "4230", new BigDecimal("50.00"), BigDecimal.ZERO);
+        BankTransaction income = transaction(12L, "4000", BigDecimal.ZERO, new BigDecimal("75.00"));
+
+        engine.postTransactions(COMPANY_ID, List.of(expense, income), "tester", false);
+
+        JournalEntry expenseEntry = insertedEntries.get(0);
+        assertEquals("TXN-11", expenseEntry.getReference());
+        assertEquals(PERIOD_ID, expenseEntry.getFiscalPeriodId());
+        List<JournalEntryLine> expenseLines = linesOf(expenseEntry);
+        assertTrue(expenseLines.stream().allMatch(line -> line.getSourceTransactionId().equals(11L)));
+        // Money out: debit the expense, credit the bank
+        assertEquals(UTILITIES_ID, expenseLines.get(0).getAccountId());
+        assertEquals(BANK_ID, expenseLines.get(1).getAccountId());
+
+        JournalEntry incomeEntry = insertedEntries.get(1);
+        assertEquals("TXN-12", incomeEntry.getReference());
+        List<JournalEntryLine> incomeLines = linesOf(incomeEntry);
+        assertTrue(incomeLines.stream().allMatch(line -> line.getSourceTransactionId().equals(12L)));
+        // Money in: debit the bank, credit the income account
+        assertEquals(BANK_ID, incomeLines.get(0).getAccountId());
+        assertEquals(SALES_ID, incomeLines.get(1).getAccountId());
+
+        ArgumentCaptor<BalanceDeltas> deltas = ArgumentCaptor.forClass(BalanceDeltas.class);
+        verify(balanceRepository).apply(deltas.capture());
+        assertEquals(3, deltas.getValue().size(), "Bank, utilities and sales balances for the period");
+    }
+
+    @Test
+    void testInvalidTransactionFailsTheWholeBatchBeforeAnythingIsWritten() {
+        List<BankTransaction> transactions = List.of(
+            transaction(21L, "4230", new BigDecimal("10.00"), BigDecimal.ZERO),
+            transaction(22L, "9999", new BigDecimal("10.00"), BigDecimal.ZERO),
+            transaction(23L, "4230", new BigDecimal("10.00"), BigDecimal.ZERO));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> engine.postTransactions(COMPANY_ID, transactions, "tester", false));
+
+        assertTrue(e.getMessage().contains("9999"));
+        verifyNoInteractions(batchRepository, balanceRepository);
+    }
+
+    @Test
+    void testSkipInvalidPostsTheRest() throws Exception {
+        List<BankTransaction> transactions = List.of(
+            transaction(31L, "4230", new BigDecimal("10.00"), BigDecimal.ZERO),
+            transaction(32L, "9999", new BigDecimal("10.00"), BigDecimal.ZERO),
+            transaction(33L, "4230", new BigDecimal("10.00"), BigDecimal.ZERO));
+
+        int posted = engine.postTransactions(COMPANY_ID, transactions, "tester", true);
+
+        assertEquals(2, posted);
+        assertEquals(List.of("TXN-31", "TXN-33"), insertedEntries.stream().map(JournalEntry::getReference).toList());
+        assertEquals(4, insertedLines.size());
+    }
+
+    @Test
+    void testLineInsertFailurePropagatesAndSkipsBalances() {
+        doThrow(new DataIntegrityViolationException("journal_entry_lines_account_id_fkey"))
+            .when(batchRepository).insertLines(anyList(), anyInt());
+
+        // The exception must escape so the surrounding @Transactional rolls back the inserted headers
+        assertThrows(DataIntegrityViolationException.class, () -> engine.postTransactions(COMPANY_ID,
+            List.of(transaction(41L, "4230", new BigDecimal("10.00"), BigDecimal.ZERO)), "tester", false));
+
+        verify(balanceRepository, never()).apply(any());
+    }
+
+    private List<JournalEntryLine> linesOf(JournalEntry entry) {
+        return insertedLines.stream().filter(line -> entry.getId().equals(line.getJournalEntryId())).toList();
+    }
+
+    private static Account account(String code, long id) {
+        Account account = new Account(code, code, COMPANY_ID);
+        account.setId(id);
+        return account;
+    }
+
+    private static BankTransaction transaction(Long id, String accountCode, BigDecimal debit, BigDecimal credit) {
+        BankTransaction transaction = new BankTransaction();
+        transaction.setId(id);
+        transaction.setCompanyId(COMPANY_ID);
+        transaction.setFiscalPeriodId(PERIOD_ID);
+        transaction.setTransactionDate(LocalDate.of(2025, 3, 8));
+        transaction.setDescription("Transaction " + id);
+        transaction.setAccountCode(accountCode);
+        transaction.setDebitAmount(debit);
+        transaction.setCreditAmount(credit);
+        return transaction;
+    }
+}
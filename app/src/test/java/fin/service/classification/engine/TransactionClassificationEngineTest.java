@@ -128,6 +128,45 @@ public class TransactionClassificationEngineTest {
         assertThat(updated.getAccountCode()).isEqualTo("4230");
     }
 
+    @Test
+    public void autoClassifyCompany_returnsChunkTimings() {
+        Company company = new Company("ChunkTimingCo");
+        companyRepository.save(company);
+
+        FiscalPeriod fp = new FiscalPeriod();
+        fp.setCompanyId(company.getId());
+        fp.setStartDate(LocalDate.of(2025,3,1));
+        fp.setEndDate(LocalDate.of(2026,2,28));
+        fiscalPeriodRepository.save(fp);
+
+        accountRepository.save(new Account("1000", "Bank", company.getId()));
+        accountRepository.save(new Account("4230", "Utilities", company.getId()));
+
+        for (int i = 0; i < 2; i++) {
+            BankTransaction tx = new BankTransaction();
+            tx.setCompanyId(company.getId());
+            tx.setFiscalPeriodId(fp.getId());
+            tx.setTransactionDate(LocalDate.of(2025,3,8 + i));
+            tx.setDescription("Magtape Debit MTN Sp " + i);
+            tx.setDebitAmount(new BigDecimal("100.00"));
+            tx.setCreditAmount(BigDecimal.ZERO);
+            bankTransactionRepository.save(tx);
+        }
+
+        transactionMappingRuleService.createTransactionMappingRule(
+            company.getId(), "MTN", "CONTAINS", "MTN", "4230", "Utilities", 100, "tester");
+
+        TransactionClassificationEngine.BatchClassificationResult result = engine.autoClassifyTransactions(company.getId());
+
+        assertThat(result.getStatus()).isEqualTo("SUCCESS");
+        assertThat(result.getTotalClassified()).isEqualTo(2L);
+        assertThat(result.getChunks()).hasSize(1);
+        assertThat(result.getChunks().get(0).getAccountCode()).isEqualTo("4230");
+        assertThat(result.getChunks().get(0).getRequestedRows()).isEqualTo(2);
+        assertThat(result.getChunks().get(0).getUpdatedRows()).isEqualTo(2);
+        assertThat(result.getChunks().get(0).getElapsedMillis()).isGreaterThanOrEqualTo(0L);
+    }
+
     @Test
     public void autoClassify_handlesDisplayAccountCode_withName() {
         Company company = new Company("AutoClassCo2");
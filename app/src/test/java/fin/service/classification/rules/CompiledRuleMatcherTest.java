@@ -0,0 +1,95 @@
+package fin.service.classification.rules;
+
+import fin.entity.Account;
+import fin.entity.TransactionMappingRule;
+import fin.entity.TransactionMappingRule.MatchType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the compiled matcher agrees with TransactionMappingRule.matches and
+ * respects rule precedence.
+ */
+class CompiledRuleMatcherTest {
+
+    private static TransactionMappingRule rule(String name, MatchType type, String value, String accountCode) {
+        TransactionMappingRule rule = new TransactionMappingRule();
+        rule.setRuleName(name);
+        rule.setMatchType(type);
+        rule.setMatchValue(value);
+        rule.setAccount(new Account(accountCode, name, 1L));
+        return rule;
+    }
+
+    @Test
+    void match_ReturnsFirstRuleInPriorityOrder() {
+        CompiledRuleMatcher matcher = CompiledRuleMatcher.compile(List.of(
+            rule("MTN airtime", MatchType.CONTAINS, "MTN SP", "4230"),
+            rule("Any MTN", MatchType.CONTAINS, "mtn", "4200")));
+
+        assertEquals("4230", matcher.match("Magtape Debit MTN Sp A5375351").getAccountCode());
+        assertEquals("4200", matcher.match("MTN prepaid").getAccountCode());
+        assertNull(matcher.match("Vodacom"));
+    }
+
+    @Test
+    void match_HonoursAnchoredMatchTypes() {
+        CompiledRuleMatcher matcher = CompiledRuleMatcher.compile(List.of(
+            rule("Starts", MatchType.STARTS_WITH, "FEE", "1"),
+            rule("Ends", MatchType.ENDS_WITH, "SALARY", "2"),
+            rule("Equals", MatchType.EQUALS, "CASH DEPOSIT", "3")));
+
+        assertEquals("1", matcher.match("  fee: monthly ").getAccountCode());
+        assertNull(matcher.match("MONTHLY FEE CHARGE"));
+        assertEquals("2", matcher.match("March salary").getAccountCode());
+        assertNull(matcher.match("SALARY ADVANCE"));
+        assertEquals("3", matcher.match("cash deposit").getAccountCode());
+        assertNull(matcher.match("CASH DEPOSIT ATM"));
+    }
+
+    @Test
+    void match_OverlappingLiteralsUseFailureLinks() {
+        CompiledRuleMatcher matcher = CompiledRuleMatcher.compile(List.of(
+            rule("Long", MatchType.CONTAINS, "ABCD", "1"),
+            rule("Short", MatchType.CONTAINS, "BC", "2")));
+
+        assertEquals("2", matcher.match("XABCX").getAccountCode());
+        assertEquals("1", matcher.match("XABCDX").getAccountCode());
+    }
+
+    @Test
+    void match_RegexRulesAreOnlyUsedWhenTheyOutrankLiterals() {
+        CompiledRuleMatcher matcher = CompiledRuleMatcher.compile(List.of(
+            rule("Transfer", MatchType.REGEX, "^TRF .*", "1"),
+            rule("Contains", MatchType.CONTAINS, "TRF", "2"),
+            rule("Broken", MatchType.REGEX, "([", "3")));
+
+        assertEquals(2, matcher.size());
+        assertEquals("1", matcher.match("trf to savings").getAccountCode());
+        assertEquals("2", matcher.match("IB TRF").getAccountCode());
+    }
+
+    @Test
+    void match_AgreesWithEntityMatches() {
+        List<TransactionMappingRule> rules = List.of(
+            rule("A", MatchType.ENDS_WITH, "CHARGE", "1"),
+            rule("B", MatchType.CONTAINS, "ATM", "2"),
+            rule("C", MatchType.STARTS_WITH, "POS", "3"),
+            rule("D", MatchType.REGEX, "^CARD .*", "4"));
+        CompiledRuleMatcher matcher = CompiledRuleMatcher.compile(rules);
+
+        for (String description : List.of("ATM CHARGE", "pos purchase atm", "Card payment",
+                                          "POS", "nothing here", "")) {
+            String expected = rules.stream()
+                .filter(r -> r.matches(description))
+                .map(r -> r.getAccount().getAccountCode())
+                .findFirst()
+                .orElse(null);
+            CompiledRuleMatcher.CompiledRule actual = matcher.match(description);
+            assertEquals(expected, actual != null ? actual.getAccountCode() : null, description);
+        }
+    }
+}
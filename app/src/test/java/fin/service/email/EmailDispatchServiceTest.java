@@ -0,0 +1,256 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.email;
+
+import fin.repository.EmailOutboxRepository;
+import fin.repository.EmailOutboxRepository.OutboxMessage;
+import fin.repository.EmailOutboxRepository.Status;
+import jakarta.mail.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for outbox email dispatch against an in-process SMTP server: pooled connections,
+ * throttling, retry/backoff decisions and attachment cleanup. The outbox table is mocked.
+ */
+public class EmailDispatchServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path attachmentDir;
+
+    private FakeSmtpServer smtpServer;
+    private EmailOutboxRepository outbox;
+    private Queue<OutboxMessage> due;
+    private SmtpTransportPool transports;
+    private EmailDispatchService dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        outbox = mock(EmailOutboxRepository.class);
+        due = new ConcurrentLinkedQueue<>();
+        // Hand out at most "limit" due messages per claim, like the real query
+        when(outbox.claimDue(anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(0);
+            List<OutboxMessage> claimed = new ArrayList<>();
+            OutboxMessage message;
+            while (claimed.size() < limit && (message = due.poll()) != null) {
+                claimed.add(message);
+            }
+            return claimed;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        if (transports != null) {
+            transports.close();
+        }
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsEveryMessageOverAtMostOneConnectionPerWorker() throws Exception {
+        dispatcher = createDispatcher(2, 0, 3);
+        for (long id = 1; id <= 12; id++) {
+            due.add(message(id, "employee" + id + "@example.com", 0, null));
+        }
+
+        dispatcher.dispatchDue();
+
+        verify(outbox, timeout(TIMEOUT_MILLIS).times(12)).markSent(anyLong(), eq(1));
+        assertEquals(12, smtpServer.getMessages().size());
+        assertTrue(smtpServer.getConnectionCount() <= 2,
+            "Expected pooled connections, got " + smtpServer.getConnectionCount());
+        verify(outbox, never()).markForRetry(anyLong(), anyInt(), any(), any());
+        verify(outbox, never()).markFailed(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void throttlesSendsToConfiguredRate() throws Exception {
+        dispatcher = createDispatcher(4, 5, 3);
+        for (long id = 1; id <= 10; id++) {
+            due.add(message(id, "employee" + id + "@example.com", 0, null));
+        }
+
+        long start = System.nanoTime();
+        dispatcher.dispatchDue();
+        verify(outbox, timeout(TIMEOUT_MILLIS).times(10)).markSent(anyLong(), eq(1));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // 5 sends from the initial bucket, the other 5 refilled over roughly one second
+        assertTrue(elapsedMillis >= 700, "10 sends at 5/s finished in " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void rejectedRecipientFailsWithoutRetry() throws Exception {
+        smtpServer.rejectPermanently("gone@example.com");
+        dispatcher = createDispatcher(1, 0, 3);
+        due.add(message(7, "gone@example.com", 0, null));
+
+        dispatcher.dispatchDue();
+
+        verify(outbox, timeout(TIMEOUT_MILLIS)).markFailed(eq(7L), eq(1), contains("SendFailedException"));
+        verify(outbox, never()).markForRetry(anyLong(), anyInt(), any(), any());
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    void temporaryFailureIsRetriedWithBackoff() throws Exception {
+        smtpServer.rejectTemporarily("busy@example.com");
+        dispatcher = createDispatcher(1, 0, 3);
+        due.add(message(8, "busy@example.com", 1, null));
+
+        dispatcher.dispatchDue();
+
+        // Second failed attempt: initial backoff (30s) doubled, applied on the database clock
+        verify(outbox, timeout(TIMEOUT_MILLIS)).markForRetry(eq(8L), eq(2), eq(Duration.ofSeconds(60)), anyString());
+        verify(outbox, never()).markFailed(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void temporaryFailureOnLastAttemptFails() throws Exception {
+        smtpServer.rejectTemporarily("busy@example.com");
+        dispatcher = createDispatcher(1, 0, 3);
+        due.add(message(9, "busy@example.com", 2, null));
+
+        dispatcher.dispatchDue();
+
+        verify(outbox, timeout(TIMEOUT_MILLIS)).markFailed(eq(9L), eq(3), anyString());
+        verify(outbox, never()).markForRetry(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void attachmentIsSentAndThenDeleted() throws Exception {
+        Path attachment = Files.write(attachmentDir.resolve("payslip-1.pdf"), "%PDF-1.4 test".getBytes());
+        dispatcher = createDispatcher(1, 0, 3);
+        due.add(message(10, "employee@example.com", 0, attachment));
+
+        dispatcher.dispatchDue();
+
+        verify(outbox, timeout(TIMEOUT_MILLIS)).markSent(10L, 1);
+        String received = smtpServer.getMessages().get(0);
+        assertTrue(received.contains("Payslip_March_2025.pdf"));
+        assertTrue(received.contains("Your Payslip - March 2025"));
+        assertFalse(Files.exists(attachment));
+    }
+
+    @Test
+    void missingAttachmentFailsWithoutRetry() throws Exception {
+        dispatcher = createDispatcher(1, 0, 3);
+        due.add(message(11, "employee@example.com", 0, attachmentDir.resolve("missing.pdf")));
+
+        dispatcher.dispatchDue();
+
+        verify(outbox, timeout(TIMEOUT_MILLIS)).markFailed(eq(11L), eq(1), contains("FileNotFoundException"));
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    void backoffDoublesAndIsCapped() {
+        dispatcher = createDispatcher(1, 0, 10);
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(240), dispatcher.backoff(4));
+        assertEquals(Duration.ofHours(1), dispatcher.backoff(10));
+    }
+
+    @Test
+    void progressIsOnlyReportedToTheBatchCompany() {
+        dispatcher = createDispatcher(1, 0, 3);
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        Map<Status, Integer> none = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0);
+            none.put(status, 0);
+        }
+        counts.put(Status.PENDING, 2);
+        counts.put(Status.SENT, 1);
+        when(outbox.countByStatus("batch-1", 1L)).thenReturn(counts);
+        when(outbox.countByStatus("batch-1", 2L)).thenReturn(none);
+
+        assertEquals(3, dispatcher.getProgress("batch-1", 1L).getTotal());
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.getProgress("batch-1", 2L));
+    }
+
+    @Test
+    void attachmentDirMustBeConfigured() {
+        transports = createTransports(1);
+        dispatcher = new EmailDispatchService(outbox, transports, "payroll@example.com", "Payroll",
+            1, 0, 3, 30, 60_000, "");
+
+        assertThrows(IllegalStateException.class, dispatcher::getAttachmentDir);
+    }
+
+    private EmailDispatchService createDispatcher(int concurrency, int ratePerSecond, int maxAttempts) {
+        transports = createTransports(concurrency);
+        // Long poll interval: tests drive dispatch through dispatchDue()
+        return new EmailDispatchService(outbox, transports, "payroll@example.com", "Payroll",
+            concurrency, ratePerSecond, maxAttempts, 30, 60_000, attachmentDir.toString());
+    }
+
+    private SmtpTransportPool createTransports(int concurrency) {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "127.0.0.1");
+        props.put("mail.smtp.port", String.valueOf(smtpServer.getPort()));
+        props.put("mail.smtp.connectiontimeout", "5000");
+        props.put("mail.smtp.timeout", "5000");
+        return new SmtpTransportPool(Session.getInstance(props), "127.0.0.1", smtpServer.getPort(),
+            null, null, concurrency);
+    }
+
+    private static OutboxMessage message(long id, String to, int attempts, Path attachment) {
+        return new OutboxMessage(id, "batch-1", 1L, to, "Test Employee", "Your Payslip - March 2025",
+            "Dear Test Employee,\n\nPlease find attached your payslip.",
+            attachment != null ? attachment.toString() : null,
+            attachment != null ? "Payslip_March_2025.pdf" : null,
+            attempts);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-document PDF font cache and disk-backed page buffering.
+ */
+class PdfReportDocumentTest {
+
+    @Test
+    void reusesOneFontInstancePerDocument() throws Exception {
+        try (PdfReportDocument pdf = new PdfReportDocument(1024 * 1024)) {
+            assertSame(pdf.font(Standard14Fonts.FontName.HELVETICA), pdf.font(Standard14Fonts.FontName.HELVETICA));
+            assertNotSame(pdf.font(Standard14Fonts.FontName.HELVETICA), pdf.font(Standard14Fonts.FontName.HELVETICA_BOLD));
+            assertEquals(pdf.font(Standard14Fonts.FontName.COURIER).getStringWidth("Total") / 1000 * 10,
+                pdf.textWidth(Standard14Fonts.FontName.COURIER, "Total", 10), 0.001);
+        }
+    }
+
+    @Test
+    void writesPagesBeyondTheMemoryBudget() throws Exception {
+        int pages = 200;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // A tiny in-memory budget forces page content into the temporary file
+        try (PdfReportDocument pdf = new PdfReportDocument(16 * 1024)) {
+            for (int i = 0; i < pages; i++) {
+                try (PDPageContentStream cs = new PDPageContentStream(pdf.getDocument(), pdf.addPage())) {
+                    cs.setFont(pdf.font(Standard14Fonts.FontName.HELVETICA), 9);
+                    for (int line = 0; line < 60; line++) {
+                        cs.beginText();
+                        cs.newLineAtOffset(50, 800 - line * 12);
+                        cs.showText("Page " + i + " line " + line);
+                        cs.endText();
+                    }
+                }
+            }
+            assertEquals(pages, pdf.getPageCount());
+            pdf.save(out);
+        }
+
+        try (PDDocument reloaded = Loader.loadPDF(out.toByteArray())) {
+            assertEquals(pages, reloaded.getNumberOfPages());
+        }
+    }
+}
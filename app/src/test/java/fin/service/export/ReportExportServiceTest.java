@@ -0,0 +1,129 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import fin.entity.Company;
+import fin.model.report.ColumnDefinition;
+import fin.service.CompanyService;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the prepare-then-write export path used by streaming endpoints.
+ */
+class ReportExportServiceTest {
+
+    private static final List<ColumnDefinition> COLUMNS = List.of(
+        new ColumnDefinition("Description", "description", 300, "text", "left"),
+        new ColumnDefinition("Debit", "debit", 90, "currency", "right"));
+
+    private CompanyService companyService;
+    private ReportExportService service;
+
+    @BeforeEach
+    void setUp() {
+        companyService = mock(CompanyService.class);
+        Company company = new Company();
+        company.setName("Test Co");
+        when(companyService.getCompanyById(1L)).thenReturn(company);
+        service = new ReportExportService(companyService);
+        ReflectionTestUtils.setField(service, "pdfMaxMainMemoryMb", 16);
+        ReflectionTestUtils.setField(service, "excelRowWindow", 500);
+    }
+
+    @Test
+    void prepareExcelRejectsAnEmptyReportBeforeAnythingIsWritten() throws Exception {
+        StreamingExcelWriter writer = service.openExcelWriter("GENERAL LEDGER", COLUMNS);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.prepareExcel(writer, 1L, null));
+
+        assertEquals("No data provided for Excel export", e.getMessage());
+        verifyNoInteractions(companyService);
+    }
+
+    @Test
+    void preparedExcelWritesTheWorkbook() throws Exception {
+        StreamingExcelWriter writer = service.openExcelWriter("GENERAL LEDGER", COLUMNS);
+        writer.writeRow(Map.of("description", "Opening balance", "debit", new BigDecimal("10.00")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (PreparedExport export = service.prepareExcel(writer, 1L, null)) {
+            verify(companyService).getCompanyById(1L);
+            export.writeTo(out);
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("Opening balance", workbook.getSheet("GENERAL_LEDGER").getRow(1).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    void preparePdfRejectsAnEmptyReport() {
+        assertThrows(IllegalArgumentException.class,
+            () -> service.preparePDF(Collections.emptyIterator(), COLUMNS, "GENERAL LEDGER", 1L, null));
+        verifyNoInteractions(companyService);
+    }
+
+    @Test
+    void titlePageCarriesTheFooter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (PreparedExport export = service.preparePDF(
+                List.<Map<String, Object>>of(Map.of("description", "Opening balance", "debit", BigDecimal.TEN)).iterator(),
+                COLUMNS, "GENERAL LEDGER", 1L, null)) {
+            export.writeTo(out);
+        }
+
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            assertEquals(2, document.getNumberOfPages());
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(1);
+            stripper.setEndPage(1);
+            assertTrue(stripper.getText(document).contains("Page 1 |"), "Title page is numbered");
+            stripper.setStartPage(2);
+            stripper.setEndPage(2);
+            assertTrue(stripper.getText(document).contains("Page 2 |"), "Data pages follow on");
+        }
+    }
+}
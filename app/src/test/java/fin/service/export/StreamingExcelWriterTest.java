@@ -0,0 +1,110 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.export;
+
+import fin.entity.Company;
+import fin.model.report.ColumnDefinition;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SXSSF-based report writer and its style cache.
+ */
+class StreamingExcelWriterTest {
+
+    private static final List<ColumnDefinition> COLUMNS = List.of(
+        new ColumnDefinition("Date", "date", 90, "date", "left"),
+        new ColumnDefinition("Description", "description", 300, "text", "left"),
+        new ColumnDefinition("Debit", "debit", 90, "currency", "right"),
+        new ColumnDefinition("Credit", "credit", 90, "currency", "right"));
+
+    @Test
+    void writesRowsBeyondTheWindowWithSharedStyles() throws Exception {
+        int rows = 2_500;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter("GENERAL LEDGER", COLUMNS, 100, true, 15, true)) {
+            for (int i = 0; i < rows; i++) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("date", LocalDate.of(2025, 3, 1).plusDays(i % 28));
+                row.put("description", "Line " + i);
+                row.put("debit", new BigDecimal("10.50"));
+                row.put("credit", null);
+                writer.writeRow(row);
+            }
+            assertEquals(3, writer.getStyles().size(), "One style per format/alignment pair");
+
+            Company company = new Company();
+            company.setName("Test Co");
+            writer.finish(company, null, out);
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("Title", workbook.getSheetName(0));
+            Sheet data = workbook.getSheet("GENERAL_LEDGER");
+            assertEquals(rows, data.getLastRowNum(), "Header row plus every data row");
+            assertEquals("Debit", data.getRow(0).getCell(2).getStringCellValue());
+
+            Cell debit = data.getRow(rows).getCell(2);
+            assertEquals(CellType.NUMERIC, debit.getCellType());
+            assertEquals(10.5, debit.getNumericCellValue(), 0.0001);
+            assertEquals(ExcelStyleCache.CURRENCY_FORMAT, debit.getCellStyle().getDataFormatString());
+            assertEquals(HorizontalAlignment.RIGHT, debit.getCellStyle().getAlignment());
+            assertTrue(workbook.getNumCellStyles() < 10, "Styles must not grow with the row count");
+
+            assertEquals("Total Records: " + rows, findTitleLine(workbook.getSheetAt(0), "Total Records"));
+            assertTrue(data.getColumnWidth(1) <= 255 * 256, "Point widths are converted to characters");
+        }
+    }
+
+    private static String findTitleLine(Sheet sheet, String prefix) {
+        for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+            if (sheet.getRow(i) != null && sheet.getRow(i).getCell(0) != null) {
+                String value = sheet.getRow(i).getCell(0).getStringCellValue();
+                if (value.startsWith(prefix)) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -16,9 +16,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -84,4 +89,50 @@ public class JournalEntryMapperTest {
         assertEquals(new BigDecimal("150.00"), dto.getTotalDebit());
         assertEquals(new BigDecimal("150.00"), dto.getTotalCredit());
     }
+
+    @Test
+    public void toDtos_loadsPageLinesAndAccountsInOneQueryEach() {
+        JournalEntry described = new JournalEntry("REF-3", LocalDate.now(), "Header Desc", 1L, 1L, "tester");
+        described.setId(30L);
+        JournalEntry undescribed = new JournalEntry("REF-4", LocalDate.now(), null, 1L, 1L, "tester");
+        undescribed.setId(40L);
+
+        JournalEntryLine describedLine = new JournalEntryLine();
+        describedLine.setJournalEntryId(30L);
+        describedLine.setAccountId(303L);
+        describedLine.setDebitAmount(new BigDecimal("10.00"));
+
+        JournalEntryLine debit = new JournalEntryLine();
+        debit.setJournalEntryId(40L);
+        debit.setAccountId(101L);
+        debit.setDebitAmount(new BigDecimal("75.00"));
+
+        JournalEntryLine credit = new JournalEntryLine();
+        credit.setJournalEntryId(40L);
+        credit.setAccountId(202L);
+        credit.setCreditAmount(new BigDecimal("75.00"));
+
+        when(journalEntryLineRepository.findByJournalEntryIdInOrderByJournalEntryIdAscLineNumberAscIdAsc(Arrays.asList(30L, 40L)))
+            .thenReturn(Arrays.asList(describedLine, debit, credit));
+
+        Account a1 = new Account();
+        a1.setId(101L);
+        a1.setAccountName("DebAcct");
+        Account a2 = new Account();
+        a2.setId(202L);
+        a2.setAccountName("CredAcct");
+        // Only the accounts of the entry without a header description are looked up
+        when(accountRepository.findAllById(new HashSet<>(Arrays.asList(101L, 202L)))).thenReturn(Arrays.asList(a1, a2));
+
+        List<JournalEntryDTO> dtos = mapper.toDtos(Arrays.asList(described, undescribed));
+
+        assertEquals(2, dtos.size());
+        assertEquals("Header Desc", dtos.get(0).getDescription());
+        assertEquals(1, dtos.get(0).getLineCount());
+        assertEquals("DebAcct - CredAcct", dtos.get(1).getDescription());
+        assertEquals(2, dtos.get(1).getLineCount());
+        assertEquals(new BigDecimal("75.00"), dtos.get(1).getTotalDebit());
+        verify(journalEntryLineRepository, never()).findByJournalEntryId(anyLong());
+        verify(accountRepository, never()).findById(anyLong());
+    }
 }
@@ -26,7 +26,7 @@ public class AbsaBankParserDebugTest {
         };
 
         for (String line : lines) {
-            parser.reset();
+            parser.reset(context);
             ParsedTransaction tx = parser.parse(line, context);
             System.out.println("Line: " + line);
             System.out.println("  -> type=" + (tx == null ? "null" : tx.getType()) + ", amount=" + (tx == null ? "null" : tx.getAmount()) + ", balance=" + (tx == null ? "null" : tx.getBalance()) + ", serviceFee=" + (tx == null ? "null" : tx.hasServiceFee()));
@@ -159,7 +159,7 @@ class AbsaBankParserTest {
 
         for (String line : debitLines) {
             // Reset parser state between cases so previous balances don't affect the heuristics
-            parser.reset();
+            parser.reset(context);
             ParsedTransaction tx = parser.parse(line, context);
             assertNotNull(tx);
             assertEquals(TransactionType.DEBIT, tx.getType(), "Line: " + line);
@@ -192,7 +192,7 @@ class AbsaBankParserTest {
         };
 
         for (String[] tuple : feeLines) {
-            parser.reset();
+            parser.reset(context);
             String line = tuple[0];
             ParsedTransaction tx = parser.parse(line, context);
             assertNotNull(tx);
@@ -232,7 +232,7 @@ class AbsaBankParserTest {
         parser.parse("23/02/2023 Test Transaction 100.00 54 882.66", context);
 
         // Reset
-        parser.reset();
+        parser.reset(context);
 
         // Should be able to detect header again
         assertFalse(parser.canParse("ABSA Bank Limited", context));
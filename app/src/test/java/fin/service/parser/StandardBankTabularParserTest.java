@@ -8,6 +8,12 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -189,7 +195,7 @@ class StandardBankTabularParserTest {
         parser.parse("TEST PAYMENT 100.00- 03 16 24,106.81", context);
 
         // Reset
-        parser.reset();
+        parser.reset(context);
 
         // Should be able to parse new lines
         ParsedTransaction tx = parser.parse("NEW PAYMENT 200.00 03 17 24,306.81", context);
@@ -239,7 +245,7 @@ class StandardBankTabularParserTest {
 
     @Test
     void shouldFinalizePendingTransactions() {
-        ParsedTransaction tx = parser.finalizeParsing();
+        ParsedTransaction tx = parser.finalizeParsing(context);
         assertNull(tx); // No pending transactions initially
 
         // Parse a transaction - should return it immediately now
@@ -249,4 +255,69 @@ class StandardBankTabularParserTest {
         assertNotNull(tx);
         assertEquals("TEST TX", tx.getDescription().trim());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldKeepStatementStateWithoutContext() {
+        parser.parse("Statement from 15 December 2022 to 14 January 2023", null);
+
+        ParsedTransaction tx = parser.parse("PAYMENT 1.00- 01 05 100.00", null);
+        assertEquals(LocalDate.of(2023, 1, 5), tx.getDate());
+
+        // The continuation line is only accepted because the previous line is remembered
+        assertTrue(parser.canParse("REF 12345 ACME SUPPLIES", null));
+
+        parser.reset(null);
+        assertFalse(parser.canParse("REF 12345 ACME SUPPLIES", null));
+    }
+
+    @Test
+    void shouldParseStatementsConcurrentlyWithSharedParser() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<LocalDate>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int year = 2010 + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<LocalDate> dates = new ArrayList<>();
+                    for (int run = 0; run < 200; run++) {
+                        dates.addAll(parseStatement(year));
+                    }
+                    return dates;
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < threads; i++) {
+                int year = 2010 + i;
+                List<LocalDate> dates = results.get(i).get();
+                assertEquals(400, dates.size(), "Every transaction and continuation is parsed for " + year);
+                for (int d = 0; d < dates.size(); d += 2) {
+                    assertEquals(LocalDate.of(year, 12, 20), dates.get(d));
+                    assertEquals(LocalDate.of(year + 1, 1, 5), dates.get(d + 1));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parse one statement with its own context and return the transaction dates,
+     * failing if a continuation line is not recognised.
+     */
+    private List<LocalDate> parseStatement(int year) {
+        TransactionParsingContext statement = new TransactionParsingContext.Builder()
+                .statementDate(LocalDate.of(year, 12, 15))
+                .build();
+        List<LocalDate> dates = new ArrayList<>();
+        parser.parse("Statement from 15 December " + year + " to 14 January " + (year + 1), statement);
+        dates.add(parser.parse("PAYMENT 1.00- 12 20 100.00", statement).getDate());
+        assertTrue(parser.canParse("REF 12345 ACME SUPPLIES", statement));
+        dates.add(parser.parse("TRANSFER 2.00- 01 05 98.00", statement).getDate());
+        parser.finalizeParsing(statement);
+        return dates;
+    }
+}
@@ -0,0 +1,57 @@
+package fin.service.reporting;
+
+import fin.repository.TransactionExportRepository;
+import fin.repository.TransactionExportRepository.ExportRow;
+import fin.repository.TransactionExportRepository.ExportRowHandler;
+import fin.util.Debugger;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CsvExportServiceTest {
+
+    @Test
+    public void writeTransactionsCsvStreamsJoinedRows() throws Exception {
+        TransactionExportRepository repository = mock(TransactionExportRepository.class);
+        when(repository.streamTransactions(eq(1L), eq(2L), any())).thenAnswer(inv -> {
+            ExportRowHandler handler = inv.getArgument(2);
+            handler.accept(new ExportRow(10L, LocalDate.of(2025, 3, 5), "Deposit, cash", BigDecimal.ZERO,
+                new BigDecimal("200"), new BigDecimal("1200"), null, LocalDateTime.of(2025, 3, 6, 9, 30),
+                "4000", "Sales"));
+            handler.accept(new ExportRow(11L, LocalDate.of(2025, 3, 9), "Rent", new BigDecimal("300"),
+                BigDecimal.ZERO, new BigDecimal("900"), null, null, null, null));
+            return 2;
+        });
+
+        CsvExportService service = new CsvExportService(repository, mock(PlatformTransactionManager.class), mock(Debugger.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int rows = service.writeTransactionsCsv(1L, 2L, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals("ID,Date,Details,Debit,Credit,Balance,Classification,Created At", lines[0]);
+        assertEquals("10,05/03,\"Deposit, cash\",0.00,200.00,1200.00,[4000] Sales,2025-03-06 09:30:00", lines[1]);
+        assertEquals("11,09/03,Rent,300.00,0.00,900.00,Not classified,", lines[2]);
+    }
+
+    @Test
+    public void exportTransactionsToCsvBytesRejectsEmptyPeriod() {
+        TransactionExportRepository repository = mock(TransactionExportRepository.class);
+        when(repository.streamTransactions(any(), any(), any())).thenReturn(0);
+
+        CsvExportService service = new CsvExportService(repository, mock(PlatformTransactionManager.class), mock(Debugger.class));
+
+        assertThrows(IllegalArgumentException.class, () -> service.exportTransactionsToCsvBytes(1L, 2L));
+    }
+}
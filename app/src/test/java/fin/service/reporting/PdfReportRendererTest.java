@@ -4,6 +4,7 @@ import fin.dto.AuditTrailDTO;
 import fin.dto.AuditTrailLineDTO;
 import fin.entity.Company;
 import fin.entity.FiscalPeriod;
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,4 +46,35 @@ public class PdfReportRendererTest {
         assertTrue(raw.contains("/Subject (Audit Trail for FY2025-2026)") || raw.contains("Audit Trail for FY2025-2026"), "PDF should include subject metadata");
         assertTrue(raw.contains("/Author (FIN Financial Management System)") || raw.contains("FIN Financial Management System"), "PDF should include author metadata");
     }
+
+    @Test
+    public void writeAuditTrailStampsFooterOnEveryPage() throws Exception {
+        Company c = new Company("Test Company");
+        FiscalPeriod p = new FiscalPeriod(1L, "FY2025-2026", LocalDate.of(2025,3,1), LocalDate.of(2026,2,28));
+
+        List<AuditTrailDTO> entries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            AuditTrailLineDTO debit = new AuditTrailLineDTO("1000","Cash","Receipt " + i, new BigDecimal("10.00"), null);
+            AuditTrailLineDTO credit = new AuditTrailLineDTO("4000","Sales","Receipt " + i, null, new BigDecimal("10.00"));
+            entries.add(new AuditTrailDTO("JE-" + i, LocalDateTime.of(2025,4,1,0,0), "Receipt " + i, "FIN", LocalDateTime.of(2025,4,1,0,0), List.of(debit, credit)));
+        }
+
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        PdfReportRenderer.writeAuditTrail(entries.iterator(), c, p, out);
+
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            int pages = document.getNumberOfPages();
+            assertTrue(pages > 10, "300 entries should span many pages");
+
+            PDFTextStripper stripper = new PDFTextStripper();
+            for (int page : new int[] {1, 2, pages}) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                assertTrue(stripper.getText(document).contains("Page " + page + " |"), "Footer missing on page " + page);
+            }
+            stripper.setStartPage(pages);
+            stripper.setEndPage(pages);
+            assertTrue(stripper.getText(document).contains("JE-299"), "Last entry should be on the last page");
+        }
+    }
 }
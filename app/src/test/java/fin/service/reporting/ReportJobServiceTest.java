@@ -0,0 +1,184 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.reporting;
+
+import fin.service.reporting.ReportJobService.ReportFormat;
+import fin.service.reporting.ReportJobService.ReportJob;
+import fin.service.reporting.ReportJobService.ReportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for background report jobs: storage, coalescing and per-company fairness.
+ */
+class ReportJobServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private final FinancialReportingService reportingService = mock(FinancialReportingService.class);
+    private ReportJobService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void completedJobStoresReportOnDisk() throws Exception {
+        service = new ReportJobService(reportingService, 1, 10, 60, storageDir.toString());
+        when(reportingService.exportTrialBalanceToCSV(1L, 2L)).thenReturn("code,name\n1000,Cash");
+
+        ReportJob job = service.submit(1L, 2L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        awaitFinished(job);
+
+        assertEquals(ReportJob.Status.COMPLETED, job.getStatus());
+        assertEquals("TrialBalance_Company1_Period2.csv", job.getFileName());
+        Path file = service.getResultFile(job);
+        assertEquals("code,name\n1000,Cash", Files.readString(file));
+        assertEquals(Files.size(file), job.getSizeBytes());
+
+        assertTrue(service.getJob(1L, job.getJobId()).isPresent());
+        assertTrue(service.getJob(99L, job.getJobId()).isEmpty(), "Jobs are scoped to their company");
+    }
+
+    @Test
+    void identicalRequestsShareOneJob() throws Exception {
+        service = new ReportJobService(reportingService, 1, 10, 60, storageDir.toString());
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportingService.exportBalanceSheetToCSV(1L, 2L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "balance sheet";
+        });
+        when(reportingService.exportBalanceSheetToPDF(1L, 2L)).thenReturn(new byte[] {1, 2, 3});
+
+        ReportJob first = service.submit(1L, 2L, ReportType.BALANCE_SHEET, ReportFormat.CSV);
+        ReportJob second = service.submit(1L, 2L, ReportType.BALANCE_SHEET, ReportFormat.CSV);
+        ReportJob otherFormat = service.submit(1L, 2L, ReportType.BALANCE_SHEET, ReportFormat.PDF);
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(otherFormat);
+
+        assertSame(first, second);
+        assertNotSame(first, otherFormat);
+        verify(reportingService, times(1)).exportBalanceSheetToCSV(1L, 2L);
+    }
+
+    @Test
+    void workersAlternateBetweenCompanies() throws Exception {
+        service = new ReportJobService(reportingService, 1, 10, 60, storageDir.toString());
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportingService.exportTrialBalanceToCSV(anyLong(), anyLong())).thenAnswer(inv -> {
+            order.add(inv.getArgument(0) + "/" + inv.getArgument(1));
+            if (order.size() == 1) {
+                firstStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return "tb";
+        });
+
+        // Company 1 occupies the only worker, then queues two more; company 2 queues one
+        ReportJob a1 = service.submit(1L, 1L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        ReportJob a2 = service.submit(1L, 2L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        ReportJob a3 = service.submit(1L, 3L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        ReportJob b1 = service.submit(2L, 1L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        release.countDown();
+        for (ReportJob job : List.of(a1, a2, a3, b1)) {
+            awaitFinished(job);
+        }
+
+        assertEquals(List.of("1/1", "1/2", "2/1", "1/3"), order);
+    }
+
+    @Test
+    void rejectsSubmissionsBeyondTheCompanyQueueLimit() throws Exception {
+        service = new ReportJobService(reportingService, 1, 1, 60, storageDir.toString());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportingService.exportTrialBalanceToCSV(anyLong(), anyLong())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "tb";
+        });
+
+        ReportJob running = service.submit(1L, 1L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ReportJob queued = service.submit(1L, 2L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        assertThrows(IllegalStateException.class,
+            () -> service.submit(1L, 3L, ReportType.TRIAL_BALANCE, ReportFormat.CSV));
+        // Other companies are not affected
+        ReportJob otherCompany = service.submit(2L, 1L, ReportType.TRIAL_BALANCE, ReportFormat.CSV);
+        release.countDown();
+
+        for (ReportJob job : List.of(running, queued, otherCompany)) {
+            awaitFinished(job);
+            assertEquals(ReportJob.Status.COMPLETED, job.getStatus());
+        }
+    }
+
+    @Test
+    void failedJobReportsErrorAndLeavesNoFile() throws Exception {
+        service = new ReportJobService(reportingService, 1, 10, 60, storageDir.toString());
+        when(reportingService.exportCashbookToCSV(1L, 2L)).thenThrow(new java.sql.SQLException("boom"));
+
+        ReportJob job = service.submit(1L, 2L, ReportType.CASHBOOK, ReportFormat.CSV);
+        awaitFinished(job);
+
+        assertEquals(ReportJob.Status.FAILED, job.getStatus());
+        assertEquals("boom", job.getError());
+        assertThrows(IllegalStateException.class, () -> service.getResultFile(job));
+        try (var files = Files.list(storageDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static void awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(job.getFinishedAt(), "Job " + job.getJobId() + " did not finish");
+    }
+}
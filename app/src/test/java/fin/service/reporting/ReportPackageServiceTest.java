@@ -0,0 +1,101 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.reporting;
+
+import fin.entity.Company;
+import fin.entity.FiscalPeriod;
+import fin.service.reporting.ReportPackageService.ReportPackage;
+import fin.service.reporting.ReportPackageService.SectionTiming;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for concurrent report package assembly.
+ */
+class ReportPackageServiceTest {
+
+    private final FinancialReportingService reportingService = mock(FinancialReportingService.class);
+    private final ReportPackageService service = new ReportPackageService(reportingService, 5);
+
+    private final ReportContext context = new ReportContext(1L, 2L, new Company("TestCo"),
+        new FiscalPeriod(2L, "FY2025", LocalDate.of(2025, 3, 1), LocalDate.of(2026, 2, 28)), List.of(), Map.of(), Map.of());
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void assemblesSectionsInFixedOrderFromOneSharedRead() throws Exception {
+        when(reportingService.loadReportContext(1L, 2L)).thenReturn(context);
+        when(reportingService.exportTrialBalanceToCSV(1L, 2L)).thenAnswer(inv -> {
+            Thread.sleep(200); // slowest section finishes last but is still assembled first
+            return "TB";
+        });
+        when(reportingService.generateIncomeStatement(context)).thenReturn("IS");
+        when(reportingService.generateBalanceSheet(context)).thenReturn("BS");
+        when(reportingService.generateCashbook(context)).thenReturn("CB");
+        when(reportingService.generateAuditTrail(context)).thenReturn("AT");
+
+        ReportPackage reportPackage = service.build(1L, 2L);
+
+        assertEquals("FINANCIAL REPORT PACKAGE\n========================\n\nTB\n\nIS\n\nBS\n\nCB\n\nAT",
+            reportPackage.getContent());
+        assertEquals(List.of("shared-reads", "trial-balance", "income-statement", "balance-sheet", "cashbook", "audit-trail"),
+            reportPackage.getTimings().stream().map(SectionTiming::getName).collect(Collectors.toList()));
+        assertTrue(reportPackage.getTimings().get(1).getMillis() >= 200);
+        assertTrue(reportPackage.getTotalMillis() >= 200);
+        verify(reportingService, times(1)).loadReportContext(1L, 2L);
+    }
+
+    @Test
+    void sectionFailureFailsThePackage() throws Exception {
+        when(reportingService.loadReportContext(1L, 2L)).thenReturn(context);
+        when(reportingService.exportTrialBalanceToCSV(1L, 2L)).thenThrow(new SQLException("trial balance failed"));
+        when(reportingService.generateIncomeStatement(context)).thenReturn("IS");
+
+        SQLException e = assertThrows(SQLException.class, () -> service.build(1L, 2L));
+        assertEquals("trial balance failed", e.getMessage());
+    }
+
+    @Test
+    void missingFiscalPeriodIsReportedBeforeAnySectionRuns() throws Exception {
+        when(reportingService.loadReportContext(1L, 99L)).thenThrow(new IllegalArgumentException("Fiscal period not found"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.build(1L, 99L));
+        verify(reportingService, never()).exportTrialBalanceToCSV(anyLong(), anyLong());
+    }
+}
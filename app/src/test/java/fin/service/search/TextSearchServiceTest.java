@@ -0,0 +1,91 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.search;
+
+import fin.dto.SearchHit;
+import fin.repository.TextSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for merging and validating company text searches.
+ */
+class TextSearchServiceTest {
+
+    private TextSearchRepository repository;
+    private TextSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TextSearchRepository.class);
+        service = new TextSearchService(repository);
+    }
+
+    @Test
+    void search_mergesSourcesByScoreThenDate() {
+        when(repository.searchBankTransactions(1L, null, "wool", 2)).thenReturn(List.of(
+            hit(SearchHit.Type.BANK_TRANSACTION, 1L, LocalDate.of(2024, 5, 1), 0.9),
+            hit(SearchHit.Type.BANK_TRANSACTION, 2L, LocalDate.of(2024, 5, 3), 0.4)));
+        when(repository.searchJournalEntries(1L, null, "wool", 2)).thenReturn(List.of(
+            hit(SearchHit.Type.JOURNAL_ENTRY, 10L, LocalDate.of(2024, 6, 1), 0.9)));
+
+        List<SearchHit> hits = service.search(1L, null, "  wool ", null, 2);
+
+        assertEquals(2, hits.size());
+        assertEquals(10L, hits.get(0).getId(), "Equal scores: newest first");
+        assertEquals(1L, hits.get(1).getId());
+    }
+
+    @Test
+    void search_onlyQueriesRequestedSourcesAndCapsLimit() {
+        service.search(1L, 7L, "wool", EnumSet.of(SearchHit.Type.JOURNAL_ENTRY), 10_000);
+
+        verify(repository).searchJournalEntries(1L, 7L, "wool", TextSearchService.MAX_LIMIT);
+        verify(repository, never()).searchBankTransactions(anyLong(), any(), anyString(), anyInt());
+    }
+
+    @Test
+    void search_rejectsTermsWithoutEnoughText() {
+        assertThrows(IllegalArgumentException.class, () -> service.search(1L, null, "w", Set.of(), 10));
+        assertThrows(IllegalArgumentException.class, () -> service.search(1L, null, "%%", Set.of(), 10));
+        assertThrows(IllegalArgumentException.class, () -> service.search(1L, null, null, Set.of(), 10));
+        verifyNoInteractions(repository);
+    }
+
+    private static SearchHit hit(SearchHit.Type type, Long id, LocalDate date, double score) {
+        return new SearchHit(type, id, 7L, date, "desc", null, null, score);
+    }
+}
@@ -343,6 +343,23 @@ public class AuditTrailServiceTest {
         assertEquals(0, response.getPagination().getTotalPages());
     }
 
+    @Test
+    @DisplayName("Should cap the offset page size")
+    public void testGetAuditTrail_capsPageSize() throws SQLException {
+        when(companyService.getCompanyById(testCompany.getId())).thenReturn(testCompany);
+        when(fiscalPeriodRepository.findById(testFiscalPeriod.getId())).thenReturn(Optional.of(testFiscalPeriod));
+        when(journalEntryRepository.findByCompanyIdAndFiscalPeriodIdPaginated(
+                anyLong(), anyLong(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        AuditTrailResponse response = auditTrailService.getAuditTrail(
+                testCompany.getId(), testFiscalPeriod.getId(), 0, 1_000_000, null, null, null);
+
+        assertEquals(AuditTrailService.MAX_PAGE_SIZE, response.getPagination().getPageSize());
+        verify(journalEntryRepository).findByCompanyIdAndFiscalPeriodIdPaginated(
+                eq(1L), eq(1L), eq(PageRequest.of(0, AuditTrailService.MAX_PAGE_SIZE)));
+    }
+
     @Test
     @DisplayName("Should throw SQLException when company not found")
     public void testGetAuditTrail_companyNotFound() {
@@ -369,4 +386,87 @@ public class AuditTrailServiceTest {
                 () -> auditTrailService.getAuditTrail(1L, 999L, 0, 20, null, null, null)
         );
     }
+
+    @Test
+    @DisplayName("Should return a cursor page with the cursor of the next page")
+    public void testGetAuditTrailPage_firstPageReturnsNextCursor() throws SQLException {
+        when(companyService.getCompanyById(testCompany.getId())).thenReturn(testCompany);
+        when(fiscalPeriodRepository.findById(testFiscalPeriod.getId())).thenReturn(Optional.of(testFiscalPeriod));
+        // Newest first; three rows returned for a page size of 2 means another page follows
+        List<JournalEntry> newestFirst = List.of(testJournalEntries.get(2), testJournalEntries.get(1), testJournalEntries.get(0));
+        when(journalEntryRepository.findKeysetPage(anyLong(), anyLong(), any(), any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(newestFirst);
+        when(journalEntryLineRepository.findByJournalEntryIdInOrderByJournalEntryIdAscLineNumberAscIdAsc(anyCollection()))
+                .thenReturn(List.of());
+
+        AuditTrailResponse response = auditTrailService.getAuditTrailPage(
+                testCompany.getId(), testFiscalPeriod.getId(), null, 2, null, null, null);
+
+        assertEquals(2, response.getEntries().size());
+        assertEquals(3L, response.getEntries().get(0).getId());
+        assertEquals(2L, response.getEntries().get(1).getId());
+        assertNotNull(response.getPagination().getNextCursor());
+        assertTrue(response.getPagination().hasNext());
+
+        verify(journalEntryRepository).findKeysetPage(eq(1L), eq(1L), any(), any(), any(), eq(Long.MAX_VALUE),
+                eq(PageRequest.of(0, 3)));
+        verify(journalEntryLineRepository, times(1))
+                .findByJournalEntryIdInOrderByJournalEntryIdAscLineNumberAscIdAsc(eq(List.of(3L, 2L)));
+        verify(journalEntryLineRepository, never()).findByJournalEntryId(anyLong());
+        verify(journalEntryRepository, never()).findByCompanyIdAndFiscalPeriodIdPaginated(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should seek past the cursor entry and end on the last page")
+    public void testGetAuditTrailPage_followsCursor() throws SQLException {
+        when(companyService.getCompanyById(testCompany.getId())).thenReturn(testCompany);
+        when(fiscalPeriodRepository.findById(testFiscalPeriod.getId())).thenReturn(Optional.of(testFiscalPeriod));
+        when(journalEntryRepository.findKeysetPage(anyLong(), anyLong(), any(), any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(testJournalEntries.get(2), testJournalEntries.get(1), testJournalEntries.get(0)))
+                .thenReturn(List.of(testJournalEntries.get(0)));
+
+        String cursor = auditTrailService.getAuditTrailPage(
+                testCompany.getId(), testFiscalPeriod.getId(), null, 2, null, null, null)
+                .getPagination().getNextCursor();
+        AuditTrailResponse lastPage = auditTrailService.getAuditTrailPage(
+                testCompany.getId(), testFiscalPeriod.getId(), cursor, 2, null, null, null);
+
+        assertEquals(1, lastPage.getEntries().size());
+        assertEquals(1L, lastPage.getEntries().get(0).getId());
+        assertNull(lastPage.getPagination().getNextCursor());
+        assertFalse(lastPage.getPagination().hasNext());
+
+        // The second query resumes after entry 2 (2024-04-02)
+        verify(journalEntryRepository).findKeysetPage(eq(1L), eq(1L), any(), any(),
+                eq(LocalDate.of(2024, 4, 2)), eq(2L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should cap the cursor page size")
+    public void testGetAuditTrailPage_capsPageSize() throws SQLException {
+        when(companyService.getCompanyById(testCompany.getId())).thenReturn(testCompany);
+        when(fiscalPeriodRepository.findById(testFiscalPeriod.getId())).thenReturn(Optional.of(testFiscalPeriod));
+        when(journalEntryRepository.findKeysetPage(anyLong(), anyLong(), any(), any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        AuditTrailResponse response = auditTrailService.getAuditTrailPage(
+                testCompany.getId(), testFiscalPeriod.getId(), null, 1_000_000, null, null, null);
+
+        assertEquals(AuditTrailService.MAX_PAGE_SIZE, response.getPagination().getPageSize());
+        verify(journalEntryRepository).findKeysetPage(eq(1L), eq(1L), any(), any(), any(), eq(Long.MAX_VALUE),
+                eq(PageRequest.of(0, AuditTrailService.MAX_PAGE_SIZE + 1)));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    public void testGetAuditTrailPage_invalidCursor() {
+        when(companyService.getCompanyById(testCompany.getId())).thenReturn(testCompany);
+        when(fiscalPeriodRepository.findById(testFiscalPeriod.getId())).thenReturn(Optional.of(testFiscalPeriod));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> auditTrailService.getAuditTrailPage(1L, 1L, "not-a-cursor", 20, null, null, null)
+        );
+        verifyNoInteractions(journalEntryRepository);
+    }
 }
@@ -42,6 +42,8 @@ public class FinancialReportingServiceTest {
     private ReportExportService reportExportService;
     @Mock
     private FinancialDataRepository financialDataRepository;
+    @Mock
+    private AccountPeriodBalanceRepository accountPeriodBalanceRepository;
 
     private FinancialReportingService reportingService;
 
@@ -55,7 +57,8 @@ public class FinancialReportingServiceTest {
             journalEntryRepository,
             journalEntryLineRepository,
             reportExportService,
-            financialDataRepository
+            financialDataRepository,
+            accountPeriodBalanceRepository
         );
     }
 
@@ -30,6 +30,8 @@ import fin.entity.BankTransaction;
 import fin.entity.FiscalPeriod;
 import fin.repository.FiscalPeriodRepository;
 import fin.service.FiscalPeriodBoundaryValidator;
+import fin.service.FiscalPeriodIndex;
+import fin.service.FiscalPeriodIndexService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -37,9 +39,11 @@ import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -64,7 +68,8 @@ class FiscalPeriodBoundaryValidatorTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        validator = new FiscalPeriodBoundaryValidator(fiscalPeriodRepository);
+        validator = new FiscalPeriodBoundaryValidator(fiscalPeriodRepository,
+            new FiscalPeriodIndexService(fiscalPeriodRepository));
         
         // Create test fiscal period: Jan 1 to Jan 31, 2025
         testFiscalPeriod = new FiscalPeriod();
@@ -305,6 +310,61 @@ class FiscalPeriodBoundaryValidatorTest {
             "Error message should explain the validation failure");
     }
 
+    @Test
+    void isWithinFiscalPeriod_withIndexedPeriod_shouldNotQueryPerTransaction() {
+        // Arrange
+        testFiscalPeriod.setCompanyId(1L);
+        when(fiscalPeriodRepository.findByCompanyIdOrderByStartDateDesc(eq(1L)))
+            .thenReturn(List.of(testFiscalPeriod));
+
+        // Act
+        boolean first = validator.isWithinFiscalPeriod(createTransaction(LocalDate.of(2025, 1, 10)));
+        boolean second = validator.isWithinFiscalPeriod(createTransaction(LocalDate.of(2025, 2, 1)));
+
+        // Assert
+        assertTrue(first, "Transaction inside indexed period should be valid");
+        assertFalse(second, "Transaction after indexed period should be invalid");
+        verify(fiscalPeriodRepository, times(1)).findByCompanyIdOrderByStartDateDesc(eq(1L));
+        verify(fiscalPeriodRepository, never()).findById(any());
+    }
+
+    @Test
+    void fiscalPeriodIndex_findContaining_shouldResolveByDate() {
+        // Arrange
+        FiscalPeriod february = new FiscalPeriod(1L, "February 2025", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+        february.setId(2L);
+        FiscalPeriod april = new FiscalPeriod(1L, "April 2025", LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30));
+        april.setId(4L);
+        FiscalPeriodIndex index = FiscalPeriodIndex.of(List.of(april, testFiscalPeriod, february));
+
+        // Act & Assert
+        assertEquals(1L, index.findContaining(LocalDate.of(2025, 1, 1)).getId());
+        assertEquals(2L, index.findContaining(LocalDate.of(2025, 2, 28)).getId());
+        assertEquals(4L, index.findContaining(LocalDate.of(2025, 4, 15)).getId());
+        assertNull(index.findContaining(LocalDate.of(2025, 3, 15)), "Gap between periods has no period");
+        assertNull(index.findContaining(LocalDate.of(2024, 12, 31)), "Date before first period has no period");
+        assertNull(index.findContaining(LocalDate.of(2025, 5, 1)), "Date after last period has no period");
+    }
+
+    @Test
+    void fiscalPeriodIndexService_invalidate_shouldReloadPeriods() {
+        // Arrange
+        FiscalPeriodIndexService indexService = new FiscalPeriodIndexService(fiscalPeriodRepository);
+        when(fiscalPeriodRepository.findByCompanyIdOrderByStartDateDesc(eq(1L)))
+            .thenReturn(List.of())
+            .thenReturn(List.of(testFiscalPeriod));
+
+        // Act
+        FiscalPeriod beforeCreate = indexService.getIndex(1L).findContaining(LocalDate.of(2025, 1, 15));
+        indexService.invalidate(1L);
+        FiscalPeriod afterCreate = indexService.getIndex(1L).findContaining(LocalDate.of(2025, 1, 15));
+
+        // Assert
+        assertNull(beforeCreate, "No period before it is created");
+        assertNotNull(afterCreate, "Period visible after invalidation");
+        assertEquals(1L, afterCreate.getId());
+    }
+
     // Helper methods
 
     private BankTransaction createTransaction(LocalDate transactionDate) {
@@ -0,0 +1,153 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.spring;
+
+import fin.service.PayeTable;
+import fin.service.SARSTaxCalculator;
+import fin.service.SARSTaxCalculator.TaxBracket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the indexed PAYE table and its per-tax-year cache in SARSTaxCalculator.
+ */
+public class PayeTableTest {
+
+    private static final double TAX_FREE_THRESHOLD = 5586.0;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesLinearScanForWholeRandSalaries() {
+        List<TaxBracket> brackets = sarsLikeBrackets(400);
+        PayeTable table = PayeTable.of(2026, TAX_FREE_THRESHOLD, brackets);
+        double top = brackets.get(brackets.size() - 1).getUpper();
+
+        for (double gross = 0; gross <= top + 1000; gross += 7) {
+            long expected = Math.round(linearScan(brackets, gross) * 100);
+            assertEquals(expected, table.findPayeCents(Math.round(gross * 100)), "gross R" + gross);
+        }
+    }
+
+    @Test
+    void resolvesBoundariesGapsAndTop() {
+        PayeTable table = PayeTable.of(2026, TAX_FREE_THRESHOLD, sarsLikeBrackets(3));
+
+        assertEquals(0L, table.findPayeCents(558599));            // R5,585.99: below threshold
+        assertEquals(100L, table.findPayeCents(558600));          // R5,586.00: first bracket
+        assertEquals(100L, table.findPayeCents(563600));          // R5,636.00: first bracket upper bound
+        assertEquals(100L, table.findPayeCents(563650));          // R5,636.50: between bands, band below
+        assertEquals(200L, table.findPayeCents(563700));          // R5,637.00: second bracket
+        assertEquals(300L, table.findPayeCents(99_999_999L));     // above the top: highest bracket
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void findPayeUsesExactCents() {
+        PayeTable table = PayeTable.of(2026, TAX_FREE_THRESHOLD, sarsLikeBrackets(3));
+
+        assertEquals(new BigDecimal("2.00"), table.findPaye(new BigDecimal("5637.004")));
+        assertEquals(new BigDecimal("0.00"), table.findPaye(new BigDecimal("100")));
+    }
+
+    @Test
+    void emptyTableOnlyResolvesBelowThreshold() {
+        PayeTable table = PayeTable.of(2026, TAX_FREE_THRESHOLD, Collections.emptyList());
+
+        assertEquals(0L, table.findPayeCents(100000));
+        assertThrows(IllegalArgumentException.class, () -> table.findPayeCents(1_000_000));
+    }
+
+    @Test
+    void taxYearRunsMarchToFebruary() {
+        assertEquals(2026, SARSTaxCalculator.taxYearOf(LocalDate.of(2025, 3, 1)));
+        assertEquals(2026, SARSTaxCalculator.taxYearOf(LocalDate.of(2026, 2, 28)));
+        assertEquals(2027, SARSTaxCalculator.taxYearOf(LocalDate.of(2026, 3, 25)));
+    }
+
+    @Test
+    void calculatorCachesTablePerTaxYear() throws Exception {
+        Path tables = tempDir.resolve("tables.txt");
+        Files.write(tables, List.of(
+            "R 5,586 - R 5,636 R 5,611 R 1 R 0 R 0 R 5,637 - R 5,687 R 5,662 R 9",
+            "R 5,688 - R 5,738 R 5,713 R 17 R 0 R 0 R 5,739 - R 5,789 R 5,764 R 26"), StandardCharsets.UTF_8);
+        SARSTaxCalculator calculator = new SARSTaxCalculator();
+        calculator.loadTaxTablesFromPDFText(tables.toString());
+
+        // No tables on disk for 2031: the default year's table is used and cached for it
+        PayeTable table2031 = calculator.getPayeTable(2031);
+        assertSame(table2031, calculator.getPayeTable(2031));
+        assertEquals(4, table2031.size());
+
+        assertEquals(new BigDecimal("9.00"), calculator.findPAYE(new BigDecimal("5650.00"), LocalDate.of(2025, 6, 25)));
+        assertEquals(9.0, calculator.findPAYE(5650.0));
+        assertEquals(26.0, calculator.findPAYE(250000.0));
+    }
+
+    /**
+     * Consecutive R51 bands from the tax-free threshold, tax rising by R1 per band.
+     */
+    private static List<TaxBracket> sarsLikeBrackets(int count) {
+        List<TaxBracket> brackets = new ArrayList<>();
+        double lower = TAX_FREE_THRESHOLD;
+        for (int i = 1; i <= count; i++) {
+            brackets.add(new TaxBracket(lower, lower + 50, i));
+            lower += 51;
+        }
+        return brackets;
+    }
+
+    /**
+     * The scan findPAYE used before the index, for whole-rand salaries.
+     */
+    private static double linearScan(List<TaxBracket> brackets, double grossSalary) {
+        if (grossSalary < TAX_FREE_THRESHOLD) {
+            return 0.0;
+        }
+        for (TaxBracket bracket : brackets) {
+            if (grossSalary >= bracket.getLower() && grossSalary <= bracket.getUpper()) {
+                return bracket.getTax();
+            }
+        }
+        if (grossSalary > brackets.get(brackets.size() - 1).getUpper()) {
+            return brackets.get(brackets.size() - 1).getTax();
+        }
+        return 0.0;
+    }
+}
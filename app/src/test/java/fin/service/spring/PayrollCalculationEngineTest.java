@@ -0,0 +1,148 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.spring;
+
+import fin.entity.Employee;
+import fin.entity.FiscalPeriod;
+import fin.entity.Payslip;
+import fin.service.PayrollCalculationEngine;
+import fin.service.PayrollCalculationEngine.PayrollRun;
+import fin.service.SARSTaxCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for parallel payroll calculation: ordering, totals and failure handling across chunks.
+ */
+public class PayrollCalculationEngineTest {
+
+    private SARSTaxCalculator taxCalculator;
+    private PayrollCalculationEngine engine;
+    private FiscalPeriod period;
+
+    @BeforeEach
+    void setUp() {
+        taxCalculator = mock(SARSTaxCalculator.class);
+        // PAYE 10%, UIF 1%, SDL 1% of gross
+        when(taxCalculator.findPAYE(any(BigDecimal.class), any())).thenAnswer(invocation ->
+            invocation.<BigDecimal>getArgument(0).multiply(new BigDecimal("0.10")).setScale(2, RoundingMode.HALF_UP));
+        when(taxCalculator.calculateUIF(anyDouble())).thenAnswer(invocation -> invocation.<Double>getArgument(0) * 0.01);
+        when(taxCalculator.calculateSDL(anyDouble(), anyDouble()))
+            .thenAnswer(invocation -> invocation.<Double>getArgument(0) * 0.01);
+        engine = new PayrollCalculationEngine(taxCalculator, 4);
+
+        period = new FiscalPeriod();
+        period.setId(7L);
+        period.setCompanyId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void calculatesEveryEmployeeInOrderAcrossChunks() {
+        List<Employee> employees = employees(1234);
+
+        PayrollRun run = engine.calculate(employees, period);
+
+        assertEquals(1234, run.getEmployeeCount());
+        List<Payslip> payslips = run.getPayslips();
+        for (int i = 0; i < employees.size(); i++) {
+            assertEquals(employees.get(i).getId(), payslips.get(i).getEmployeeId());
+            assertEquals(7L, payslips.get(i).getFiscalPeriodId());
+        }
+    }
+
+    @Test
+    void totalsMatchSumOfPayslips() {
+        PayrollRun run = engine.calculate(employees(1100), period);
+
+        BigDecimal gross = BigDecimal.ZERO;
+        BigDecimal deductions = BigDecimal.ZERO;
+        BigDecimal net = BigDecimal.ZERO;
+        for (Payslip payslip : run.getPayslips()) {
+            gross = gross.add(payslip.getGrossSalary());
+            deductions = deductions.add(payslip.getTotalDeductions());
+            net = net.add(payslip.getNetSalary());
+        }
+        assertEquals(0, gross.compareTo(run.getTotalGross()));
+        assertEquals(0, deductions.compareTo(run.getTotalDeductions()));
+        assertEquals(0, net.compareTo(run.getTotalNet()));
+        assertEquals(0, run.getTotalGross().subtract(run.getTotalDeductions()).compareTo(run.getTotalNet()));
+    }
+
+    @Test
+    void sdlUsesWholeCompanyPayroll() {
+        List<Employee> employees = employees(3);
+        BigDecimal companyPayroll = employees.stream().map(Employee::getBasicSalary).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        engine.calculate(employees, period);
+
+        verify(taxCalculator, times(3)).calculateSDL(anyDouble(), eq(companyPayroll.doubleValue()));
+    }
+
+    @Test
+    void failedPayslipFailsTheRun() {
+        when(taxCalculator.findPAYE(any(BigDecimal.class), any())).thenThrow(new IllegalArgumentException("No tax bracket"));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> engine.calculate(employees(10), period));
+        assertTrue(error.getMessage().contains("No tax bracket"));
+    }
+
+    @Test
+    void noEmployeesGivesEmptyRun() {
+        PayrollRun run = engine.calculate(new ArrayList<>(), period);
+
+        assertEquals(0, run.getEmployeeCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(run.getTotalGross()));
+    }
+
+    private static List<Employee> employees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Employee employee = new Employee();
+            employee.setId((long) i);
+            employee.setCompanyId(1L);
+            employee.setBasicSalary(BigDecimal.valueOf(10000 + i * 10L));
+            employees.add(employee);
+        }
+        return employees;
+    }
+}
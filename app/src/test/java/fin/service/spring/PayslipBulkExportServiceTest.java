@@ -0,0 +1,214 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.spring;
+
+import fin.entity.Company;
+import fin.entity.Employee;
+import fin.entity.FiscalPeriod;
+import fin.entity.Payslip;
+import fin.repository.CompanyRepository;
+import fin.repository.EmployeeRepository;
+import fin.repository.FiscalPeriodRepository;
+import fin.repository.PayslipRepository;
+import fin.service.PayslipBulkExportService;
+import fin.service.PayslipBulkExportService.BulkExportResult;
+import fin.service.PayslipBulkExportService.PayslipBatch;
+import fin.service.PayslipPdfService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for bulk payslip export: prefetching, ordered parallel ZIP output and failure reporting.
+ */
+public class PayslipBulkExportServiceTest {
+
+    private PayslipRepository payslipRepository;
+    private EmployeeRepository employeeRepository;
+    private CompanyRepository companyRepository;
+    private FiscalPeriodRepository fiscalPeriodRepository;
+    private PayslipPdfService payslipPdfService;
+    private PayslipBulkExportService service;
+
+    @BeforeEach
+    void setUp() {
+        payslipRepository = mock(PayslipRepository.class);
+        employeeRepository = mock(EmployeeRepository.class);
+        companyRepository = mock(CompanyRepository.class);
+        fiscalPeriodRepository = mock(FiscalPeriodRepository.class);
+        payslipPdfService = mock(PayslipPdfService.class);
+        service = new PayslipBulkExportService(payslipRepository, employeeRepository, companyRepository,
+            fiscalPeriodRepository, payslipPdfService, 2);
+
+        FiscalPeriod period = new FiscalPeriod();
+        period.setId(7L);
+        period.setPeriodName("March/2025");
+        when(fiscalPeriodRepository.findById(7L)).thenReturn(Optional.of(period));
+
+        Company company = new Company();
+        company.setId(1L);
+        company.setName("Acme");
+        when(companyRepository.findAllById(any())).thenReturn(List.of(company));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void writeZip_rendersEveryPayslipInOrderWithPrefetchedData() throws Exception {
+        List<Payslip> payslips = new ArrayList<>();
+        List<Employee> employees = new ArrayList<>();
+        for (long i = 1; i <= 12; i++) {
+            payslips.add(payslip(i, 100 + i));
+            employees.add(employee(100 + i, "EMP-" + i));
+        }
+        when(payslipRepository.findByFiscalPeriodId(7L)).thenReturn(payslips);
+        when(employeeRepository.findAllById(any())).thenReturn(employees);
+        when(payslipPdfService.generatePayslipPdf(any(), any(), any(), any())).thenAnswer(inv ->
+            ((Payslip) inv.getArgument(0)).getPayslipNumber().getBytes(StandardCharsets.UTF_8));
+
+        PayslipBatch batch = service.prepare(7L, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BulkExportResult result = service.writeZip(batch, out);
+
+        assertEquals(12, result.getWritten());
+        assertEquals(0, result.getSkipped());
+        List<String> entries = readEntries(out.toByteArray());
+        assertEquals(12, entries.size());
+        assertEquals("First_EMP-1_EMP-1_March-2025.pdf=PSL-1", entries.get(0));
+        assertEquals("First_EMP-12_EMP-12_March-2025.pdf=PSL-12", entries.get(11));
+
+        verify(fiscalPeriodRepository, times(1)).findById(7L);
+        verify(employeeRepository, times(1)).findAllById(any());
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(companyRepository, times(1)).findAllById(any());
+        verify(companyRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void writeZip_skipsPayslipsThatFailOrLackAnEmployee() throws Exception {
+        when(payslipRepository.findByFiscalPeriodIdAndEmployeeIdIn(7L, List.of(101L, 102L, 103L)))
+            .thenReturn(List.of(payslip(1, 101), payslip(2, 102), payslip(3, 103)));
+        when(employeeRepository.findAllById(any())).thenReturn(List.of(employee(101, "A"), employee(102, "B")));
+        when(payslipPdfService.generatePayslipPdf(any(), any(), any(), any())).thenAnswer(inv -> {
+            Payslip payslip = inv.getArgument(0);
+            if (payslip.getId() == 2L) {
+                throw new RuntimeException("render failed");
+            }
+            return new byte[] {1, 2, 3};
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BulkExportResult result = service.writeZip(service.prepare(7L, List.of(101L, 102L, 103L)), out);
+
+        assertEquals(1, result.getWritten());
+        assertEquals(2, result.getSkipped());
+        List<String> entries = readEntries(out.toByteArray());
+        assertEquals(2, entries.size());
+        assertTrue(entries.get(0).startsWith("First_A_A_March-2025.pdf="));
+        assertTrue(entries.get(1).startsWith(PayslipBulkExportService.FAILURE_MANIFEST + "="));
+        assertTrue(entries.get(1).contains("Payslip 2 (PSL-2): java.lang.RuntimeException: render failed"));
+        assertTrue(entries.get(1).contains("Payslip 3 (PSL-3): employee 103 not found"));
+    }
+
+    @Test
+    void prepareZip_failsBeforeWritingWhenNoPayslipRenders() throws Exception {
+        when(payslipRepository.findByFiscalPeriodId(7L)).thenReturn(List.of(payslip(1, 101), payslip(2, 102)));
+        when(employeeRepository.findAllById(any())).thenReturn(List.of(employee(101, "A"), employee(102, "B")));
+        when(payslipPdfService.generatePayslipPdf(any(), any(), any(), any()))
+            .thenThrow(new RuntimeException("font missing"));
+        PayslipBatch batch = service.prepare(7L, null);
+
+        IOException error = assertThrows(IOException.class, () -> service.prepareZip(batch));
+        assertTrue(error.getMessage().contains("None of the 2 payslips"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IOException.class, () -> service.writeZip(batch, out));
+        assertEquals(0, out.size(), "No empty archive is written");
+    }
+
+    @Test
+    void prepareZip_omitsManifestWhenEveryPayslipRenders() throws Exception {
+        when(payslipRepository.findByFiscalPeriodId(7L)).thenReturn(List.of(payslip(1, 101)));
+        when(employeeRepository.findAllById(any())).thenReturn(List.of(employee(101, "A")));
+        when(payslipPdfService.generatePayslipPdf(any(), any(), any(), any())).thenReturn("PDF".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PayslipBulkExportService.PreparedPayslipZip zip = service.prepareZip(service.prepare(7L, null))) {
+            zip.writeTo(out);
+            assertEquals(1, zip.getResult().getWritten());
+        }
+
+        assertEquals(List.of("First_A_A_March-2025.pdf=PDF"), readEntries(out.toByteArray()));
+    }
+
+    @Test
+    void prepare_rejectsUnknownFiscalPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> service.prepare(99L, null));
+        assertThrows(IllegalArgumentException.class, () -> service.prepare(null, null));
+    }
+
+    private static Payslip payslip(long id, long employeeId) {
+        Payslip payslip = new Payslip(1L, employeeId, 7L, "PSL-" + id, new BigDecimal("1000"));
+        payslip.setId(id);
+        return payslip;
+    }
+
+    private static Employee employee(long id, String code) {
+        Employee employee = new Employee(1L, code, "First", code, "Clerk", new BigDecimal("1000"));
+        employee.setId(id);
+        return employee;
+    }
+
+    private static List<String> readEntries(byte[] zipBytes) throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.add(entry.getName() + "=" + new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
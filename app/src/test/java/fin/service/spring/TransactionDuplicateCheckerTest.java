@@ -254,6 +254,41 @@ class TransactionDuplicateCheckerTest {
         );
     }
 
+    @Test
+    void checkDuplicates_flagsExistingAndWithinUploadRepeats() {
+        // Arrange
+        BankTransaction known = createTestTransaction();
+        BankTransaction fresh = createTestTransaction();
+        fresh.setDetails("Deposit from client");
+        fresh.setBalance(new BigDecimal("2000.00"));
+        BankTransaction repeat = createTestTransaction();
+        repeat.setDetails("DEPOSIT FROM CLIENT");
+        repeat.setBalance(new BigDecimal("2000.0"));
+
+        String knownFingerprint = fin.util.TransactionFingerprint.of(known);
+        java.util.List<Object[]> existingRows = new java.util.ArrayList<>();
+        existingRows.add(new Object[]{knownFingerprint, 100L, java.time.LocalDateTime.of(2025, 12, 2, 9, 0)});
+        when(transactionRepository.findFingerprintMatches(eq(1L), eq(LocalDate.of(2025, 12, 1)),
+            eq(LocalDate.of(2025, 12, 1)), any())).thenReturn(existingRows);
+
+        // Act
+        TransactionDuplicateChecker.BatchDuplicateResult result =
+            duplicateChecker.checkDuplicates(1L, java.util.List.of(known, fresh, repeat));
+
+        // Assert
+        assertTrue(result.isDuplicate(0));
+        assertEquals(100L, result.getMatch(0).getExistingId());
+        assertFalse(result.isDuplicate(1));
+        assertTrue(result.isDuplicate(2), "Case and scale differences should not hide a repeat");
+        assertTrue(result.getMatch(2).isWithinUpload());
+        assertEquals(1, result.getMatch(2).getFirstRowInUpload());
+        assertEquals(knownFingerprint, known.getFingerprint());
+        verify(transactionRepository, times(1)).findFingerprintMatches(any(), any(), any(), any());
+        verify(transactionRepository, never()).existsByCompanyIdAndTransactionDateAndAmountsAndDescriptionAndBalance(
+            any(), any(), any(), any(), any(), any()
+        );
+    }
+
     // Helper methods
 
     private BankTransaction createTestTransaction() {
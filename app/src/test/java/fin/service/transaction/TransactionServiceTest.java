@@ -0,0 +1,52 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.transaction;
+
+import fin.repository.BankTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionService search.
+ */
+class TransactionServiceTest {
+
+    @Test
+    void searchTransactionsByDetails_escapesLikeWildcards() {
+        BankTransactionRepository repository = mock(BankTransactionRepository.class);
+        when(repository.findByCompanyIdAndDescriptionContainingIgnoreCase(anyLong(), anyString())).thenReturn(List.of());
+        TransactionService service = new TransactionService(repository);
+
+        assertTrue(service.searchTransactionsByDetails(1L, "100%_off").isEmpty());
+
+        verify(repository).findByCompanyIdAndDescriptionContainingIgnoreCase(1L, "100\\%\\_off");
+    }
+}
@@ -20,8 +20,8 @@ public class BankStatementProcessingStatementPeriodValidationTest {
     void processStatement_shouldFailWhenStatementPeriodDoesNotOverlapFiscalPeriod() throws Exception {
         // Mock dependencies
         DocumentTextExtractor extractor = mock(DocumentTextExtractor.class);
-        when(extractor.parseDocument(any(File.class))).thenReturn(List.of("dummy"));
-        when(extractor.getStatementPeriod()).thenReturn("16 February 2020 to 18 March 2020");
+        when(extractor.extractDocument(any(File.class))).thenReturn(new DocumentTextExtractor.ExtractedDocument(
+            List.of("dummy"), null, "16 February 2020 to 18 March 2020"));
         when(extractor.parseStatementPeriod("16 February 2020 to 18 March 2020")).thenReturn(new DocumentTextExtractor.StatementPeriod(LocalDate.of(2020,2,16), LocalDate.of(2020,3,18)));
 
         var transactionRepo = mock(fin.repository.BankTransactionRepository.class);
@@ -40,6 +40,7 @@ public class BankStatementProcessingStatementPeriodValidationTest {
             companyService,
             duplicateChecker,
             fiscalValidator,
+            mock(fin.service.FiscalPeriodIndexService.class),
             mock(fin.service.parser.StandardBankTabularParser.class),
             mock(fin.service.parser.AbsaBankParser.class),
             mock(fin.service.parser.FnbBankParser.class),
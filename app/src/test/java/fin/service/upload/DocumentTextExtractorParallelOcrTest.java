@@ -0,0 +1,157 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.service.upload;
+
+import fin.config.PdfBoxConfigurator;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for parallel page OCR: results come back in page order whatever order the workers
+ * finish in, a failing page does not take others with it, and the time budget is enforced.
+ *
+ * The OCR engine is stubbed. Page N is rendered N inches wide, so the stub can tell pages apart
+ * by image width.
+ */
+public class DocumentTextExtractorParallelOcrTest {
+
+    private static final int DPI = 200;
+
+    private DocumentTextExtractor extractor;
+
+    @AfterEach
+    void tearDown() {
+        if (extractor != null) {
+            extractor.shutdown();
+        }
+    }
+
+    @Test
+    void pagesComeBackInPageOrderWhenOcrFinishesOutOfOrder() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        extractor = new DocumentTextExtractor(new PdfBoxConfigurator(), 3, image -> {
+            int page = pageOf(image);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // Earlier pages take longest, so workers finish in reverse order
+                Thread.sleep((7 - page) * 25L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return "PAGE " + page + " DATA\nPAGE " + page + " TOTAL";
+        });
+
+        List<String> lines = extract(6, 60_000);
+
+        assertEquals(12, lines.size());
+        for (int page = 1; page <= 6; page++) {
+            assertEquals("PAGE " + page + " DATA", lines.get((page - 1) * 2));
+            assertEquals("PAGE " + page + " T0TA1", lines.get((page - 1) * 2 + 1), "OCR clean-up still applied");
+        }
+        assertTrue(maxRunning.get() <= 3, "No more pages in flight than OCR workers");
+    }
+
+    @Test
+    void failedPageIsSkippedAndOtherPagesKeepTheirOrder() throws Exception {
+        extractor = new DocumentTextExtractor(new PdfBoxConfigurator(), 2, image -> {
+            int page = pageOf(image);
+            if (page == 2) {
+                throw new IOException("engine failure");
+            }
+            return "PAGE " + page + " DATA";
+        });
+
+        assertEquals(List.of("PAGE 1 DATA", "PAGE 3 DATA", "PAGE 4 DATA"), extract(4, 60_000));
+    }
+
+    @Test
+    void workerCrashOnOnePageDoesNotLoseTheOthers() throws Exception {
+        extractor = new DocumentTextExtractor(new PdfBoxConfigurator(), 2, image -> {
+            int page = pageOf(image);
+            if (page == 1) {
+                // Propagates out of the worker, so the page's Future completes exceptionally
+                throw new StackOverflowError("simulated");
+            }
+            return "PAGE " + page + " DATA";
+        });
+
+        assertEquals(List.of("PAGE 2 DATA", "PAGE 3 DATA"), extract(3, 60_000));
+    }
+
+    @Test
+    void hungPageIsCancelledWhenTheBudgetRunsOut() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        extractor = new DocumentTextExtractor(new PdfBoxConfigurator(), 2, image -> {
+            if (pageOf(image) == 1) {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "PAGE " + pageOf(image) + " DATA";
+        });
+
+        long started = System.currentTimeMillis();
+        List<String> lines = extract(2, 500);
+
+        assertTrue(System.currentTimeMillis() - started < 30_000, "Extraction gives up once the budget is spent");
+        assertTrue(lines.isEmpty(), "A timed-out document yields no partial text");
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS), "The hung worker is interrupted");
+    }
+
+    private List<String> extract(int pages, int budgetMillis) throws IOException {
+        File missing = new File(System.getProperty("java.io.tmpdir"), "parallel-ocr-test-missing.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= pages; page++) {
+                document.addPage(new PDPage(new PDRectangle(72f * page, 72f)));
+            }
+            return extractor.extractWithOCR(document, missing, System.currentTimeMillis(), budgetMillis);
+        }
+    }
+
+    private static int pageOf(BufferedImage image) {
+        return Math.round(image.getWidth() / (float) DPI);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * FIN Financial Management System
+ *
+ * Copyright (c) 2024-2025 Sthwalo Holdings (Pty) Ltd.
+ * Owner: Immaculate Nyoni
+ * Contact: sthwaloe@gmail.com | +27 61 514 6185
+ *
+ * This source code is licensed under the Apache License 2.0.
+ * Commercial use of the APPLICATION requires separate licensing.
+ *
+ * Contains proprietary algorithms and business logic.
+ * Unauthorized commercial use is strictly prohibited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fin.util;
+
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TesseractEnginePool: engines are bounded, reused and never shared by two callers at once.
+ */
+class TesseractEnginePoolTest {
+
+    private static final BufferedImage IMAGE = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+
+    @Test
+    void createsNoMoreEnginesThanTheBoundAndReusesThem() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        TesseractEnginePool pool = new TesseractEnginePool(2, () -> {
+            created.incrementAndGet();
+            return busyEngine(running, maxRunning);
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                results.add(callers.submit(() -> pool.doOCR(IMAGE)));
+            }
+            for (Future<String> result : results) {
+                assertEquals("text", result.get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue(created.get() <= 2, "At most maxEngines engines are created");
+        assertTrue(maxRunning.get() <= 2, "No more concurrent OCR calls than engines");
+        assertEquals(created.get(), pool.getIdleCount(), "Every engine is returned after use");
+    }
+
+    @Test
+    void failedOcrReturnsTheEngineAndReportsAnIOException() throws Exception {
+        Tesseract failing = mock(Tesseract.class);
+        when(failing.doOCR(any(BufferedImage.class))).thenThrow(new TesseractException("bad image"));
+        AtomicInteger created = new AtomicInteger();
+        TesseractEnginePool pool = new TesseractEnginePool(1, () -> {
+            created.incrementAndGet();
+            return failing;
+        });
+
+        IOException first = assertThrows(IOException.class, () -> pool.doOCR(IMAGE));
+        assertThrows(IOException.class, () -> pool.doOCR(IMAGE));
+
+        assertTrue(first.getMessage().contains("bad image"));
+        assertEquals(1, created.get(), "The engine is reused after a failure");
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    private static Tesseract busyEngine(AtomicInteger running, AtomicInteger maxRunning) {
+        Tesseract tesseract = mock(Tesseract.class);
+        try {
+            when(tesseract.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                    return "text";
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        } catch (TesseractException e) {
+            throw new IllegalStateException(e);
+        }
+        return tesseract;
+    }
+}